@@ -7,6 +7,16 @@ CREATE TABLE users (
     password VARCHAR(255) NOT NULL 
 );
 
+-- Create user_roles table (one row per role; indexed so role lookups avoid scanning users.roles)
+CREATE TABLE user_roles (
+    user_id INT NOT NULL,
+    role VARCHAR(50) NOT NULL,
+    role_order INT NOT NULL DEFAULT 0, -- Position in the user's role list; the first is the default role
+    PRIMARY KEY (user_id, role),
+    INDEX idx_user_roles_role (role, user_id),
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
+
 -- Create vehicles table
 CREATE TABLE vehicles (
     vin VARCHAR(20) PRIMARY KEY,
@@ -29,5 +39,12 @@ CREATE TABLE jobs (
     deadline VARCHAR(10) NOT NULL,
     status VARCHAR(20) NOT NULL,
     created_timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Paging indexes, one per sortable column of the Manage Jobs table
+    INDEX idx_jobs_created (created_timestamp, job_id),
+    INDEX idx_jobs_name (job_name, job_id, status),
+    INDEX idx_jobs_owner (job_owner_id, job_id, status),
+    INDEX idx_jobs_duration (duration, job_id, status),
+    INDEX idx_jobs_deadline (deadline, job_id, status),
+    INDEX idx_jobs_status (status, job_id),
     FOREIGN KEY (job_owner_id) REFERENCES users(user_id) ON DELETE CASCADE
 );
@@ -13,6 +13,7 @@ public class AllocationDAO {
     private static final String ALLOCATIONS_FILE = "allocations.txt";
     private static final String DELIMITER = "\\|";
     private static final String SEPARATOR = "|";
+    private static final ChangeNotifier changes = ChangeNotifier.getInstance();
 
     /**
      * Converts an Allocation object to a line of text for storage.
@@ -76,7 +77,11 @@ public class AllocationDAO {
         allocation.setAllocationId(allocationId);
 
         String allocationLine = allocationToLine(allocation);
-        return FileManager.appendLine(ALLOCATIONS_FILE, allocationLine);
+        boolean added = FileManager.appendLine(ALLOCATIONS_FILE, allocationLine);
+        if (added) {
+            changes.changed(ChangeNotifier.Topic.ALLOCATIONS);
+        }
+        return added;
     }
 
     /**
@@ -99,7 +104,11 @@ public class AllocationDAO {
             }
         }
 
-        return deleted && FileManager.writeAllLines(ALLOCATIONS_FILE, updatedLines);
+        boolean success = deleted && FileManager.writeAllLines(ALLOCATIONS_FILE, updatedLines);
+        if (success) {
+            changes.changed(ChangeNotifier.Topic.ALLOCATIONS);
+        }
+        return success;
     }
 
     /**
@@ -122,6 +131,10 @@ public class AllocationDAO {
             }
         }
 
-        return updated && FileManager.writeAllLines(ALLOCATIONS_FILE, updatedLines);
+        boolean success = updated && FileManager.writeAllLines(ALLOCATIONS_FILE, updatedLines);
+        if (success) {
+            changes.changed(ChangeNotifier.Topic.ALLOCATIONS);
+        }
+        return success;
     }
 }
@@ -0,0 +1,275 @@
+package dao;
+
+import models.Allocation;
+import models.Job;
+import models.PendingRequest;
+import models.User;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Process-wide store of the data the dashboards show, so every open view reads the same
+ * snapshot instead of querying through its own DAO instances. Opening another dashboard
+ * adds no database load; a slice is read again only when it is asked for after it changed.
+ *
+ * Each slice remembers the ChangeNotifier versions of its topics when it was loaded and is
+ * reloaded on the next request once one of them has moved. Views asking for a slice while it
+ * is being loaded wait for that load and share its result. Changes made by other processes
+ * are not seen by the notifier, so a slice is also reloaded once it is older than the
+ * system property vcrts.state.maxAgeMs (default 5000), or after invalidate.
+ *
+ * Vehicles are not held here: VehicleDAO already serves them from the process-wide
+ * VehicleCatalog, which invalidate reloads for the VEHICLES topic.
+ *
+ * Returned lists and maps are unmodifiable and shared between views; the objects in them
+ * must not be changed. Read an object through its DAO to edit it.
+ */
+public class AppStateStore {
+    private static final Logger logger = Logger.getLogger(AppStateStore.class.getName());
+    private static final long DEFAULT_MAX_AGE_MS = 5000;
+    // Per-owner job lists kept for client dashboards
+    private static final int MAX_OWNER_SLICES = 64;
+
+    private static final AppStateStore instance =
+            new AppStateStore(Long.getLong("vcrts.state.maxAgeMs", DEFAULT_MAX_AGE_MS));
+
+    /**
+     * What a slice holds, and the topic versions it was loaded at.
+     */
+    private static final class Snapshot<T> {
+        private final T value;
+        private final long[] versions;
+        private final long loadedAt;
+
+        private Snapshot(T value, long[] versions, long loadedAt) {
+            this.value = value;
+            this.versions = versions;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * One cached piece of state and how to load it.
+     */
+    private final class Slice<T> {
+        private final String name;
+        private final Supplier<T> loader;
+        private final ChangeNotifier.Topic[] topics;
+        private volatile Snapshot<T> snapshot;
+
+        private Slice(String name, Supplier<T> loader, ChangeNotifier.Topic... topics) {
+            this.name = name;
+            this.loader = loader;
+            this.topics = topics;
+        }
+
+        private T get() {
+            Snapshot<T> current = snapshot;
+            if (isFresh(current)) {
+                hits.incrementAndGet();
+                return current.value;
+            }
+            synchronized (this) {
+                current = snapshot;
+                if (isFresh(current)) {
+                    hits.incrementAndGet(); // Another view loaded it while this one waited
+                    return current.value;
+                }
+                // Versions are read before loading, so a change made during the load marks it stale again
+                long[] versions = new long[topics.length];
+                for (int i = 0; i < topics.length; i++) {
+                    versions[i] = notifier.getVersion(topics[i]);
+                }
+                long start = System.currentTimeMillis();
+                T value = loader.get();
+                long now = System.currentTimeMillis();
+                snapshot = new Snapshot<>(value, versions, now);
+                long count = loads.incrementAndGet();
+                logger.fine(() -> "Loaded " + name + " in " + (now - start) + " ms (load " + count + ", " + hits.get() + " hits)");
+                return value;
+            }
+        }
+
+        private boolean isFresh(Snapshot<T> current) {
+            if (current == null || System.currentTimeMillis() - current.loadedAt > maxAgeMillis) {
+                return false;
+            }
+            for (int i = 0; i < topics.length; i++) {
+                if (notifier.getVersion(topics[i]) != current.versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean covers(ChangeNotifier.Topic topic) {
+            for (ChangeNotifier.Topic own : topics) {
+                if (own == topic) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void invalidate() {
+            snapshot = null;
+        }
+    }
+
+    private final long maxAgeMillis;
+    private final ChangeNotifier notifier = ChangeNotifier.getInstance();
+    private final JobDAO jobDAO = new JobDAO();
+    private final UserDAO userDAO = new UserDAO();
+    private final VehicleDAO vehicleDAO = new VehicleDAO();
+    private final AllocationDAO allocationDAO = new AllocationDAO();
+    private final CloudControllerDAO cloudControllerDAO = new CloudControllerDAO();
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+
+    private final Slice<List<Job>> jobs;
+    private final Slice<List<User>> users;
+    private final Slice<List<User>> vehicleOwners;
+    private final Slice<List<Allocation>> allocations;
+    private final Slice<Map<String, String>> schedule;
+    private final Slice<Map<String, Integer>> queueSummary;
+    private final Map<Integer, Slice<List<Job>>> jobsByOwner =
+            new LinkedHashMap<Integer, Slice<List<Job>>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Slice<List<Job>>> eldest) {
+                    return size() > MAX_OWNER_SLICES;
+                }
+            };
+
+    public static AppStateStore getInstance() {
+        return instance;
+    }
+
+    private AppStateStore(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+        jobs = new Slice<>("jobs", () -> Collections.unmodifiableList(jobDAO.getAllJobs()),
+                ChangeNotifier.Topic.JOBS);
+        users = new Slice<>("users", () -> Collections.unmodifiableList(userDAO.getAllUsers()),
+                ChangeNotifier.Topic.USERS);
+        // Derived from the users slice, which already carries every user's roles
+        vehicleOwners = new Slice<>("vehicle owners", () -> getUsers().stream()
+                .filter(user -> user.hasRole("vehicle_owner"))
+                .collect(Collectors.toUnmodifiableList()),
+                ChangeNotifier.Topic.USERS);
+        allocations = new Slice<>("allocations", () -> Collections.unmodifiableList(allocationDAO.getAllAllocations()),
+                ChangeNotifier.Topic.ALLOCATIONS);
+        schedule = new Slice<>("schedule", () -> Collections.unmodifiableMap(cloudControllerDAO.loadSchedule()),
+                ChangeNotifier.Topic.SCHEDULE);
+        queueSummary = new Slice<>("queue summary", () -> Collections.unmodifiableMap(cloudControllerDAO.getJobQueueSummary()),
+                ChangeNotifier.Topic.JOBS, ChangeNotifier.Topic.PENDING_REQUESTS);
+    }
+
+    /**
+     * Returns every job, in the order JobDAO.getAllJobs returns them.
+     */
+    public List<Job> getJobs() {
+        return jobs.get();
+    }
+
+    /**
+     * Returns the jobs of one client. Served from the full job list when it is already
+     * loaded, so only client dashboards on their own read a single owner's jobs.
+     */
+    public List<Job> getJobsByOwner(int ownerId) {
+        Snapshot<List<Job>> all = jobs.snapshot;
+        if (jobs.isFresh(all)) {
+            return all.value.stream()
+                    .filter(job -> job.getJobOwnerId() == ownerId)
+                    .collect(Collectors.toUnmodifiableList());
+        }
+        Slice<List<Job>> slice;
+        synchronized (jobsByOwner) {
+            slice = jobsByOwner.computeIfAbsent(ownerId, id -> new Slice<>("jobs of owner " + id,
+                    () -> Collections.unmodifiableList(jobDAO.getJobsByClient(id, "All")),
+                    ChangeNotifier.Topic.JOBS));
+        }
+        return slice.get();
+    }
+
+    public List<User> getUsers() {
+        return users.get();
+    }
+
+    public List<User> getVehicleOwners() {
+        return vehicleOwners.get();
+    }
+
+    public List<Allocation> getAllocations() {
+        return allocations.get();
+    }
+
+    /**
+     * Returns the completion times of the last saved schedule, by job ID.
+     */
+    public Map<String, String> getSchedule() {
+        return schedule.get();
+    }
+
+    /**
+     * Returns the number of jobs in each state, pending requests included.
+     */
+    public Map<String, Integer> getJobQueueSummary() {
+        return queueSummary.get();
+    }
+
+    /**
+     * Returns the requests waiting for approval. The queue is already shared by the whole
+     * process, so this reads it directly.
+     */
+    public List<PendingRequest> getPendingRequests() {
+        return PendingRequestQueue.getInstance().snapshot();
+    }
+
+    /**
+     * Drops the slices showing these topics, so the next request reads them again.
+     * Used when the user asks for a refresh, to pick up changes made by other processes.
+     */
+    public void invalidate(ChangeNotifier.Topic... topics) {
+        for (ChangeNotifier.Topic topic : topics) {
+            for (Slice<?> slice : new Slice<?>[]{jobs, users, vehicleOwners, allocations, schedule, queueSummary}) {
+                if (slice.covers(topic)) {
+                    slice.invalidate();
+                }
+            }
+            if (topic == ChangeNotifier.Topic.JOBS) {
+                synchronized (jobsByOwner) {
+                    jobsByOwner.values().forEach(Slice::invalidate);
+                }
+            } else if (topic == ChangeNotifier.Topic.VEHICLES) {
+                vehicleDAO.reloadCatalog();
+            }
+        }
+    }
+
+    /**
+     * Returns the version of a topic; a view that loaded at this version is current until it changes.
+     */
+    public long getVersion(ChangeNotifier.Topic topic) {
+        return notifier.getVersion(topic);
+    }
+
+    /**
+     * Subscribes a view to changes. The listener is called on the thread that made the
+     * change, for every change, and must return quickly.
+     */
+    public void subscribe(Consumer<ChangeNotifier.Topic> listener) {
+        notifier.addListener(listener);
+    }
+
+    public void unsubscribe(Consumer<ChangeNotifier.Topic> listener) {
+        notifier.removeListener(listener);
+    }
+}
@@ -0,0 +1,217 @@
+package dao;
+
+import models.User;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Verifies logins against salted PBKDF2 password hashes.
+ * Hashes are stored as pbkdf2$iterations$salt$hash (salt and hash Base64-encoded), so the
+ * cost can be raised without invalidating existing rows. Rows that still hold a plaintext
+ * password, or a hash made with fewer iterations than the current setting, are rehashed on
+ * the user's next successful login.
+ *
+ * Verification runs on a small background pool with a bounded queue so a burst of logins
+ * cannot occupy every core or pile up without limit. New accounts are hashed on the same
+ * pool. The cost and limits can be tuned with the system properties vcrts.auth.iterations
+ * (default 310000), vcrts.auth.threads (default 2) and vcrts.auth.maxQueued (default 32).
+ */
+public class AuthenticationService {
+    private static final Logger logger = Logger.getLogger(AuthenticationService.class.getName());
+
+    static final String HASH_PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int DEFAULT_ITERATIONS = 310000;
+
+    private static final SecureRandom random = new SecureRandom();
+    private static final AuthenticationService instance = new AuthenticationService(
+            new UserDAO(),
+            Integer.getInteger("vcrts.auth.iterations", DEFAULT_ITERATIONS),
+            Integer.getInteger("vcrts.auth.threads", 2),
+            Integer.getInteger("vcrts.auth.maxQueued", 32));
+
+    private final UserDAO userDAO;
+    private final int iterations;
+    private final ThreadPoolExecutor executor;
+
+    public static AuthenticationService getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param userDAO Where users are looked up and rehashed passwords are stored.
+     * @param iterations The PBKDF2 iteration count for new hashes.
+     * @param threads The number of logins verified at the same time.
+     * @param maxQueued How many further logins may wait before new ones are rejected.
+     */
+    public AuthenticationService(UserDAO userDAO, int iterations, int threads, int maxQueued) {
+        this.userDAO = userDAO;
+        this.iterations = iterations;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxQueued), r -> {
+                    Thread t = new Thread(r, "Authentication-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Authenticates in the background.
+     * The future completes with the user, or null if the email or password is wrong.
+     * It completes exceptionally with a RejectedExecutionException when too many logins are
+     * already waiting. Callers on the Swing thread should apply the result with
+     * thenAcceptAsync(..., SwingUtilities::invokeLater).
+     */
+    public CompletableFuture<User> authenticateAsync(String email, String plainPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(email, plainPassword), executor);
+        } catch (RejectedExecutionException e) {
+            logger.warning("Login rejected; too many logins in progress");
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Adds a new user in the background, hashing the password on the login pool.
+     * The future completes with whether the user was added, or exceptionally with a
+     * RejectedExecutionException when too many logins are already waiting.
+     */
+    public CompletableFuture<Boolean> addUserAsync(User user) {
+        try {
+            return CompletableFuture.supplyAsync(() -> userDAO.addUser(user), executor);
+        } catch (RejectedExecutionException e) {
+            logger.warning("Account creation rejected; too many logins in progress");
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Authenticates on the calling thread. Must not be called on the Swing thread.
+     * @return The user, or null if the email or password is wrong.
+     */
+    public User authenticate(String email, String plainPassword) {
+        User user = userDAO.getUserByEmail(email);
+        if (user == null) {
+            // Spend the same time as a real check so unknown emails are not revealed by timing
+            hashPassword(plainPassword);
+            logger.warning("Authentication failed for email: " + email);
+            return null;
+        }
+
+        String stored = user.getPassword();
+        if (!verifyPassword(plainPassword, stored)) {
+            logger.warning("Authentication failed for email: " + email);
+            return null;
+        }
+
+        if (needsRehash(stored)) {
+            String rehashed = hashPassword(plainPassword);
+            if (userDAO.updatePasswordHash(user.getUserId(), rehashed)) {
+                user.setPassword(rehashed);
+                logger.info("Upgraded stored password hash for user " + user.getUserId());
+            }
+        }
+        logger.info("User authenticated: " + user.getUserId());
+        return user;
+    }
+
+    /**
+     * Hashes a password with a new random salt at the current cost.
+     */
+    public String hashPassword(String plainPassword) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(plainPassword, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return HASH_PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * Checks a password against a stored value, which may be a hash or a legacy plaintext password.
+     */
+    public static boolean verifyPassword(String plainPassword, String stored) {
+        if (plainPassword == null || stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(plainPassword.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            logger.warning("Malformed password hash");
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(expected, pbkdf2(plainPassword, salt, storedIterations));
+        } catch (IllegalArgumentException e) {
+            logger.warning("Malformed password hash");
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if a stored password is plaintext or was hashed with fewer iterations than the current setting.
+     */
+    public boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(HASH_PREFIX);
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Returns the number of logins currently being verified or waiting.
+     */
+    public int getPendingCount() {
+        return executor.getActiveCount() + executor.getQueue().size();
+    }
+
+    private static byte[] pbkdf2(String plainPassword, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(plainPassword.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            // Every Java 8+ runtime provides PBKDF2WithHmacSHA256
+            logger.log(Level.SEVERE, "Password hashing unavailable", e);
+            throw new IllegalStateException(e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package dao;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide record of data changes made through the DAOs and the pending request queue.
+ * Each topic has a version number that goes up with every change, so a view can tell
+ * whether anything it shows changed since it last loaded by comparing versions, without
+ * querying. Listeners are told about every change on the thread that made it and must
+ * return quickly.
+ *
+ * Changes made by other processes directly in the database are not seen here.
+ */
+public class ChangeNotifier {
+    private static final Logger logger = Logger.getLogger(ChangeNotifier.class.getName());
+
+    public enum Topic { JOBS, USERS, VEHICLES, ALLOCATIONS, PENDING_REQUESTS, SCHEDULE }
+
+    private static final ChangeNotifier instance = new ChangeNotifier();
+
+    private final Map<Topic, AtomicLong> versions = new EnumMap<>(Topic.class);
+    private final List<Consumer<Topic>> listeners = new CopyOnWriteArrayList<>();
+
+    private ChangeNotifier() {
+        for (Topic topic : Topic.values()) {
+            versions.put(topic, new AtomicLong());
+        }
+    }
+
+    public static ChangeNotifier getInstance() {
+        return instance;
+    }
+
+    /**
+     * Records a change to a topic and notifies listeners.
+     */
+    public void changed(Topic topic) {
+        versions.get(topic).incrementAndGet();
+        for (Consumer<Topic> listener : listeners) {
+            try {
+                listener.accept(topic);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Change listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of changes recorded for a topic.
+     */
+    public long getVersion(Topic topic) {
+        return versions.get(topic).get();
+    }
+
+    public void addListener(Consumer<Topic> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Topic> listener) {
+        listeners.remove(listener);
+    }
+}
@@ -2,6 +2,7 @@ package dao;
 
 import db.FileManager;
 import models.Job;
+import models.JobState;
 import models.PendingRequest;
 import models.User;
 import models.Vehicle;
@@ -9,6 +10,7 @@ import models.Vehicle;
 import javax.swing.SwingUtilities; // Import SwingUtilities
 import javax.swing.JOptionPane;   // Import JOptionPane for showing errors from background thread
 
+import java.io.IOException;
 import java.time.*;
 import java.time.format.*;
 import java.util.*;
@@ -22,183 +24,82 @@ import java.util.stream.Collectors;
 public class CloudControllerDAO {
     private static final Logger logger = Logger.getLogger(CloudControllerDAO.class.getName());
     private static final String SCHEDULE_FILE = "job_schedule.txt";
-    private static final String JOB_STATE_FILE = "job_states.txt";
     private static final String DELIMITER = "\\|";
     private static final String SEPARATOR = "|";
-    private static final String PENDING_REQUESTS_FILE = "pending_requests.txt";
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    // Job states
-    public static final String STATE_QUEUED = "Queued";
-    public static final String STATE_PROGRESS = "In Progress";
-    public static final String STATE_COMPLETED = "Completed";
-    public static final String STATE_PENDING_APPROVAL = "Pending Approval"; // New state
+    // Job state labels, as stored in jobs.status; see JobState for the legal transitions
+    public static final String STATE_QUEUED = JobState.QUEUED.getLabel();
+    public static final String STATE_PROGRESS = JobState.IN_PROGRESS.getLabel();
+    public static final String STATE_COMPLETED = JobState.COMPLETED.getLabel();
+    public static final String STATE_PENDING_APPROVAL = JobState.PENDING_APPROVAL.getLabel();
 
     private JobDAO jobDAO;
     private VehicleDAO vehicleDAO;
 
-    // Use a standard ArrayList, but access MUST BE synchronized
-    private static final List<PendingRequest> pendingRequests = new ArrayList<>();
+    // Durable, process-wide queue of requests awaiting approval
+    private final PendingRequestQueue pendingRequests = PendingRequestQueue.getInstance();
 
-    // HashMap to store job duration (in minutes) for each job ID
-    private Map<String, Long> jobDurations = new HashMap<>();
+    // Process-wide job metadata (duration, owner, deadline) kept current by JobDAO
+    private final JobIndex jobIndex = JobIndex.getInstance();
 
     public CloudControllerDAO() {
         this.jobDAO = new JobDAO();
         this.vehicleDAO = new VehicleDAO();
-        loadPendingRequests();
     }
 
-    // --- Approval Workflow Methods (Modified for synchronized List) ---
+    // --- Approval Workflow Methods ---
 
     /**
      * Adds a new job request to the pending queue for approval.
-     * Does NOT save the job to jobs.txt yet.
+     * Does NOT save the job to the jobs table yet; the request is journaled before this returns.
      * @param job The job submitted.
      * @param submittedBy The user who submitted the job.
      * @return true if the request was added to the queue.
      */
 public boolean submitJobForApproval(Job job, User submittedBy) {
     job.setStatus(STATE_PENDING_APPROVAL);
-    PendingRequest request = new PendingRequest(PendingRequest.RequestType.JOB, job, submittedBy);
-    boolean added;
-    synchronized (pendingRequests) {
-        added = pendingRequests.add(request);
-    }
-    if (added) {
+    try {
+        pendingRequests.submit(PendingRequest.RequestType.JOB, job, submittedBy.getUserId(), describeSubmitter(submittedBy));
         logger.info("Job submitted for approval: " + job.getJobId() + " by " + submittedBy.getFullName());
-        savePendingRequests(); // Save after modifying the list
-    } else {
-        logger.warning("Failed to add job request to pending queue: " + job.getJobId());
-    }
-    return added;
-}
-
-/**
- * Saves the current pending requests to disk.
- */
-
-/**
- * Saves the current pending requests to disk.
- */
-private void savePendingRequests() {
-    synchronized (pendingRequests) {
-        List<String> lines = new ArrayList<>();
-        for (PendingRequest req : pendingRequests) {
-            // Format: requestType|submittedByInfo|dataDetails
-            String line;
-            if (req.getType() == PendingRequest.RequestType.JOB) {
-                Job job = (Job) req.getData();
-                line = "JOB|" + req.getSubmittedByInfo() + "|" + job.getJobId() + "|" + 
-                       job.getJobName() + "|" + job.getJobOwnerId() + "|" + 
-                       job.getDuration() + "|" + job.getDeadline() + "|" + 
-                       job.getStatus() + "|" + job.getCreatedTimestamp();
-            } else {
-                Vehicle vehicle = (Vehicle) req.getData();
-                line = "VEHICLE|" + req.getSubmittedByInfo() + "|" + vehicle.getOwnerId() + "|" +
-                       vehicle.getModel() + "|" + vehicle.getMake() + "|" + 
-                       vehicle.getYear() + "|" + vehicle.getVin() + "|" + 
-                       vehicle.getResidencyTime() + "|" + vehicle.getRegisteredTimestamp();
-            }
-            lines.add(line);
-        }
-        FileManager.writeAllLines(PENDING_REQUESTS_FILE, lines);
+        return true;
+    } catch (IOException e) {
+        logger.log(Level.SEVERE, "Failed to add job request to pending queue: " + job.getJobId(), e);
+        return false;
     }
 }
 
 /**
- * Loads pending requests from disk.
+ * Formats the submitter description stored with a pending request.
  */
-private void loadPendingRequests() {
-    synchronized (pendingRequests) {
-        pendingRequests.clear();
-        List<String> lines = FileManager.readAllLines(PENDING_REQUESTS_FILE);
-        
-        for (String line : lines) {
-            String[] parts = line.split("\\|");
-            if (parts.length < 3) continue;
-            
-            String typeStr = parts[0];
-            String submittedByInfo = parts[1];
-            
-            if ("JOB".equals(typeStr) && parts.length >= 9) {
-                String jobId = parts[2];
-                String jobName = parts[3];
-                int jobOwnerId = Integer.parseInt(parts[4]);
-                String duration = parts[5];
-                String deadline = parts[6];
-                String status = parts[7];
-                String timestamp = parts[8];
-                
-                Job job = new Job(jobId, jobName, jobOwnerId, duration, deadline, status, timestamp);
-                PendingRequest req = new PendingRequest(PendingRequest.RequestType.JOB, job, null);
-                // Use reflection to set the submitted info directly
-                try {
-                    java.lang.reflect.Field field = PendingRequest.class.getDeclaredField("submittedByInfo");
-                    field.setAccessible(true);
-                    field.set(req, submittedByInfo);
-                } catch (Exception e) {
-                    logger.log(Level.SEVERE, "Error setting submittedByInfo", e);
-                }
-                pendingRequests.add(req);
-            } 
-            else if ("VEHICLE".equals(typeStr) && parts.length >= 9) {
-                int ownerId = Integer.parseInt(parts[2]);
-                String model = parts[3];
-                String make = parts[4];
-                String year = parts[5];
-                String vin = parts[6];
-                String residencyTime = parts[7];
-                String timestamp = parts[8];
-                
-                Vehicle vehicle = new Vehicle(ownerId, model, make, year, vin, residencyTime, timestamp);
-                PendingRequest req = new PendingRequest(PendingRequest.RequestType.VEHICLE, vehicle, null);
-                // Use reflection to set the submitted info directly
-                try {
-                    java.lang.reflect.Field field = PendingRequest.class.getDeclaredField("submittedByInfo");
-                    field.setAccessible(true);
-                    field.set(req, submittedByInfo);
-                } catch (Exception e) {
-                    logger.log(Level.SEVERE, "Error setting submittedByInfo", e);
-                }
-                pendingRequests.add(req);
-            }
-        }
-    }
+private static String describeSubmitter(User submittedBy) {
+    return String.format("User ID: %d (%s)", submittedBy.getUserId(), submittedBy.getFullName());
 }
 
     /**
      * Adds a new vehicle registration request to the pending queue for approval.
-     * Does NOT save the vehicle to vehicles.txt yet.
+     * Does NOT save the vehicle to the vehicles table yet; the request is journaled before this returns.
      * @param vehicle The vehicle submitted.
      * @param submittedBy The user who submitted the vehicle.
      * @return true if the request was added to the queue.
      */
 public boolean submitVehicleForApproval(Vehicle vehicle, User submittedBy) {
-    PendingRequest request = new PendingRequest(PendingRequest.RequestType.VEHICLE, vehicle, submittedBy);
-    boolean added;
-    synchronized (pendingRequests) {
-        added = pendingRequests.add(request);
-    }
-    if (added) {
+    try {
+        pendingRequests.submit(PendingRequest.RequestType.VEHICLE, vehicle, submittedBy.getUserId(), describeSubmitter(submittedBy));
         logger.info("Vehicle submitted for approval: " + vehicle.getVin() + " by " + submittedBy.getFullName());
-        savePendingRequests(); // Save after modifying the list
-    } else {
-        logger.warning("Failed to add vehicle request to pending queue: " + vehicle.getVin());
+        return true;
+    } catch (IOException e) {
+        logger.log(Level.SEVERE, "Failed to add vehicle request to pending queue: " + vehicle.getVin(), e);
+        return false;
     }
-    return added;
 }
 
     /**
      * Retrieves all current pending requests.
-     * @return A list of PendingRequest objects (thread-safe copy).
+     * @return An unmodifiable, insertion-ordered list of PendingRequest objects.
      */
 public List<PendingRequest> getPendingRequests() {
-    loadPendingRequests(); // Refresh from disk before returning
-    synchronized (pendingRequests) {
-        return new ArrayList<>(pendingRequests);
-    }
+    return pendingRequests.snapshot();
 }
 
     /**
@@ -209,26 +110,11 @@ public List<PendingRequest> getPendingRequests() {
      * @param callback A Runnable to execute on the EDT after processing (e.g., refresh UI)
      */
     public void approveRequest(int requestId, Runnable callback) {
-        PendingRequest requestToProcess = null;
-        boolean removed = false;
-    
-        // 1. Find and remove the request SYNCHRONOUSLY (and safely)
-        synchronized (pendingRequests) {
-            Iterator<PendingRequest> iterator = pendingRequests.iterator();
-            while (iterator.hasNext()) {
-                PendingRequest req = iterator.next();
-                if (req.getRequestId() == requestId) {
-                    requestToProcess = req;
-                    iterator.remove(); // Safely remove while iterating
-                    removed = true;
-                    break;
-                }
-            }
-        }
+        // 1. Find and remove the request by ID
+        PendingRequest requestToProcess = pendingRequests.remove(requestId);
     
         // 2. If found and removed, start a background thread to save
-        if (requestToProcess != null && removed) {
-            savePendingRequests();
+        if (requestToProcess != null) {
             final PendingRequest finalRequest = requestToProcess; // Need final variable for lambda
             logger.info("Request " + requestId + " removed from queue. Starting background save thread.");
     
@@ -313,29 +199,18 @@ public List<PendingRequest> getPendingRequests() {
      * @return true if the request was found and removed, false otherwise.
      */
 public boolean rejectRequest(int requestId) {
-    boolean removed = false;
-    synchronized (pendingRequests) { // Synchronize access
-         Iterator<PendingRequest> iterator = pendingRequests.iterator();
-         while(iterator.hasNext()){
-             PendingRequest req = iterator.next();
-             if(req.getRequestId() == requestId){
-                 iterator.remove(); // Use iterator's remove method for safety
-                 removed = true;
-                 logger.info("Rejected and removed request ID: " + requestId);
-                 // Optionally log details of the rejected item
-                 if (req.getType() == PendingRequest.RequestType.JOB) {
-                     logger.info("Rejected Job details: ID=" + ((Job)req.getData()).getJobId());
-                 } else if (req.getType() == PendingRequest.RequestType.VEHICLE) {
-                      logger.info("Rejected Vehicle details: VIN=" + ((Vehicle)req.getData()).getVin());
-                 }
-                 break; // Found and removed, exit loop
-             }
-         }
+    PendingRequest req = pendingRequests.remove(requestId);
+    boolean removed = req != null;
+    if (removed) {
+        logger.info("Rejected and removed request ID: " + requestId);
+        // Optionally log details of the rejected item
+        if (req.getType() == PendingRequest.RequestType.JOB) {
+            logger.info("Rejected Job details: ID=" + ((Job)req.getData()).getJobId());
+        } else if (req.getType() == PendingRequest.RequestType.VEHICLE) {
+             logger.info("Rejected Vehicle details: VIN=" + ((Vehicle)req.getData()).getVin());
+        }
     }
 
-    // Save changes to disk whether the request was found or not
-    savePendingRequests();
-
     if (!removed) {
         logger.warning("Reject Request: Request ID " + requestId + " not found in pending queue.");
     }
@@ -353,63 +228,41 @@ public boolean rejectRequest(int requestId) {
         List<Job> allJobs = jobDAO.getAllJobs().stream()
                              .filter(j -> !STATE_PENDING_APPROVAL.equals(j.getStatus()))
                              .collect(Collectors.toList());
-        allJobs.sort(Comparator.comparing(Job::getCreatedTimestamp));
-
-        Map<String, String> completionTimes = new LinkedHashMap<>();
-        Map<String, String> jobStates = loadJobStates();
-
-        jobDurations.clear();
-        LocalDateTime currentTime = LocalDateTime.now();
-        long totalMinutes = 0;
-        Job inProgressJob = null;
 
-        for (Job job : allJobs) {
-            if (STATE_PROGRESS.equals(jobStates.getOrDefault(job.getJobId(), job.getStatus()))) {
-                inProgressJob = job;
-                break;
+        Map<String, String> savedSchedule = loadSchedule();
+
+        // Schedule on primitive columns; rows are in the same order as allJobs
+        JobTable table = JobTable.of(allJobs, allJobs.size());
+        JobTable.Schedule schedule = table.schedule(System.currentTimeMillis());
+
+        for (int row : schedule.getChangedRows()) {
+            Job job = allJobs.get(row);
+            JobState target = JobTable.state(table.getState(row));
+            if (!jobDAO.transitionJob(job, target)) {
+                // Another controller moved the job first, so the schedule below shows the state it
+                // moved the job to (or the state before, if the job is gone); the next run reschedules
+                logger.info("Scheduler could not move job " + job.getJobId() + " to " + target);
+                Job current = jobDAO.getJobById(job.getJobId());
+                table.setState(row, JobTable.stateCode((current != null ? current : job).getStatus()));
             }
         }
 
-        for (Job job : allJobs) {
-            String currentState = jobStates.getOrDefault(job.getJobId(), job.getStatus());
-
-            if (STATE_COMPLETED.equals(currentState)) {
-                String existingCompletionTime = loadSchedule().get(job.getJobId()); // Check saved schedule
-                 completionTimes.put(job.getJobId(), existingCompletionTime != null ? existingCompletionTime : "Completed");
-                 jobStates.put(job.getJobId(), STATE_COMPLETED); // Ensure state map is consistent
-                continue;
-            }
-
-            Duration jobDuration = parseJobDuration(job);
-            long durationMinutes = jobDuration.toMinutes();
-            jobDurations.put(job.getJobId(), durationMinutes);
-            totalMinutes += durationMinutes;
-
-            String newStatus = currentState; // Start with current state
-            if (inProgressJob == null) {
-                inProgressJob = job;
-                newStatus = STATE_PROGRESS;
-            } else if (!job.equals(inProgressJob)) {
-                newStatus = STATE_QUEUED;
-            } else { // It is the inProgressJob
-                 newStatus = STATE_PROGRESS;
-            }
-
-             // Only update if status actually changed or needs confirmation
-             if (!newStatus.equals(currentState)) {
-                job.setStatus(newStatus);
-                jobDAO.updateJob(job); // Update file
-                jobStates.put(job.getJobId(), newStatus); // Update state map
+        Map<String, String> completionTimes = new LinkedHashMap<>();
+        ZoneId zone = ZoneId.systemDefault();
+        for (int row : table.rowsByCreated()) {
+            String jobId = table.getJobId(row);
+            byte state = table.getState(row);
+            if (state == JobTable.STATE_COMPLETED) {
+                String existingCompletionTime = savedSchedule.get(jobId); // Check saved schedule
+                completionTimes.put(jobId, existingCompletionTime != null ? existingCompletionTime : "Completed");
+            } else if (state != JobTable.STATE_PENDING_APPROVAL) {
+                LocalDateTime completionTime = LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(schedule.getCompletionMillis(row)), zone);
+                completionTimes.put(jobId, completionTime.format(TIMESTAMP_FORMATTER));
             }
-
-            LocalDateTime completionTime = currentTime.plus(jobDuration);
-            String completionTimeStr = completionTime.format(TIMESTAMP_FORMATTER);
-            completionTimes.put(job.getJobId(), completionTimeStr);
-            currentTime = completionTime;
         }
 
         saveSchedule(completionTimes);
-        saveJobStates(jobStates);
         return completionTimes;
     }
 
@@ -419,19 +272,17 @@ public boolean rejectRequest(int requestId) {
      * @return Human-readable duration string.
      */
      public String getJobDurationFormatted(String jobId) {
-        Long minutes = jobDurations.get(jobId);
-        if (minutes == null) {
-             List<Job> jobs = jobDAO.getAllJobs();
-             for (Job job : jobs) {
-                 if (job.getJobId().equals(jobId)) {
-                    Duration duration = parseJobDuration(job);
-                    minutes = duration.toMinutes();
-                    jobDurations.put(jobId, minutes);
-                    break;
-                 }
-             }
-             if (minutes == null) return "Unknown";
+        JobIndex.Entry entry = jobIndex.get(jobId);
+        long seconds;
+        if (entry != null) {
+            seconds = entry.getDurationSeconds();
+        } else {
+            // Not loaded in this process yet; read just this row, which also indexes it
+            Job job = jobDAO.getJobById(jobId);
+            if (job == null) return "Unknown";
+            seconds = job.getDurationSeconds();
         }
+        long minutes = seconds < 0 ? 60 : seconds / 60; // Same 1 hour default as parseJobDuration
 
         long hours = minutes / 60;
         long remainingMinutes = minutes % 60;
@@ -446,21 +297,17 @@ public boolean rejectRequest(int requestId) {
     }
 
     /**
-     * Parse job duration from string format to Duration. Made public previously.
-     * @param job The job to parse duration from.
-     * @return Duration object representing the job's processing time.
+     * Returns the job's processing time from the duration parsed when the job was loaded.
+     * @param job The job to get the duration of.
+     * @return Duration object representing the job's processing time, or 1 hour if the duration is invalid.
      */
     public Duration parseJobDuration(Job job) {
-        LocalTime durationTime;
-        try {
-            durationTime = LocalTime.parse(job.getDuration(), TIME_FORMATTER);
-        } catch (DateTimeParseException e) {
+        long seconds = job.getDurationSeconds();
+        if (seconds < 0) {
             logger.log(Level.WARNING, "Invalid duration format for job " + job.getJobId() + ": " + job.getDuration() + ". Defaulting to 1 hour.");
-            durationTime = LocalTime.of(1, 0, 0);
+            return Duration.ofHours(1);
         }
-        return Duration.ofHours(durationTime.getHour())
-                .plusMinutes(durationTime.getMinute())
-                .plusSeconds(durationTime.getSecond());
+        return Duration.ofSeconds(seconds);
     }
 
     /**
@@ -471,48 +318,44 @@ public boolean rejectRequest(int requestId) {
          List<Job> allJobs = jobDAO.getAllJobs().stream()
                               .filter(j -> !STATE_PENDING_APPROVAL.equals(j.getStatus()))
                               .collect(Collectors.toList());
-        allJobs.sort(Comparator.comparing(Job::getCreatedTimestamp));
+        allJobs.sort(Comparator.comparingLong(Job::getCreatedMillis));
 
         Job inProgressJob = null;
         List<Job> queuedJobs = new ArrayList<>();
-        Map<String, String> currentStates = loadJobStates();
 
         for (Job job : allJobs) {
-             String status = currentStates.getOrDefault(job.getJobId(), job.getStatus());
-            if (STATE_PROGRESS.equals(status)) {
+            JobState state = job.getState();
+            if (state == JobState.IN_PROGRESS) {
                 inProgressJob = job;
-            } else if (STATE_QUEUED.equals(status)) {
+            } else if (state == JobState.QUEUED) {
                 queuedJobs.add(job);
             }
         }
 
-        String nextJobId = null;
         if (inProgressJob != null) {
-            inProgressJob.setStatus(STATE_COMPLETED);
-            jobDAO.updateJob(inProgressJob);
-            currentStates.put(inProgressJob.getJobId(), STATE_COMPLETED);
+            if (!jobDAO.transitionJob(inProgressJob, JobState.COMPLETED)) {
+                // Another controller completed it first and has already advanced the queue
+                logger.info("Advanced queue: Job " + inProgressJob.getJobId() + " was already moved on; not advancing again.");
+                return null;
+            }
             logger.info("Advanced queue: Job " + inProgressJob.getJobId() + " marked as Completed.");
+        }
 
-            if (!queuedJobs.isEmpty()) {
-                Job nextJob = queuedJobs.get(0);
-                nextJob.setStatus(STATE_PROGRESS);
-                jobDAO.updateJob(nextJob);
-                currentStates.put(nextJob.getJobId(), STATE_PROGRESS);
+        String nextJobId = null;
+        for (Job nextJob : queuedJobs) {
+            // Skips jobs another controller started in the meantime
+            if (jobDAO.transitionJob(nextJob, JobState.IN_PROGRESS)) {
                 nextJobId = nextJob.getJobId();
-                logger.info("Advanced queue: Job " + nextJobId + " set to In Progress.");
+                logger.info(inProgressJob != null
+                        ? "Advanced queue: Job " + nextJobId + " set to In Progress."
+                        : "Advanced queue: No job was In Progress. Job " + nextJobId + " set to In Progress.");
+                break;
             }
-        } else if (!queuedJobs.isEmpty()) {
-            Job nextJob = queuedJobs.get(0);
-            nextJob.setStatus(STATE_PROGRESS);
-            jobDAO.updateJob(nextJob);
-            currentStates.put(nextJob.getJobId(), STATE_PROGRESS);
-            nextJobId = nextJob.getJobId();
-            logger.info("Advanced queue: No job was In Progress. Job " + nextJobId + " set to In Progress.");
-        } else {
+        }
+        if (inProgressJob == null && nextJobId == null) {
             logger.info("Advanced queue: No job In Progress and no Queued jobs found.");
         }
 
-        saveJobStates(currentStates);
         calculateCompletionTimes(); // Recalculate schedule
 
         return nextJobId;
@@ -523,28 +366,25 @@ public boolean rejectRequest(int requestId) {
      * @return A map with count of jobs in each state.
      */
     public Map<String, Integer> getJobQueueSummary() {
-        List<Job> allJobs = jobDAO.getAllJobs();
-        Map<String, String> currentStates = loadJobStates();
         Map<String, Integer> summary = new HashMap<>();
         summary.put(STATE_PENDING_APPROVAL, 0);
         summary.put(STATE_QUEUED, 0);
         summary.put(STATE_PROGRESS, 0);
         summary.put(STATE_COMPLETED, 0);
 
-         // Count pending from the synchronized list
-         synchronized (pendingRequests) {
-             summary.put(STATE_PENDING_APPROVAL, pendingRequests.size());
-         }
+         // Count pending from the shared queue
+         summary.put(STATE_PENDING_APPROVAL, pendingRequests.size());
 
-         // Count other states from saved jobs
-        for (Job job : allJobs) {
-             if (!STATE_PENDING_APPROVAL.equals(job.getStatus())) { // Only count non-pending from files
-                 String state = currentStates.getOrDefault(job.getJobId(), job.getStatus());
-                 if (summary.containsKey(state)) {
-                     summary.put(state, summary.get(state) + 1);
-                 } else {
-                     logger.warning("Job " + job.getJobId() + " (from file) has unknown state: " + state);
-                 }
+         // Count other states in the database rather than loading every job
+        for (Map.Entry<String, Integer> count : jobDAO.countJobsByStatus().entrySet()) {
+             String state = count.getKey();
+             if (STATE_PENDING_APPROVAL.equals(state)) {
+                 continue; // Pending requests are counted from the queue
+             }
+             if (summary.containsKey(state)) {
+                 summary.put(state, count.getValue());
+             } else {
+                 logger.warning(count.getValue() + " job(s) have unknown state: " + state);
              }
         }
         return summary;
@@ -558,20 +398,11 @@ public boolean rejectRequest(int requestId) {
     private boolean saveSchedule(Map<String, String> completionTimes) {
         List<String> lines = new ArrayList<>();
         completionTimes.forEach((jobId, time) -> lines.add(jobId + SEPARATOR + time));
-        return FileManager.writeAllLines(SCHEDULE_FILE, lines);
-    }
-
-    /**
-     * Saves the job states to a file (excluding pending).
-     * @param jobStates Map of job IDs to states.
-     * @return true if saved successfully, false otherwise.
-     */
-    private boolean saveJobStates(Map<String, String> jobStates) {
-        List<String> lines = new ArrayList<>();
-        jobStates.entrySet().stream()
-            .filter(entry -> !STATE_PENDING_APPROVAL.equals(entry.getValue())) // Don't save pending state
-            .forEach(entry -> lines.add(entry.getKey() + SEPARATOR + entry.getValue()));
-        return FileManager.writeAllLines(JOB_STATE_FILE, lines);
+        boolean saved = FileManager.writeAllLines(SCHEDULE_FILE, lines);
+        if (saved) {
+            ChangeNotifier.getInstance().changed(ChangeNotifier.Topic.SCHEDULE);
+        }
+        return saved;
     }
 
     /**
@@ -592,24 +423,6 @@ public boolean rejectRequest(int requestId) {
         return completionTimes;
     }
 
-    /**
-     * Loads the job states from file.
-     * @return Map of job IDs to their last known state (Queued, In Progress, Completed).
-     */
-    public Map<String, String> loadJobStates() {
-        Map<String, String> jobStates = new HashMap<>();
-        List<String> lines = FileManager.readAllLines(JOB_STATE_FILE);
-        for (String line : lines) {
-            String[] parts = line.split(DELIMITER, 2);
-            if (parts.length == 2) {
-                jobStates.put(parts[0], parts[1]);
-            } else {
-                logger.warning("Skipping malformed line in job state file: " + line);
-            }
-        }
-        return jobStates;
-    }
-
     /**
      * Gets a specific job's completion time from the loaded schedule.
      * @param jobId The ID of the job.
@@ -627,17 +440,18 @@ public boolean rejectRequest(int requestId) {
          List<Job> allJobs = jobDAO.getAllJobs().stream()
                               .filter(j -> !STATE_PENDING_APPROVAL.equals(j.getStatus()))
                               .collect(Collectors.toList());
-        allJobs.sort(Comparator.comparing(Job::getCreatedTimestamp));
+        allJobs.sort(Comparator.comparingLong(Job::getCreatedMillis));
 
         Map<String, String> completionTimes = loadSchedule();
-        Map<String, String> currentStates = loadJobStates();
 
-        StringBuilder output = new StringBuilder();
+        StringBuilder output = new StringBuilder(128 + allJobs.size() * 80);
+        // Rows are formatted straight into the builder instead of through a String per row
+        java.util.Formatter formatter = new java.util.Formatter(output);
         output.append("Job Scheduling Results (FIFO - Excluding Pending)\n");
         output.append("=================================================\n");
         String headerFormat = "%-8s | %-10s | %-16s | %-19s | %s\n";
         String rowFormat =    "%-8s | %-10s | %-16s | %-19s | %s\n";
-        output.append(String.format(headerFormat, "Job ID", "Duration", "Time Remaining", "Est. Compl. Time", "Status"));
+        formatter.format(headerFormat, "Job ID", "Duration", "Time Remaining", "Est. Compl. Time", "Status");
         output.append("----------------------------------------------------------------------\n");
 
         long runningTotalMinutes = 0;
@@ -645,7 +459,7 @@ public boolean rejectRequest(int requestId) {
         for (Job job : allJobs) {
             Duration jobDuration = parseJobDuration(job);
             long durationMinutes = jobDuration.toMinutes();
-            String status = currentStates.getOrDefault(job.getJobId(), job.getStatus());
+            String status = job.getStatus();
             String completionTimeStr = completionTimes.getOrDefault(job.getJobId(), "-");
             String timeToCompleteStr = "-";
 
@@ -660,12 +474,12 @@ public boolean rejectRequest(int requestId) {
                  timeToCompleteStr = "Completed";
              }
 
-            output.append(String.format(rowFormat,
+            formatter.format(rowFormat,
                     job.getJobId(),
                     job.getDuration(),
                     timeToCompleteStr,
                     completionTimeStr,
-                    status));
+                    status);
         }
         return output.toString();
     }
@@ -679,11 +493,10 @@ public boolean rejectRequest(int requestId) {
                           .filter(j -> !STATE_PENDING_APPROVAL.equals(j.getStatus()))
                           .collect(Collectors.toList());
         List<Vehicle> vehicles = vehicleDAO.getAllVehicles();
-        Map<String, String> currentStates = loadJobStates();
 
         List<Job> queuedJobs = jobs.stream()
-                .filter(job -> STATE_QUEUED.equals(currentStates.getOrDefault(job.getJobId(), job.getStatus())))
-                .sorted(Comparator.comparing(Job::getCreatedTimestamp))
+                .filter(job -> job.getState() == JobState.QUEUED)
+                .sorted(Comparator.comparingLong(Job::getCreatedMillis))
                 .collect(Collectors.toList());
 
         List<Vehicle> availableVehicles = new ArrayList<>(vehicles);
@@ -691,9 +504,9 @@ public boolean rejectRequest(int requestId) {
         int assignmentCount = 0;
         for (Job job : queuedJobs) {
             if (assignmentCount < availableVehicles.size()) {
-                job.setStatus(STATE_PROGRESS);
-                jobDAO.updateJob(job);
-                currentStates.put(job.getJobId(), STATE_PROGRESS);
+                if (!jobDAO.transitionJob(job, JobState.IN_PROGRESS)) {
+                    continue; // Already started or changed by another controller
+                }
                 assignmentCount++;
                 logger.info("Assigning vehicle to Job ID: " + job.getJobId() + " (Status set to In Progress)");
             } else {
@@ -703,7 +516,6 @@ public boolean rejectRequest(int requestId) {
         }
 
         if (assignmentCount > 0) {
-             saveJobStates(currentStates);
              calculateCompletionTimes();
              logger.info("Assigned vehicles to " + assignmentCount + " jobs.");
         } else {
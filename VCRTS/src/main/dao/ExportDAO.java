@@ -0,0 +1,369 @@
+package dao;
+
+import db.DatabaseManager;
+import db.FileManager;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Streams jobs, vehicle registrations, the saved schedule and allocations to CSV or JSON.
+ *
+ * Rows are written one at a time as they are read, so memory use does not depend on the
+ * number of rows. Database tables are read through a streaming result set (fetch size
+ * Integer.MIN_VALUE) on a connection of their own, which leaves the shared connection free
+ * for the dashboards while an export runs; data files are read line by line. A listener is
+ * told about progress every PROGRESS_INTERVAL rows and can stop the export.
+ */
+public class ExportDAO {
+    private static final Logger logger = Logger.getLogger(ExportDAO.class.getName());
+    static final int BUFFER_SIZE = 64 * 1024;
+    static final int PROGRESS_INTERVAL = 1000;
+    private static final String DELIMITER = "\\|";
+
+    public enum Format {
+        CSV("csv"), JSON("json");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * What can be exported. Tables are read with a query, data files line by line.
+     */
+    public enum Dataset {
+        JOBS("Jobs", "SELECT job_id, job_name, job_owner_id, duration, deadline, status, created_timestamp "
+                + "FROM jobs ORDER BY created_timestamp, job_id", "SELECT COUNT(*) FROM jobs", null,
+                new String[]{"job_id", "job_name", "job_owner_id", "duration", "deadline", "status", "created_timestamp"},
+                new boolean[]{false, false, true, false, false, false, false}),
+        VEHICLES("Vehicle history", "SELECT vin, owner_id, vehicle_owner_id, make, model, year, residency_time, "
+                + "registered_timestamp FROM vehicles ORDER BY registered_timestamp, vin", "SELECT COUNT(*) FROM vehicles", null,
+                new String[]{"vin", "owner_id", "vehicle_owner_id", "make", "model", "year", "residency_time", "registered_timestamp"},
+                new boolean[]{false, false, true, false, false, false, false, false}),
+        SCHEDULE("Schedule", null, null, "job_schedule.txt",
+                new String[]{"job_id", "estimated_completion"},
+                new boolean[]{false, false}),
+        ALLOCATIONS("Allocations", null, null, "allocations.txt",
+                new String[]{"allocation_id", "user_id", "job_id"},
+                new boolean[]{true, false, false});
+
+        private final String title;
+        private final String query;
+        private final String countQuery;
+        private final String fileName;
+        private final String[] columns;
+        private final boolean[] numeric;
+
+        Dataset(String title, String query, String countQuery, String fileName, String[] columns, boolean[] numeric) {
+            this.title = title;
+            this.query = query;
+            this.countQuery = countQuery;
+            this.fileName = fileName;
+            this.columns = columns;
+            this.numeric = numeric;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        @Override
+        public String toString() {
+            return title;
+        }
+    }
+
+    /**
+     * Receives progress reports from an export.
+     */
+    public interface ProgressListener {
+        /**
+         * @param rowsWritten Rows written so far.
+         * @param totalRows Rows expected in all, or -1 if not known in advance.
+         * @return false to stop the export.
+         */
+        boolean progress(long rowsWritten, long totalRows);
+    }
+
+    /**
+     * Exports a dataset to a file. The rows are written to a temporary file next to the
+     * target, which replaces the target only when the export is complete.
+     * @return The number of rows written.
+     * @throws CancellationException If the listener stopped the export; the target is left as it was.
+     */
+    public long export(Dataset dataset, Format format, Path target, ProgressListener listener)
+            throws IOException, SQLException {
+        Path absolute = target.toAbsolutePath();
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".part");
+        boolean done = false;
+        try {
+            long rows;
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                rows = export(dataset, format, out, listener);
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            done = true;
+            logger.info("Exported " + rows + " rows of " + dataset.getTitle() + " to " + absolute);
+            return rows;
+        } finally {
+            if (!done) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Exports a dataset to a writer, which is flushed but not closed.
+     * @return The number of rows written.
+     * @throws CancellationException If the listener stopped the export.
+     */
+    public long export(Dataset dataset, Format format, Writer writer, ProgressListener listener)
+            throws IOException, SQLException {
+        Writer out = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, BUFFER_SIZE);
+        RowWriter rows = format == Format.CSV ? new CsvRowWriter(out, dataset) : new JsonRowWriter(out, dataset);
+        long count = dataset.query != null
+                ? exportTable(dataset, rows, listener)
+                : exportFile(dataset, rows, listener);
+        out.flush();
+        return count;
+    }
+
+    private long exportTable(Dataset dataset, RowWriter rows, ProgressListener listener)
+            throws IOException, SQLException {
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        boolean done = false;
+        try {
+            conn = DatabaseManager.openConnection();
+            long total = -1;
+            stmt = conn.createStatement();
+            rs = stmt.executeQuery(dataset.countQuery);
+            if (rs.next()) {
+                total = rs.getLong(1);
+            }
+            DatabaseManager.closeResources(rs, stmt);
+
+            // Forward-only, read-only, and a fetch size of Integer.MIN_VALUE make the driver stream rows
+            stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            rs = stmt.executeQuery(dataset.query);
+
+            String[] values = new String[dataset.columns.length];
+            long count = 0;
+            rows.begin();
+            while (rs.next()) {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getString(i + 1);
+                }
+                rows.write(values);
+                reportProgress(++count, total, listener);
+            }
+            rows.end();
+            listener.progress(count, total);
+            done = true;
+            return count;
+        } finally {
+            // Closing a streaming result set reads the rest of its rows, so an export that was
+            // stopped or failed in any way drops the connection instead
+            if (!done && conn != null) {
+                try {
+                    conn.abort(Runnable::run);
+                } catch (SQLException e) {
+                    logger.log(Level.WARNING, "Could not abort export connection", e);
+                }
+            }
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+    }
+
+    private long exportFile(Dataset dataset, RowWriter rows, ProgressListener listener) throws IOException {
+        try (BufferedReader reader = FileManager.openReader(dataset.fileName)) {
+            String[] values = new String[dataset.columns.length];
+            long count = 0;
+            rows.begin();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(DELIMITER, values.length);
+                if (parts.length < values.length) {
+                    logger.warning("Skipping malformed line in " + dataset.fileName + ": " + line);
+                    continue;
+                }
+                rows.write(parts);
+                reportProgress(++count, -1, listener);
+            }
+            rows.end();
+            listener.progress(count, -1);
+            return count;
+        }
+    }
+
+    private static void reportProgress(long count, long total, ProgressListener listener) {
+        if (count % PROGRESS_INTERVAL == 0 && !listener.progress(count, total)) {
+            throw new CancellationException("Export stopped after " + count + " rows");
+        }
+    }
+
+    /**
+     * Writes rows in one format.
+     */
+    private abstract static class RowWriter {
+        protected final Writer out;
+        protected final Dataset dataset;
+
+        RowWriter(Writer out, Dataset dataset) {
+            this.out = out;
+            this.dataset = dataset;
+        }
+
+        abstract void begin() throws IOException;
+        abstract void write(String[] values) throws IOException;
+        abstract void end() throws IOException;
+    }
+
+    // RFC 4180: fields holding a comma, quote or line break are quoted, with quotes doubled
+    private static final class CsvRowWriter extends RowWriter {
+        CsvRowWriter(Writer out, Dataset dataset) {
+            super(out, dataset);
+        }
+
+        @Override
+        void begin() throws IOException {
+            write(dataset.columns);
+        }
+
+        @Override
+        void write(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                String value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                boolean quote = false;
+                for (int c = 0; c < value.length() && !quote; c++) {
+                    char ch = value.charAt(c);
+                    quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+                }
+                if (!quote) {
+                    out.write(value);
+                    continue;
+                }
+                out.write('"');
+                for (int c = 0; c < value.length(); c++) {
+                    char ch = value.charAt(c);
+                    if (ch == '"') {
+                        out.write('"');
+                    }
+                    out.write(ch);
+                }
+                out.write('"');
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        void end() {
+        }
+    }
+
+    // A JSON array with one object per row, written one row per line
+    private static final class JsonRowWriter extends RowWriter {
+        private boolean first = true;
+
+        JsonRowWriter(Writer out, Dataset dataset) {
+            super(out, dataset);
+        }
+
+        @Override
+        void begin() throws IOException {
+            out.write('[');
+        }
+
+        @Override
+        void write(String[] values) throws IOException {
+            out.write(first ? "\n{" : ",\n{");
+            first = false;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeString(dataset.columns[i]);
+                out.write(':');
+                String value = values[i];
+                if (value == null) {
+                    out.write("null");
+                } else if (dataset.numeric[i] && isInteger(value)) {
+                    out.write(value);
+                } else {
+                    writeString(value);
+                }
+            }
+            out.write('}');
+        }
+
+        @Override
+        void end() throws IOException {
+            out.write("\n]\n");
+        }
+
+        private void writeString(String value) throws IOException {
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"': out.write("\\\""); break;
+                    case '\\': out.write("\\\\"); break;
+                    case '\n': out.write("\\n"); break;
+                    case '\r': out.write("\\r"); break;
+                    case '\t': out.write("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            out.write("\\u00");
+                            out.write(Character.forDigit(c >> 4, 16));
+                            out.write(Character.forDigit(c & 0xF, 16));
+                        } else {
+                            out.write(c);
+                        }
+                }
+            }
+            out.write('"');
+        }
+
+        private static boolean isInteger(String value) {
+            int start = value.startsWith("-") ? 1 : 0;
+            if (start == value.length() || value.length() - start > 18) {
+                return false;
+            }
+            for (int i = start; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
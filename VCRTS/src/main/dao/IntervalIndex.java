@@ -0,0 +1,77 @@
+package dao;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable interval tree over half-open [start, end) intervals, each carrying an int ID.
+ * The intervals are sorted by start and kept in primitive arrays; the tree is implicit
+ * (the middle of each range is its root) and every node stores the largest end in its
+ * subtree, so a query skips whole subtrees that end before the range or start after it.
+ * Finding the intervals that overlap a range takes O(log n + matches).
+ */
+public class IntervalIndex {
+    private final long[] starts;
+    private final long[] ends;
+    private final int[] ids;
+    private final long[] maxEnds;
+
+    /**
+     * @param starts Start of each interval.
+     * @param ends End of each interval, after its start.
+     * @param ids The ID reported for each interval.
+     * @param count The number of intervals to take from the arrays.
+     */
+    public IntervalIndex(long[] starts, long[] ends, int[] ids, int count) {
+        int[] order = JobTable.sortRows(starts, count);
+        this.starts = new long[count];
+        this.ends = new long[count];
+        this.ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            this.starts[i] = starts[order[i]];
+            this.ends[i] = ends[order[i]];
+            this.ids[i] = ids[order[i]];
+        }
+        this.maxEnds = new long[count];
+        buildMaxEnds(0, count);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Calls the visitor with the ID of every interval overlapping [from, to), in start order.
+     */
+    public void query(long from, long to, IntConsumer visitor) {
+        if (from < to) {
+            query(0, ids.length, from, to, visitor);
+        }
+    }
+
+    private void query(int lo, int hi, long from, long to, IntConsumer visitor) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (maxEnds[mid] <= from) {
+                return; // Everything in this subtree ends before the range
+            }
+            query(lo, mid, from, to, visitor);
+            if (starts[mid] >= to) {
+                return; // This node and everything after it start after the range
+            }
+            if (ends[mid] > from) {
+                visitor.accept(ids[mid]);
+            }
+            lo = mid + 1;
+        }
+    }
+
+    private long buildMaxEnds(int lo, int hi) {
+        if (lo >= hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[mid], Math.max(buildMaxEnds(lo, mid), buildMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = max;
+        return max;
+    }
+}
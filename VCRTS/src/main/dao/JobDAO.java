@@ -158,15 +158,21 @@ package dao;
 
 import db.DatabaseManager;
 import models.Job;
+import models.JobState;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class JobDAO {
     private static final Logger logger = Logger.getLogger(JobDAO.class.getName());
+    private static final JobIndex index = JobIndex.getInstance();
+    private static final ChangeNotifier changes = ChangeNotifier.getInstance();
     
     // SQL queries
     private static final String SELECT_ALL_JOBS = "SELECT * FROM jobs";
@@ -174,14 +180,55 @@ public class JobDAO {
     private static final String SELECT_JOBS_BY_CLIENT_AND_STATUS = "SELECT * FROM jobs WHERE job_owner_id = ? AND status = ?";
     private static final String INSERT_JOB = "INSERT INTO jobs (job_id, job_name, job_owner_id, duration, deadline, status, created_timestamp) VALUES (?, ?, ?, ?, ?, ?, ?)";
     private static final String DELETE_JOB = "DELETE FROM jobs WHERE job_id = ?";
-    private static final String UPDATE_JOB = "UPDATE jobs SET job_name = ?, job_owner_id = ?, duration = ?, deadline = ?, status = ? WHERE job_id = ?";
+    private static final String UPDATE_JOB = "UPDATE jobs SET job_name = ?, job_owner_id = ?, duration = ?, deadline = ? WHERE job_id = ?";
+    private static final String TRANSITION_JOB = "UPDATE jobs SET status = ? WHERE job_id = ? AND status = ?";
     private static final String SELECT_JOB_BY_ID = "SELECT * FROM jobs WHERE job_id = ?";
+    private static final String COUNT_JOBS_BY_STATUS = "SELECT status, COUNT(*) FROM jobs GROUP BY status";
+    // Minutes of queued and running work ahead of a job in FIFO order; invalid durations count as 1 hour
+    private static final String SUM_ACTIVE_MINUTES_BEFORE = "SELECT COALESCE(SUM(COALESCE(TIME_TO_SEC(duration) DIV 60, 60)), 0) FROM jobs "
+            + "WHERE status IN (?, ?) AND (created_timestamp < ? OR (created_timestamp = ? AND job_id < ?))";
 
     /**
-     * Creates a Job object from a ResultSet row.
+     * Columns a job page may be sorted by, in the order of the Manage Jobs table.
+     * Only these names are ever put into SQL.
+     */
+    public static final String[] SORT_COLUMNS = {
+        "job_id", "job_name", "job_owner_id", "duration", "deadline", "status", "created_timestamp"
+    };
+    // Indexes that let pages be read in each SORT_COLUMNS order without sorting the table.
+    // Each ends with job_id for the tie-break; those on other columns also hold status, so rows a
+    // page skips are counted in the index alone even when pending jobs are left out.
+    // job_id itself is the primary key.
+    private static final String[][] PAGING_INDEXES = {
+        {"idx_jobs_created", "created_timestamp, job_id"},
+        {"idx_jobs_name", "job_name, job_id, status"},
+        {"idx_jobs_owner", "job_owner_id, job_id, status"},
+        {"idx_jobs_duration", "duration, job_id, status"},
+        {"idx_jobs_deadline", "deadline, job_id, status"},
+        {"idx_jobs_status", "status, job_id"}
+    };
+
+    private static volatile boolean pagingIndexesReady = false;
+
+    /**
+     * One page of jobs and the keyset cursor that continues after it.
+     */
+    public static class JobPage {
+        private final List<Job> jobs = new ArrayList<>();
+        private Object lastSortValue;
+        private String lastJobId;
+
+        public List<Job> getJobs() { return jobs; }
+        // Sort column value and job ID of the last row; pass both to getJobPageAfter for the next page
+        public Object getLastSortValue() { return lastSortValue; }
+        public String getLastJobId() { return lastJobId; }
+    }
+
+    /**
+     * Creates a Job object from a ResultSet row and records it in the job index.
      */
     private Job resultSetToJob(ResultSet rs) throws SQLException {
-        return new Job(
+        Job job = new Job(
             rs.getString("job_id"),
             rs.getString("job_name"),
             rs.getInt("job_owner_id"),
@@ -190,6 +237,232 @@ public class JobDAO {
             rs.getString("status"),
             rs.getString("created_timestamp")
         );
+        index.put(job);
+        return job;
+    }
+
+    /**
+     * Retrieves a single job by its primary key.
+     * @param jobId the job ID.
+     * @return the job, or null if it does not exist or could not be read.
+     */
+    public Job getJobById(String jobId) {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        Job job = null;
+
+        try {
+            conn = DatabaseManager.getConnection();
+            stmt = conn.prepareStatement(SELECT_JOB_BY_ID);
+            stmt.setString(1, jobId);
+            rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                job = resultSetToJob(rs);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error retrieving job with ID: " + jobId, e);
+        } finally {
+            DatabaseManager.closeResources(rs, stmt);
+        }
+
+        return job;
+    }
+
+    /**
+     * Counts jobs, optionally leaving out jobs still pending approval.
+     */
+    public int countJobs(boolean excludePending) {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        int count = 0;
+
+        try {
+            conn = DatabaseManager.getConnection();
+            stmt = conn.prepareStatement("SELECT COUNT(*) FROM jobs" + (excludePending ? " WHERE status <> ?" : ""));
+            if (excludePending) {
+                stmt.setString(1, JobState.PENDING_APPROVAL.getLabel());
+            }
+            rs = stmt.executeQuery();
+            if (rs.next()) {
+                count = rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error counting jobs", e);
+        } finally {
+            DatabaseManager.closeResources(rs, stmt);
+        }
+
+        return count;
+    }
+
+    /**
+     * Counts jobs in each status without loading them.
+     * @return status -> number of jobs.
+     */
+    public Map<String, Integer> countJobsByStatus() {
+        Map<String, Integer> counts = new HashMap<>();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseManager.getConnection();
+            stmt = conn.prepareStatement(COUNT_JOBS_BY_STATUS);
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                counts.put(rs.getString(1), rs.getInt(2));
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error counting jobs by status", e);
+        } finally {
+            DatabaseManager.closeResources(rs, stmt);
+        }
+
+        return counts;
+    }
+
+    /**
+     * Reads the page that starts at a row offset. Used only when jumping to a page whose
+     * predecessor has not been read; scrolling on from a page uses getJobPageAfter. The
+     * skipped rows are counted in the sort column's index without reading them, but the
+     * cost still grows with the offset.
+     * @param sortColumn One of SORT_COLUMNS; ties are broken by job ID.
+     */
+    public JobPage getJobPageAt(String sortColumn, boolean ascending, boolean excludePending, int offset, int limit) {
+        return readPage(sortColumn, ascending, excludePending, null, null, offset, limit);
+    }
+
+    /**
+     * Reads the page that follows a row (keyset pagination), which stays fast however deep
+     * the page is because the database seeks to the row through the index. Rows skipped
+     * after it are counted in the index, as for getJobPageAt.
+     * @param sortColumn One of SORT_COLUMNS; ties are broken by job ID.
+     * @param afterSortValue The sort column value of the last row already read.
+     * @param afterJobId The job ID of the last row already read.
+     * @param skip Rows to skip after that row; 0 for the very next page.
+     */
+    public JobPage getJobPageAfter(String sortColumn, boolean ascending, boolean excludePending,
+                                   Object afterSortValue, String afterJobId, int skip, int limit) {
+        return readPage(sortColumn, ascending, excludePending, afterSortValue, afterJobId, skip, limit);
+    }
+
+    private JobPage readPage(String sortColumn, boolean ascending, boolean excludePending,
+                             Object afterSortValue, String afterJobId, int offset, int limit) {
+        if (!Arrays.asList(SORT_COLUMNS).contains(sortColumn)) {
+            throw new IllegalArgumentException("Unknown sort column: " + sortColumn);
+        }
+        String direction = ascending ? "ASC" : "DESC";
+        String comparison = ascending ? ">" : "<";
+        // The inner query finds the page's job IDs in the sort index, so skipped rows are never
+        // read from the table; only the page itself is joined back for its other columns
+        StringBuilder sql = new StringBuilder("SELECT j.* FROM jobs j JOIN (SELECT job_id FROM jobs WHERE 1 = 1");
+        if (excludePending) {
+            sql.append(" AND status <> ?");
+        }
+        if (afterJobId != null) {
+            sql.append(" AND (").append(sortColumn).append(' ').append(comparison).append(" ? OR (")
+               .append(sortColumn).append(" = ? AND job_id ").append(comparison).append(" ?))");
+        }
+        sql.append(" ORDER BY ").append(sortColumn).append(' ').append(direction)
+           .append(", job_id ").append(direction).append(" LIMIT ? OFFSET ?) p ON j.job_id = p.job_id")
+           .append(" ORDER BY j.").append(sortColumn).append(' ').append(direction)
+           .append(", j.job_id ").append(direction);
+
+        JobPage page = new JobPage();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseManager.getConnection();
+            ensurePagingIndexes(conn);
+            stmt = conn.prepareStatement(sql.toString());
+            int param = 1;
+            if (excludePending) {
+                stmt.setString(param++, JobState.PENDING_APPROVAL.getLabel());
+            }
+            if (afterJobId != null) {
+                stmt.setObject(param++, afterSortValue);
+                stmt.setObject(param++, afterSortValue);
+                stmt.setString(param++, afterJobId);
+            }
+            stmt.setInt(param++, limit);
+            stmt.setInt(param, offset);
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                page.jobs.add(resultSetToJob(rs));
+                page.lastSortValue = rs.getObject(sortColumn);
+                page.lastJobId = rs.getString("job_id");
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error reading job page sorted by " + sortColumn, e);
+        } finally {
+            DatabaseManager.closeResources(rs, stmt);
+        }
+
+        return page;
+    }
+
+    /**
+     * Sums the minutes of queued and in-progress jobs that come before a job in FIFO
+     * (creation) order, as the schedule's running total does.
+     */
+    public long getActiveMinutesBefore(Job job) {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        long minutes = 0;
+
+        try {
+            conn = DatabaseManager.getConnection();
+            stmt = conn.prepareStatement(SUM_ACTIVE_MINUTES_BEFORE);
+            stmt.setString(1, JobState.QUEUED.getLabel());
+            stmt.setString(2, JobState.IN_PROGRESS.getLabel());
+            stmt.setString(3, job.getCreatedTimestamp());
+            stmt.setString(4, job.getCreatedTimestamp());
+            stmt.setString(5, job.getJobId());
+            rs = stmt.executeQuery();
+            if (rs.next()) {
+                minutes = rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error summing queued work before job: " + job.getJobId(), e);
+        } finally {
+            DatabaseManager.closeResources(rs, stmt);
+        }
+
+        return minutes;
+    }
+
+    /**
+     * Adds the indexes that keep sorted pages fast to databases created before they were
+     * part of VCRTS-Tables.sql.
+     */
+    private static synchronized void ensurePagingIndexes(Connection conn) throws SQLException {
+        if (pagingIndexesReady) {
+            return;
+        }
+        for (String[] index : PAGING_INDEXES) {
+            boolean exists;
+            try (PreparedStatement check = conn.prepareStatement("SELECT 1 FROM information_schema.statistics "
+                    + "WHERE table_schema = DATABASE() AND table_name = 'jobs' AND index_name = ?")) {
+                check.setString(1, index[0]);
+                try (ResultSet rs = check.executeQuery()) {
+                    exists = rs.next();
+                }
+            }
+            if (!exists) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("CREATE INDEX " + index[0] + " ON jobs (" + index[1] + ")");
+                    logger.info("Created index " + index[0] + " on jobs");
+                }
+            }
+        }
+        pagingIndexesReady = true;
     }
 
     /**
@@ -242,6 +515,10 @@ public class JobDAO {
             
             int rowsAffected = stmt.executeUpdate();
             success = rowsAffected > 0;
+            if (success) {
+                index.put(job);
+                changes.changed(ChangeNotifier.Topic.JOBS);
+            }
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error adding job: " + job.getJobId(), e);
         } finally {
@@ -268,6 +545,10 @@ public class JobDAO {
             
             int rowsAffected = stmt.executeUpdate();
             success = rowsAffected > 0;
+            index.remove(jobId);
+            if (success) {
+                changes.changed(ChangeNotifier.Topic.JOBS);
+            }
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error deleting job with ID: " + jobId, e);
         } finally {
@@ -319,7 +600,7 @@ public class JobDAO {
     }
 
     /**
-     * Updates an existing job's details.
+     * Updates an existing job's details. The status is not written; use transitionJob.
      * @param job A Job object with updated information.
      * @return true if the update is successful; false otherwise.
      */
@@ -347,11 +628,14 @@ public class JobDAO {
                 stmt.setInt(2, job.getJobOwnerId());
                 stmt.setString(3, job.getDuration());
                 stmt.setString(4, job.getDeadline());
-                stmt.setString(5, job.getStatus());
-                stmt.setString(6, job.getJobId());
+                stmt.setString(5, job.getJobId());
                 
                 int rowsAffected = stmt.executeUpdate();
                 success = rowsAffected > 0;
+                if (success) {
+                    index.put(job);
+                    changes.changed(ChangeNotifier.Topic.JOBS);
+                }
             }
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error updating job: " + job.getJobId(), e);
@@ -361,4 +645,47 @@ public class JobDAO {
         
         return success;
     }
+
+    /**
+     * Moves a job to a new state if the transition is legal and the row still has the status
+     * the job was read with (compare-and-set), so two controllers cannot both advance it.
+     * A status that is not a known state may be replaced by any state.
+     * @param job The job as last read; its status is updated on success.
+     * @param target The new state.
+     * @return true if the row was updated; false if the transition is illegal, the job
+     *         was changed or deleted by someone else, or the update failed.
+     */
+    public boolean transitionJob(Job job, JobState target) {
+        JobState current = job.getState();
+        if (current != null && !current.canTransitionTo(target)) {
+            logger.warning("Illegal state transition for job " + job.getJobId() + ": " + current + " -> " + target);
+            return false;
+        }
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        boolean success = false;
+
+        try {
+            conn = DatabaseManager.getConnection();
+            stmt = conn.prepareStatement(TRANSITION_JOB);
+            stmt.setString(1, target.getLabel());
+            stmt.setString(2, job.getJobId());
+            stmt.setString(3, job.getStatus());
+
+            success = stmt.executeUpdate() > 0;
+            if (success) {
+                job.setState(target);
+                changes.changed(ChangeNotifier.Topic.JOBS);
+            } else {
+                logger.info("Job " + job.getJobId() + " is no longer " + job.getStatus() + "; not moved to " + target);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error changing state of job: " + job.getJobId(), e);
+        } finally {
+            DatabaseManager.closeResources(stmt);
+        }
+
+        return success;
+    }
 }
@@ -0,0 +1,88 @@
+package dao;
+
+import models.Job;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide index of job metadata (duration, owner, deadline) by job ID.
+ * JobDAO records every job it reads or writes and drops deleted ones, so lookups by ID
+ * are answered without a query once any dashboard has loaded the jobs. Shared by every
+ * JobDAO and CloudControllerDAO in the process.
+ */
+public class JobIndex {
+    private static final JobIndex instance = new JobIndex();
+
+    /**
+     * The indexed fields of a job, as parsed when it was loaded.
+     */
+    public static final class Entry {
+        private final String jobId;
+        private final int jobOwnerId;
+        private final long durationSeconds;
+        private final String deadline;
+        private final long deadlineMillis;
+
+        private Entry(Job job) {
+            this.jobId = job.getJobId();
+            this.jobOwnerId = job.getJobOwnerId();
+            this.durationSeconds = job.getDurationSeconds();
+            this.deadline = job.getDeadline();
+            this.deadlineMillis = job.getDeadlineMillis();
+        }
+
+        public String getJobId() { return jobId; }
+        public int getJobOwnerId() { return jobOwnerId; }
+        // -1 if the stored duration is not a valid HH:mm:ss value
+        public long getDurationSeconds() { return durationSeconds; }
+        public String getDeadline() { return deadline; }
+        public long getDeadlineMillis() { return deadlineMillis; }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public static JobIndex getInstance() {
+        return instance;
+    }
+
+    /**
+     * Records a job read from or written to the database.
+     */
+    public void put(Job job) {
+        if (job != null && job.getJobId() != null) {
+            entries.put(job.getJobId(), new Entry(job));
+        }
+    }
+
+    /**
+     * Returns the indexed fields of a job, or null if the job has not been seen.
+     */
+    public Entry get(String jobId) {
+        Entry entry = jobId != null ? entries.get(jobId) : null;
+        if (entry != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return entry;
+    }
+
+    public void remove(String jobId) {
+        if (jobId != null) {
+            entries.remove(jobId);
+        }
+    }
+
+    public int size() { return entries.size(); }
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d hits=%d misses=%d", size(), getHits(), getMisses());
+    }
+}
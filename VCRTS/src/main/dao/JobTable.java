@@ -0,0 +1,259 @@
+package dao;
+
+import models.Job;
+import models.JobState;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column-oriented job table used by the FIFO scheduler.
+ * Each job is a row number: the ID is interned once into a lookup map, and durations,
+ * deadlines, creation times and states are kept in primitive arrays instead of a Job
+ * object and several map entries per job. The creation-order index is built on first
+ * use and kept until a row is added.
+ *
+ * Not thread-safe; the scheduler builds a table, runs it and discards it.
+ */
+public class JobTable {
+    public static final byte STATE_OTHER = 0;
+    public static final byte STATE_QUEUED = 1;
+    public static final byte STATE_PROGRESS = 2;
+    public static final byte STATE_COMPLETED = 3;
+    public static final byte STATE_PENDING_APPROVAL = 4;
+
+    /** Stored for a duration, deadline or creation time that is missing or malformed. */
+    public static final long UNKNOWN = -1;
+
+    // Durations that cannot be parsed are scheduled as one hour, like CloudControllerDAO.parseJobDuration
+    private static final long DEFAULT_DURATION_SECONDS = 3600;
+
+    private String[] jobIds;
+    private int[] ownerIds;
+    private long[] durationSeconds;
+    private long[] deadlineMillis;
+    private long[] createdMillis;
+    private byte[] states;
+    private int size;
+    private final Map<String, Integer> rowsById;
+
+    private int[] byCreated;
+
+    /**
+     * The result of a scheduling run.
+     */
+    public static final class Schedule {
+        private final long[] startMillis;
+        private final long[] completionMillis;
+        private final int[] changedRows;
+
+        private Schedule(long[] startMillis, long[] completionMillis, int[] changedRows) {
+            this.startMillis = startMillis;
+            this.completionMillis = completionMillis;
+            this.changedRows = changedRows;
+        }
+
+        /** Estimated start time of a row in epoch milliseconds, or UNKNOWN for completed and pending jobs. */
+        public long getStartMillis(int row) { return startMillis[row]; }
+        /** Estimated completion time of a row in epoch milliseconds, or UNKNOWN for completed and pending jobs. */
+        public long getCompletionMillis(int row) { return completionMillis[row]; }
+        /** Rows whose state the run changed, in FIFO order. */
+        public int[] getChangedRows() { return changedRows; }
+    }
+
+    public JobTable() {
+        this(16);
+    }
+
+    public JobTable(int capacity) {
+        int initial = Math.max(capacity, 1);
+        jobIds = new String[initial];
+        ownerIds = new int[initial];
+        durationSeconds = new long[initial];
+        deadlineMillis = new long[initial];
+        createdMillis = new long[initial];
+        states = new byte[initial];
+        rowsById = new HashMap<>(initial * 4 / 3 + 1);
+    }
+
+    /**
+     * Builds a table from loaded jobs, in list order.
+     */
+    public static JobTable of(Iterable<Job> jobs, int expectedSize) {
+        JobTable table = new JobTable(expectedSize);
+        for (Job job : jobs) {
+            table.add(job.getJobId(), job.getJobOwnerId(), job.getDurationSeconds(),
+                    job.getDeadlineMillis(), job.getCreatedMillis(), stateCode(job.getStatus()));
+        }
+        return table;
+    }
+
+    /**
+     * Adds a row, or replaces the row with the same job ID.
+     * @return The row number.
+     */
+    public int add(String jobId, int ownerId, long duration, long deadline, long created, byte state) {
+        Integer existing = rowsById.get(jobId);
+        int row;
+        if (existing != null) {
+            row = existing;
+        } else {
+            if (size == jobIds.length) {
+                grow();
+            }
+            row = size++;
+            jobIds[row] = jobId;
+            rowsById.put(jobId, row);
+        }
+        ownerIds[row] = ownerId;
+        durationSeconds[row] = duration;
+        deadlineMillis[row] = deadline;
+        createdMillis[row] = created;
+        states[row] = state;
+        byCreated = null;
+        return row;
+    }
+
+    public int size() { return size; }
+
+    public String getJobId(int row) { return jobIds[row]; }
+    public int getOwnerId(int row) { return ownerIds[row]; }
+    public long getDurationSeconds(int row) { return durationSeconds[row]; }
+    public long getDeadlineMillis(int row) { return deadlineMillis[row]; }
+    public long getCreatedMillis(int row) { return createdMillis[row]; }
+    public byte getState(int row) { return states[row]; }
+    public void setState(int row, byte state) { states[row] = state; }
+
+    /**
+     * Returns row numbers in creation order (FIFO order); rows created at the same time keep insertion order.
+     * The array is shared; callers must not modify it.
+     */
+    public int[] rowsByCreated() {
+        if (byCreated == null) {
+            byCreated = sortRows(createdMillis, size);
+        }
+        return byCreated;
+    }
+
+    /**
+     * Runs FIFO scheduling from the given start time. The first job already in progress
+     * keeps running, otherwise the oldest unfinished job starts; every other unfinished job
+     * is queued. Completed and pending-approval jobs are skipped.
+     * States are updated in the table; the rows that changed are reported in the result.
+     */
+    public Schedule schedule(long startMillis) {
+        int[] order = rowsByCreated();
+        long[] start = new long[size];
+        long[] completion = new long[size];
+        Arrays.fill(start, UNKNOWN);
+        Arrays.fill(completion, UNKNOWN);
+        int[] changed = new int[Math.min(size, 16)];
+        int changedCount = 0;
+
+        int running = -1;
+        for (int row : order) {
+            if (states[row] == STATE_PROGRESS) {
+                running = row;
+                break;
+            }
+        }
+
+        long current = startMillis;
+        for (int row : order) {
+            byte state = states[row];
+            if (state == STATE_COMPLETED || state == STATE_PENDING_APPROVAL) {
+                continue;
+            }
+            if (running < 0) {
+                running = row;
+            }
+            byte next = row == running ? STATE_PROGRESS : STATE_QUEUED;
+            if (next != state) {
+                states[row] = next;
+                if (changedCount == changed.length) {
+                    changed = Arrays.copyOf(changed, changed.length * 2);
+                }
+                changed[changedCount++] = row;
+            }
+            long duration = durationSeconds[row] >= 0 ? durationSeconds[row] : DEFAULT_DURATION_SECONDS;
+            start[row] = current;
+            current += duration * 1000;
+            completion[row] = current;
+        }
+        return new Schedule(start, completion, Arrays.copyOf(changed, changedCount));
+    }
+
+    /**
+     * Maps a job status string to its state code.
+     */
+    public static byte stateCode(String status) {
+        JobState state = JobState.fromLabel(status);
+        if (state == null) {
+            return STATE_OTHER;
+        }
+        switch (state) {
+            case QUEUED: return STATE_QUEUED;
+            case IN_PROGRESS: return STATE_PROGRESS;
+            case COMPLETED: return STATE_COMPLETED;
+            case PENDING_APPROVAL: return STATE_PENDING_APPROVAL;
+            default: return STATE_OTHER;
+        }
+    }
+
+    /**
+     * Maps a state code back to its JobState, or null for STATE_OTHER.
+     */
+    public static JobState state(byte code) {
+        switch (code) {
+            case STATE_QUEUED: return JobState.QUEUED;
+            case STATE_PROGRESS: return JobState.IN_PROGRESS;
+            case STATE_COMPLETED: return JobState.COMPLETED;
+            case STATE_PENDING_APPROVAL: return JobState.PENDING_APPROVAL;
+            default: return null;
+        }
+    }
+
+    private void grow() {
+        int capacity = jobIds.length * 2;
+        jobIds = Arrays.copyOf(jobIds, capacity);
+        ownerIds = Arrays.copyOf(ownerIds, capacity);
+        durationSeconds = Arrays.copyOf(durationSeconds, capacity);
+        deadlineMillis = Arrays.copyOf(deadlineMillis, capacity);
+        createdMillis = Arrays.copyOf(createdMillis, capacity);
+        states = Arrays.copyOf(states, capacity);
+    }
+
+    /**
+     * Stable merge sort of the positions 0..size-1 by key, without boxing.
+     * Also used by IntervalIndex.
+     */
+    static int[] sortRows(long[] keys, int size) {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int lo = 0; lo < size - width; lo += 2 * width) {
+                int mid = lo + width;
+                int hi = Math.min(lo + 2 * width, size);
+                if (keys[rows[mid - 1]] <= keys[rows[mid]]) {
+                    continue; // Already in order
+                }
+                System.arraycopy(rows, lo, buffer, lo, hi - lo);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    rows[k++] = keys[buffer[j]] < keys[buffer[i]] ? buffer[j++] : buffer[i++];
+                }
+                while (i < mid) {
+                    rows[k++] = buffer[i++];
+                }
+                while (j < hi) {
+                    rows[k++] = buffer[j++];
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,410 @@
+package dao;
+
+import db.FileManager;
+import models.Job;
+import models.PendingRequest;
+import models.Vehicle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Durable queue of requests awaiting Cloud Controller approval.
+ * Every submission and removal is appended to a journal file and forced to disk before
+ * the call returns, so the queue (and the request ID sequence) survives a restart.
+ * The journal is replayed on startup and compacted once it is mostly removals.
+ */
+public class PendingRequestQueue {
+    private static final Logger logger = Logger.getLogger(PendingRequestQueue.class.getName());
+    private static final String JOURNAL_FILE = "pending_requests.journal";
+    private static final String LEGACY_FILE = "pending_requests.txt";
+    private static final String DELIMITER = "\\|";
+    private static final String SEPARATOR = "|";
+    private static final int MIN_COMPACTION_RECORDS = 1000;
+
+    private static PendingRequestQueue instance;
+    private static final ChangeNotifier changes = ChangeNotifier.getInstance();
+
+    private final Path journalPath;
+    private final PendingRequestStore store = new PendingRequestStore();
+    private final Object journalLock = new Object();
+    private FileChannel journal;
+    private int nextRequestId = 1;
+    private int journalRecords = 0;
+
+    /**
+     * Returns the process-wide queue backed by the journal in the data directory.
+     */
+    public static synchronized PendingRequestQueue getInstance() {
+        if (instance == null) {
+            instance = new PendingRequestQueue(Paths.get(FileManager.getDataDirectory(), JOURNAL_FILE));
+        }
+        return instance;
+    }
+
+    /**
+     * Opens (or creates) a queue backed by the given journal file and replays it.
+     * @param journalPath The journal file location.
+     */
+    public PendingRequestQueue(Path journalPath) {
+        this.journalPath = journalPath;
+        boolean existed = Files.exists(journalPath);
+        replay();
+        try {
+            openJournal();
+            if (!existed && journalPath.getFileName().toString().equals(JOURNAL_FILE)) {
+                migrateLegacyFile();
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not open pending request journal: " + journalPath, e);
+        }
+        logger.info("Pending request queue ready: " + store.size() + " request(s), next ID " + nextRequestId);
+    }
+
+    // --- Queue operations ---
+
+    /**
+     * Durably adds a request to the queue. The request is only visible (and the call only
+     * returns) after its journal record has been forced to disk.
+     * @param type The request type.
+     * @param data The Job or Vehicle submitted.
+     * @param submitterId The submitting user's ID, or -1 if unknown.
+     * @param submittedByInfo Display text describing the submitter.
+     * @return The queued request with its assigned ID.
+     * @throws IOException if the journal write fails; the request is not queued.
+     */
+    public PendingRequest submit(PendingRequest.RequestType type, Object data, int submitterId, String submittedByInfo) throws IOException {
+        PendingRequest request;
+        synchronized (journalLock) {
+            request = new PendingRequest(nextRequestId, type, data, submitterId, submittedByInfo);
+            append(addRecord(request));
+            nextRequestId++;
+            store.add(request);
+        }
+        changes.changed(ChangeNotifier.Topic.PENDING_REQUESTS);
+        return request;
+    }
+
+    /**
+     * Durably removes a request from the queue (after approval or rejection).
+     * @param requestId The ID of the request.
+     * @return The removed request, or null if it was not queued.
+     */
+    public PendingRequest remove(int requestId) {
+        PendingRequest removed;
+        synchronized (journalLock) {
+            removed = store.get(requestId);
+            if (removed == null) {
+                return null;
+            }
+            try {
+                append("REMOVE" + SEPARATOR + requestId);
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Could not journal removal of request " + requestId, e);
+                return null;
+            }
+            store.remove(requestId);
+            compactIfNeeded();
+        }
+        changes.changed(ChangeNotifier.Topic.PENDING_REQUESTS);
+        return removed;
+    }
+
+    public PendingRequest get(int requestId) {
+        return store.get(requestId);
+    }
+
+    /**
+     * Returns all queued requests in submission order.
+     */
+    public List<PendingRequest> snapshot() {
+        return store.snapshot();
+    }
+
+    public List<PendingRequest> getByType(PendingRequest.RequestType type) {
+        return store.getByType(type);
+    }
+
+    public List<PendingRequest> getBySubmitter(int submitterId) {
+        return store.getBySubmitter(submitterId);
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public int countByType(PendingRequest.RequestType type) {
+        return store.countByType(type);
+    }
+
+    public long getVersion() {
+        return store.getVersion();
+    }
+
+    /**
+     * Closes the journal file.
+     */
+    public void close() {
+        synchronized (journalLock) {
+            try {
+                if (journal != null) {
+                    journal.close();
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Error closing pending request journal", e);
+            }
+        }
+    }
+
+    // --- Journal handling ---
+
+    private void openJournal() throws IOException {
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void append(String record) throws IOException {
+        if (journal == null) {
+            openJournal();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap((record + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        journal.force(false);
+        journalRecords++;
+    }
+
+    /**
+     * Rebuilds the in-memory queue from the journal. A torn last record (one without its
+     * newline) is cut off the file, so the next append starts on a line of its own.
+     */
+    private void replay() {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(journalPath);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not read pending request journal: " + journalPath, e);
+            return;
+        }
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+        if (end < bytes.length) {
+            logger.warning("Discarding torn record at the end of " + journalPath + " (" + (bytes.length - end) + " bytes)");
+            try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+                channel.force(true);
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Could not truncate pending request journal: " + journalPath, e);
+            }
+        }
+        for (String line : new String(bytes, 0, end, StandardCharsets.UTF_8).split("\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] parts = line.split(DELIMITER, -1);
+            try {
+                switch (parts[0]) {
+                    case "SEQ":
+                        nextRequestId = Math.max(nextRequestId, Integer.parseInt(parts[1]));
+                        break;
+                    case "ADD":
+                        PendingRequest request = parseAddRecord(parts);
+                        if (request != null) {
+                            store.add(request);
+                            nextRequestId = Math.max(nextRequestId, request.getRequestId() + 1);
+                        }
+                        break;
+                    case "REMOVE":
+                        store.remove(Integer.parseInt(parts[1]));
+                        break;
+                    default:
+                        logger.warning("Skipping unknown journal record: " + line);
+                }
+                journalRecords++;
+            } catch (RuntimeException e) {
+                logger.warning("Skipping malformed journal record: " + line);
+            }
+        }
+    }
+
+    /**
+     * Rewrites the journal with only the live requests once removals dominate it.
+     */
+    private void compactIfNeeded() {
+        if (journalRecords < MIN_COMPACTION_RECORDS || journalRecords < store.size() * 2) {
+            return;
+        }
+        Path tempPath = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        List<String> records = new ArrayList<>();
+        records.add("SEQ" + SEPARATOR + nextRequestId);
+        for (PendingRequest request : store.snapshot()) {
+            records.add(addRecord(request));
+        }
+        try (FileChannel out = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(ByteBuffer.wrap((String.join("\n", records) + "\n").getBytes(StandardCharsets.UTF_8)));
+            out.force(true);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Journal compaction failed, keeping the existing journal", e);
+            return;
+        }
+        try {
+            journal.close();
+            Files.move(tempPath, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journalRecords = records.size();
+            logger.info("Compacted pending request journal to " + records.size() + " record(s)");
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error replacing pending request journal during compaction", e);
+        } finally {
+            // Reopen whichever journal is now in place; if that fails, the next append retries
+            try {
+                openJournal();
+            } catch (IOException e) {
+                journal = null;
+                logger.log(Level.SEVERE, "Could not reopen pending request journal: " + journalPath, e);
+            }
+        }
+    }
+
+    /**
+     * Imports requests from the old pending_requests.txt file the first time the journal is created.
+     */
+    private void migrateLegacyFile() {
+        List<String> lines = FileManager.readAllLines(LEGACY_FILE);
+        int imported = 0;
+        for (String line : lines) {
+            String[] parts = line.split(DELIMITER);
+            if (parts.length < 9) continue;
+            try {
+                String submittedByInfo = parts[1];
+                int submitterId = parseSubmitterId(submittedByInfo);
+                if ("JOB".equals(parts[0])) {
+                    Job job = new Job(parts[2], parts[3], Integer.parseInt(parts[4]), parts[5], parts[6], parts[7], parts[8]);
+                    submit(PendingRequest.RequestType.JOB, job, submitterId, submittedByInfo);
+                    imported++;
+                } else if ("VEHICLE".equals(parts[0])) {
+                    Vehicle vehicle = new Vehicle(Integer.parseInt(parts[2]), parts[3], parts[4], parts[5], parts[6], parts[7], parts[8]);
+                    submit(PendingRequest.RequestType.VEHICLE, vehicle, submitterId, submittedByInfo);
+                    imported++;
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.WARNING, "Could not migrate pending request: " + line, e);
+            }
+        }
+        if (imported > 0) {
+            FileManager.writeAllLines(LEGACY_FILE, new ArrayList<>());
+            logger.info("Migrated " + imported + " pending request(s) from " + LEGACY_FILE);
+        }
+    }
+
+    // --- Record encoding ---
+
+    private String addRecord(PendingRequest request) {
+        StringBuilder record = new StringBuilder("ADD");
+        appendField(record, String.valueOf(request.getRequestId()));
+        appendField(record, request.getType().name());
+        appendField(record, String.valueOf(request.getSubmitterId()));
+        appendField(record, request.getSubmittedByInfo());
+        if (request.getType() == PendingRequest.RequestType.JOB) {
+            Job job = (Job) request.getData();
+            appendField(record, job.getJobId());
+            appendField(record, job.getJobName());
+            appendField(record, String.valueOf(job.getJobOwnerId()));
+            appendField(record, job.getDuration());
+            appendField(record, job.getDeadline());
+            appendField(record, job.getStatus());
+            appendField(record, job.getCreatedTimestamp());
+        } else {
+            Vehicle vehicle = (Vehicle) request.getData();
+            appendField(record, vehicle.getOwnerId());
+            appendField(record, String.valueOf(vehicle.getVehicleOwnerId()));
+            appendField(record, vehicle.getModel());
+            appendField(record, vehicle.getMake());
+            appendField(record, vehicle.getYear());
+            appendField(record, vehicle.getVin());
+            appendField(record, vehicle.getResidencyTime());
+            appendField(record, vehicle.getRegisteredTimestamp());
+        }
+        return record.toString();
+    }
+
+    private PendingRequest parseAddRecord(String[] parts) {
+        int requestId = Integer.parseInt(parts[1]);
+        PendingRequest.RequestType type = PendingRequest.RequestType.valueOf(parts[2]);
+        int submitterId = Integer.parseInt(parts[3]);
+        String submittedByInfo = unescape(parts[4]);
+        if (type == PendingRequest.RequestType.JOB && parts.length >= 12) {
+            Job job = new Job(unescape(parts[5]), unescape(parts[6]), Integer.parseInt(parts[7]),
+                              unescape(parts[8]), unescape(parts[9]), unescape(parts[10]), unescape(parts[11]));
+            return new PendingRequest(requestId, type, job, submitterId, submittedByInfo);
+        } else if (type == PendingRequest.RequestType.VEHICLE && parts.length >= 13) {
+            Vehicle vehicle = new Vehicle(unescape(parts[5]), Integer.parseInt(parts[6]), unescape(parts[7]), unescape(parts[8]),
+                                          unescape(parts[9]), unescape(parts[10]), unescape(parts[11]), unescape(parts[12]));
+            return new PendingRequest(requestId, type, vehicle, submitterId, submittedByInfo);
+        }
+        logger.warning("Incomplete journal record for request " + requestId);
+        return null;
+    }
+
+    private static void appendField(StringBuilder record, String value) {
+        record.append(SEPARATOR).append(escape(value));
+    }
+
+    // Escapes the field separator and line breaks so every record stays on one line
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("|", "\\p").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 'p': result.append('|'); break;
+                    case 'n': result.append('\n'); break;
+                    case 'r': result.append('\r'); break;
+                    default: result.append(next);
+                }
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Extracts the user ID from a "User ID: N (...)" submitter description.
+     * @return The user ID, or -1 if it cannot be determined.
+     */
+    static int parseSubmitterId(String submittedByInfo) {
+        if (submittedByInfo == null || !submittedByInfo.startsWith("User ID: ")) {
+            return -1;
+        }
+        int start = "User ID: ".length();
+        int end = start;
+        while (end < submittedByInfo.length() && Character.isDigit(submittedByInfo.charAt(end))) {
+            end++;
+        }
+        return end > start ? Integer.parseInt(submittedByInfo.substring(start, end)) : -1;
+    }
+}
@@ -0,0 +1,175 @@
+package dao;
+
+import models.PendingRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Concurrent in-memory store for pending approval requests.
+ * Requests are indexed by request ID, by request type and by submitter, and iterate
+ * in insertion order (request IDs are handed out in increasing order).
+ * Reads never take a lock; writes are serialized so the indexes stay consistent.
+ */
+public class PendingRequestStore {
+    private final ConcurrentHashMap<Integer, PendingRequest> byId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, PendingRequest> ordered = new ConcurrentSkipListMap<>();
+    private final Map<PendingRequest.RequestType, Set<Integer>> byType = new EnumMap<>(PendingRequest.RequestType.class);
+    private final ConcurrentHashMap<Integer, Set<Integer>> bySubmitter = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    // Bumped on every write; the cached read-only view is rebuilt lazily when it is stale
+    private volatile long version = 0;
+    private volatile Snapshot cached = new Snapshot(0, Collections.emptyList());
+
+    public PendingRequestStore() {
+        for (PendingRequest.RequestType type : PendingRequest.RequestType.values()) {
+            byType.put(type, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Adds a request to the store.
+     * @param request The request to add.
+     * @return true if added, false if a request with the same ID is already stored.
+     */
+    public boolean add(PendingRequest request) {
+        synchronized (writeLock) {
+            if (byId.putIfAbsent(request.getRequestId(), request) != null) {
+                return false;
+            }
+            ordered.put(request.getRequestId(), request);
+            byType.get(request.getType()).add(request.getRequestId());
+            bySubmitter.computeIfAbsent(request.getSubmitterId(), k -> ConcurrentHashMap.newKeySet())
+                       .add(request.getRequestId());
+            version++;
+            return true;
+        }
+    }
+
+    /**
+     * Removes a request by ID.
+     * @param requestId The ID of the request.
+     * @return The removed request, or null if it was not found.
+     */
+    public PendingRequest remove(int requestId) {
+        synchronized (writeLock) {
+            PendingRequest removed = byId.remove(requestId);
+            if (removed == null) {
+                return null;
+            }
+            ordered.remove(requestId);
+            byType.get(removed.getType()).remove(requestId);
+            Set<Integer> submitted = bySubmitter.get(removed.getSubmitterId());
+            if (submitted != null) {
+                submitted.remove(requestId);
+                if (submitted.isEmpty()) {
+                    bySubmitter.remove(removed.getSubmitterId());
+                }
+            }
+            version++;
+            return removed;
+        }
+    }
+
+    /**
+     * Removes every request from the store.
+     */
+    public void clear() {
+        synchronized (writeLock) {
+            byId.clear();
+            ordered.clear();
+            byType.values().forEach(Set::clear);
+            bySubmitter.clear();
+            version++;
+        }
+    }
+
+    /**
+     * Gets a request by ID.
+     * @param requestId The ID of the request.
+     * @return The request, or null if not found.
+     */
+    public PendingRequest get(int requestId) {
+        return byId.get(requestId);
+    }
+
+    /**
+     * Returns all requests in insertion order.
+     * @return An unmodifiable list, shared between callers until the next write.
+     */
+    public List<PendingRequest> snapshot() {
+        Snapshot current = cached;
+        long currentVersion = version;
+        if (current.version != currentVersion) {
+            current = new Snapshot(currentVersion, Collections.unmodifiableList(new ArrayList<>(ordered.values())));
+            cached = current;
+        }
+        return current.requests;
+    }
+
+    /**
+     * Returns the requests of a given type in insertion order.
+     */
+    public List<PendingRequest> getByType(PendingRequest.RequestType type) {
+        return collect(byType.get(type));
+    }
+
+    /**
+     * Returns the requests submitted by a given user in insertion order.
+     */
+    public List<PendingRequest> getBySubmitter(int submitterId) {
+        return collect(bySubmitter.get(submitterId));
+    }
+
+    /**
+     * Returns a counter that changes whenever the store is modified.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public int countByType(PendingRequest.RequestType type) {
+        return byType.get(type).size();
+    }
+
+    public boolean isEmpty() {
+        return byId.isEmpty();
+    }
+
+    private List<PendingRequest> collect(Set<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> sortedIds = new ArrayList<>(ids);
+        Collections.sort(sortedIds);
+        List<PendingRequest> result = new ArrayList<>(sortedIds.size());
+        for (Integer id : sortedIds) {
+            PendingRequest request = byId.get(id);
+            if (request != null) {
+                result.add(request);
+            }
+        }
+        return result;
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final List<PendingRequest> requests;
+
+        private Snapshot(long version, List<PendingRequest> requests) {
+            this.version = version;
+            this.requests = requests;
+        }
+    }
+}
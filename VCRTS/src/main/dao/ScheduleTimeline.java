@@ -0,0 +1,183 @@
+package dao;
+
+import models.Job;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * The projected FIFO schedule as bars on a timeline, one lane per job owner, built for the
+ * dashboard's timeline view. Every queued or in-progress job is a bar from its estimated
+ * start to its estimated completion, as JobTable.schedule computes them; completed and
+ * pending jobs have no estimate and are left out. Each lane has an IntervalIndex of its
+ * bars, so drawing a stretch of time only visits the bars in it.
+ *
+ * Bars are numbered from 0 in FIFO order. Immutable once built.
+ */
+public class ScheduleTimeline {
+    // Deadlines are stored as dates; a job is late only if it finishes after its deadline day
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final String[] jobIds;
+    private final String[] jobNames;
+    private final int[] lanes;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] deadlines;
+    private final boolean[] running;
+    private final int[] laneOwnerIds;
+    private final String[] laneLabels;
+    private final IntervalIndex[] laneIndexes;
+    private final long rangeStart;
+    private final long rangeEnd;
+    private final int lateCount;
+
+    private ScheduleTimeline(String[] jobIds, String[] jobNames, int[] lanes, long[] starts, long[] ends,
+                             long[] deadlines, boolean[] running, int[] laneOwnerIds, String[] laneLabels,
+                             long rangeStart, long rangeEnd) {
+        this.jobIds = jobIds;
+        this.jobNames = jobNames;
+        this.lanes = lanes;
+        this.starts = starts;
+        this.ends = ends;
+        this.deadlines = deadlines;
+        this.running = running;
+        this.laneOwnerIds = laneOwnerIds;
+        this.laneLabels = laneLabels;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+
+        int late = 0;
+        for (int bar = 0; bar < jobIds.length; bar++) {
+            if (isLate(bar)) {
+                late++;
+            }
+        }
+        this.lateCount = late;
+
+        // Bars of each lane, grouped with a counting sort by lane
+        int[] laneStarts = new int[laneOwnerIds.length + 1];
+        for (int lane : lanes) {
+            laneStarts[lane + 1]++;
+        }
+        for (int lane = 0; lane < laneOwnerIds.length; lane++) {
+            laneStarts[lane + 1] += laneStarts[lane];
+        }
+        int[] byLane = new int[jobIds.length];
+        int[] next = Arrays.copyOf(laneStarts, laneOwnerIds.length);
+        for (int bar = 0; bar < jobIds.length; bar++) {
+            byLane[next[lanes[bar]]++] = bar;
+        }
+        this.laneIndexes = new IntervalIndex[laneOwnerIds.length];
+        for (int lane = 0; lane < laneOwnerIds.length; lane++) {
+            int count = laneStarts[lane + 1] - laneStarts[lane];
+            long[] laneBarStarts = new long[count];
+            long[] laneBarEnds = new long[count];
+            int[] laneBars = new int[count];
+            for (int i = 0; i < count; i++) {
+                int bar = byLane[laneStarts[lane] + i];
+                laneBarStarts[i] = starts[bar];
+                laneBarEnds[i] = ends[bar];
+                laneBars[i] = bar;
+            }
+            laneIndexes[lane] = new IntervalIndex(laneBarStarts, laneBarEnds, laneBars, count);
+        }
+    }
+
+    /**
+     * Projects the schedule of the given jobs from a start time.
+     * @param jobs The jobs; only queued and in-progress jobs get a bar.
+     * @param startMillis When the schedule starts, normally now.
+     * @param ownerNames Names to label the lanes with, by owner ID; owners without one are shown by ID.
+     */
+    public static ScheduleTimeline of(Collection<Job> jobs, long startMillis, Map<Integer, String> ownerNames) {
+        Job[] byRow = jobs.toArray(new Job[0]);
+        JobTable table = JobTable.of(jobs, byRow.length);
+        JobTable.Schedule schedule = table.schedule(startMillis);
+
+        int count = 0;
+        int[] order = table.rowsByCreated();
+        for (int row : order) {
+            if (schedule.getStartMillis(row) != JobTable.UNKNOWN) {
+                count++;
+            }
+        }
+
+        // Lanes in owner ID order
+        int[] ownerIds = new int[count];
+        int bar = 0;
+        for (int row : order) {
+            if (schedule.getStartMillis(row) != JobTable.UNKNOWN) {
+                ownerIds[bar++] = table.getOwnerId(row);
+            }
+        }
+        int[] laneOwnerIds = Arrays.stream(ownerIds).distinct().sorted().toArray();
+        String[] laneLabels = new String[laneOwnerIds.length];
+        for (int lane = 0; lane < laneOwnerIds.length; lane++) {
+            String name = ownerNames.get(laneOwnerIds[lane]);
+            laneLabels[lane] = name != null ? name + " (" + laneOwnerIds[lane] + ")" : "Owner " + laneOwnerIds[lane];
+        }
+
+        String[] jobIds = new String[count];
+        String[] jobNames = new String[count];
+        int[] lanes = new int[count];
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        long[] deadlines = new long[count];
+        boolean[] running = new boolean[count];
+        long rangeEnd = startMillis;
+        bar = 0;
+        for (int row : order) {
+            long start = schedule.getStartMillis(row);
+            if (start == JobTable.UNKNOWN) {
+                continue;
+            }
+            jobIds[bar] = table.getJobId(row);
+            jobNames[bar] = byRow[row].getJobName();
+            lanes[bar] = Arrays.binarySearch(laneOwnerIds, table.getOwnerId(row));
+            starts[bar] = start;
+            ends[bar] = schedule.getCompletionMillis(row);
+            deadlines[bar] = table.getDeadlineMillis(row);
+            running[bar] = table.getState(row) == JobTable.STATE_PROGRESS;
+            rangeEnd = Math.max(rangeEnd, ends[bar]);
+            bar++;
+        }
+        return new ScheduleTimeline(jobIds, jobNames, lanes, starts, ends, deadlines, running,
+                laneOwnerIds, laneLabels, startMillis, rangeEnd);
+    }
+
+    /**
+     * Calls the visitor with every bar of a lane that overlaps [from, to).
+     */
+    public void query(int lane, long from, long to, IntConsumer visitor) {
+        laneIndexes[lane].query(from, to, visitor);
+    }
+
+    public int size() { return jobIds.length; }
+    public int getLaneCount() { return laneLabels.length; }
+    public String getLaneLabel(int lane) { return laneLabels[lane]; }
+    public int getLaneOwnerId(int lane) { return laneOwnerIds[lane]; }
+    /** Start of the schedule in epoch milliseconds. */
+    public long getRangeStart() { return rangeStart; }
+    /** Completion of the last job in epoch milliseconds. */
+    public long getRangeEnd() { return rangeEnd; }
+    public int getLateCount() { return lateCount; }
+
+    public String getJobId(int bar) { return jobIds[bar]; }
+    public String getJobName(int bar) { return jobNames[bar]; }
+    public int getLane(int bar) { return lanes[bar]; }
+    public long getStart(int bar) { return starts[bar]; }
+    public long getEnd(int bar) { return ends[bar]; }
+    /** Start of the deadline day in epoch milliseconds, or -1 if unknown. */
+    public long getDeadline(int bar) { return deadlines[bar]; }
+    public boolean isRunning(int bar) { return running[bar]; }
+
+    /**
+     * Whether a bar is estimated to finish after its deadline day.
+     */
+    public boolean isLate(int bar) {
+        return deadlines[bar] >= 0 && ends[bar] > deadlines[bar] + DAY_MILLIS;
+    }
+}
@@ -0,0 +1,197 @@
+package dao;
+
+import models.User;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide, size-bounded LRU cache of users by ID with a time-to-live.
+ * UserDAO reads through it and invalidates entries when a user changes.
+ * Callers always receive their own copy, so cached users cannot be modified in place.
+ * A read-through load takes a stamp before it queries the database and passes it to put,
+ * which drops the user if it was invalidated in between, so a stale row read before an
+ * update cannot be cached after the update's invalidation.
+ *
+ * Limits can be tuned with the system properties vcrts.userCache.maxEntries (default 1024)
+ * and vcrts.userCache.ttlSeconds (default 300).
+ */
+public class UserCache {
+    private static final Logger logger = Logger.getLogger(UserCache.class.getName());
+    private static final int DEFAULT_MAX_ENTRIES = 1024;
+    private static final long DEFAULT_TTL_SECONDS = 300;
+    // Log the hit ratio every this many lookups
+    private static final long STATS_LOG_INTERVAL = 10000;
+
+    private static final UserCache instance = new UserCache(
+            Integer.getInteger("vcrts.userCache.maxEntries", DEFAULT_MAX_ENTRIES),
+            Long.getLong("vcrts.userCache.ttlSeconds", DEFAULT_TTL_SECONDS) * 1000);
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<Integer, Entry> entries;
+    // Invalidation stamps, guarded by entries: the last stamp each recently invalidated
+    // user was invalidated at, bounded like entries. Users whose stamp was dropped count
+    // as invalidated at forgottenStamp.
+    private long stamp = 0;
+    private long forgottenStamp = 0;
+    private final Map<Integer, Long> invalidatedAt;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public static UserCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param maxEntries The maximum number of users kept; the least recently used is evicted first.
+     * @param ttlMillis How long an entry stays valid after it is loaded.
+     */
+    public UserCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        // Access-ordered so iteration order is least recently used first
+        this.entries = new LinkedHashMap<Integer, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() > UserCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.invalidatedAt = new LinkedHashMap<Integer, Long>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+                if (size() > UserCache.this.maxEntries) {
+                    forgottenStamp = Math.max(forgottenStamp, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Looks up a user.
+     * @param userId The user ID.
+     * @return A copy of the cached user, or null on a miss or expired entry.
+     */
+    public User get(int userId) {
+        User result = null;
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    result = new User(entry.user);
+                } else {
+                    entries.remove(userId);
+                    expirations.incrementAndGet();
+                }
+            }
+        }
+        if (result != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        if ((hits.get() + misses.get()) % STATS_LOG_INTERVAL == 0) {
+            logger.info("User cache: " + this);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the stamp to pass to put for a user about to be read from the database.
+     */
+    public long stamp() {
+        synchronized (entries) {
+            return stamp;
+        }
+    }
+
+    /**
+     * Stores a copy of a user loaded from the database, unless the user was invalidated
+     * after the stamp was taken.
+     * @param loadStamp The result of stamp(), taken before the user was read.
+     */
+    public void put(User user, long loadStamp) {
+        if (user == null) {
+            return;
+        }
+        Entry entry = new Entry(new User(user), System.currentTimeMillis() + ttlMillis);
+        synchronized (entries) {
+            Long invalidated = invalidatedAt.get(user.getUserId());
+            if ((invalidated != null ? invalidated : forgottenStamp) > loadStamp) {
+                return; // Changed while it was being read; the next lookup reads it again
+            }
+            entries.put(user.getUserId(), entry);
+        }
+    }
+
+    /**
+     * Drops a user so the next lookup reads it from the database again.
+     */
+    public void invalidate(int userId) {
+        synchronized (entries) {
+            invalidatedAt.remove(userId); // Re-inserted so the most recent stay longest
+            invalidatedAt.put(userId, ++stamp);
+            if (entries.remove(userId) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            forgottenStamp = ++stamp;
+            invalidatedAt.clear();
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getExpirations() { return expirations.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public long getInvalidations() { return invalidations.get(); }
+
+    /**
+     * Returns hits / (hits + misses), or 0 before the first lookup.
+     */
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d/%d hits=%d misses=%d hitRatio=%.3f expirations=%d evictions=%d invalidations=%d",
+                size(), maxEntries, getHits(), getMisses(), getHitRatio(), getExpirations(), getEvictions(), getInvalidations());
+    }
+
+    private static final class Entry {
+        private final User user;
+        private final long expiresAt;
+
+        private Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -254,67 +254,225 @@ import java.util.logging.Logger;
 
 public class UserDAO {
     private static final Logger logger = Logger.getLogger(UserDAO.class.getName());
+    private static final UserCache userCache = UserCache.getInstance();
+    private static final ChangeNotifier changes = ChangeNotifier.getInstance();
+    // Users with one row per role; a user without roles still gets one row, with a null role
+    private static final String SELECT_USERS_WITH_ROLES =
+            "SELECT u.*, r.role FROM users u LEFT JOIN user_roles r ON r.user_id = u.user_id";
+    // Set once the user_roles table has been created and backfilled in this process
+    private static volatile boolean roleTableReady = false;
+
+    // A write done by inTransaction; returns whether the user was found or added
+    private interface UserWrite {
+        boolean run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Runs a write to users and user_roles as one transaction, so a user is never left
+     * without roles. A transaction on the shared connection would take in the statements of
+     * other threads, so the write gets a connection of its own.
+     */
+    private static boolean inTransaction(UserWrite write) throws SQLException {
+        try (Connection conn = DatabaseManager.openConnection()) {
+            // Creating the table commits implicitly, so it is done before the transaction starts
+            ensureRoleTable(conn);
+            conn.setAutoCommit(false);
+            try {
+                boolean written = write.run(conn);
+                conn.commit();
+                return written;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Creates the user_roles table on databases that predate it and backfills it from the
+     * comma-separated users.roles column. Safe to run repeatedly; only users without any
+     * role rows are copied. Tables made before role_order existed get the column, with the
+     * order of users.roles.
+     */
+    private static synchronized void ensureRoleTable(Connection conn) throws SQLException {
+        if (roleTableReady) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS user_roles ("
+                    + "user_id INT NOT NULL, "
+                    + "role VARCHAR(50) NOT NULL, "
+                    + "role_order INT NOT NULL DEFAULT 0, "
+                    + "PRIMARY KEY (user_id, role), "
+                    + "INDEX idx_user_roles_role (role, user_id), "
+                    + "FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE)");
+        }
+        boolean hasOrder;
+        try (Statement check = conn.createStatement();
+             ResultSet rs = check.executeQuery("SELECT 1 FROM information_schema.columns WHERE table_schema = DATABASE() "
+                     + "AND table_name = 'user_roles' AND column_name = 'role_order'")) {
+            hasOrder = rs.next();
+        }
+        if (!hasOrder) {
+            try (Statement alter = conn.createStatement()) {
+                alter.executeUpdate("ALTER TABLE user_roles ADD COLUMN role_order INT NOT NULL DEFAULT 0");
+            }
+            try (Statement select = conn.createStatement();
+                 ResultSet rs = select.executeQuery("SELECT user_id, roles FROM users");
+                 PreparedStatement update = conn.prepareStatement(
+                         "UPDATE user_roles SET role_order = ? WHERE user_id = ? AND role = ?")) {
+                while (rs.next()) {
+                    List<String> roles = new User(null, null, rs.getString("roles"), null).getRoles();
+                    for (int i = 0; i < roles.size(); i++) {
+                        update.setInt(1, i);
+                        update.setInt(2, rs.getInt("user_id"));
+                        update.setString(3, roles.get(i));
+                        update.addBatch();
+                    }
+                }
+                update.executeBatch();
+            }
+            logger.info("Added role_order to user_roles");
+        }
+
+        String sql = "SELECT u.user_id, u.roles FROM users u "
+                + "WHERE NOT EXISTS (SELECT 1 FROM user_roles r WHERE r.user_id = u.user_id)";
+        int migrated = 0;
+        try (Statement select = conn.createStatement();
+             ResultSet rs = select.executeQuery(sql);
+             PreparedStatement insert = conn.prepareStatement("INSERT IGNORE INTO user_roles (user_id, role, role_order) VALUES (?, ?, ?)")) {
+            while (rs.next()) {
+                User user = new User(null, null, rs.getString("roles"), null);
+                user.setUserId(rs.getInt("user_id"));
+                addRoleRows(insert, user);
+                migrated++;
+            }
+            if (migrated > 0) {
+                insert.executeBatch();
+                logger.info("Migrated roles of " + migrated + " users to user_roles");
+            }
+        }
+        roleTableReady = true;
+    }
+
+    /**
+     * Reads users from rows of SELECT_USERS_WITH_ROLES, which hold one role each and must be
+     * ordered by user ID and then role_order. The roles and role mask are built from these user_roles rows.
+     */
+    private static List<User> readUsers(ResultSet rs) throws SQLException {
+        List<User> users = new ArrayList<>();
+        User user = null;
+        while (rs.next()) {
+            int userId = rs.getInt("user_id");
+            if (user == null || user.getUserId() != userId) {
+                user = new User(rs.getString("full_name"), rs.getString("email"), null, rs.getString("password"));
+                user.setUserId(userId);
+                users.add(user);
+            }
+            user.addRole(rs.getString("role")); // Null for a user without role rows
+        }
+        return users;
+    }
+
+    // Numbers the roles in their order on the user, so the first one stays the default role
+    private static void addRoleRows(PreparedStatement insert, User user) throws SQLException {
+        List<String> roles = user.getRoles();
+        for (int i = 0; i < roles.size(); i++) {
+            insert.setInt(1, user.getUserId());
+            insert.setString(2, roles.get(i));
+            insert.setInt(3, i);
+            insert.addBatch();
+        }
+    }
+
+    /**
+     * Replaces a user's rows in user_roles with the roles on the User object. Must run in
+     * the transaction that writes the users row, see inTransaction.
+     * The users.roles column is still written alongside; it is read only to backfill user_roles.
+     */
+    private static void writeRoles(Connection conn, User user) throws SQLException {
+        try (PreparedStatement delete = conn.prepareStatement("DELETE FROM user_roles WHERE user_id = ?")) {
+            delete.setInt(1, user.getUserId());
+            delete.executeUpdate();
+        }
+        try (PreparedStatement insert = conn.prepareStatement("INSERT INTO user_roles (user_id, role, role_order) VALUES (?, ?, ?)")) {
+            addRoleRows(insert, user);
+            insert.executeBatch();
+        }
+    }
 
     /**
-     * Adds a new user to the database.
+     * Adds a new user to the database. A plaintext password on the user is replaced by its hash,
+     * which takes a noticeable time; on the Swing thread use AuthenticationService.addUserAsync.
      */
     public boolean addUser(User user) {
-        Connection conn = null;
-        PreparedStatement stmt = null;
+        if (!AuthenticationService.isHashed(user.getPassword())) {
+            user.setPassword(AuthenticationService.getInstance().hashPassword(user.getPassword()));
+        }
         
         try {
-            conn = DatabaseManager.getConnection();
-            String sql = "INSERT INTO users (full_name, email, roles, password) VALUES (?, ?, ?, ?)";
-            stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setString(1, user.getFullName());
-            stmt.setString(2, user.getEmail());
-            stmt.setString(3, user.getRolesAsString());
-            stmt.setString(4, user.getPassword());
-            
-            int rowsAffected = stmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
-                // Get the generated ID
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    user.setUserId(rs.getInt(1));
+            boolean added = inTransaction(conn -> {
+                String sql = "INSERT INTO users (full_name, email, roles, password) VALUES (?, ?, ?, ?)";
+                try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    stmt.setString(1, user.getFullName());
+                    stmt.setString(2, user.getEmail());
+                    stmt.setString(3, user.getRolesAsString());
+                    stmt.setString(4, user.getPassword());
+
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    // Get the generated ID
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        if (!rs.next()) {
+                            throw new SQLException("No user ID was generated");
+                        }
+                        user.setUserId(rs.getInt(1));
+                    }
                 }
+                writeRoles(conn, user);
                 return true;
+            });
+            if (added) {
+                changes.changed(ChangeNotifier.Topic.USERS);
             }
-            return false;
+            return added;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error adding user: " + e.getMessage(), e);
             return false;
-        } finally {
-            DatabaseManager.closeResources(stmt, conn);
         }
     }
 
     /**
-     * Retrieves a user from the database by user ID.
+     * Retrieves a user by user ID, from the user cache when possible.
      */
     public User getUserById(int userId) {
+        User cached = userCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        // Taken before the read, so an update that lands during it keeps this row out of the cache
+        long loadStamp = userCache.stamp();
+        
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseManager.getConnection();
-            String sql = "SELECT * FROM users WHERE user_id = ?";
+            ensureRoleTable(conn);
+            String sql = SELECT_USERS_WITH_ROLES + " WHERE u.user_id = ? ORDER BY r.role_order, r.role";
             stmt = conn.prepareStatement(sql);
             stmt.setInt(1, userId);
             
             rs = stmt.executeQuery();
             
-            if (rs.next()) {
-                User user = new User(
-                    rs.getString("full_name"),
-                    rs.getString("email"),
-                    rs.getString("roles"),
-                    rs.getString("password")
-                );
-                user.setUserId(rs.getInt("user_id"));
+            List<User> users = readUsers(rs);
+            if (!users.isEmpty()) {
+                User user = users.get(0);
+                userCache.put(user, loadStamp);
                 return user;
             }
             return null;
@@ -322,7 +480,7 @@ public class UserDAO {
             logger.log(Level.SEVERE, "Error getting user by ID: " + e.getMessage(), e);
             return null;
         } finally {
-            DatabaseManager.closeResources(rs, stmt, conn);
+            DatabaseManager.closeResources(rs, stmt);
         }
     }
 
@@ -337,25 +495,17 @@ public class UserDAO {
         
         try {
             conn = DatabaseManager.getConnection();
+            ensureRoleTable(conn);
             stmt = conn.createStatement();
-            String sql = "SELECT * FROM users";
+            String sql = SELECT_USERS_WITH_ROLES + " ORDER BY u.user_id, r.role_order, r.role";
             
             rs = stmt.executeQuery(sql);
             
-            while (rs.next()) {
-                User user = new User(
-                    rs.getString("full_name"),
-                    rs.getString("email"),
-                    rs.getString("roles"),
-                    rs.getString("password")
-                );
-                user.setUserId(rs.getInt("user_id"));
-                users.add(user);
-            }
+            users = readUsers(rs);
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error getting all users: " + e.getMessage(), e);
         } finally {
-            DatabaseManager.closeResources(rs, stmt, conn);
+            DatabaseManager.closeResources(rs, stmt);
         }
         
         return users;
@@ -365,56 +515,71 @@ public class UserDAO {
      * Updates an existing user's details (except the password).
      */
     public boolean updateUser(User user) {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
         try {
-            conn = DatabaseManager.getConnection();
-            String sql = "UPDATE users SET full_name = ?, email = ?, roles = ? WHERE user_id = ?";
-            stmt = conn.prepareStatement(sql);
-            
-            stmt.setString(1, user.getFullName());
-            stmt.setString(2, user.getEmail());
-            stmt.setString(3, user.getRolesAsString());
-            stmt.setInt(4, user.getUserId());
-            
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+            boolean updated = inTransaction(conn -> {
+                String sql = "UPDATE users SET full_name = ?, email = ?, roles = ? WHERE user_id = ?";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, user.getFullName());
+                    stmt.setString(2, user.getEmail());
+                    stmt.setString(3, user.getRolesAsString());
+                    stmt.setInt(4, user.getUserId());
+
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                }
+                writeRoles(conn, user);
+                return true;
+            });
+            if (updated) {
+                changes.changed(ChangeNotifier.Topic.USERS);
+            }
+            return updated;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error updating user: " + e.getMessage(), e);
             return false;
         } finally {
-            DatabaseManager.closeResources(stmt, conn);
+            // Also after a failure, which may have happened after the row changed
+            userCache.invalidate(user.getUserId());
         }
     }
 
     /**
-     * Updates a user's password.
+     * Updates a user's password, storing only its hash.
      */
     public boolean updatePassword(String userId, String newPlainPassword) {
+        try {
+            int id = Integer.parseInt(userId);
+            return updatePasswordHash(id, AuthenticationService.getInstance().hashPassword(newPlainPassword));
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "Invalid user ID format: " + userId);
+            return false;
+        }
+    }
+
+    /**
+     * Stores an already hashed password.
+     */
+    boolean updatePasswordHash(int userId, String passwordHash) {
         Connection conn = null;
         PreparedStatement stmt = null;
         
         try {
-            int id = Integer.parseInt(userId);
-            
             conn = DatabaseManager.getConnection();
             String sql = "UPDATE users SET password = ? WHERE user_id = ?";
             stmt = conn.prepareStatement(sql);
             
-            stmt.setString(1, newPlainPassword);
-            stmt.setInt(2, id);
+            stmt.setString(1, passwordHash);
+            stmt.setInt(2, userId);
             
             int rowsAffected = stmt.executeUpdate();
+            userCache.invalidate(userId);
             return rowsAffected > 0;
-        } catch (NumberFormatException e) {
-            logger.log(Level.WARNING, "Invalid user ID format: " + userId);
-            return false;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error updating password: " + e.getMessage(), e);
             return false;
         } finally {
-            DatabaseManager.closeResources(stmt, conn);
+            DatabaseManager.closeResources(stmt);
         }
     }
 
@@ -435,6 +600,15 @@ public class UserDAO {
             stmt.setInt(1, id);
             
             int rowsAffected = stmt.executeUpdate();
+            userCache.invalidate(id);
+            // The database deletes the user's vehicles along with the user
+            VehicleDAO.ownerDeleted(id);
+            if (rowsAffected > 0) {
+                // Vehicles and jobs of the user are deleted with it
+                changes.changed(ChangeNotifier.Topic.USERS);
+                changes.changed(ChangeNotifier.Topic.VEHICLES);
+                changes.changed(ChangeNotifier.Topic.JOBS);
+            }
             return rowsAffected > 0;
         } catch (NumberFormatException e) {
             logger.log(Level.WARNING, "Invalid user ID format: " + userId);
@@ -443,7 +617,7 @@ public class UserDAO {
             logger.log(Level.SEVERE, "Error deleting user: " + e.getMessage(), e);
             return false;
         } finally {
-            DatabaseManager.closeResources(stmt, conn);
+            DatabaseManager.closeResources(stmt);
         }
     }
 
@@ -451,77 +625,64 @@ public class UserDAO {
      * Retrieves a list of all users who have the role of "vehicle_owner".
      */
     public List<User> getAllVehicleOwners() {
-        List<User> owners = new ArrayList<>();
+        return getUsersByRole("vehicle_owner");
+    }
+
+    /**
+     * Retrieves all users with the given role through the indexed user_roles table.
+     */
+    public List<User> getUsersByRole(String role) {
+        List<User> users = new ArrayList<>();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseManager.getConnection();
-            String sql = "SELECT * FROM users WHERE roles LIKE ?";
+            ensureRoleTable(conn);
+            // r finds the users through the role index; a lists every role of each of them
+            String sql = "SELECT u.*, a.role FROM user_roles r JOIN users u ON u.user_id = r.user_id "
+                    + "JOIN user_roles a ON a.user_id = u.user_id WHERE r.role = ? ORDER BY u.user_id, a.role_order, a.role";
             stmt = conn.prepareStatement(sql);
-            stmt.setString(1, "%vehicle_owner%");
+            stmt.setString(1, role);
             
             rs = stmt.executeQuery();
             
-            while (rs.next()) {
-                User user = new User(
-                    rs.getString("full_name"),
-                    rs.getString("email"),
-                    rs.getString("roles"),
-                    rs.getString("password")
-                );
-                user.setUserId(rs.getInt("user_id"));
-                owners.add(user);
-            }
+            users = readUsers(rs);
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error getting vehicle owners: " + e.getMessage(), e);
+            logger.log(Level.SEVERE, "Error getting users with role " + role + ": " + e.getMessage(), e);
         } finally {
-            DatabaseManager.closeResources(rs, stmt, conn);
+            DatabaseManager.closeResources(rs, stmt);
         }
         
-        return owners;
+        return users;
     }
 
     /**
-     * Authenticates a user by email and plain-text password.
+     * Retrieves a user, including the stored password hash, by email.
+     * Logins go through AuthenticationService, which verifies the password.
      */
-    public User authenticate(String email, String plainPassword) {
+    public User getUserByEmail(String email) {
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
             conn = DatabaseManager.getConnection();
-            String sql = "SELECT * FROM users WHERE email = ?";
+            ensureRoleTable(conn);
+            String sql = SELECT_USERS_WITH_ROLES + " WHERE u.email = ? ORDER BY r.role_order, r.role";
             stmt = conn.prepareStatement(sql);
             stmt.setString(1, email);
             
             rs = stmt.executeQuery();
             
-            if (rs.next()) {
-                String storedPassword = rs.getString("password");
-                
-                if (plainPassword.equals(storedPassword)) {
-                    User user = new User(
-                        rs.getString("full_name"),
-                        rs.getString("email"),
-                        rs.getString("roles"),
-                        rs.getString("password")
-                    );
-                    user.setUserId(rs.getInt("user_id"));
-                    logger.info("User authenticated: " + user.getUserId());
-                    return user;
-                } else {
-                    logger.warning("Authentication failed for email: " + email);
-                }
-            }
-            return null;
+            List<User> users = readUsers(rs);
+            return users.isEmpty() ? null : users.get(0);
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error authenticating user: " + e.getMessage(), e);
+            logger.log(Level.SEVERE, "Error getting user by email: " + e.getMessage(), e);
             return null;
         } finally {
-            DatabaseManager.closeResources(rs, stmt, conn);
+            DatabaseManager.closeResources(rs, stmt);
         }
     }
 }
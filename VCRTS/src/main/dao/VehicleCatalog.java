@@ -0,0 +1,144 @@
+package dao;
+
+import models.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * In-process catalog of registered vehicles keyed by VIN, with a secondary index by
+ * vehicle_owner_id. VehicleDAO loads it from the database on first use and keeps it
+ * current in its add, update and delete methods. The version increases on every change,
+ * so dashboards can skip redrawing a table that has not changed.
+ *
+ * Changes made by another process (the server approving a vehicle while a client is
+ * running) are only seen after VehicleDAO.reloadCatalog().
+ * Callers always receive their own copies, so cached vehicles cannot be modified in place.
+ */
+public class VehicleCatalog {
+    private static final VehicleCatalog instance = new VehicleCatalog();
+
+    // VIN order, matching the primary key order the vehicles table returns rows in
+    private final Map<String, Vehicle> byVin = new TreeMap<>();
+    private final Map<Integer, Set<String>> byOwner = new HashMap<>();
+    private boolean loaded = false;
+    private long version = 0;
+
+    public static VehicleCatalog getInstance() {
+        return instance;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Replaces the contents with vehicles freshly read from the database.
+     */
+    public synchronized void replaceAll(Collection<Vehicle> vehicles) {
+        byVin.clear();
+        byOwner.clear();
+        for (Vehicle vehicle : vehicles) {
+            index(copy(vehicle));
+        }
+        loaded = true;
+        version++;
+    }
+
+    /**
+     * Adds a vehicle or replaces the one with the same VIN.
+     */
+    public synchronized void put(Vehicle vehicle) {
+        unindex(vehicle.getVin());
+        index(copy(vehicle));
+        version++;
+    }
+
+    /**
+     * Returns the cached vehicle with this VIN, or null.
+     */
+    public synchronized Vehicle get(String vin) {
+        Vehicle vehicle = byVin.get(vin);
+        return vehicle != null ? copy(vehicle) : null;
+    }
+
+    public synchronized boolean remove(String vin) {
+        if (unindex(vin) != null) {
+            version++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Drops every vehicle of an owner (the database removes them when the owner is deleted).
+     */
+    public synchronized void removeOwner(int vehicleOwnerId) {
+        Set<String> vins = byOwner.remove(vehicleOwnerId);
+        if (vins != null) {
+            for (String vin : vins) {
+                byVin.remove(vin);
+            }
+            version++;
+        }
+    }
+
+    public synchronized List<Vehicle> getAll() {
+        List<Vehicle> vehicles = new ArrayList<>(byVin.size());
+        for (Vehicle vehicle : byVin.values()) {
+            vehicles.add(copy(vehicle));
+        }
+        return vehicles;
+    }
+
+    public synchronized List<Vehicle> getByOwner(int vehicleOwnerId) {
+        Set<String> vins = byOwner.get(vehicleOwnerId);
+        List<Vehicle> vehicles = new ArrayList<>(vins != null ? vins.size() : 0);
+        if (vins != null) {
+            for (String vin : vins) {
+                vehicles.add(copy(byVin.get(vin)));
+            }
+        }
+        return vehicles;
+    }
+
+    public synchronized int size() {
+        return byVin.size();
+    }
+
+    /**
+     * Returns a counter that changes whenever the catalog does.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    private void index(Vehicle vehicle) {
+        byVin.put(vehicle.getVin(), vehicle);
+        byOwner.computeIfAbsent(vehicle.getVehicleOwnerId(), id -> new TreeSet<>()).add(vehicle.getVin());
+    }
+
+    private Vehicle unindex(String vin) {
+        Vehicle removed = byVin.remove(vin);
+        if (removed != null) {
+            Set<String> vins = byOwner.get(removed.getVehicleOwnerId());
+            if (vins != null) {
+                vins.remove(vin);
+                if (vins.isEmpty()) {
+                    byOwner.remove(removed.getVehicleOwnerId());
+                }
+            }
+        }
+        return removed;
+    }
+
+    private static Vehicle copy(Vehicle v) {
+        return new Vehicle(v);
+    }
+}
@@ -5,12 +5,22 @@ import models.Vehicle;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class VehicleDAO {
     private static final Logger logger = Logger.getLogger(VehicleDAO.class.getName());
+    private static final VehicleCatalog catalog = VehicleCatalog.getInstance();
+    private static final ChangeNotifier changes = ChangeNotifier.getInstance();
+    // User IDs already confirmed to exist; cleared for a user when it is deleted
+    private static final Set<Integer> knownOwnerIds = ConcurrentHashMap.newKeySet();
     
     // Updated SQL queries
     private static final String SELECT_ALL_VEHICLES = "SELECT * FROM vehicles";
@@ -19,7 +29,6 @@ public class VehicleDAO {
     private static final String INSERT_VEHICLE = "INSERT INTO vehicles (owner_id, vehicle_owner_id, model, make, year, vin, residency_time, registered_timestamp) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
     private static final String DELETE_VEHICLE = "DELETE FROM vehicles WHERE vin = ?";
     private static final String UPDATE_VEHICLE = "UPDATE vehicles SET owner_id = ?, vehicle_owner_id = ?, model = ?, make = ?, year = ?, residency_time = ? WHERE vin = ?";
-    private static final String SELECT_VEHICLE_BY_VIN = "SELECT * FROM vehicles WHERE vin = ?";
     private static final String CHECK_OWNER_EXISTS = "SELECT COUNT(*) FROM users WHERE user_id = ?";
 
     /**
@@ -39,10 +48,19 @@ public class VehicleDAO {
     }
 
     /**
-     * Retrieves all vehicles from the database.
+     * Retrieves all vehicles, from the vehicle catalog once it is loaded.
      * @return A list of all vehicles.
      */
     public List<Vehicle> getAllVehicles() {
+        ensureCatalogLoaded();
+        return catalog.getAll();
+    }
+
+    /**
+     * Reloads the vehicle catalog from the database, picking up changes made by other processes.
+     * @return true if the vehicles could be read.
+     */
+    public boolean reloadCatalog() {
         List<Vehicle> vehicles = new ArrayList<>();
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -56,13 +74,28 @@ public class VehicleDAO {
             while (rs.next()) {
                 vehicles.add(resultSetToVehicle(rs));
             }
+            catalog.replaceAll(vehicles);
+            return true;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error retrieving all vehicles", e);
+            return false;
         } finally {
             DatabaseManager.closeResources(rs, stmt);
         }
-        
-        return vehicles;
+    }
+
+    /**
+     * Returns the catalog version; it changes whenever a vehicle is added, updated or deleted.
+     */
+    public long getCatalogVersion() {
+        ensureCatalogLoaded();
+        return catalog.getVersion();
+    }
+
+    private void ensureCatalogLoaded() {
+        if (!catalog.isLoaded()) {
+            reloadCatalog();
+        }
     }
 
     /**
@@ -96,33 +129,15 @@ public class VehicleDAO {
     }
     
     /**
-     * Retrieves a list of vehicles owned by a specific user (using vehicle_owner_id).
+     * Retrieves a list of vehicles owned by a specific user (using vehicle_owner_id),
+     * from the catalog's owner index.
      *
      * @param vehicleOwnerId The user ID of the vehicle owner.
      * @return A list of vehicles belonging to the specified owner.
      */
     public List<Vehicle> getVehiclesByVehicleOwner(int vehicleOwnerId) {
-        List<Vehicle> vehicles = new ArrayList<>();
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = DatabaseManager.getConnection();
-            stmt = conn.prepareStatement(SELECT_VEHICLES_BY_VEHICLE_OWNER);
-            stmt.setInt(1, vehicleOwnerId);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                vehicles.add(resultSetToVehicle(rs));
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error retrieving vehicles for vehicle owner ID: " + vehicleOwnerId, e);
-        } finally {
-            DatabaseManager.closeResources(rs, stmt);
-        }
-        
-        return vehicles;
+        ensureCatalogLoaded();
+        return catalog.getByOwner(vehicleOwnerId);
     }
     
     /**
@@ -138,11 +153,15 @@ public class VehicleDAO {
 
     /**
      * Checks if a user with the specified ID exists.
+     * Users already confirmed to exist are answered without a query.
      * 
      * @param userId The user ID to check
      * @return true if the user exists, false otherwise
      */
     public boolean checkOwnerExists(int userId) {
+        if (knownOwnerIds.contains(userId)) {
+            return true;
+        }
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -157,6 +176,9 @@ public class VehicleDAO {
             if (rs.next()) {
                 exists = rs.getInt(1) > 0;
             }
+            if (exists) {
+                knownOwnerIds.add(userId);
+            }
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error checking if user exists: " + userId, e);
         } finally {
@@ -166,6 +188,164 @@ public class VehicleDAO {
         return exists;
     }
 
+    /**
+     * Returns which of the given user IDs exist, querying only the ones not already known
+     * (with a single IN query).
+     * @throws SQLException if the users could not be read.
+     */
+    private Set<Integer> findExistingOwners(Set<Integer> userIds) throws SQLException {
+        Set<Integer> existing = new HashSet<>();
+        List<Integer> unknown = new ArrayList<>();
+        for (int userId : userIds) {
+            if (knownOwnerIds.contains(userId)) {
+                existing.add(userId);
+            } else {
+                unknown.add(userId);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return existing;
+        }
+
+        String sql = "SELECT user_id FROM users WHERE user_id IN (" + String.join(",", Collections.nCopies(unknown.size(), "?")) + ")";
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            Connection conn = DatabaseManager.getConnection();
+            stmt = conn.prepareStatement(sql);
+            for (int i = 0; i < unknown.size(); i++) {
+                stmt.setInt(i + 1, unknown.get(i));
+            }
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                int userId = rs.getInt(1);
+                existing.add(userId);
+                knownOwnerIds.add(userId);
+            }
+        } finally {
+            DatabaseManager.closeResources(rs, stmt);
+        }
+        return existing;
+    }
+
+    /**
+     * Called when a user is deleted; the database removes their vehicles with them.
+     */
+    static void ownerDeleted(int userId) {
+        knownOwnerIds.remove(userId);
+        catalog.removeOwner(userId);
+    }
+
+    /**
+     * Outcome of a bulk registration: the vehicles that were added, and a reason for each
+     * VIN that was not.
+     */
+    public static class RegistrationReport {
+        private final List<Vehicle> added = new ArrayList<>();
+        private final Map<String, String> failures = new LinkedHashMap<>();
+
+        public List<Vehicle> getAdded() { return added; }
+        // VIN -> reason, in submission order
+        public Map<String, String> getFailures() { return failures; }
+        public boolean hasFailures() { return !failures.isEmpty(); }
+    }
+
+    /**
+     * Registers many vehicles at once. VINs are deduplicated in memory, owners are
+     * validated with one query, and the rows are inserted as a single JDBC batch.
+     * A bad row is reported in the result without stopping the others.
+     *
+     * @param vehicles The vehicles to add.
+     * @return Which vehicles were added and why the others were not.
+     */
+    public RegistrationReport addVehicles(List<Vehicle> vehicles) {
+        RegistrationReport report = new RegistrationReport();
+        ensureCatalogLoaded();
+
+        // Drop repeated VINs and VINs that are already registered
+        Map<String, Vehicle> unique = new LinkedHashMap<>();
+        Set<Integer> ownerIds = new HashSet<>();
+        for (Vehicle vehicle : vehicles) {
+            String vin = vehicle.getVin();
+            if (unique.containsKey(vin) || report.failures.containsKey(vin)) {
+                report.failures.putIfAbsent(vin, "Duplicate VIN in this registration");
+            } else if (catalog.get(vin) != null) {
+                report.failures.put(vin, "VIN is already registered");
+            } else {
+                unique.put(vin, vehicle);
+                ownerIds.add(vehicle.getVehicleOwnerId());
+            }
+        }
+        if (unique.isEmpty()) {
+            return report;
+        }
+
+        PreparedStatement stmt = null;
+        try {
+            Set<Integer> existingOwners = findExistingOwners(ownerIds);
+            List<Vehicle> batch = new ArrayList<>();
+            for (Vehicle vehicle : unique.values()) {
+                if (existingOwners.contains(vehicle.getVehicleOwnerId())) {
+                    batch.add(vehicle);
+                } else {
+                    report.failures.put(vehicle.getVin(), "Vehicle owner " + vehicle.getVehicleOwnerId() + " does not exist");
+                }
+            }
+            if (batch.isEmpty()) {
+                return report;
+            }
+
+            Connection conn = DatabaseManager.getConnection();
+            stmt = conn.prepareStatement(INSERT_VEHICLE);
+            for (Vehicle vehicle : batch) {
+                stmt.setString(1, vehicle.getOwnerId());
+                stmt.setInt(2, vehicle.getVehicleOwnerId());
+                stmt.setString(3, vehicle.getModel());
+                stmt.setString(4, vehicle.getMake());
+                stmt.setString(5, vehicle.getYear());
+                stmt.setString(6, vehicle.getVin());
+                stmt.setString(7, vehicle.getResidencyTime());
+                stmt.setString(8, vehicle.getRegisteredTimestamp());
+                stmt.addBatch();
+            }
+
+            int[] counts;
+            try {
+                counts = stmt.executeBatch();
+            } catch (BatchUpdateException e) {
+                // The driver keeps going after a failed row; the counts say which rows failed
+                logger.log(Level.WARNING, "Some vehicles in the batch were rejected: " + e.getMessage());
+                counts = e.getUpdateCounts();
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                Vehicle vehicle = batch.get(i);
+                if (i >= counts.length) {
+                    report.failures.put(vehicle.getVin(), "Not inserted after an earlier error");
+                } else if (counts[i] == Statement.EXECUTE_FAILED) {
+                    report.failures.put(vehicle.getVin(), "Rejected by the database");
+                } else {
+                    catalog.put(vehicle);
+                    report.added.add(vehicle);
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error registering vehicles in bulk", e);
+            for (Vehicle vehicle : unique.values()) {
+                if (!report.added.contains(vehicle)) {
+                    report.failures.putIfAbsent(vehicle.getVin(), "Database error: " + e.getMessage());
+                }
+            }
+        } finally {
+            DatabaseManager.closeResources(stmt);
+        }
+
+        if (!report.added.isEmpty()) {
+            changes.changed(ChangeNotifier.Topic.VEHICLES);
+        }
+        logger.info("Bulk registration: " + report.added.size() + " added, " + report.failures.size() + " rejected");
+        return report;
+    }
+
     /**
      * Adds a new vehicle record to the database.
      *
@@ -191,6 +371,10 @@ public class VehicleDAO {
             
             int rowsAffected = stmt.executeUpdate();
             success = rowsAffected > 0;
+            if (success) {
+                catalog.put(vehicle);
+                changes.changed(ChangeNotifier.Topic.VEHICLES);
+            }
         } catch (SQLException e) {
             if (e.getMessage().contains("foreign key constraint") || e.getErrorCode() == 1452) {
                 logger.log(Level.SEVERE, "Foreign key constraint error adding vehicle: " + vehicle.getVin() 
@@ -223,6 +407,10 @@ public class VehicleDAO {
             
             int rowsAffected = stmt.executeUpdate();
             success = rowsAffected > 0;
+            catalog.remove(vin);
+            if (success) {
+                changes.changed(ChangeNotifier.Topic.VEHICLES);
+            }
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error deleting vehicle with VIN: " + vin, e);
         } finally {
@@ -233,47 +421,43 @@ public class VehicleDAO {
     }
 
     /**
-     * Updates an existing vehicle's details.
+     * Updates an existing vehicle's details. The registered timestamp is left unchanged.
      * @param vehicle A Vehicle object with updated information.
      * @return true if the update is successful; false otherwise.
      */
     public boolean updateVehicle(Vehicle vehicle) {
         Connection conn = null;
         PreparedStatement stmt = null;
-        PreparedStatement selectStmt = null;
-        ResultSet rs = null;
         boolean success = false;
         
         try {
             conn = DatabaseManager.getConnection();
+            stmt = conn.prepareStatement(UPDATE_VEHICLE);
+            stmt.setString(1, vehicle.getOwnerId());
+            stmt.setInt(2, vehicle.getVehicleOwnerId());
+            stmt.setString(3, vehicle.getModel());
+            stmt.setString(4, vehicle.getMake());
+            stmt.setString(5, vehicle.getYear());
+            stmt.setString(6, vehicle.getResidencyTime());
+            stmt.setString(7, vehicle.getVin());
             
-            // First, get the current registered timestamp to preserve it
-            selectStmt = conn.prepareStatement(SELECT_VEHICLE_BY_VIN);
-            selectStmt.setString(1, vehicle.getVin());
-            rs = selectStmt.executeQuery();
-            
-            if (rs.next()) {
-                String originalTimestamp = rs.getString("registered_timestamp");
-                
-                // Now update the vehicle
-                stmt = conn.prepareStatement(UPDATE_VEHICLE);
-                stmt.setString(1, vehicle.getOwnerId());
-                stmt.setInt(2, vehicle.getVehicleOwnerId());
-                stmt.setString(3, vehicle.getModel());
-                stmt.setString(4, vehicle.getMake());
-                stmt.setString(5, vehicle.getYear());
-                stmt.setString(6, vehicle.getResidencyTime());
-                stmt.setString(7, vehicle.getVin());
-                
-                int rowsAffected = stmt.executeUpdate();
-                success = rowsAffected > 0;
+            int rowsAffected = stmt.executeUpdate();
+            success = rowsAffected > 0;
+            if (success) {
+                // Keep the registered timestamp the catalog already has for this VIN
+                Vehicle cached = catalog.get(vehicle.getVin());
+                Vehicle updated = new Vehicle(vehicle.getOwnerId(), vehicle.getVehicleOwnerId(), vehicle.getModel(),
+                        vehicle.getMake(), vehicle.getYear(), vehicle.getVin(), vehicle.getResidencyTime(),
+                        cached != null ? cached.getRegisteredTimestamp() : vehicle.getRegisteredTimestamp());
+                catalog.put(updated);
+                changes.changed(ChangeNotifier.Topic.VEHICLES);
             }
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error updating vehicle: " + vehicle.getVin(), e);
         } finally {
-            DatabaseManager.closeResources(rs, selectStmt, stmt);
+            DatabaseManager.closeResources(stmt);
         }
         
         return success;
     }
-}
\ No newline at end of file
+}
@@ -30,6 +30,9 @@ public class DatabaseManager {
     private static String dbPassword;
     
     private static Connection connection = null;
+    // Threads that use a connection of their own instead of the shared one; the value is
+    // null until the thread's first query opens it
+    private static final ThreadLocal<Connection[]> threadConnections = new ThreadLocal<>();
     
     static {
         // Initialize connection parameters from environment file
@@ -101,9 +104,46 @@ public class DatabaseManager {
     }
     
     /**
-     * Get a database connection (singleton pattern)
+     * Get a database connection (singleton pattern).
+     * The connection is shared by every thread, so DAOs must not close it. A thread that
+     * called useDedicatedConnection gets its own connection instead.
      */
     public static Connection getConnection() throws SQLException {
+        Connection[] own = threadConnections.get();
+        if (own == null) {
+            return getSharedConnection();
+        }
+        if (own[0] == null || own[0].isClosed()) {
+            own[0] = openConnection();
+            logger.fine("Dedicated database connection opened for " + Thread.currentThread().getName());
+        }
+        return own[0];
+    }
+
+    /**
+     * Makes getConnection return a connection of the calling thread's own, opened on first
+     * use, so that queries from this thread run alongside those of other threads instead of
+     * queueing on the shared connection. Meant for worker threads; the thread must call
+     * releaseDedicatedConnection when it finishes.
+     */
+    public static void useDedicatedConnection() {
+        if (threadConnections.get() == null) {
+            threadConnections.set(new Connection[1]);
+        }
+    }
+
+    /**
+     * Closes the calling thread's own connection, if it has one, and returns it to the shared connection.
+     */
+    public static void releaseDedicatedConnection() {
+        Connection[] own = threadConnections.get();
+        threadConnections.remove();
+        if (own != null && own[0] != null) {
+            closeResources(own[0]);
+        }
+    }
+
+    private static synchronized Connection getSharedConnection() throws SQLException {
         if (connection == null || connection.isClosed()) {
             try {
                 // Register the JDBC driver
@@ -123,6 +163,20 @@ public class DatabaseManager {
         return connection;
     }
     
+    /**
+     * Opens a separate connection for long-running reads such as exports, which would
+     * otherwise hold the shared connection for their whole run. The caller must close it.
+     */
+    public static Connection openConnection() throws SQLException {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            logger.log(Level.SEVERE, "JDBC Driver not found", e);
+            throw new SQLException("JDBC Driver not found", e);
+        }
+        return DriverManager.getConnection(dbUrl, dbUser, dbPassword);
+    }
+    
     /**
      * Close the database connection
      */
@@ -75,7 +75,7 @@ public class FileManager {
         // List of essential data files that should exist
         String[] essentialFiles = {
             "users.txt", "jobs.txt", "vehicles.txt", "allocations.txt", 
-            "job_schedule.txt", "job_states.txt"
+            "job_schedule.txt"
         };
         
         // Check each file and create it if it doesn't exist
@@ -108,6 +108,19 @@ public class FileManager {
         }
     }
 
+    /**
+     * Opens a data file for reading line by line, for files too large to read at once.
+     * @param fileName The name of the file.
+     * @return A reader the caller must close; empty if the file does not exist.
+     */
+    public static BufferedReader openReader(String fileName) throws IOException {
+        Path filePath = Paths.get(DATA_DIR, fileName);
+        if (!Files.exists(filePath)) {
+            return new BufferedReader(new StringReader(""));
+        }
+        return Files.newBufferedReader(filePath);
+    }
+
     /**
      * Writes all lines to a file.
      * @param fileName The name of the file.
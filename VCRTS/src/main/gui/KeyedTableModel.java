@@ -0,0 +1,182 @@
+package gui;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only table model whose rows are identified by the value in a key column (a job ID,
+ * user ID, VIN, ...). setRows compares the new rows with the current ones and fires only
+ * row-level delete, insert and update events, so a refresh in which one job changed repaints
+ * one row and the table keeps its selection and scroll position.
+ *
+ * If the surviving rows come back in a different order (for example a different sort), the
+ * model falls back to replacing everything and firing a single data-changed event.
+ * Must be used on the Event Dispatch Thread, like any Swing model.
+ */
+public class KeyedTableModel extends AbstractTableModel {
+    private final String[] columnNames;
+    private final int keyColumn;
+    private final List<Object[]> rows = new ArrayList<>();
+    private final Map<Object, Integer> rowsByKey = new HashMap<>();
+
+    /**
+     * @param columnNames The column headers.
+     * @param keyColumn The column that uniquely identifies a row.
+     */
+    public KeyedTableModel(String[] columnNames, int keyColumn) {
+        this.columnNames = columnNames.clone();
+        this.keyColumn = keyColumn;
+    }
+
+    /**
+     * Replaces the contents with the given rows, in the given order, firing only the events
+     * needed to get there.
+     */
+    public void setRows(List<Object[]> newRows) {
+        Map<Object, Integer> newIndex = new HashMap<>(newRows.size() * 4 / 3 + 1);
+        for (int i = 0; i < newRows.size(); i++) {
+            if (newIndex.put(newRows.get(i)[keyColumn], i) != null) {
+                replaceAll(newRows); // Duplicate keys cannot be diffed
+                return;
+            }
+        }
+
+        if (rows.isEmpty()) {
+            rows.addAll(newRows);
+            reindex();
+            if (!rows.isEmpty()) {
+                fireTableRowsInserted(0, rows.size() - 1);
+            }
+            return;
+        }
+
+        // Remove rows whose key is gone, from the bottom up, one event per contiguous range
+        int runEnd = -1;
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            boolean gone = !newIndex.containsKey(rows.get(i)[keyColumn]);
+            if (gone && runEnd < 0) {
+                runEnd = i;
+            } else if (!gone && runEnd >= 0) {
+                deleteRange(i + 1, runEnd);
+                runEnd = -1;
+            }
+        }
+        if (runEnd >= 0) {
+            deleteRange(0, runEnd);
+        }
+
+        // The remaining rows must already be in the new order for an in-place merge
+        int previous = -1;
+        for (Object[] row : rows) {
+            int position = newIndex.get(row[keyColumn]);
+            if (position < previous) {
+                replaceAll(newRows);
+                return;
+            }
+            previous = position;
+        }
+
+        // Walk the new rows: insert the ones not present yet and update the ones that changed
+        int insertStart = -1;
+        int updateStart = -1;
+        for (int i = 0; i < newRows.size(); i++) {
+            Object[] newRow = newRows.get(i);
+            boolean present = i < rows.size() && rows.get(i)[keyColumn].equals(newRow[keyColumn]);
+            if (!present) {
+                if (updateStart >= 0) {
+                    fireTableRowsUpdated(updateStart, i - 1);
+                    updateStart = -1;
+                }
+                rows.add(i, newRow);
+                if (insertStart < 0) {
+                    insertStart = i;
+                }
+                continue;
+            }
+            if (insertStart >= 0) {
+                fireTableRowsInserted(insertStart, i - 1);
+                insertStart = -1;
+            }
+            if (Arrays.equals(rows.get(i), newRow)) {
+                if (updateStart >= 0) {
+                    fireTableRowsUpdated(updateStart, i - 1);
+                    updateStart = -1;
+                }
+            } else {
+                rows.set(i, newRow);
+                if (updateStart < 0) {
+                    updateStart = i;
+                }
+            }
+        }
+        if (insertStart >= 0) {
+            fireTableRowsInserted(insertStart, newRows.size() - 1);
+        }
+        if (updateStart >= 0) {
+            fireTableRowsUpdated(updateStart, newRows.size() - 1);
+        }
+        reindex();
+    }
+
+    public void clear() {
+        setRows(List.of());
+    }
+
+    /**
+     * Returns the key of a row.
+     */
+    public Object getKeyAt(int row) {
+        return rows.get(row)[keyColumn];
+    }
+
+    /**
+     * Returns the row holding a key, or -1.
+     */
+    public int indexOfKey(Object key) {
+        Integer row = rowsByKey.get(key);
+        return row != null ? row : -1;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return rows.get(row)[column];
+    }
+
+    private void replaceAll(List<Object[]> newRows) {
+        rows.clear();
+        rows.addAll(newRows);
+        reindex();
+        fireTableDataChanged();
+    }
+
+    private void deleteRange(int first, int last) {
+        rows.subList(first, last + 1).clear();
+        fireTableRowsDeleted(first, last);
+    }
+
+    private void reindex() {
+        rowsByKey.clear();
+        for (int i = 0; i < rows.size(); i++) {
+            rowsByKey.put(rows.get(i)[keyColumn], i);
+        }
+    }
+}
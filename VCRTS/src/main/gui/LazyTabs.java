@@ -0,0 +1,83 @@
+package gui;
+
+import javax.swing.Icon;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JTabbedPane;
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.event.HierarchyEvent;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Tabs whose content is built the first time they are shown, so a window with several
+ * tabs only pays for the visible one when it opens.
+ *
+ * Each tab is an empty holder panel until it is selected while the tabbed pane is showing;
+ * its factory then builds the content into the holder. Code that reaches into a tab before
+ * that (a reload triggered by another listener, for example) must call build first.
+ * Must be used on the Event Dispatch Thread.
+ */
+public final class LazyTabs {
+    private static final Logger logger = Logger.getLogger(LazyTabs.class.getName());
+    private static final String FACTORY = "lazyTabs.factory";
+    private static final String TITLE = "lazyTabs.title";
+    private static final String INSTALLED = "lazyTabs.installed";
+
+    private LazyTabs() {
+    }
+
+    /**
+     * Adds a tab built on first view.
+     * @return The holder panel, which is the tab's component in the tabbed pane.
+     */
+    public static JPanel addTab(JTabbedPane tabs, String title, Icon icon, Supplier<? extends Component> factory) {
+        JPanel holder = new JPanel(new BorderLayout());
+        holder.putClientProperty(FACTORY, factory);
+        holder.putClientProperty(TITLE, title);
+        tabs.addTab(title, icon, holder);
+        if (tabs.getClientProperty(INSTALLED) == null) {
+            tabs.putClientProperty(INSTALLED, Boolean.TRUE);
+            tabs.addChangeListener(e -> {
+                if (tabs.isShowing()) {
+                    build(tabs.getSelectedComponent());
+                }
+            });
+            tabs.addHierarchyListener(e -> {
+                if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && tabs.isShowing()) {
+                    build(tabs.getSelectedComponent());
+                }
+            });
+        }
+        return holder;
+    }
+
+    /**
+     * Builds a tab's content if it has not been built yet.
+     */
+    public static void build(Component tab) {
+        if (!(tab instanceof JComponent)) {
+            return;
+        }
+        JComponent holder = (JComponent) tab;
+        @SuppressWarnings("unchecked")
+        Supplier<? extends Component> factory = (Supplier<? extends Component>) holder.getClientProperty(FACTORY);
+        if (factory == null) {
+            return;
+        }
+        holder.putClientProperty(FACTORY, null);
+        long start = System.currentTimeMillis();
+        holder.add(factory.get(), BorderLayout.CENTER);
+        holder.revalidate();
+        holder.repaint();
+        logger.fine(() -> "Built tab " + holder.getClientProperty(TITLE) + " in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Whether a tab's content has been built.
+     */
+    public static boolean isBuilt(Component tab) {
+        return !(tab instanceof JComponent) || ((JComponent) tab).getClientProperty(FACTORY) == null;
+    }
+}
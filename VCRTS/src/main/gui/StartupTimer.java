@@ -0,0 +1,64 @@
+package gui;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Logger;
+
+/**
+ * Times the phases of starting a window or dashboard and logs the breakdown once, e.g.
+ * "Server application started in 640 ms: launch 410 ms, frame 150 ms, shown 80 ms".
+ * Each mark ends a phase that began at the previous mark. Must be used from one thread,
+ * normally the Event Dispatch Thread.
+ */
+public class StartupTimer {
+    private static final Logger logger = Logger.getLogger(StartupTimer.class.getName());
+
+    private final String name;
+    private final long start;
+    private long phaseStart;
+    private final StringBuilder phases = new StringBuilder();
+    private boolean finished = false;
+
+    private StartupTimer(String name, long startMillis) {
+        this.name = name;
+        this.start = startMillis;
+        this.phaseStart = startMillis;
+    }
+
+    /**
+     * Starts timing now.
+     */
+    public StartupTimer(String name) {
+        this(name, System.currentTimeMillis());
+    }
+
+    /**
+     * Starts timing from when the JVM started, so the first phase covers JVM and class loading.
+     */
+    public static StartupTimer sinceJvmStart(String name) {
+        return new StartupTimer(name, ManagementFactory.getRuntimeMXBean().getStartTime());
+    }
+
+    /**
+     * Ends the current phase.
+     */
+    public void mark(String phase) {
+        long now = System.currentTimeMillis();
+        if (phases.length() > 0) {
+            phases.append(", ");
+        }
+        phases.append(phase).append(' ').append(now - phaseStart).append(" ms");
+        phaseStart = now;
+    }
+
+    /**
+     * Ends the last phase and logs the breakdown; later calls do nothing.
+     */
+    public void finish(String phase) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        mark(phase);
+        logger.info(name + " started in " + (phaseStart - start) + " ms: " + phases);
+    }
+}
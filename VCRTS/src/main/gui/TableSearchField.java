@@ -0,0 +1,95 @@
+package gui;
+
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.RowFilter;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.TableRowSorter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Search box that filters a table through a TableSearchIndex as the user types.
+ * Installs a row sorter on the table (with column sorting left off, so rows keep the
+ * model's order), and re-runs the search when the table's data changes. An extra filter,
+ * such as a status drop-down, can be combined with the search.
+ *
+ * With a sorter installed, view rows differ from model rows; use selectedModelRow to read
+ * the selected row from the model.
+ */
+public class TableSearchField extends JTextField {
+    private final JTable table;
+    private final TableSearchIndex index;
+    private final TableRowSorter<KeyedTableModel> sorter;
+    private RowFilter<? super KeyedTableModel, ? super Integer> extraFilter;
+    private String appliedQuery = "";
+    private long appliedVersion = -1;
+
+    /**
+     * @param table The table to filter; its model must be the given model.
+     * @param model The table's model.
+     * @param columns The model columns to search.
+     */
+    public TableSearchField(JTable table, KeyedTableModel model, int... columns) {
+        super(15);
+        this.table = table;
+        this.index = new TableSearchIndex(model, columns);
+        this.sorter = new TableRowSorter<>(model);
+        for (int i = 0; i < model.getColumnCount(); i++) {
+            sorter.setSortable(i, false);
+        }
+        table.setRowSorter(sorter);
+        setToolTipText("Search; end a word with * to match only its beginning");
+
+        getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { applyFilter(); }
+            @Override public void removeUpdate(DocumentEvent e) { applyFilter(); }
+            @Override public void changedUpdate(DocumentEvent e) { applyFilter(); }
+        });
+        // Rows added by a refresh are not in the last result; search again once the index has them
+        model.addTableModelListener(e -> {
+            if (!appliedQuery.isEmpty()) {
+                SwingUtilities.invokeLater(this::applyFilter);
+            }
+        });
+    }
+
+    /**
+     * Sets a filter that rows must also pass, or null for none.
+     */
+    public void setExtraFilter(RowFilter<? super KeyedTableModel, ? super Integer> filter) {
+        extraFilter = filter;
+        appliedVersion = -1;
+        applyFilter();
+    }
+
+    /**
+     * Returns the model row of the table's selected row, or -1 if nothing is selected.
+     */
+    public static int selectedModelRow(JTable table) {
+        int viewRow = table.getSelectedRow();
+        return viewRow < 0 ? -1 : table.convertRowIndexToModel(viewRow);
+    }
+
+    private void applyFilter() {
+        String query = getText().trim();
+        if (query.equals(appliedQuery) && appliedVersion == index.getVersion()) {
+            return;
+        }
+        appliedQuery = query;
+        appliedVersion = index.getVersion();
+
+        List<RowFilter<? super KeyedTableModel, ? super Integer>> filters = new ArrayList<>();
+        if (!query.isEmpty()) {
+            BitSet found = index.search(query);
+            filters.add(index.filter(found));
+        }
+        if (extraFilter != null) {
+            filters.add(extraFilter);
+        }
+        sorter.setRowFilter(filters.isEmpty() ? null : filters.size() == 1 ? filters.get(0) : RowFilter.andFilter(filters));
+    }
+}
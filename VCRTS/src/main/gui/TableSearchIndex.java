@@ -0,0 +1,292 @@
+package gui;
+
+import javax.swing.RowFilter;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory inverted index over some columns of a KeyedTableModel, for filtering a table
+ * as the user types without going back to the database.
+ *
+ * Every row is indexed under each three-character sequence of its lower-cased cell text, so
+ * a search term is looked up by intersecting the rows of its trigrams and checking only those
+ * candidates. Terms shorter than three characters are checked against every row. The trigram
+ * index is built on the first search that can use it, so tables nobody searches cost only
+ * their row text; after that it is updated with the rows. A term
+ * matches a row if it appears anywhere in an indexed cell; a term ending in '*' must start a
+ * word instead (prefix search). All terms of a query must match.
+ *
+ * Rows are identified by their key, and the index follows the model's row events, so it
+ * stays current as the table is refreshed. Must be used on the Event Dispatch Thread.
+ */
+public class TableSearchIndex implements TableModelListener {
+    private static final char CELL_SEPARATOR = '\u0001';
+
+    private final KeyedTableModel model;
+    private final int[] columns;
+
+    // Row IDs are stable while a key stays in the table; freed IDs are reused
+    private final Map<Object, Integer> idsByKey = new HashMap<>();
+    private final List<String> texts = new ArrayList<>();
+    private final List<Integer> freeIds = new ArrayList<>();
+    private final BitSet liveIds = new BitSet();
+    // Open-addressing map from trigram to the IDs of rows containing it; 0 marks a free slot
+    private int[] trigramKeys = new int[1 << 12];
+    private BitSet[] trigramIds = new BitSet[1 << 12];
+    private int trigramCount = 0;
+    private boolean trigramsBuilt = false;
+    // Key of each model row, mirrored from the model's events
+    private final List<Object> rowKeys = new ArrayList<>();
+    private long version = 0;
+
+    /**
+     * @param model The model to index; the index registers itself as a listener.
+     * @param columns The model columns to search.
+     */
+    public TableSearchIndex(KeyedTableModel model, int... columns) {
+        this.model = model;
+        this.columns = columns.clone();
+        model.addTableModelListener(this);
+        rebuild();
+    }
+
+    /**
+     * Returns the number of changes the index has taken in, so callers can tell whether
+     * earlier results are out of date.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Finds the rows matching every whitespace-separated term of a query.
+     * @return The matching row IDs, for use with matches; all rows for a blank query.
+     */
+    public BitSet search(String query) {
+        BitSet result = (BitSet) liveIds.clone();
+        for (String term : query.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            boolean prefix = term.endsWith("*");
+            if (prefix) {
+                term = term.substring(0, term.length() - 1);
+                if (term.isEmpty()) {
+                    continue;
+                }
+            }
+            if (term.length() >= 3 && !trigramsBuilt) {
+                buildTrigrams();
+            }
+            for (int i = 0; i + 3 <= term.length() && !result.isEmpty(); i++) {
+                BitSet rows = idsFor(trigram(term, i), false);
+                if (rows == null) {
+                    return new BitSet();
+                }
+                result.and(rows);
+            }
+            // Trigrams can match out of order, so every candidate is checked
+            for (int id = result.nextSetBit(0); id >= 0; id = result.nextSetBit(id + 1)) {
+                if (!contains(texts.get(id), term, prefix)) {
+                    result.clear(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether a model row is among the rows found by search.
+     */
+    public boolean matches(BitSet found, int modelRow) {
+        Integer id = idsByKey.get(model.getKeyAt(modelRow));
+        return id != null && found.get(id);
+    }
+
+    /**
+     * Returns a row filter that keeps the rows found by search.
+     */
+    public RowFilter<KeyedTableModel, Integer> filter(BitSet found) {
+        return new RowFilter<KeyedTableModel, Integer>() {
+            @Override
+            public boolean include(Entry<? extends KeyedTableModel, ? extends Integer> entry) {
+                return matches(found, entry.getIdentifier());
+            }
+        };
+    }
+
+    @Override
+    public void tableChanged(TableModelEvent e) {
+        int first = e.getFirstRow();
+        int last = e.getLastRow();
+        if (first == TableModelEvent.HEADER_ROW || last == Integer.MAX_VALUE) {
+            rebuild();
+        } else if (e.getType() == TableModelEvent.DELETE) {
+            List<Object> removed = rowKeys.subList(first, last + 1);
+            for (Object key : removed) {
+                remove(key);
+            }
+            removed.clear();
+        } else if (e.getType() == TableModelEvent.INSERT) {
+            List<Object> inserted = new ArrayList<>(last - first + 1);
+            for (int row = first; row <= last; row++) {
+                Object key = model.getKeyAt(row);
+                inserted.add(key);
+                index(key, row);
+            }
+            rowKeys.addAll(first, inserted);
+        } else {
+            for (int row = first; row <= last; row++) {
+                Object key = model.getKeyAt(row);
+                Object oldKey = rowKeys.set(row, key);
+                if (!oldKey.equals(key)) {
+                    remove(oldKey);
+                }
+                index(key, row);
+            }
+        }
+        version++;
+    }
+
+    private void rebuild() {
+        idsByKey.clear();
+        texts.clear();
+        freeIds.clear();
+        liveIds.clear();
+        trigramKeys = new int[1 << 12];
+        trigramIds = new BitSet[1 << 12];
+        trigramCount = 0;
+        trigramsBuilt = false;
+        rowKeys.clear();
+        for (int row = 0; row < model.getRowCount(); row++) {
+            Object key = model.getKeyAt(row);
+            rowKeys.add(key);
+            index(key, row);
+        }
+        version++;
+    }
+
+    private void index(Object key, int row) {
+        StringBuilder text = new StringBuilder();
+        for (int column : columns) {
+            Object value = model.getValueAt(row, column);
+            text.append(CELL_SEPARATOR);
+            if (value != null) {
+                text.append(value.toString().toLowerCase(Locale.ROOT));
+            }
+        }
+        String newText = text.toString();
+
+        Integer id = idsByKey.get(key);
+        if (id != null) {
+            String oldText = texts.get(id);
+            if (oldText.equals(newText)) {
+                return;
+            }
+            setTrigrams(oldText, id, false);
+        } else {
+            id = freeIds.isEmpty() ? texts.size() : freeIds.remove(freeIds.size() - 1);
+            if (id == texts.size()) {
+                texts.add(null);
+            }
+            idsByKey.put(key, id);
+            liveIds.set(id);
+        }
+        texts.set(id, newText);
+        setTrigrams(newText, id, true);
+    }
+
+    private void remove(Object key) {
+        Integer id = idsByKey.remove(key);
+        if (id != null) {
+            setTrigrams(texts.get(id), id, false);
+            texts.set(id, null);
+            liveIds.clear(id);
+            freeIds.add(id);
+        }
+    }
+
+    private void buildTrigrams() {
+        trigramsBuilt = true;
+        for (int id = liveIds.nextSetBit(0); id >= 0; id = liveIds.nextSetBit(id + 1)) {
+            setTrigrams(texts.get(id), id, true);
+        }
+    }
+
+    private void setTrigrams(String text, int id, boolean present) {
+        if (!trigramsBuilt) {
+            return;
+        }
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            BitSet ids = idsFor(trigram(text, i), present);
+            if (present) {
+                ids.set(id);
+            } else if (ids != null) {
+                ids.clear(id);
+            }
+        }
+    }
+
+    private BitSet idsFor(int trigram, boolean create) {
+        int mask = trigramKeys.length - 1;
+        int slot = trigram & mask;
+        while (trigramKeys[slot] != 0) {
+            if (trigramKeys[slot] == trigram) {
+                return trigramIds[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (!create) {
+            return null;
+        }
+        if (trigramCount * 2 >= trigramKeys.length) {
+            growTrigrams();
+            return idsFor(trigram, true);
+        }
+        trigramKeys[slot] = trigram;
+        trigramIds[slot] = new BitSet();
+        trigramCount++;
+        return trigramIds[slot];
+    }
+
+    private void growTrigrams() {
+        int[] oldKeys = trigramKeys;
+        BitSet[] oldIds = trigramIds;
+        trigramKeys = new int[oldKeys.length * 2];
+        trigramIds = new BitSet[oldKeys.length * 2];
+        int mask = trigramKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = oldKeys[i] & mask;
+                while (trigramKeys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                trigramKeys[slot] = oldKeys[i];
+                trigramIds[slot] = oldIds[i];
+            }
+        }
+    }
+
+    // Hashes three UTF-16 characters into a non-zero key. Two trigrams sharing a key only widen
+    // the candidates, which are checked anyway; trigrams spanning two cells never match a term
+    private static int trigram(String text, int start) {
+        long packed = ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+        int hash = (int) ((packed * 0x9E3779B97F4A7C15L) >>> 32);
+        return hash != 0 ? hash : 1;
+    }
+
+    private static boolean contains(String text, String term, boolean prefix) {
+        for (int at = text.indexOf(term); at >= 0; at = text.indexOf(term, at + 1)) {
+            if (!prefix || !Character.isLetterOrDigit(text.charAt(at - 1))) {
+                return true; // Every cell starts after a separator, so at - 1 is never negative
+            }
+        }
+        return false;
+    }
+}
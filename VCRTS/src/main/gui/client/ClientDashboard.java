@@ -2,45 +2,47 @@ package gui.client;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
+import java.util.function.Consumer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.Socket;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.regex.Pattern;
+import gui.KeyedTableModel;
+import gui.TableSearchField;
+import dao.AppStateStore;
+import dao.ChangeNotifier;
 import dao.CloudControllerDAO;
-import dao.JobDAO;
 import models.Job;
 import models.User;
+import net.Protocol;
+import net.ServerConnection;
 
 public class ClientDashboard extends JPanel {
     private static final Logger logger = Logger.getLogger(ClientDashboard.class.getName());
 
     private User client; // Authenticated client (job owner)
-    private JobDAO jobDAO = new JobDAO();
-    private CloudControllerDAO cloudControllerDAO = new CloudControllerDAO();
+    // Shared with every other open dashboard, so extra windows do not repeat these reads
+    private final AppStateStore stateStore = AppStateStore.getInstance();
 
     private JTable jobTable;
-    private DefaultTableModel tableModel;
+    private KeyedTableModel tableModel;
     private JComboBox<String> statusFilter;
+    private TableSearchField searchField;
     private JButton refreshButton, addJobButton;
+    // Incremented by every reload, so a slower earlier reload does not overwrite a later one
+    private int updateGeneration = 0;
     
-    // Socket connection fields
-    private Socket socket;
-    private PrintWriter out; 
-    private BufferedReader in;
-    private final String SERVER_ADDRESS = "localhost";
-    private final int SERVER_PORT = 9876; 
-    private boolean connected = false;
+    // Shared connection to the Cloud Controller server
+    private final ServerConnection connection = ServerConnection.getInstance();
+    private final Consumer<String> messageListener = this::processServerMessage;
 
     public ClientDashboard(User client) {
         this.client = client;
@@ -59,9 +61,7 @@ public class ClientDashboard extends JPanel {
 
         // Table setup
         String[] columnNames = {"Job ID", "Status", "Duration", "Deadline", "Created At", "Est. Completion"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
-        };
+        tableModel = new KeyedTableModel(columnNames, 0);
         jobTable = new JTable(tableModel);
         jobTable.setBackground(new Color(230, 230, 230)); // CONSISTENT WITH OwnerDashboard
         jobTable.setForeground(Color.BLACK);
@@ -98,11 +98,22 @@ public class ClientDashboard extends JPanel {
         statusFilter = new JComboBox<>(statuses);
         statusFilter.setBackground(Color.WHITE);
         statusFilter.setFont(new Font("Arial", Font.PLAIN, 14));
-        statusFilter.addActionListener(e -> updateTable());
+        // Filters the loaded jobs; no need to query the database again
+        statusFilter.addActionListener(e -> applyStatusFilter());
         controlPanel.add(statusFilter);
 
+        JLabel searchLabel = new JLabel("Search:");
+        searchLabel.setForeground(Color.WHITE);
+        controlPanel.add(searchLabel);
+        searchField = new TableSearchField(jobTable, tableModel, 0, 1);
+        controlPanel.add(searchField);
+
         refreshButton = new JButton("Refresh List");
-        refreshButton.addActionListener(e -> updateTable());
+        refreshButton.addActionListener(e -> {
+            // Pick up jobs the controller changed since the shared copy was loaded
+            stateStore.invalidate(ChangeNotifier.Topic.JOBS, ChangeNotifier.Topic.SCHEDULE);
+            updateTable();
+        });
         controlPanel.add(refreshButton);
 
         addJobButton = new JButton("Submit New Job");
@@ -111,58 +122,22 @@ public class ClientDashboard extends JPanel {
 
         add(controlPanel, BorderLayout.SOUTH);
 
-        // Initial data load
+        // Initial data load, which finishes after the dashboard is shown
         updateTable();
-        
-        // Connect to the server
-        connectToServer();
-        
-        // Add shutdown hook to close connection when application exits
-        Runtime.getRuntime().addShutdownHook(new Thread(this::disconnectFromServer));
     }
     
-    // Socket connection methods
-    private void connectToServer() {
-        new Thread(() -> {
-            try {
-                socket = new Socket(SERVER_ADDRESS, SERVER_PORT);
-                out = new PrintWriter(socket.getOutputStream(), true);
-                in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-                connected = true;
-                System.out.println("Connected to Cloud Controller server");
-                
-                // Start a thread to listen for server messages
-                new Thread(this::listenForServerMessages).start();
-            } catch (IOException e) {
-                System.err.println("Could not connect to Cloud Controller: " + e.getMessage());
-                connected = false;
-                
-                // Schedule reconnect attempt
-                Timer reconnectTimer = new Timer(5000, event -> connectToServer());
-                reconnectTimer.setRepeats(false);
-                reconnectTimer.start();
-            }
-        }).start();
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        connection.addMessageListener(messageListener);
     }
-    
-    private void listenForServerMessages() {
-        try {
-            String message;
-            while (connected && (message = in.readLine()) != null) {
-                final String finalMessage = message;
-                SwingUtilities.invokeLater(() -> processServerMessage(finalMessage));
-            }
-        } catch (IOException e) {
-            if (connected) {
-                System.err.println("Error reading from server: " + e.getMessage());
-                connected = false;
-                
-                // Try to reconnect
-                connectToServer();
-            }
-        }
+
+    @Override
+    public void removeNotify() {
+        connection.removeMessageListener(messageListener);
+        super.removeNotify();
     }
-    
+
     private void processServerMessage(String message) {
         System.out.println("Received from server: " + message);
         
@@ -183,20 +158,29 @@ public class ClientDashboard extends JPanel {
                 // Refresh the job table
                 updateTable();
             }
+        } else if (message.startsWith("REQUEST_ACK:JOB,")) {
+            // Parse: REQUEST_ACK:JOB,jobId,requestId (sent once the request is stored durably)
+            String[] parts = message.substring("REQUEST_ACK:".length()).split(",");
+            if (parts.length >= 3) {
+                JOptionPane.showMessageDialog(this,
+                    "Job (ID: " + parts[1] + ") submitted for approval (request #" + parts[2] + ").\nWaiting for Cloud Controller to review.",
+                    "Submission Success",
+                    JOptionPane.INFORMATION_MESSAGE);
+                updateTable();
+            }
+        } else if (message.startsWith("REQUEST_NACK:JOB,")) {
+            // Parse: REQUEST_NACK:JOB,jobId,reason
+            String[] parts = message.substring("REQUEST_NACK:".length()).split(",", 3);
+            JOptionPane.showMessageDialog(this,
+                "Job submission was not accepted" + (parts.length >= 3 ? ": " + parts[2] : ".") + "\nPlease try again.",
+                "Submission Failed",
+                JOptionPane.ERROR_MESSAGE);
+        } else if (Protocol.RESYNC.equals(message)) {
+            // Missed notifications could not be replayed; reload from the database
+            updateTable();
         }
     }
     
-    private void disconnectFromServer() {
-        connected = false;
-        try {
-            if (out != null) out.close();
-            if (in != null) in.close();
-            if (socket != null) socket.close();
-            System.out.println("Disconnected from server");
-        } catch (IOException e) {
-            System.err.println("Error disconnecting: " + e.getMessage());
-        }
-    }
 
     /**
      * Opens a dialog for submitting a new job for approval - CONSISTENT STYLE WITH OwnerForm
@@ -317,19 +301,16 @@ public class ClientDashboard extends JPanel {
             }
 
             // Use socket communication
-            if (connected && out != null) {
+            if (connection.isConnected()) {
                 try {
                     // Format: NEW_JOB:userId,jobId,jobName,duration,deadline
                     String message = String.format("NEW_JOB:%d,%s,%s,%s,%s", 
                         client.getUserId(), jobId, jobName, duration, deadline);
-                    out.println(message);
+                    if (!connection.sendRequest(message)) {
+                        throw new IllegalStateException("Connection to server was lost");
+                    }
                     System.out.println("Sent to server: " + message);
-                    
-                    JOptionPane.showMessageDialog(this,
-                        "Job (ID: " + jobId + ") submitted for approval.\nWaiting for Cloud Controller to review.",
-                        "Submission Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                    updateTable();
+                    // Confirmation is shown when the server acknowledges the stored request (REQUEST_ACK)
                 } catch (Exception e) {
                     JOptionPane.showMessageDialog(this, 
                         "Error sending job submission: " + e.getMessage(), 
@@ -342,49 +323,75 @@ public class ClientDashboard extends JPanel {
                     "Connection Error", 
                     JOptionPane.ERROR_MESSAGE);
                 
-                connectToServer();
+                connection.reconnectNow();
             }
         }
     }
 
     /**
-     * Updates the job table based on the selected status filter.
+     * Shows only jobs with the selected status, or all jobs.
+     */
+    private void applyStatusFilter() {
+        String selectedStatus = (String) statusFilter.getSelectedItem();
+        searchField.setExtraFilter("All".equalsIgnoreCase(selectedStatus) ? null
+                : RowFilter.regexFilter("(?i)^" + Pattern.quote(selectedStatus) + "$", 1));
+    }
+
+    /**
+     * Reloads all of the client's jobs in the background; the status filter and search are
+     * applied to the table. If reloads overlap, only the latest one fills the table.
      */
     public void updateTable() {
-        try {
-            tableModel.setRowCount(0);
-            String selectedStatus = (String) statusFilter.getSelectedItem();
-            Map<String, String> completionTimes = cloudControllerDAO.loadSchedule();
-            Map<String, String> currentStates = cloudControllerDAO.loadJobStates();
-
-            List<Job> allClientJobs = jobDAO.getJobsByClient(client.getUserId(), "All");
-
-            for (Job job : allClientJobs) {
-                String displayStatus = CloudControllerDAO.STATE_PENDING_APPROVAL.equals(job.getStatus())
-                                     ? CloudControllerDAO.STATE_PENDING_APPROVAL
-                                     : currentStates.getOrDefault(job.getJobId(), job.getStatus());
-
-                if ("All".equalsIgnoreCase(selectedStatus) || selectedStatus.equalsIgnoreCase(displayStatus)) {
-                    String estimatedCompletion = completionTimes.getOrDefault(job.getJobId(), "-");
-                    if (CloudControllerDAO.STATE_PENDING_APPROVAL.equals(displayStatus)) {
-                        estimatedCompletion = "N/A (Pending)";
-                    } else if (CloudControllerDAO.STATE_COMPLETED.equals(displayStatus) && "-".equals(estimatedCompletion)) {
-                        estimatedCompletion = "Completed";
-                    }
+        int generation = ++updateGeneration;
+        new SwingWorker<List<Object[]>, Void>() {
+            @Override
+            protected List<Object[]> doInBackground() {
+                return fetchRows();
+            }
 
-                    tableModel.addRow(new Object[]{
-                            job.getJobId(),
-                            displayStatus,
-                            job.getDuration(),
-                            job.getDeadline(),
-                            job.getCreatedTimestamp(),
-                            estimatedCompletion
-                    });
+            @Override
+            protected void done() {
+                if (generation != updateGeneration) {
+                    return;
                 }
+                try {
+                    tableModel.setRows(get());
+                } catch (ExecutionException e) {
+                    Throwable ex = e.getCause();
+                    logger.log(Level.SEVERE, "Error updating job table: " + ex.getMessage(), ex);
+                    JOptionPane.showMessageDialog(ClientDashboard.this, "Error loading job data: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    private List<Object[]> fetchRows() {
+        Map<String, String> completionTimes = stateStore.getSchedule();
+
+        List<Job> allClientJobs = stateStore.getJobsByOwner(client.getUserId());
+        List<Object[]> rows = new ArrayList<>(allClientJobs.size());
+
+        for (Job job : allClientJobs) {
+            String displayStatus = job.getStatus();
+
+            String estimatedCompletion = completionTimes.getOrDefault(job.getJobId(), "-");
+            if (CloudControllerDAO.STATE_PENDING_APPROVAL.equals(displayStatus)) {
+                estimatedCompletion = "N/A (Pending)";
+            } else if (CloudControllerDAO.STATE_COMPLETED.equals(displayStatus) && "-".equals(estimatedCompletion)) {
+                estimatedCompletion = "Completed";
             }
-        } catch(Exception ex) {
-            logger.log(Level.SEVERE, "Error updating job table: " + ex.getMessage(), ex);
-            JOptionPane.showMessageDialog(this, "Error loading job data: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+
+            rows.add(new Object[]{
+                    job.getJobId(),
+                    displayStatus,
+                    job.getDuration(),
+                    job.getDeadline(),
+                    job.getCreatedTimestamp(),
+                    estimatedCompletion
+            });
         }
+        return rows;
     }
 }
\ No newline at end of file
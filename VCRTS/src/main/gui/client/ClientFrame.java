@@ -3,14 +3,21 @@ package gui.client;
 import javax.swing.*;
 
 import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
+import gui.StartupTimer;
 import models.User;
+import net.ServerConnection;
 
 public class ClientFrame extends JFrame {
     private static final Logger logger = Logger.getLogger(ClientFrame.class.getName());
     private CardLayout cardLayout;
     private JPanel mainPanel;
     private User currentUser;
+    // Pages not built yet, by name; each is built the first time it is shown
+    private final Map<String, Supplier<? extends Component>> pageFactories = new HashMap<>();
 
     public ClientFrame() {
         setTitle("Client VCRTS Application");
@@ -21,10 +28,10 @@ public class ClientFrame extends JFrame {
         cardLayout = new CardLayout();
         mainPanel = new JPanel(cardLayout);
 
-        // Add static pages
+        // Add static pages; only the startup page is needed to open the window
         mainPanel.add(new StartupPageClient(this, "Welcome to the VCRTS Client Interface"), "startup");
-        mainPanel.add(new LoginPageClient(this), "login");
-        mainPanel.add(new CreateAccountPageClient(this), "createAccount");
+        pageFactories.put("login", () -> new LoginPageClient(this));
+        pageFactories.put("createAccount", () -> new CreateAccountPageClient(this));
 
         // Initially show the startup page.
         add(mainPanel);
@@ -32,9 +39,13 @@ public class ClientFrame extends JFrame {
     }
 
     /**
-     * Switches to the specified page.
+     * Switches to the specified page, building it first if it has not been shown before.
      */
     public void showPage(String pageName) {
+        Supplier<? extends Component> factory = pageFactories.remove(pageName);
+        if (factory != null) {
+            mainPanel.add(factory.get(), pageName);
+        }
         cardLayout.show(mainPanel, pageName);
     }
 
@@ -55,10 +66,14 @@ public class ClientFrame extends JFrame {
         }
 
         // Create a universal dashboard that can handle multiple roles
+        StartupTimer timer = new StartupTimer("Dashboard");
         UniversalDashboard dashboard = new UniversalDashboard(this, user);
         dashboard.setName("dashboard");
         mainPanel.add(dashboard, "dashboard");
+        timer.mark("build");
         showPage("dashboard");
+        // Runs after the layout and first paint queued by showing the dashboard
+        SwingUtilities.invokeLater(() -> timer.finish("shown"));
     }
 
     /**
@@ -72,11 +87,19 @@ public class ClientFrame extends JFrame {
      * Log out the current user and return to the startup page
      */
     public void logout() {
+        ServerConnection.endSession();
         this.currentUser = null;
         showPage("startup");
     }
 
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new ClientFrame().setVisible(true));
+        StartupTimer timer = StartupTimer.sinceJvmStart("Client application");
+        SwingUtilities.invokeLater(() -> {
+            timer.mark("launch");
+            ClientFrame frame = new ClientFrame();
+            timer.mark("frame");
+            frame.setVisible(true);
+            SwingUtilities.invokeLater(() -> timer.finish("shown"));
+        });
     }
 }
@@ -2,21 +2,36 @@ package gui.client;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import gui.KeyedTableModel;
+import gui.TableSearchField;
 import dao.JobDAO;
 import dao.UserDAO;
 import dao.AllocationDAO;
+import dao.AppStateStore;
+import dao.AuthenticationService;
 import dao.CloudControllerDAO;
 import models.Job;
 import models.User;
 import models.Allocation;
 
 public class CloudControllerDashboard extends JPanel {
+    private static final Logger logger = Logger.getLogger(CloudControllerDashboard.class.getName());
+    private static final int JOBS_TAB = 0;
+    private static final int USERS_TAB = 1;
+    private static final int ALLOCATIONS_TAB = 2;
+    private static final int SCHEDULE_TAB = 3;
+
     private JTable jobTable, userTable, allocationTable, scheduleTable;
-    private DefaultTableModel jobTableModel, userTableModel, allocationTableModel, scheduleTableModel;
+    private KeyedTableModel jobTableModel, userTableModel, allocationTableModel, scheduleTableModel;
     private JButton addJobButton, editJobButton, deleteJobButton;
     private JButton addUserButton, editUserButton, deleteUserButton;
     private JButton allocateButton, removeAllocationButton;
@@ -29,6 +44,11 @@ public class CloudControllerDashboard extends JPanel {
     private UserDAO userDAO = new UserDAO();
     private AllocationDAO allocationDAO = new AllocationDAO();
     private CloudControllerDAO cloudControllerDAO = new CloudControllerDAO();
+    // Shared with every other open dashboard, so extra windows do not repeat these reads
+    private final AppStateStore stateStore = AppStateStore.getInstance();
+    // Tabs whose data has been loaded at least once
+    private final boolean[] tabLoaded = new boolean[SCHEDULE_TAB + 1];
+    private final int[] loadGeneration = new int[SCHEDULE_TAB + 1];
 
     public CloudControllerDashboard() {
         setLayout(new BorderLayout());
@@ -58,7 +78,7 @@ public class CloudControllerDashboard extends JPanel {
         // Jobs Tab
         JPanel jobPanel = new JPanel(new BorderLayout());
         String[] jobColumns = {"Job ID", "Job Name", "Job Owner", "Duration", "Deadline", "Status", "Created At"};
-        jobTableModel = new DefaultTableModel(jobColumns, 0);
+        jobTableModel = new KeyedTableModel(jobColumns, 0);
         jobTable = new JTable(jobTableModel);
 
         // Center-align table cells
@@ -77,13 +97,15 @@ public class CloudControllerDashboard extends JPanel {
         jobActionPanel.add(addJobButton);
         jobActionPanel.add(editJobButton);
         jobActionPanel.add(deleteJobButton);
+        jobActionPanel.add(new JLabel("Search:"));
+        jobActionPanel.add(new TableSearchField(jobTable, jobTableModel, 0, 1, 2));
         jobPanel.add(jobActionPanel, BorderLayout.SOUTH);
         tabbedPane.addTab("Jobs", jobPanel);
 
         // Users Tab
         JPanel userPanel = new JPanel(new BorderLayout());
         String[] userColumns = {"User ID", "Username", "Email", "Role"};
-        userTableModel = new DefaultTableModel(userColumns, 0);
+        userTableModel = new KeyedTableModel(userColumns, 0);
         userTable = new JTable(userTableModel);
 
         // Center-align table cells
@@ -100,13 +122,15 @@ public class CloudControllerDashboard extends JPanel {
         userActionPanel.add(addUserButton);
         userActionPanel.add(editUserButton);
         userActionPanel.add(deleteUserButton);
+        userActionPanel.add(new JLabel("Search:"));
+        userActionPanel.add(new TableSearchField(userTable, userTableModel, 0, 1, 2));
         userPanel.add(userActionPanel, BorderLayout.SOUTH);
         tabbedPane.addTab("Users", userPanel);
 
         // Allocations Tab
         JPanel allocationPanel = new JPanel(new BorderLayout());
         String[] allocationColumns = {"Allocation ID", "User", "Job"};
-        allocationTableModel = new DefaultTableModel(allocationColumns, 0);
+        allocationTableModel = new KeyedTableModel(allocationColumns, 0);
         allocationTable = new JTable(allocationTableModel);
 
         // Center-align table cells
@@ -127,6 +151,8 @@ public class CloudControllerDashboard extends JPanel {
         allocationControls.add(jobDropdown);
         allocationControls.add(allocateButton);
         allocationControls.add(removeAllocationButton);
+        allocationControls.add(new JLabel("Search:"));
+        allocationControls.add(new TableSearchField(allocationTable, allocationTableModel, 0, 1, 2));
         allocationPanel.add(allocationControls, BorderLayout.SOUTH);
         tabbedPane.addTab("Allocations", allocationPanel);
 
@@ -141,7 +167,7 @@ public class CloudControllerDashboard extends JPanel {
         schedulePanel.add(statusPanel, BorderLayout.NORTH);
 
         String[] scheduleColumns = {"Job ID", "Job Name", "Duration", "Time to Complete", "Status", "Completion Time"};
-        scheduleTableModel = new DefaultTableModel(scheduleColumns, 0);
+        scheduleTableModel = new KeyedTableModel(scheduleColumns, 0);
         scheduleTable = new JTable(scheduleTableModel);
 
         // Center-align table cells
@@ -158,18 +184,20 @@ public class CloudControllerDashboard extends JPanel {
         scheduleControlPanel.add(calculateTimesButton);
         scheduleControlPanel.add(assignVehiclesButton);
         scheduleControlPanel.add(advanceQueueButton);
+        scheduleControlPanel.add(new JLabel("Search:"));
+        scheduleControlPanel.add(new TableSearchField(scheduleTable, scheduleTableModel, 0, 1));
         schedulePanel.add(scheduleControlPanel, BorderLayout.SOUTH);
         tabbedPane.addTab("Schedule", schedulePanel);
 
         add(tabbedPane, BorderLayout.CENTER);
 
-        // Load data using DAO methods
-        loadJobData();
-        loadUserData();
-        loadAllocationData();
-        loadAllocationDropdowns();
-        loadScheduleData();
-        updateQueueStatus();
+        // Data is loaded once the dashboard is on screen, one tab at a time as each is first shown
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing()
+                    && !tabLoaded[tabbedPane.getSelectedIndex()]) {
+                loadTabInBackground(tabbedPane.getSelectedIndex());
+            }
+        });
 
         // Button actions
         addJobButton.addActionListener(e -> addNewJob());
@@ -191,20 +219,93 @@ public class CloudControllerDashboard extends JPanel {
         logout.addActionListener(e -> JOptionPane.showMessageDialog(this, "Logging out..."));
         exit.addActionListener(e -> System.exit(0));
 
-        // Add tab change listener to refresh data when switching to schedule tab
+        // Load a tab the first time it is selected; the schedule tab is refreshed every time
         tabbedPane.addChangeListener(e -> {
-            if (tabbedPane.getSelectedIndex() == 3) { // Schedule tab
-                loadScheduleData();
-                updateQueueStatus();
+            int index = tabbedPane.getSelectedIndex();
+            if (index >= 0 && (!tabLoaded[index] || index == SCHEDULE_TAB)) {
+                loadTabInBackground(index);
             }
         });
     }
 
-    private void loadJobData() {
-        jobTableModel.setRowCount(0);
-        List<Job> jobs = jobDAO.getAllJobs();
+    /**
+     * Reads a tab's data from the shared store off the Event Dispatch Thread, then fills
+     * the tab with what was read. A tab that has not been loaded yet is left alone and
+     * loads when it is first shown.
+     */
+    private void reloadTabs(int... indexes) {
+        for (int index : indexes) {
+            if (tabLoaded[index]) {
+                loadTabInBackground(index);
+            }
+        }
+    }
+
+    private void loadTabInBackground(int index) {
+        tabLoaded[index] = true;
+        // Only the newest load of a tab is shown, whichever finishes last
+        int generation = ++loadGeneration[index];
+        new SwingWorker<Runnable, Void>() {
+            @Override
+            protected Runnable doInBackground() {
+                return fetchTab(index);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    Runnable apply = get();
+                    if (generation == loadGeneration[index]) {
+                        apply.run();
+                    }
+                } catch (ExecutionException e) {
+                    tabLoaded[index] = false;
+                    logger.log(Level.SEVERE, "Error loading dashboard data", e.getCause());
+                    JOptionPane.showMessageDialog(CloudControllerDashboard.this,
+                            "Error loading data: " + e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    // Runs on a worker thread; returns the update to make on the Event Dispatch Thread
+    private Runnable fetchTab(int index) {
+        switch (index) {
+            case JOBS_TAB: {
+                List<Object[]> rows = fetchJobRows();
+                return () -> jobTableModel.setRows(rows);
+            }
+            case USERS_TAB: {
+                List<Object[]> rows = fetchUserRows();
+                return () -> userTableModel.setRows(rows);
+            }
+            case ALLOCATIONS_TAB: {
+                List<Object[]> rows = fetchAllocationRows();
+                List<String> userChoices = fetchUserChoices();
+                List<String> jobChoices = fetchJobChoices();
+                return () -> {
+                    allocationTableModel.setRows(rows);
+                    setAllocationChoices(userChoices, jobChoices);
+                };
+            }
+            default: {
+                List<Object[]> rows = fetchScheduleRows();
+                String queueStatus = fetchQueueStatus();
+                return () -> {
+                    scheduleTableModel.setRows(rows);
+                    queueStatusLabel.setText(queueStatus);
+                };
+            }
+        }
+    }
+
+    private List<Object[]> fetchJobRows() {
+        List<Job> jobs = stateStore.getJobs();
+        List<Object[]> rows = new ArrayList<>(jobs.size());
         for (Job job : jobs) {
-            jobTableModel.addRow(new Object[]{
+            rows.add(new Object[]{
                     job.getJobId(),
                     job.getJobName(),
                     job.getJobOwnerId(),
@@ -214,47 +315,43 @@ public class CloudControllerDashboard extends JPanel {
                     job.getCreatedTimestamp()
             });
         }
+        return rows;
     }
 
-    private void loadUserData() {
-        userTableModel.setRowCount(0);
-        List<User> users = userDAO.getAllVehicleOwners();
+    private List<Object[]> fetchUserRows() {
+        List<User> users = stateStore.getVehicleOwners();
+        List<Object[]> rows = new ArrayList<>(users.size());
         for (User user : users) {
-            userTableModel.addRow(new Object[]{user.getUserId(), user.getFullName(), user.getEmail(), user.getRole()});
+            rows.add(new Object[]{user.getUserId(), user.getFullName(), user.getEmail(), user.getRole()});
         }
+        return rows;
     }
 
-    private void loadAllocationData() {
-        allocationTableModel.setRowCount(0);
-        List<Allocation> allocations = allocationDAO.getAllAllocations();
+    private List<Object[]> fetchAllocationRows() {
+        List<Allocation> allocations = stateStore.getAllocations();
+        List<Object[]> rows = new ArrayList<>(allocations.size());
         for (Allocation allocation : allocations) {
-            allocationTableModel.addRow(new Object[]{allocation.getAllocationId(), allocation.getUserId(), allocation.getJobId()});
+            rows.add(new Object[]{allocation.getAllocationId(), allocation.getUserId(), allocation.getJobId()});
         }
+        return rows;
     }
 
-    private void loadScheduleData() {
-        scheduleTableModel.setRowCount(0);
-        Map<String, String> completionTimes = cloudControllerDAO.loadSchedule();
-        List<Job> jobs = jobDAO.getAllJobs();
+    private List<Object[]> fetchScheduleRows() {
+        Map<String, String> completionTimes = stateStore.getSchedule();
+        List<Job> jobs = new ArrayList<>(stateStore.getJobs());
+        List<Object[]> rows = new ArrayList<>(jobs.size());
         // Sort jobs by creation timestamp for FIFO display
-        jobs.sort((a, b) -> a.getCreatedTimestamp().compareTo(b.getCreatedTimestamp()));
+        jobs.sort(Comparator.comparingLong(Job::getCreatedMillis));
 
         // Running total for completion time calculation
         long runningTotalMinutes = 0;
 
         for (Job job : jobs) {
             // Calculate job duration in minutes
-            long durationMinutes = 0;
-            try {
-                String[] timeParts = job.getDuration().split(":");
-                int hours = Integer.parseInt(timeParts[0]);
-                int minutes = Integer.parseInt(timeParts[1]);
-                int seconds = Integer.parseInt(timeParts[2]);
-
-                durationMinutes = hours * 60 + minutes + (seconds > 0 ? 1 : 0); // Round up seconds
-            } catch (Exception e) {
-                durationMinutes = 60; // Default to 1 hour if parsing fails
-            }
+            long durationSeconds = job.getDurationSeconds();
+            long durationMinutes = durationSeconds < 0
+                    ? 60 // Default to 1 hour if the duration is invalid
+                    : (durationSeconds + 59) / 60; // Round up seconds
 
             // Add current job duration to running total (for FIFO calculation)
             if (!job.getStatus().equals(CloudControllerDAO.STATE_COMPLETED)) {
@@ -272,7 +369,7 @@ public class CloudControllerDashboard extends JPanel {
             String completionTime = completionTimes.getOrDefault(job.getJobId(), "Not calculated");
 
             // Add row to table
-            scheduleTableModel.addRow(new Object[]{
+            rows.add(new Object[]{
                     job.getJobId(),
                     job.getJobName(),
                     job.getDuration(),
@@ -281,28 +378,43 @@ public class CloudControllerDashboard extends JPanel {
                     completionTime
             });
         }
+        return rows;
     }
 
-    private void updateQueueStatus() {
-        Map<String, Integer> summary = cloudControllerDAO.getJobQueueSummary();
-        queueStatusLabel.setText(String.format("Queue Status: %d Queued | %d In Progress | %d Completed",
+    private String fetchQueueStatus() {
+        Map<String, Integer> summary = stateStore.getJobQueueSummary();
+        return String.format("Queue Status: %d Queued | %d In Progress | %d Completed",
                 summary.getOrDefault(CloudControllerDAO.STATE_QUEUED, 0),
                 summary.getOrDefault(CloudControllerDAO.STATE_PROGRESS, 0),
-                summary.getOrDefault(CloudControllerDAO.STATE_COMPLETED, 0)));
+                summary.getOrDefault(CloudControllerDAO.STATE_COMPLETED, 0));
     }
 
-    private void loadAllocationDropdowns() {
-        userDropdown.removeAllItems();
-        jobDropdown.removeAllItems();
-
-        List<User> users = userDAO.getAllVehicleOwners();
+    private List<String> fetchUserChoices() {
+        List<User> users = stateStore.getVehicleOwners();
+        List<String> choices = new ArrayList<>(users.size());
         for (User user : users) {
-            userDropdown.addItem(user.getUserId() + " - " + user.getFullName());
+            choices.add(user.getUserId() + " - " + user.getFullName());
         }
+        return choices;
+    }
 
-        List<Job> jobs = jobDAO.getAllJobs();
+    private List<String> fetchJobChoices() {
+        List<Job> jobs = stateStore.getJobs();
+        List<String> choices = new ArrayList<>(jobs.size());
         for (Job job : jobs) {
-            jobDropdown.addItem(job.getJobId() + " - " + job.getJobName());
+            choices.add(job.getJobId() + " - " + job.getJobName());
+        }
+        return choices;
+    }
+
+    private void setAllocationChoices(List<String> userChoices, List<String> jobChoices) {
+        userDropdown.removeAllItems();
+        jobDropdown.removeAllItems();
+        for (String choice : userChoices) {
+            userDropdown.addItem(choice);
+        }
+        for (String choice : jobChoices) {
+            jobDropdown.addItem(choice);
         }
     }
 
@@ -310,27 +422,49 @@ public class CloudControllerDashboard extends JPanel {
      * Calculates completion times for all jobs using FIFO scheduling
      */
     private void calculateCompletionTimes() {
-        Map<String, String> completionTimes = cloudControllerDAO.calculateCompletionTimes();
-        if (completionTimes.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "No jobs found to schedule.", "Schedule", JOptionPane.INFORMATION_MESSAGE);
-        } else {
-            loadScheduleData();
-            loadJobData();
-            updateQueueStatus();
-
-            // Show the calculation results
-            String output = cloudControllerDAO.generateSchedulingOutput();
-            JTextArea textArea = new JTextArea(output);
-            textArea.setEditable(false);
-            textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
-            JScrollPane scrollPane = new JScrollPane(textArea);
-            scrollPane.setPreferredSize(new Dimension(600, 300));
+        calculateTimesButton.setEnabled(false);
+        new SwingWorker<String, Void>() {
+            // The scheduling report, or null when there were no jobs to schedule
+            @Override
+            protected String doInBackground() {
+                Map<String, String> completionTimes = cloudControllerDAO.calculateCompletionTimes();
+                return completionTimes.isEmpty() ? null : cloudControllerDAO.generateSchedulingOutput();
+            }
 
-            JOptionPane.showMessageDialog(this,
-                    scrollPane,
-                    "Job Scheduling Results (FIFO)",
-                    JOptionPane.INFORMATION_MESSAGE);
-        }
+            @Override
+            protected void done() {
+                calculateTimesButton.setEnabled(true);
+                String output;
+                try {
+                    output = get();
+                } catch (ExecutionException e) {
+                    logger.log(Level.SEVERE, "Error calculating completion times", e.getCause());
+                    JOptionPane.showMessageDialog(CloudControllerDashboard.this,
+                            "Error calculating completion times: " + e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (output == null) {
+                    JOptionPane.showMessageDialog(CloudControllerDashboard.this, "No jobs found to schedule.", "Schedule", JOptionPane.INFORMATION_MESSAGE);
+                    return;
+                }
+                reloadTabs(JOBS_TAB, SCHEDULE_TAB);
+
+                // Show the calculation results
+                JTextArea textArea = new JTextArea(output);
+                textArea.setEditable(false);
+                textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+                JScrollPane scrollPane = new JScrollPane(textArea);
+                scrollPane.setPreferredSize(new Dimension(600, 300));
+
+                JOptionPane.showMessageDialog(CloudControllerDashboard.this,
+                        scrollPane,
+                        "Job Scheduling Results (FIFO)",
+                        JOptionPane.INFORMATION_MESSAGE);
+            }
+        }.execute();
     }
 
     /**
@@ -339,9 +473,7 @@ public class CloudControllerDashboard extends JPanel {
     private void assignVehiclesToJobs() {
         int assignmentCount = cloudControllerDAO.assignVehiclesToJobs();
         if (assignmentCount > 0) {
-            loadJobData();
-            loadScheduleData();
-            updateQueueStatus();
+            reloadTabs(JOBS_TAB, SCHEDULE_TAB);
             JOptionPane.showMessageDialog(this,
                     "Assigned vehicles to " + assignmentCount + " jobs.",
                     "Vehicle Assignment",
@@ -361,9 +493,7 @@ public class CloudControllerDashboard extends JPanel {
     private void advanceJobQueue() {
         String nextJobId = cloudControllerDAO.advanceJobQueue();
         if (nextJobId != null) {
-            loadJobData();
-            loadScheduleData();
-            updateQueueStatus();
+            reloadTabs(JOBS_TAB, SCHEDULE_TAB);
             JOptionPane.showMessageDialog(this,
                     "Current job completed. Job " + nextJobId + " is now in progress.",
                     "Queue Advanced",
@@ -459,13 +589,9 @@ public class CloudControllerDashboard extends JPanel {
                     // New jobs are automatically queued
                     Job job = new Job(jobId, jobName, jobOwner, duration, deadline, CloudControllerDAO.STATE_QUEUED);
                     if (jobDAO.addJob(job)) {
-                        loadJobData();
-                        loadAllocationDropdowns();
-
                         // Recalculate the schedule
                         cloudControllerDAO.calculateCompletionTimes();
-                        loadScheduleData();
-                        updateQueueStatus();
+                        reloadTabs(JOBS_TAB, ALLOCATIONS_TAB, SCHEDULE_TAB);
                     } else {
                         JOptionPane.showMessageDialog(this, "Failed to add job.");
                     }
@@ -477,24 +603,20 @@ public class CloudControllerDashboard extends JPanel {
     }
 
     private void editSelectedJob() {
-        int selectedRow = jobTable.getSelectedRow();
+        int selectedRow = TableSearchField.selectedModelRow(jobTable);
         if (selectedRow != -1) {
             String jobId = (String) jobTableModel.getValueAt(selectedRow, 0);
             String newJobName = JOptionPane.showInputDialog(this, "Enter new Job Name:", jobTableModel.getValueAt(selectedRow, 1));
 
             if (newJobName != null) {
-                // Find the job in the data
-                List<Job> jobs = jobDAO.getAllJobs();
-                for (Job job : jobs) {
-                    if (job.getJobId().equals(jobId)) {
-                        job.setJobName(newJobName);
-                        jobDAO.updateJob(job);
-                        break;
-                    }
+                // Jobs from the shared store must not be changed, so edit a fresh copy
+                Job job = jobDAO.getJobById(jobId);
+                if (job != null) {
+                    job.setJobName(newJobName);
+                    jobDAO.updateJob(job);
                 }
 
-                loadJobData();
-                loadScheduleData();
+                reloadTabs(JOBS_TAB, ALLOCATIONS_TAB, SCHEDULE_TAB);
             }
         } else {
             JOptionPane.showMessageDialog(this, "Please select a job to edit.");
@@ -502,14 +624,11 @@ public class CloudControllerDashboard extends JPanel {
     }
 
     private void deleteSelectedJob() {
-        int selectedRow = jobTable.getSelectedRow();
+        int selectedRow = TableSearchField.selectedModelRow(jobTable);
         if (selectedRow != -1) {
             String jobId = (String) jobTableModel.getValueAt(selectedRow, 0);
             if (jobDAO.deleteJob(jobId)) {
-                loadJobData();
-                loadAllocationDropdowns();
-                loadScheduleData();
-                updateQueueStatus();
+                reloadTabs(JOBS_TAB, ALLOCATIONS_TAB, SCHEDULE_TAB);
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to delete job.");
             }
@@ -524,17 +643,23 @@ public class CloudControllerDashboard extends JPanel {
         String password = JOptionPane.showInputDialog(this, "Enter Password:");
         if (fullName != null && email != null && password != null) {
             User user = new User(fullName, email, "vehicle_owner,job_owner", password);
-            if (userDAO.addUser(user)) {
-                loadUserData();
-                loadAllocationDropdowns();
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to add user.");
-            }
+            // The password is hashed in the background
+            AuthenticationService.getInstance().addUserAsync(user)
+                .whenCompleteAsync((success, error) -> {
+                    if (error != null) {
+                        logger.log(Level.WARNING, "Could not add user", error);
+                        JOptionPane.showMessageDialog(this, "Could not add the user now. Please try again in a moment.");
+                    } else if (success) {
+                        reloadTabs(USERS_TAB, ALLOCATIONS_TAB);
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Failed to add user.");
+                    }
+                }, SwingUtilities::invokeLater);
         }
     }
 
     private void editSelectedUser() {
-        int selectedRow = userTable.getSelectedRow();
+        int selectedRow = TableSearchField.selectedModelRow(userTable);
         if (selectedRow != -1) {
             int userId = (int) userTableModel.getValueAt(selectedRow, 0);
             User user = userDAO.getUserById(userId);
@@ -544,7 +669,7 @@ public class CloudControllerDashboard extends JPanel {
                 if (newName != null) {
                     user.setFullName(newName);
                     if (userDAO.updateUser(user)) {
-                        loadUserData();
+                        reloadTabs(USERS_TAB, ALLOCATIONS_TAB);
                     } else {
                         JOptionPane.showMessageDialog(this, "Failed to update user.");
                     }
@@ -556,12 +681,11 @@ public class CloudControllerDashboard extends JPanel {
     }
 
     private void deleteSelectedUser() {
-        int selectedRow = userTable.getSelectedRow();
+        int selectedRow = TableSearchField.selectedModelRow(userTable);
         if (selectedRow != -1) {
             int userId = (int) userTableModel.getValueAt(selectedRow, 0);
             if (userDAO.deleteUser(String.valueOf(userId))) {
-                loadUserData();
-                loadAllocationDropdowns();
+                reloadTabs(USERS_TAB, ALLOCATIONS_TAB);
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to delete user.");
             }
@@ -578,7 +702,7 @@ public class CloudControllerDashboard extends JPanel {
             String jobId = jobSelection.split(" - ")[0];
             Allocation allocation = new Allocation(userId, jobId);
             if (allocationDAO.addAllocation(allocation)) {
-                loadAllocationData();
+                reloadTabs(ALLOCATIONS_TAB);
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to allocate user to job.");
             }
@@ -588,11 +712,11 @@ public class CloudControllerDashboard extends JPanel {
     }
 
     private void removeSelectedAllocation() {
-        int selectedRow = allocationTable.getSelectedRow();
+        int selectedRow = TableSearchField.selectedModelRow(allocationTable);
         if (selectedRow != -1) {
             int allocationId = (int) allocationTableModel.getValueAt(selectedRow, 0);
             if (allocationDAO.deleteAllocation(allocationId)) {
-                loadAllocationData();
+                reloadTabs(ALLOCATIONS_TAB);
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to remove allocation.");
             }
@@ -2,7 +2,7 @@ package gui.client;
 
 import javax.swing.*;
 import java.awt.*;
-import dao.UserDAO;
+import dao.AuthenticationService;
 import models.User;
 
 public class CreateAccountPageClient extends JPanel {
@@ -151,14 +151,20 @@ public class CreateAccountPageClient extends JPanel {
             // Automatically assign both vehicle_owner and job_owner roles
             String roles = "vehicle_owner,job_owner";
 
-            UserDAO userDAO = new UserDAO();
-            boolean success = userDAO.addUser(new User(fullName, email, roles, password));
-            if (success) {
-                JOptionPane.showMessageDialog(this, "Account created successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                parent.showPage("login");
-            } else {
-                JOptionPane.showMessageDialog(this, "Account creation failed. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            // The password is hashed in the background, which takes a noticeable moment
+            createButton.setEnabled(false);
+            AuthenticationService.getInstance().addUserAsync(new User(fullName, email, roles, password))
+                .whenCompleteAsync((success, error) -> {
+                    createButton.setEnabled(true);
+                    if (error != null) {
+                        JOptionPane.showMessageDialog(this, "Account creation could not be completed. Please try again in a moment.", "Error", JOptionPane.ERROR_MESSAGE);
+                    } else if (success) {
+                        JOptionPane.showMessageDialog(this, "Account created successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        parent.showPage("login");
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Account creation failed. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, SwingUtilities::invokeLater);
         });
 
         // Action Listener for Back Button
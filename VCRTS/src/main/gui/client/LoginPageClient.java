@@ -2,10 +2,16 @@ package gui.client;
 
 import javax.swing.*;
 import java.awt.*;
+import java.net.ConnectException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import dao.AuthenticationService;
 import dao.UserDAO;
 import models.User;
+import net.ServerConnection;
 
 public class LoginPageClient extends JPanel {
     private static final Logger logger = Logger.getLogger(LoginPageClient.class.getName());
@@ -14,7 +20,8 @@ public class LoginPageClient extends JPanel {
     private JPasswordField passwordField;
     private JButton loginButton;
     private JButton backButton;
-    private UserDAO userDAO = new UserDAO();
+    private final AuthenticationService authService = AuthenticationService.getInstance();
+    private final UserDAO userDAO = new UserDAO();
 
     public LoginPageClient(ClientFrame parent) {
         this.parent = parent;
@@ -93,39 +100,69 @@ public class LoginPageClient extends JPanel {
                 return;
             }
 
-            User user = userDAO.authenticate(email, password);
-            if (user != null) {
-                logger.info("User authenticated: " + user);
-
-                // Check if user is a cloud controller
-                if (user.hasRole("cloud_controller")) {
-                    // Set cloud_controller as the current role
-                    user.setCurrentRole("cloud_controller");
-
-                    // Show cloud controller dashboard
-                    parent.showDashboard(user);
-                    return;
-                }
-
-                // Ensure regular users have both roles
-                if (!user.hasRole("vehicle_owner")) {
-                    user.addRole("vehicle_owner");
-                }
-                if (!user.hasRole("job_owner")) {
-                    user.addRole("job_owner");
-                }
-
-                // Set default role to vehicle_owner
-                user.setCurrentRole("vehicle_owner");
-
-                parent.showDashboard(user);
-            } else {
-                JOptionPane.showMessageDialog(this, "Invalid credentials. Please try again.", "Login Error", JOptionPane.ERROR_MESSAGE);
-            }
+            // Password hashing and the database lookup run off the Swing thread
+            loginButton.setEnabled(false);
+            login(email, password)
+                .whenCompleteAsync((user, error) -> {
+                    loginButton.setEnabled(true);
+                    if (error != null) {
+                        logger.log(Level.WARNING, "Login failed", error);
+                        JOptionPane.showMessageDialog(this, "Login could not be completed. Please try again in a moment.", "Login Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    if (user != null) {
+                        logger.info("User authenticated: " + user);
+
+                        // Check if user is a cloud controller
+                        if (user.hasRole("cloud_controller")) {
+                            // Set cloud_controller as the current role
+                            user.setCurrentRole("cloud_controller");
+
+                            // Show cloud controller dashboard
+                            parent.showDashboard(user);
+                            return;
+                        }
+
+                        // Ensure regular users have both roles
+                        if (!user.hasRole("vehicle_owner")) {
+                            user.addRole("vehicle_owner");
+                        }
+                        if (!user.hasRole("job_owner")) {
+                            user.addRole("job_owner");
+                        }
+
+                        // Set default role to vehicle_owner
+                        user.setCurrentRole("vehicle_owner");
+
+                        parent.showDashboard(user);
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Invalid credentials. Please try again.", "Login Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, SwingUtilities::invokeLater);
         });
 
         backButton.addActionListener(e -> parent.showPage("startup"));
 
         return formPanel;
     }
+
+    /**
+     * Logs in with the Cloud Controller, which checks the password once and issues the
+     * session token that identifies this user's requests. Only if the Cloud Controller
+     * cannot be reached is the password checked here instead; requests then need a new
+     * login once it is back.
+     * @return A future of the user, or null if the email or password is wrong.
+     */
+    private CompletableFuture<User> login(String email, String password) {
+        return ServerConnection.getInstance().login(email, password)
+                .thenApplyAsync(userId -> userId == null ? null : userDAO.getUserById(userId))
+                .exceptionallyCompose(error -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof ConnectException) {
+                        logger.warning("Cloud Controller not reachable, checking the login locally");
+                        return authService.authenticateAsync(email, password);
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
 }
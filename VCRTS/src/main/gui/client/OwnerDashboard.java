@@ -2,20 +2,21 @@ package gui.client;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
+import java.util.function.Consumer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.Socket;
+import gui.KeyedTableModel;
+import gui.TableSearchField;
 import dao.VehicleDAO;
 import models.User;
 import models.Vehicle;
+import net.Protocol;
+import net.ServerConnection;
 
 public class OwnerDashboard extends JPanel {
     private static final Logger logger = Logger.getLogger(OwnerDashboard.class.getName());
@@ -27,15 +28,11 @@ public class OwnerDashboard extends JPanel {
 
     
     private JTable vehicleTable;
-    private DefaultTableModel tableModel;
+    private KeyedTableModel tableModel;
     
-    // Socket connection fields
-    private Socket socket;
-    private PrintWriter out; 
-    private BufferedReader in;
-    private final String SERVER_ADDRESS = "localhost";
-    private final int SERVER_PORT = 9876; 
-    private boolean connected = false;
+    // Shared connection to the Cloud Controller server
+    private final ServerConnection connection = ServerConnection.getInstance();
+    private final Consumer<String> messageListener = this::processServerMessage;
 
     public OwnerDashboard(int userVehicleOwnerId) {
         this.vehicleOwnerId = userVehicleOwnerId;
@@ -66,12 +63,6 @@ public class OwnerDashboard extends JPanel {
         if (parentFrame instanceof ClientFrame) {
             this.currentUser = ((ClientFrame) parentFrame).getCurrentUser();
         }
-        
-        // Connect to the server
-        connectToServer();
-        
-        // Add shutdown hook to close connection when application exits
-        Runtime.getRuntime().addShutdownHook(new Thread(this::disconnectFromServer));
     }
 
     private JPanel createVehicleListPanel() {
@@ -81,9 +72,7 @@ public class OwnerDashboard extends JPanel {
 
         // Table column names
         String[] columnNames = {"Owner ID", "Vehicle Owner ID", "Model", "Make", "Year", "VIN", "Residency Time", "Registered At"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
-        };
+        tableModel = new KeyedTableModel(columnNames, 5); // Keyed by VIN
         vehicleTable = new JTable(tableModel);
         vehicleTable.setBackground(new Color(230, 230, 230));
         vehicleTable.setForeground(Color.BLACK);
@@ -129,59 +118,36 @@ public class OwnerDashboard extends JPanel {
         JButton refreshButton = new JButton("Refresh List");
         JButton submitVehicleButton = new JButton("Submit New Vehicle");
         
-        refreshButton.addActionListener(e -> refreshVehicleTable());
+        refreshButton.addActionListener(e -> reloadVehicles());
         submitVehicleButton.addActionListener(e -> openSubmitVehicleDialog());
         
+        JLabel searchLabel = new JLabel("Search:");
+        searchLabel.setForeground(Color.WHITE);
+
         controlPanel.add(filterLabel);
         controlPanel.add(yearFilter);
+        controlPanel.add(searchLabel);
+        // Owner ID, model, make and VIN
+        controlPanel.add(new TableSearchField(vehicleTable, tableModel, 0, 2, 3, 5));
         controlPanel.add(refreshButton);
         controlPanel.add(submitVehicleButton);
         panel.add(controlPanel, BorderLayout.SOUTH);
 
-        // Initial data load
-        refreshVehicleTable();
+        // Initial data load, off the Event Dispatch Thread since the first read fills the whole vehicle catalog
+        loadVehiclesInBackground();
         return panel;
     }
     
- // Socket connection methods
-    private void connectToServer() {
-        new Thread(() -> {
-            try {
-                socket = new Socket(SERVER_ADDRESS, SERVER_PORT);
-                out = new PrintWriter(socket.getOutputStream(), true);
-                in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-                connected = true;
-                System.out.println("Connected to Cloud Controller server");
-
-                // Start a thread to listen for server messages
-                new Thread(this::listenForServerMessages).start();
-            } catch (IOException e) {
-                System.err.println("Could not connect to Cloud Controller: " + e.getMessage());
-                connected = false;
-
-                // Schedule reconnect attempt
-                Timer reconnectTimer = new Timer(5000, event -> connectToServer());
-                reconnectTimer.setRepeats(false);
-                reconnectTimer.start();
-            }
-        }).start();
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        connection.addMessageListener(messageListener);
     }
-private void listenForServerMessages() {
-        try {
-            String message;
-            while (connected && (message = in.readLine()) != null) {
-                final String finalMessage = message;
-                SwingUtilities.invokeLater(() -> processServerMessage(finalMessage));
-            }
-        } catch (IOException e) {
-            if (connected) {
-                System.err.println("Error reading from server: " + e.getMessage());
-                connected = false;
 
-                // Try to reconnect
-                connectToServer();
-            }
-        }
+    @Override
+    public void removeNotify() {
+        connection.removeMessageListener(messageListener);
+        super.removeNotify();
     }
 
     private void processServerMessage(String message) {
@@ -201,20 +167,30 @@ private void listenForServerMessages() {
                     approved ? "Registration Approved" : "Registration Rejected", 
                     approved ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
 
+                if (approved) {
+                    reloadVehicles();
+                }
+            }
+        } else if (message.startsWith("REQUEST_ACK:VEHICLE,")) {
+            // Parse: REQUEST_ACK:VEHICLE,vin,requestId (sent once the request is stored durably)
+            String[] parts = message.substring("REQUEST_ACK:".length()).split(",");
+            if (parts.length >= 3) {
+                JOptionPane.showMessageDialog(this,
+                    "Vehicle (VIN: " + parts[1] + ") submitted for approval (request #" + parts[2] + ").\nWaiting for Cloud Controller to review.",
+                    "Submission Success",
+                    JOptionPane.INFORMATION_MESSAGE);
                 refreshVehicleTable();
             }
-        }
-    }
-
-    private void disconnectFromServer() {
-        connected = false;
-        try {
-            if (out != null) out.close();
-            if (in != null) in.close();
-            if (socket != null) socket.close();
-            System.out.println("Disconnected from server");
-        } catch (IOException e) {
-            System.err.println("Error disconnecting: " + e.getMessage());
+        } else if (message.startsWith("REQUEST_NACK:VEHICLE,")) {
+            // Parse: REQUEST_NACK:VEHICLE,vin,reason
+            String[] parts = message.substring("REQUEST_NACK:".length()).split(",", 3);
+            JOptionPane.showMessageDialog(this,
+                "Vehicle submission was not accepted" + (parts.length >= 3 ? ": " + parts[2] : ".") + "\nPlease try again.",
+                "Submission Failed",
+                JOptionPane.ERROR_MESSAGE);
+        } else if (Protocol.RESYNC.equals(message)) {
+            // Missed notifications could not be replayed; reload from the database
+            reloadVehicles();
         }
     }
 
@@ -380,21 +356,18 @@ private void listenForServerMessages() {
             }
 
             // Use socket communication
-            if (connected && out != null) {
+            if (connection.isConnected()) {
                 try {
                     // Updated format: NEW_VEHICLE:ownerId,vehicleOwnerId,make,model,year,vin,residencyTime
                     String message = String.format("NEW_VEHICLE:%s,%d,%s,%s,%s,%s,%s", 
                         ownerIdText, 
                         currentUser.getUserId(), // Use the actual user ID for vehicle_owner_id
                         make, model, year, vin, residencyTime);
-                    out.println(message);
+                    if (!connection.sendRequest(message)) {
+                        throw new IllegalStateException("Connection to server was lost");
+                    }
                     System.out.println("Sent to server: " + message);
-                    
-                    JOptionPane.showMessageDialog(this,
-                        "Vehicle (VIN: " + vin + ") submitted for approval.\nWaiting for Cloud Controller to review.",
-                        "Submission Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                    refreshVehicleTable();
+                    // Confirmation is shown when the server acknowledges the stored request (REQUEST_ACK)
                 } catch (Exception e) {
                     JOptionPane.showMessageDialog(this, 
                         "Error sending vehicle registration: " + e.getMessage(), 
@@ -407,30 +380,64 @@ private void listenForServerMessages() {
                     "Connection Error", 
                     JOptionPane.ERROR_MESSAGE);
                 
-                connectToServer();
+                connection.reconnectNow();
             }
         }
     }
 
+    /**
+     * Re-reads the vehicle catalog (the server adds approved vehicles from its own process) and redraws.
+     */
+    private void reloadVehicles() {
+        vehicleDAO.reloadCatalog();
+        refreshVehicleTable();
+    }
+
+    private void loadVehiclesInBackground() {
+        new SwingWorker<List<Vehicle>, Void>() {
+            @Override
+            protected List<Vehicle> doInBackground() {
+                return vehicleDAO.getVehiclesByVehicleOwner(vehicleOwnerId);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    showVehicles(get());
+                } catch (ExecutionException e) {
+                    Throwable ex = e.getCause();
+                    logger.log(Level.SEVERE, "Error refreshing vehicle table: " + ex.getMessage(), ex);
+                    JOptionPane.showMessageDialog(OwnerDashboard.this, "Error loading vehicle data: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
     public void refreshVehicleTable() {
         try {
-            tableModel.setRowCount(0);
-            List<Vehicle> vehicles = vehicleDAO.getVehiclesByVehicleOwner(vehicleOwnerId);
-            for (Vehicle v : vehicles) {
-                tableModel.addRow(new Object[]{
-                        v.getOwnerId(),
-                        v.getVehicleOwnerId(),
-                        v.getModel(),
-                        v.getMake(),
-                        v.getYear(),
-                        v.getVin(),
-                        v.getResidencyTime(),
-                        v.getRegisteredTimestamp()
-                });
-            }
+            showVehicles(vehicleDAO.getVehiclesByVehicleOwner(vehicleOwnerId));
         } catch(Exception ex) {
             logger.log(Level.SEVERE, "Error refreshing vehicle table: " + ex.getMessage(), ex);
             JOptionPane.showMessageDialog(this, "Error loading vehicle data: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
+
+    private void showVehicles(List<Vehicle> vehicles) {
+        List<Object[]> rows = new ArrayList<>(vehicles.size());
+        for (Vehicle v : vehicles) {
+            rows.add(new Object[]{
+                    v.getOwnerId(),
+                    v.getVehicleOwnerId(),
+                    v.getModel(),
+                    v.getMake(),
+                    v.getYear(),
+                    v.getVin(),
+                    v.getResidencyTime(),
+                    v.getRegisteredTimestamp()
+            });
+        }
+        tableModel.setRows(rows);
+    }
 }
\ No newline at end of file
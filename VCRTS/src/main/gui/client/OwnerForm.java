@@ -2,16 +2,12 @@ package gui.client;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.function.Consumer;
 import models.User;
 import models.Vehicle;
+import net.ServerConnection;
 import gui.client.ClientFrame;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.Socket;
-
 public class OwnerForm extends JPanel {
     private String ownerId;
     private int vehicleOwnerId;
@@ -19,13 +15,9 @@ public class OwnerForm extends JPanel {
     private JTextField modelField, makeField, yearField, vinField, ownerIdField;
     private JSpinner hoursSpinner, minutesSpinner, secondsSpinner;
     
-    // Socket connection fields
-    private Socket socket;
-    private PrintWriter out; 
-    private BufferedReader in; 
-    private final String SERVER_ADDRESS = "localhost";
-    private final int SERVER_PORT = 9876; 
-    private boolean connected = false;
+    // Shared connection to the Cloud Controller server
+    private final ServerConnection connection = ServerConnection.getInstance();
+    private final Consumer<String> messageListener = this::processServerMessage;
     
     public OwnerForm(int userVehicleOwnerId) {
         this.vehicleOwnerId = userVehicleOwnerId;
@@ -128,53 +120,18 @@ public class OwnerForm extends JPanel {
         submitButton.addActionListener(e -> submitVehicle());
         
         add(mainPanel, BorderLayout.CENTER);
-        
-        // Connect to the server
-        connectToServer();
-        
-        // Add shutdown hook to close connection when application exits
-        Runtime.getRuntime().addShutdownHook(new Thread(this::disconnectFromServer));
     }
     
- // Socket connection methods
-    private void connectToServer() {
-        new Thread(() -> {
-            try {
-                socket = new Socket(SERVER_ADDRESS, SERVER_PORT);
-                out = new PrintWriter(socket.getOutputStream(), true);
-                in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-                connected = true;
-                System.out.println("Connected to Cloud Controller server");
-
-                // Start a thread to listen for server messages
-                new Thread(this::listenForServerMessages).start();
-            } catch (IOException e) {
-                System.err.println("Could not connect to Cloud Controller: " + e.getMessage());
-                connected = false;
-
-                // Schedule reconnect attempt
-                Timer reconnectTimer = new Timer(5000, event -> connectToServer());
-                reconnectTimer.setRepeats(false);
-                reconnectTimer.start();
-            }
-        }).start();
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        connection.addMessageListener(messageListener);
     }
-private void listenForServerMessages() {
-        try {
-            String message;
-            while (connected && (message = in.readLine()) != null) {
-                final String finalMessage = message;
-                SwingUtilities.invokeLater(() -> processServerMessage(finalMessage));
-            }
-        } catch (IOException e) {
-            if (connected) {
-                System.err.println("Error reading from server: " + e.getMessage());
-                connected = false;
 
-                // Try to reconnect
-                connectToServer();
-            }
-        }
+    @Override
+    public void removeNotify() {
+        connection.removeMessageListener(messageListener);
+        super.removeNotify();
     }
 
     private void processServerMessage(String message) {
@@ -196,18 +153,23 @@ private void listenForServerMessages() {
 
              
             }
-        }
-    }
-
-    private void disconnectFromServer() {
-        connected = false;
-        try {
-            if (out != null) out.close();
-            if (in != null) in.close();
-            if (socket != null) socket.close();
-            System.out.println("Disconnected from server");
-        } catch (IOException e) {
-            System.err.println("Error disconnecting: " + e.getMessage());
+        } else if (message.startsWith("REQUEST_ACK:VEHICLE,")) {
+            // Parse: REQUEST_ACK:VEHICLE,vin,requestId (sent once the request is stored durably)
+            String[] parts = message.substring("REQUEST_ACK:".length()).split(",");
+            if (parts.length >= 3) {
+                JOptionPane.showMessageDialog(this,
+                    "Vehicle (VIN: " + parts[1] + ") submitted for approval (request #" + parts[2] + ").\nWaiting for Cloud Controller to review.",
+                    "Submission Success",
+                    JOptionPane.INFORMATION_MESSAGE);
+                clearForm();
+            }
+        } else if (message.startsWith("REQUEST_NACK:VEHICLE,")) {
+            // Parse: REQUEST_NACK:VEHICLE,vin,reason
+            String[] parts = message.substring("REQUEST_NACK:".length()).split(",", 3);
+            JOptionPane.showMessageDialog(this,
+                "Vehicle submission was not accepted" + (parts.length >= 3 ? ": " + parts[2] : ".") + "\nPlease try again.",
+                "Submission Failed",
+                JOptionPane.ERROR_MESSAGE);
         }
     }
     
@@ -271,21 +233,18 @@ private void listenForServerMessages() {
         }
 
         // Submit using socket with updated format
-        if (connected && out != null) {
+        if (connection.isConnected()) {
             try {
                 // Updated format: NEW_VEHICLE:ownerId,vehicleOwnerId,make,model,year,vin,residencyTime
                 String message = String.format("NEW_VEHICLE:%s,%d,%s,%s,%s,%s,%s", 
                     ownerIdText, 
                     vehicleOwnerId,
                     make, model, yearStr, vin, residencyTime);
-                out.println(message);
+                if (!connection.sendRequest(message)) {
+                    throw new IllegalStateException("Connection to server was lost");
+                }
                 System.out.println("Sent to server: " + message);
-                
-                JOptionPane.showMessageDialog(this,
-                    "Vehicle (VIN: " + vin + ") submitted for approval.\nWaiting for Cloud Controller to review.",
-                    "Submission Success",
-                    JOptionPane.INFORMATION_MESSAGE);
-                clearForm();
+                // Confirmation (and clearing the form) happens when the server acknowledges the stored request
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(this, 
                     "Error sending vehicle registration: " + e.getMessage(), 
@@ -299,7 +258,7 @@ private void listenForServerMessages() {
                 JOptionPane.ERROR_MESSAGE);
             
             // Try to reconnect
-            connectToServer();
+            connection.reconnectNow();
         }
     }
     
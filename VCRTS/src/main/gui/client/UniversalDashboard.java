@@ -35,16 +35,13 @@ public class UniversalDashboard extends JPanel {
         contentPanel = new JPanel(contentLayout);
         add(contentPanel, BorderLayout.CENTER);
 
-        // Initialize dashboard for the user's current role
-        initializeRoleDashboards();
-
-        // Show the appropriate dashboard
+        // Show the appropriate dashboard; each role's dashboard is built the first time it is shown
         if (user.hasRole("cloud_controller")) {
             // Cloud controllers get the cloud controller dashboard
             showCloudControllerDashboard();
         } else {
             // Regular users get either vehicle owner or job owner dashboard
-            if (user.getRole().equals("vehicle_owner")) {
+            if ("vehicle_owner".equals(user.getRole())) {
                 switchToVehicleOwner();
             } else {
                 switchToJobOwner();
@@ -101,27 +98,11 @@ public class UniversalDashboard extends JPanel {
         return panel;
     }
 
-    private void initializeRoleDashboards() {
-        if (user.hasRole("cloud_controller")) {
-            // Cloud controllers only get the cloud controller dashboard
+    private void showCloudControllerDashboard() {
+        if (cloudDashboard == null) {
             cloudDashboard = new CloudControllerDashboard();
             contentPanel.add(cloudDashboard, "cloud_controller");
-        } else {
-            // Regular users get both vehicle owner and job owner dashboards
-            if (user.hasRole("job_owner")) {
-                clientDashboard = new ClientDashboard(user);
-                contentPanel.add(clientDashboard, "job_owner");
-            }
-
-            if (user.hasRole("vehicle_owner")) {
-                // Use the modified OwnerDashboard that shows the vehicle list directly
-                ownerDashboard = new OwnerDashboard(user.getUserId());
-                contentPanel.add(ownerDashboard, "vehicle_owner");
-            }
         }
-    }
-
-    private void showCloudControllerDashboard() {
         contentLayout.show(contentPanel, "cloud_controller");
     }
 
@@ -130,12 +111,16 @@ public class UniversalDashboard extends JPanel {
         if (vehicleOwnerButton != null) {
             vehicleOwnerButton.setSelected(true);
         }
-        contentLayout.show(contentPanel, "vehicle_owner");
 
-        // Refresh vehicle data
+        // Refresh vehicle data; a dashboard built now loads its own
         if (ownerDashboard != null) {
             ownerDashboard.refreshVehicleTable();
+        } else if (user.hasRole("vehicle_owner")) {
+            // Use the modified OwnerDashboard that shows the vehicle list directly
+            ownerDashboard = new OwnerDashboard(user.getUserId());
+            contentPanel.add(ownerDashboard, "vehicle_owner");
         }
+        contentLayout.show(contentPanel, "vehicle_owner");
     }
 
     private void switchToJobOwner() {
@@ -143,11 +128,14 @@ public class UniversalDashboard extends JPanel {
         if (jobOwnerButton != null) {
             jobOwnerButton.setSelected(true);
         }
-        contentLayout.show(contentPanel, "job_owner");
 
-        // Refresh job data
+        // Refresh job data; a dashboard built now loads its own
         if (clientDashboard != null) {
             clientDashboard.updateTable();
+        } else if (user.hasRole("job_owner")) {
+            clientDashboard = new ClientDashboard(user);
+            contentPanel.add(clientDashboard, "job_owner");
         }
+        contentLayout.show(contentPanel, "job_owner");
     }
 }
\ No newline at end of file
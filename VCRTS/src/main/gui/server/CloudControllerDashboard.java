@@ -2,38 +2,54 @@ package gui.server;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import javax.swing.table.TableColumnModel;
 import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.Iterator;
 
+import gui.KeyedTableModel;
+import gui.LazyTabs;
+import gui.TableSearchField;
 import dao.JobDAO;
 import dao.UserDAO;
 import dao.VehicleDAO;
 import dao.AllocationDAO;
+import dao.AppStateStore;
+import dao.AuthenticationService;
 import dao.CloudControllerDAO;
+import dao.PendingRequestQueue;
+import dao.ChangeNotifier;
+import dao.ExportDAO;
+import dao.ScheduleTimeline;
 import models.Job;
+import models.JobState;
 import models.PendingRequest;
 import models.User;
 import models.Allocation;
 import models.Vehicle;
+import net.ConnectionMetrics;
+import net.ControllerServer;
+import net.Protocol;
+import net.SessionService;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.ServerSocket;
-import java.net.Socket;
 import java.util.ArrayList;
 
 public class CloudControllerDashboard extends JPanel {
     private JTable jobTable, userTable, allocationTable, scheduleTable, pendingRequestTable;
-    private DefaultTableModel jobTableModel, userTableModel, allocationTableModel, scheduleTableModel, pendingRequestTableModel;
+    private KeyedTableModel userTableModel, allocationTableModel, pendingRequestTableModel;
+    // Job tables read only the pages on screen, so they open quickly however many jobs there are
+    private PagedJobTableModel jobTableModel, scheduleTableModel;
+    // Completion times from the last saved schedule, read with each schedule refresh
+    private volatile Map<String, String> scheduleCompletionTimes = Map.of();
     private JButton addJobButton, editJobButton, deleteJobButton;
     private JButton addUserButton, editUserButton, deleteUserButton;
     private JButton allocateButton, removeAllocationButton;
@@ -41,27 +57,54 @@ public class CloudControllerDashboard extends JPanel {
     private JButton approveRequestButton, rejectRequestButton;
     private JComboBox<String> userDropdown, jobDropdown;
     private JLabel queueStatusLabel;
+    private TimelinePanel timelinePanel;
+    private JLabel timelineSummaryLabel;
     
     // DAO instances
     private JobDAO jobDAO = new JobDAO();
     private UserDAO userDAO = new UserDAO();
     private AllocationDAO allocationDAO = new AllocationDAO();
     private CloudControllerDAO cloudControllerDAO = new CloudControllerDAO();
+    // Shared with every other open dashboard, so extra windows do not repeat these reads
+    private final AppStateStore stateStore = AppStateStore.getInstance();
     
-    // Socket server fields
-    private ServerSocket serverSocket; 
-    private final int PORT = 9876; 
-    private boolean isRunning = true; 
-    private List<ClientHandler> clientHandlers = new ArrayList<>();
+    // Table data is read on worker threads and applied on the EDT
+    private static final String JOBS = "jobs";
+    private static final String USERS = "users";
+    private static final String ALLOCATIONS = "allocations";
+    private static final String ALLOCATION_CHOICES = "allocationChoices";
+    private static final String SCHEDULE = "schedule";
+    private static final String QUEUE_STATUS = "queueStatus";
+    private static final String TIMELINE = "timeline";
+    // Timeline zoom levels, as the time one pixel stands for
+    private static final String[] TIMELINE_ZOOM_NAMES = {"15 seconds", "1 minute", "5 minutes", "15 minutes", "1 hour"};
+    private static final long[] TIMELINE_ZOOM_MILLIS = {15_000, 60_000, 300_000, 900_000, 3_600_000};
+    private final DashboardDataLoader dataLoader = new DashboardDataLoader();
+    // Reloads the visible tab when the data it shows changes
+    private RefreshCoordinator refreshCoordinator;
+    // Incoming requests are listed here instead of in a dialog each
+    private final NotificationCenter notificationCenter = new NotificationCenter();
     
-    // In-memory storage for pending requests
-    private List<PendingRequest> pendingRequests = new ArrayList<>();
-    private int nextRequestId = 1;
+    // Durable queue of pending requests, shared with CloudControllerDAO
+    private final PendingRequestQueue pendingRequests = PendingRequestQueue.getInstance();
+    
+    // Socket server for client dashboards
+    private final ControllerServer controllerServer =
+        new ControllerServer(Protocol.DEFAULT_PORT, pendingRequests, ControllerServer::describeSubmitter);
+    private final ControllerServer.Listener requestListener = this::onRequestQueued;
+    private final Thread shutdownHook = new Thread(this::stopSocketServer);
+    private boolean socketServerStarted = false;
     
     public CloudControllerDashboard() {
-        // Start socket server first
-        startSocketServer();
-        Runtime.getRuntime().addShutdownHook(new Thread(this::stopSocketServer));
+        // The socket server starts once the dashboard is on screen, so it does not delay the window
+        controllerServer.addListener(requestListener);
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing() && !socketServerStarted) {
+                socketServerStarted = true;
+                startSocketServer();
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
         
         setLayout(new BorderLayout());
         setBackground(Color.LIGHT_GRAY);
@@ -79,314 +122,133 @@ public class CloudControllerDashboard extends JPanel {
         JTabbedPane tabbedPane = new JTabbedPane();
         tabbedPane.setFont(new Font("Arial", Font.BOLD, 14));
 
+        // Each tab is built the first time it is shown
+
         // --- Pending Requests Tab ---
-        JPanel pendingRequestPanel = createPendingRequestPanel();
-        tabbedPane.addTab("Pending Approvals", UIManager.getIcon("OptionPane.questionIcon"), pendingRequestPanel);
+        JPanel pendingRequestPanel = LazyTabs.addTab(tabbedPane, "Pending Approvals",
+                UIManager.getIcon("OptionPane.questionIcon"), this::createPendingRequestPanel);
 
         // --- Jobs Tab ---
-        JPanel jobPanel = createJobPanel();
-        tabbedPane.addTab("Jobs", UIManager.getIcon("FileView.hardDriveIcon"), jobPanel);
+        JPanel jobPanel = LazyTabs.addTab(tabbedPane, "Jobs",
+                UIManager.getIcon("FileView.hardDriveIcon"), this::createJobPanel);
 
         // --- Users Tab ---
-        JPanel userPanel = createUserPanel();
-        tabbedPane.addTab("Users", UIManager.getIcon("FileChooser.detailsViewIcon"), userPanel);
+        JPanel userPanel = LazyTabs.addTab(tabbedPane, "Users",
+                UIManager.getIcon("FileChooser.detailsViewIcon"), this::createUserPanel);
 
         // --- Allocations Tab ---
-        JPanel allocationPanel = createAllocationPanel();
-        tabbedPane.addTab("Allocations", UIManager.getIcon("Tree.openIcon"), allocationPanel);
+        JPanel allocationPanel = LazyTabs.addTab(tabbedPane, "Allocations",
+                UIManager.getIcon("Tree.openIcon"), this::createAllocationPanel);
 
         // --- Schedule Tab ---
-        JPanel schedulePanel = createSchedulePanel();
-        tabbedPane.addTab("Job Schedule", UIManager.getIcon("Tree.leafIcon"), schedulePanel);
+        JPanel schedulePanel = LazyTabs.addTab(tabbedPane, "Job Schedule",
+                UIManager.getIcon("Tree.leafIcon"), this::createSchedulePanel);
 
-        add(tabbedPane, BorderLayout.CENTER);
+        // --- Timeline Tab ---
+        JPanel timelineTab = LazyTabs.addTab(tabbedPane, "Timeline",
+                UIManager.getIcon("FileChooser.listViewIcon"), this::createTimelinePanel);
 
-        // Load initial data
-        refreshAllData();
-        loadPendingRequestData(); // Initial load of in-memory pending requests
+        add(tabbedPane, BorderLayout.CENTER);
+        add(notificationCenter, BorderLayout.SOUTH);
+        notificationCenter.attachBadge(tabbedPane, pendingRequestPanel);
 
+        registerDataSections();
         tabbedPane.setSelectedIndex(0);
-        
-        // Set up refresh timer for pending requests UI
-        new Timer(5000, e -> SwingUtilities.invokeLater(() -> loadPendingRequestData())).start();
-
-        // Add tab change listener to refresh relevant data
-        tabbedPane.addChangeListener(e -> {
-            int selectedIndex = tabbedPane.getSelectedIndex();
-            switch (selectedIndex) {
-                case 0: // Pending Approvals
-                    loadPendingRequestData();
-                    break;
-                case 1: // Jobs
-                    loadJobData();
-                    break;
-                case 2: // Users
-                    loadUserData();
-                    break;
-                case 3: // Allocations
-                    loadAllocationData();
-                    loadAllocationDropdowns();
-                    break;
-                case 4: // Schedule
-                    loadScheduleData();
-                    updateQueueStatus();
-                    break;
-            }
-        });
+
+        // Each tab loads when it is first shown and again only after the data it shows changed.
+        // The coordinator can reload a tab before LazyTabs sees the selection, so reloads build first
+        refreshCoordinator = new RefreshCoordinator(tabbedPane);
+        refreshCoordinator.register(pendingRequestPanel, afterBuild(pendingRequestPanel, this::loadPendingRequestData),
+                ChangeNotifier.Topic.PENDING_REQUESTS);
+        refreshCoordinator.register(jobPanel, afterBuild(jobPanel, () -> dataLoader.refresh(JOBS)),
+                ChangeNotifier.Topic.JOBS);
+        refreshCoordinator.register(userPanel, afterBuild(userPanel, () -> dataLoader.refresh(USERS)),
+                ChangeNotifier.Topic.USERS);
+        refreshCoordinator.register(allocationPanel, afterBuild(allocationPanel, () -> dataLoader.refresh(ALLOCATIONS, ALLOCATION_CHOICES)),
+                ChangeNotifier.Topic.ALLOCATIONS, ChangeNotifier.Topic.USERS, ChangeNotifier.Topic.JOBS);
+        refreshCoordinator.register(schedulePanel, afterBuild(schedulePanel, () -> dataLoader.refresh(SCHEDULE, QUEUE_STATUS)),
+                ChangeNotifier.Topic.JOBS, ChangeNotifier.Topic.SCHEDULE, ChangeNotifier.Topic.PENDING_REQUESTS);
+        refreshCoordinator.register(timelineTab, afterBuild(timelineTab, () -> dataLoader.refresh(TIMELINE)),
+                ChangeNotifier.Topic.JOBS, ChangeNotifier.Topic.USERS);
+        refreshCoordinator.start();
+    }
+
+    /**
+     * Stops the reloads, loader threads and socket server of a dashboard that is being
+     * thrown away, at logout or when another user logs in.
+     */
+    public void dispose() {
+        refreshCoordinator.stop();
+        dataLoader.shutdown();
+        // The table models exist only once their tabs were built
+        if (jobTableModel != null) {
+            jobTableModel.shutdown();
+        }
+        if (scheduleTableModel != null) {
+            scheduleTableModel.shutdown();
+        }
+        controllerServer.removeListener(requestListener);
+        stopSocketServer();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down; the hook stops the server again, which is harmless
+        }
+    }
+
+    private static Runnable afterBuild(Component tab, Runnable reload) {
+        return () -> {
+            LazyTabs.build(tab);
+            reload.run();
+        };
     }
     
     // --- Socket Server Methods ---
     
     public void startSocketServer() {
-        new Thread(() -> {
-            try {
-                serverSocket = new ServerSocket(PORT);
-                System.out.println("Cloud Controller socket server started on port " + PORT);
-                
-                while (isRunning) {
-                    try {
-                        Socket clientSocket = serverSocket.accept();
-                        ClientHandler handler = new ClientHandler(clientSocket);
-                        clientHandlers.add(handler);
-                        new Thread(handler).start();
-                        System.out.println("New client connected: " + clientSocket.getInetAddress());
-                    } catch (IOException e) {
-                        if (isRunning) {
-                            e.printStackTrace();
-                        }
-                    }
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }).start();
+        try {
+            controllerServer.start();
+            System.out.println("Cloud Controller socket server started on port " + controllerServer.getLocalPort());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    public ConnectionMetrics getConnectionMetrics() {
+        return controllerServer.getConnectionMetrics();
+    }
+    
+    // Login session count and token lookup latency
+    public SessionService getSessionService() {
+        return controllerServer.getSessionService();
     }
     
     public void stopSocketServer() {
-        isRunning = false;
-        for (ClientHandler handler : clientHandlers) {
-            handler.close();
-        }
-        if (serverSocket != null && !serverSocket.isClosed()) {
-            try {
-                serverSocket.close();
-                System.out.println("Socket server stopped");
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        controllerServer.stop();
     }
     
     // Send approval/rejection notifications to all clients
     private void broadcastApprovalStatus(String vin, boolean approved) {
-        String message = "APPROVAL_STATUS:" + vin + "," + (approved ? "approved" : "rejected");
-        System.out.println("Broadcasting: " + message);
-        for (ClientHandler handler : clientHandlers) {
-            handler.sendMessage(message);
-        }
+        broadcastEvent("APPROVAL_STATUS:" + vin + "," + (approved ? "approved" : "rejected"));
     }
 
-    // Inner class to handle client connections
-    private class ClientHandler implements Runnable {
-        private Socket clientSocket;
-        private PrintWriter out;
-        private BufferedReader in;
-        private boolean running = true;
-
-        public ClientHandler(Socket socket) {
-            this.clientSocket = socket;
-            try {
-                out = new PrintWriter(clientSocket.getOutputStream(), true);
-                in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-
-        @Override
-        public void run() {
-            try {
-                String inputLine;
-                while (running && (inputLine = in.readLine()) != null) {
-                    // Process incoming messages
-                    processMessage(inputLine);
-                }
-            } catch (IOException e) {
-                if (running) {
-                    e.printStackTrace();
-                }
-            } finally {
-                close();
-            }
-        }
-
-        private void processMessage(String message) {
-            System.out.println("Received message: " + message);
-            
-            // Handle vehicle registration with updated format
-            if (message.startsWith("NEW_VEHICLE:")) {
-                // Updated format: NEW_VEHICLE:ownerId,vehicleOwnerId,make,model,year,vin,residencyTime
-                String[] parts = message.substring("NEW_VEHICLE:".length()).split(",");
-                if (parts.length >= 7) {
-                    try {
-                        String ownerId = parts[0]; // Now a string
-                        int vehicleOwnerId = Integer.parseInt(parts[1]); // Actual user ID
-                        String make = parts[2];
-                        String model = parts[3];
-                        String year = parts[4];
-                        String vin = parts[5];
-                        String residencyTime = parts[6];
-                        
-                        // Create a Vehicle object with the new fields
-                        Vehicle vehicle = new Vehicle(ownerId, vehicleOwnerId, model, make, year, vin, residencyTime);
-                        
-                        // Create a PendingRequest object
-                        UserDAO userDAO = new UserDAO();
-                        User submitter = userDAO.getUserById(vehicleOwnerId);
-                        
-                        PendingRequest request = new PendingRequest(
-                            PendingRequest.RequestType.VEHICLE,
-                            vehicle,
-                            null // User object not needed
-                        );
-                        
-                        // Set submitted by info manually since we don't have User object
-                        String submitterInfo = "User ID: " + vehicleOwnerId;
-                        if (submitter != null) {
-                            submitterInfo += " (" + submitter.getFullName() + ")";
-                        }
-                        
-                        // Use reflection to set the submittedByInfo field
-                        try {
-                            java.lang.reflect.Field field = PendingRequest.class.getDeclaredField("submittedByInfo");
-                            field.setAccessible(true);
-                            field.set(request, submitterInfo);
-                        } catch (Exception e) {
-                            System.err.println("Error setting submittedByInfo: " + e.getMessage());
-                        }
-                        
-                        // Add to in-memory list
-                        synchronized(pendingRequests) {
-                            // Set the request ID manually to ensure uniqueness
-                            try {
-                                java.lang.reflect.Field field = PendingRequest.class.getDeclaredField("requestId");
-                                field.setAccessible(true);
-                                field.set(request, nextRequestId++);
-                            } catch (Exception e) {
-                                System.err.println("Error setting requestId: " + e.getMessage());
-                            }
-                            
-                            pendingRequests.add(request);
-                        }
-                        
-                        // Update the UI asynchronously
-                        SwingUtilities.invokeLater(() -> {
-                            loadPendingRequestData();
-                            // Show notification about new request
-                            JOptionPane.showMessageDialog(
-                                CloudControllerDashboard.this,
-                                "New vehicle registration request received!\nOwner id: "+ ownerId +", Make: " + make + ", Model: " + model + ", VIN: " + vin,
-                                "New Request",
-                                JOptionPane.INFORMATION_MESSAGE
-                            );
-                        });
-                    } catch (Exception e) {
-                        System.err.println("Error processing vehicle request: " + e.getMessage());
-                        e.printStackTrace();
-                    }
-                }
-            }
-            // Handle job submission
-            else if (message.startsWith("NEW_JOB:")) {
-                // Format: NEW_JOB:userId,jobId,jobName,duration,deadline
-                String[] parts = message.substring("NEW_JOB:".length()).split(",");
-                if (parts.length >= 5) {
-                    try {
-                        int userId = Integer.parseInt(parts[0]);
-                        String jobId = parts[1];
-                        String jobName = parts[2];
-                        String duration = parts[3];
-                        String deadline = parts[4];
-                        
-                        // Create a Job object
-                        Job job = new Job(jobId, jobName, userId, duration, deadline, "");
-                        
-                        // Create a PendingRequest object
-                        UserDAO userDAO = new UserDAO();
-                        User submitter = userDAO.getUserById(userId);
-                        
-                        PendingRequest request = new PendingRequest(
-                            PendingRequest.RequestType.JOB,
-                            job,
-                            null // User object not needed
-                        );
-                        
-                        // Set submitted by info manually
-                        String submitterInfo = "User ID: " + userId;
-                        if (submitter != null) {
-                            submitterInfo += " (" + submitter.getFullName() + ")";
-                        }
-                        
-                        // Use reflection to set the submittedByInfo field
-                        try {
-                            java.lang.reflect.Field field = PendingRequest.class.getDeclaredField("submittedByInfo");
-                            field.setAccessible(true);
-                            field.set(request, submitterInfo);
-                        } catch (Exception e) {
-                            System.err.println("Error setting submittedByInfo: " + e.getMessage());
-                        }
-                        
-                        // Add to in-memory list
-                        synchronized(pendingRequests) {
-                            // Set the request ID manually to ensure uniqueness
-                            try {
-                                java.lang.reflect.Field field = PendingRequest.class.getDeclaredField("requestId");
-                                field.setAccessible(true);
-                                field.set(request, nextRequestId++);
-                            } catch (Exception e) {
-                                System.err.println("Error setting requestId: " + e.getMessage());
-                            }
-                            
-                            pendingRequests.add(request);
-                        }
-                        
-                        // Update the UI asynchronously
-                        SwingUtilities.invokeLater(() -> {
-                            loadPendingRequestData();
-                            // Show notification about new request
-                            JOptionPane.showMessageDialog(
-                                CloudControllerDashboard.this,
-                                "New job submission request received!\nID: " + jobId + ", Name: " + jobName + ", Duration: " + duration,
-                                "New Request",
-                                JOptionPane.INFORMATION_MESSAGE
-                            );
-                        });
-                    } catch (Exception e) {
-                        System.err.println("Error processing job request: " + e.getMessage());
-                        e.printStackTrace();
-                    }
-                }
-            }
-        }
-
-        public void sendMessage(String message) {
-            if (out != null) {
-                out.println(message);
-                System.out.println("Sent to client: " + message);
-            }
-        }
+    // Records a sequenced event for replay and sends it to every connected client
+    private void broadcastEvent(String message) {
+        System.out.println("Broadcasting: " + message);
+        controllerServer.broadcast(message);
+    }
 
-        public void close() {
-            running = false;
-            try {
-                if (out != null) out.close();
-                if (in != null) in.close();
-                if (clientSocket != null) clientSocket.close();
-                clientHandlers.remove(this);
-                System.out.println("Client handler closed");
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+    // Called on a client handler thread once a submitted request is journaled
+    private void onRequestQueued(PendingRequest request) {
+        if (request.getType() == PendingRequest.RequestType.VEHICLE) {
+            Vehicle vehicle = (Vehicle) request.getData();
+            notificationCenter.post("New vehicle registration request", "new vehicle requests",
+                    "Owner id: " + vehicle.getOwnerId() + ", Make: " + vehicle.getMake()
+                    + ", Model: " + vehicle.getModel() + ", VIN: " + vehicle.getVin());
+        } else {
+            Job job = (Job) request.getData();
+            notificationCenter.post("New job submission request", "new job requests",
+                    "ID: " + job.getJobId() + ", Name: " + job.getJobName() + ", Duration: " + job.getDuration());
         }
     }
     
@@ -399,9 +261,7 @@ public class CloudControllerDashboard extends JPanel {
 
         // Table setup
         String[] pendingColumns = {"Req ID", "Type", "Submitted By", "Data Details"};
-        pendingRequestTableModel = new DefaultTableModel(pendingColumns, 0) {
-            @Override public boolean isCellEditable(int row, int col) { return false; }
-        };
+        pendingRequestTableModel = new KeyedTableModel(pendingColumns, 0);
         pendingRequestTable = new JTable(pendingRequestTableModel);
         setupTableAppearance(pendingRequestTable);
         
@@ -421,15 +281,20 @@ public class CloudControllerDashboard extends JPanel {
         actionPanel.setBackground(Color.WHITE);
         approveRequestButton = new JButton("Approve Selected", UIManager.getIcon("OptionPane.informationIcon"));
         rejectRequestButton = new JButton("Reject Selected", UIManager.getIcon("OptionPane.errorIcon"));
+        JButton approveAllVehiclesButton = new JButton("Approve All Vehicles");
         JButton refreshPendingButton = new JButton("Refresh List", UIManager.getIcon("Tree.closedIcon"));
 
         approveRequestButton.addActionListener(e -> approveSelectedRequest());
         rejectRequestButton.addActionListener(e -> rejectSelectedRequest());
-        refreshPendingButton.addActionListener(e -> loadPendingRequestData());
+        approveAllVehiclesButton.addActionListener(e -> approveAllVehicleRequests());
+        refreshPendingButton.addActionListener(e -> refreshCoordinator.forceRefresh());
 
         actionPanel.add(approveRequestButton);
         actionPanel.add(rejectRequestButton);
+        actionPanel.add(approveAllVehiclesButton);
         actionPanel.add(refreshPendingButton);
+        actionPanel.add(new JLabel("Search:"));
+        actionPanel.add(new TableSearchField(pendingRequestTable, pendingRequestTableModel, 0, 1, 2, 3));
         panel.add(actionPanel, BorderLayout.SOUTH);
 
         return panel;
@@ -443,11 +308,20 @@ public class CloudControllerDashboard extends JPanel {
         jobPanel.setBackground(Color.WHITE);
 
         String[] jobColumns = {"Job ID", "Job Name", "Job Owner ID", "Duration", "Deadline", "Status", "Created At"};
-        jobTableModel = new DefaultTableModel(jobColumns, 0) {
-            @Override public boolean isCellEditable(int row, int col) { return false; }
-        };
+        jobTableModel = new PagedJobTableModel(jobDAO, jobColumns, JobDAO.SORT_COLUMNS, "created_timestamp",
+                false, this::toJobRows);
         jobTable = new JTable(jobTableModel);
         setupTableAppearance(jobTable);
+        // Clicking a header sorts in the database; clicking it again reverses the order
+        jobTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = jobTable.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    jobTableModel.setSort(jobTable.convertColumnIndexToModel(column));
+                }
+            }
+        });
         jobPanel.add(new JScrollPane(jobTable), BorderLayout.CENTER);
 
         JPanel jobActionPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 5));
@@ -460,7 +334,7 @@ public class CloudControllerDashboard extends JPanel {
         addJobButton.addActionListener(e -> addNewJob());
         editJobButton.addActionListener(e -> editSelectedJob());
         deleteJobButton.addActionListener(e -> deleteSelectedJob());
-        refreshJobsButton.addActionListener(e -> loadJobData());
+        refreshJobsButton.addActionListener(e -> refreshCoordinator.forceRefresh());
 
         jobActionPanel.add(addJobButton);
         jobActionPanel.add(editJobButton);
@@ -477,9 +351,7 @@ public class CloudControllerDashboard extends JPanel {
         userPanel.setBackground(Color.WHITE);
 
         String[] userColumns = {"User ID", "Full Name", "Email", "Roles"};
-        userTableModel = new DefaultTableModel(userColumns, 0) {
-            @Override public boolean isCellEditable(int row, int col) { return false; }
-        };
+        userTableModel = new KeyedTableModel(userColumns, 0);
         userTable = new JTable(userTableModel);
         setupTableAppearance(userTable);
         userPanel.add(new JScrollPane(userTable), BorderLayout.CENTER);
@@ -494,12 +366,14 @@ public class CloudControllerDashboard extends JPanel {
         addUserButton.addActionListener(e -> addNewUser());
         editUserButton.addActionListener(e -> editSelectedUser());
         deleteUserButton.addActionListener(e -> deleteSelectedUser());
-        refreshUsersButton.addActionListener(e -> loadUserData());
+        refreshUsersButton.addActionListener(e -> refreshCoordinator.forceRefresh());
 
         userActionPanel.add(addUserButton);
         userActionPanel.add(editUserButton);
         userActionPanel.add(deleteUserButton);
         userActionPanel.add(refreshUsersButton);
+        userActionPanel.add(new JLabel("Search:"));
+        userActionPanel.add(new TableSearchField(userTable, userTableModel, 0, 1, 2));
         userPanel.add(userActionPanel, BorderLayout.SOUTH);
         return userPanel;
     }
@@ -511,9 +385,7 @@ public class CloudControllerDashboard extends JPanel {
         allocationPanel.setBackground(Color.WHITE);
 
         String[] allocationColumns = {"Alloc ID", "User ID", "Job ID"};
-        allocationTableModel = new DefaultTableModel(allocationColumns, 0){
-            @Override public boolean isCellEditable(int row, int col) { return false; }
-        };
+        allocationTableModel = new KeyedTableModel(allocationColumns, 0);
         allocationTable = new JTable(allocationTableModel);
         setupTableAppearance(allocationTable);
         allocationPanel.add(new JScrollPane(allocationTable), BorderLayout.CENTER);
@@ -535,10 +407,7 @@ public class CloudControllerDashboard extends JPanel {
 
         allocateButton.addActionListener(e -> allocateUserToJob());
         removeAllocationButton.addActionListener(e -> removeSelectedAllocation());
-        refreshAllocationsButton.addActionListener(e -> {
-            loadAllocationData();
-            loadAllocationDropdowns();
-        });
+        refreshAllocationsButton.addActionListener(e -> refreshCoordinator.forceRefresh());
 
         gbc.gridx = 0; gbc.gridy = 0; allocationControls.add(new JLabel("Select User:"), gbc);
         gbc.gridx = 1; gbc.gridy = 0; gbc.weightx=1.0; gbc.fill=GridBagConstraints.HORIZONTAL; allocationControls.add(userDropdown, gbc);
@@ -548,7 +417,10 @@ public class CloudControllerDashboard extends JPanel {
         gbc.gridx = 1; gbc.gridy = 1; gbc.weightx=1.0; gbc.fill=GridBagConstraints.HORIZONTAL; allocationControls.add(jobDropdown, gbc);
         gbc.gridx = 2; gbc.gridy = 1; gbc.weightx=0; gbc.fill=GridBagConstraints.NONE; allocationControls.add(removeAllocationButton, gbc);
 
-        gbc.gridx = 2; gbc.gridy = 2; allocationControls.add(refreshAllocationsButton, gbc);
+        gbc.gridx = 0; gbc.gridy = 2; allocationControls.add(new JLabel("Search:"), gbc);
+        gbc.gridx = 1; gbc.gridy = 2; gbc.weightx=1.0; gbc.fill=GridBagConstraints.HORIZONTAL;
+        allocationControls.add(new TableSearchField(allocationTable, allocationTableModel, 0, 1, 2), gbc);
+        gbc.gridx = 2; gbc.gridy = 2; gbc.weightx=0; gbc.fill=GridBagConstraints.NONE; allocationControls.add(refreshAllocationsButton, gbc);
 
         allocationPanel.add(allocationControls, BorderLayout.SOUTH);
         return allocationPanel;
@@ -569,9 +441,9 @@ public class CloudControllerDashboard extends JPanel {
         schedulePanel.add(statusPanel, BorderLayout.NORTH);
 
         String[] scheduleColumns = {"Job ID", "Job Name", "Duration", "Time Remaining", "Status", "Est. Completion Time"};
-        scheduleTableModel = new DefaultTableModel(scheduleColumns, 0) {
-            @Override public boolean isCellEditable(int row, int col) { return false; }
-        };
+        // Always in FIFO order, since the running totals depend on it
+        scheduleTableModel = new PagedJobTableModel(jobDAO, scheduleColumns, new String[scheduleColumns.length],
+                "created_timestamp", true, this::toScheduleRows);
         scheduleTable = new JTable(scheduleTableModel);
         setupTableAppearance(scheduleTable);
         schedulePanel.add(new JScrollPane(scheduleTable), BorderLayout.CENTER);
@@ -589,125 +461,155 @@ public class CloudControllerDashboard extends JPanel {
         scheduleControlPanel.add(calculateTimesButton);
         scheduleControlPanel.add(assignVehiclesButton);
         scheduleControlPanel.add(advanceQueueButton);
+
+        JButton exportButton = new JButton("Export Data...");
+        exportButton.addActionListener(e -> exportData());
+        scheduleControlPanel.add(exportButton);
         schedulePanel.add(scheduleControlPanel, BorderLayout.SOUTH);
         return schedulePanel;
     }
 
+    private JPanel createTimelinePanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        panel.setBackground(Color.WHITE);
+
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        controlPanel.setBackground(Color.WHITE);
+        timelineSummaryLabel = new JLabel("Loading...");
+        timelineSummaryLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        timelineSummaryLabel.setForeground(new Color(0, 102, 204));
+        controlPanel.add(timelineSummaryLabel);
+
+        controlPanel.add(new JLabel("One pixel is:"));
+        JComboBox<String> zoomBox = new JComboBox<>(TIMELINE_ZOOM_NAMES);
+        zoomBox.setSelectedIndex(1);
+        zoomBox.addActionListener(e -> timelinePanel.setMillisPerPixel(TIMELINE_ZOOM_MILLIS[zoomBox.getSelectedIndex()]));
+        controlPanel.add(zoomBox);
+
+        JButton refreshTimelineButton = new JButton("Refresh");
+        refreshTimelineButton.addActionListener(e -> refreshCoordinator.forceRefresh());
+        controlPanel.add(refreshTimelineButton);
+        controlPanel.add(new JLabel("Green: in progress, blue: queued, red: past deadline"));
+        panel.add(controlPanel, BorderLayout.NORTH);
+
+        timelinePanel = new TimelinePanel();
+        timelinePanel.setMillisPerPixel(TIMELINE_ZOOM_MILLIS[1]);
+        JScrollPane scrollPane = new JScrollPane();
+        timelinePanel.install(scrollPane);
+        panel.add(scrollPane, BorderLayout.CENTER);
+        return panel;
+    }
+
     // --- Data Loading and Refresh Methods ---
 
-    private void refreshAllData() {
-        loadJobData();
-        loadUserData();
-        loadAllocationData();
-        loadAllocationDropdowns();
-        loadScheduleData();
-        updateQueueStatus();
+    // Each section's fetch runs on a loader thread and must not touch Swing components;
+    // its apply step runs on the EDT.
+    // Tabs are built lazily, so their models are looked up when a section runs, not now
+    private void registerDataSections() {
+        dataLoader.register(JOBS, () -> jobTableModel.fetchRowCount(), rowCount -> jobTableModel.reset(rowCount));
+        dataLoader.register(USERS, this::fetchUserRows, rows -> userTableModel.setRows(rows));
+        dataLoader.register(ALLOCATIONS, this::fetchAllocationRows, rows -> allocationTableModel.setRows(rows));
+        dataLoader.register(ALLOCATION_CHOICES, this::fetchAllocationChoices, this::applyAllocationChoices);
+        dataLoader.register(SCHEDULE, this::fetchScheduleRowCount, rowCount -> scheduleTableModel.reset(rowCount));
+        dataLoader.register(QUEUE_STATUS, this::fetchQueueStatus, text -> queueStatusLabel.setText(text));
+        dataLoader.register(TIMELINE, this::fetchTimeline, this::applyTimeline);
     }
 
     private void loadPendingRequestData() {
         System.out.println("Loading pending requests...");
-        pendingRequestTableModel.setRowCount(0);
+        List<PendingRequest> requests = pendingRequests.snapshot();
+        List<Object[]> rows = new ArrayList<>(requests.size());
+        System.out.println("Found " + requests.size() + " pending requests");
         
-        synchronized(pendingRequests) {
-            System.out.println("Found " + pendingRequests.size() + " pending requests");
-            
-            for (PendingRequest req : pendingRequests) {
-                String details = "";
-                if (req.getType() == PendingRequest.RequestType.VEHICLE) {
-                    Vehicle vehicle = (Vehicle) req.getData();
-                    details = String.format("Owner ID: %s, VIN: %s, %s %s (%s)", 
-                        vehicle.getOwnerId(), vehicle.getVin(), vehicle.getMake(), vehicle.getModel(), vehicle.getYear());
-                } else if (req.getType() == PendingRequest.RequestType.JOB) {
-                    Job job = (Job) req.getData();
-                    details = String.format("ID: %s, Name: %s, Duration: %s", 
-                        job.getJobId(), job.getJobName(), job.getDuration());
-                }
-                
-                pendingRequestTableModel.addRow(new Object[]{
-                    req.getRequestId(),
-                    req.getType(),
-                    req.getSubmittedByInfo(),
-                    details
-                });
+        for (PendingRequest req : requests) {
+            String details = "";
+            if (req.getType() == PendingRequest.RequestType.VEHICLE) {
+                Vehicle vehicle = (Vehicle) req.getData();
+                details = String.format("Owner ID: %s, VIN: %s, %s %s (%s)", 
+                    vehicle.getOwnerId(), vehicle.getVin(), vehicle.getMake(), vehicle.getModel(), vehicle.getYear());
+            } else if (req.getType() == PendingRequest.RequestType.JOB) {
+                Job job = (Job) req.getData();
+                details = String.format("ID: %s, Name: %s, Duration: %s", 
+                    job.getJobId(), job.getJobName(), job.getDuration());
             }
+            
+            rows.add(new Object[]{
+                req.getRequestId(),
+                req.getType(),
+                req.getSubmittedByInfo(),
+                details
+            });
         }
         
+        pendingRequestTableModel.setRows(rows);
+        
         boolean hasRequests = pendingRequestTableModel.getRowCount() > 0;
         approveRequestButton.setEnabled(hasRequests);
         rejectRequestButton.setEnabled(hasRequests);
     }
 
-    private void loadJobData() {
-        // Your existing code...
-        jobTableModel.setRowCount(0);
-        Map<String, String> currentStates = cloudControllerDAO.loadJobStates();
-        List<Job> jobs = jobDAO.getAllJobs();
-
-        jobs.sort(Comparator.comparing(Job::getCreatedTimestamp));
-
+    // Rows of one page of the Jobs table; runs on the page loader thread
+    private List<Object[]> toJobRows(List<Job> jobs, int firstRow) {
+        List<Object[]> rows = new ArrayList<>(jobs.size());
         for (Job job : jobs) {
-            String displayStatus = CloudControllerDAO.STATE_PENDING_APPROVAL.equals(job.getStatus())
-                               ? CloudControllerDAO.STATE_PENDING_APPROVAL
-                               : currentStates.getOrDefault(job.getJobId(), job.getStatus());
-
-            jobTableModel.addRow(new Object[]{
+            rows.add(new Object[]{
                 job.getJobId(),
                 job.getJobName(),
                 job.getJobOwnerId(),
                 job.getDuration(),
                 job.getDeadline(),
-                displayStatus,
+                job.getStatus(),
                 job.getCreatedTimestamp()
             });
         }
+        return rows;
     }
 
-    private void loadUserData() {
-        // Your existing code...
-        userTableModel.setRowCount(0);
-        List<User> users = userDAO.getAllUsers();
+    private List<Object[]> fetchUserRows() {
+        List<User> users = stateStore.getUsers();
+        List<Object[]> rows = new ArrayList<>(users.size());
         for (User user : users) {
-            userTableModel.addRow(new Object[]{
+            rows.add(new Object[]{
                 user.getUserId(),
                 user.getFullName(),
                 user.getEmail(),
                 user.getRolesAsString()
             });
         }
+        return rows;
     }
 
-    private void loadAllocationData() {
-        // Your existing code...
-        allocationTableModel.setRowCount(0);
-        List<Allocation> allocations = allocationDAO.getAllAllocations();
+    private List<Object[]> fetchAllocationRows() {
+        List<Allocation> allocations = stateStore.getAllocations();
+        List<Object[]> rows = new ArrayList<>(allocations.size());
         for (Allocation allocation : allocations) {
-            allocationTableModel.addRow(new Object[]{
+            rows.add(new Object[]{
                 allocation.getAllocationId(),
                 allocation.getUserId(),
                 allocation.getJobId()
             });
         }
+        return rows;
     }
 
-    private void loadScheduleData() {
-        // Your existing code...
-        scheduleTableModel.setRowCount(0);
-        Map<String, String> completionTimes = cloudControllerDAO.loadSchedule();
-        Map<String, String> currentStates = cloudControllerDAO.loadJobStates();
-
-        List<Job> jobs = jobDAO.getAllJobs().stream()
-                       .filter(j -> !CloudControllerDAO.STATE_PENDING_APPROVAL.equals(j.getStatus()))
-                       .collect(Collectors.toList());
+    private int fetchScheduleRowCount() {
+        scheduleCompletionTimes = stateStore.getSchedule();
+        return scheduleTableModel.fetchRowCount();
+    }
 
-        jobs.sort(Comparator.comparing(Job::getCreatedTimestamp));
+    // Rows of one page of the schedule, in FIFO order; runs on the page loader thread
+    private List<Object[]> toScheduleRows(List<Job> jobs, int firstRow) {
+        Map<String, String> completionTimes = scheduleCompletionTimes;
 
-        long runningTotalMinutes = 0;
+        // The running total carries on from the queued work on earlier pages
+        long runningTotalMinutes = jobDAO.getActiveMinutesBefore(jobs.get(0));
+        List<Object[]> rows = new ArrayList<>(jobs.size());
 
         for (Job job : jobs) {
-            // Use the public parseJobDuration method from CloudControllerDAO
             long durationMinutes = cloudControllerDAO.parseJobDuration(job).toMinutes();
 
-            String status = currentStates.getOrDefault(job.getJobId(), job.getStatus());
+            String status = job.getStatus();
             String timeToCompleteStr = "-";
 
             if (CloudControllerDAO.STATE_QUEUED.equals(status) || CloudControllerDAO.STATE_PROGRESS.equals(status)) {
@@ -723,7 +625,7 @@ public class CloudControllerDashboard extends JPanel {
 
             String completionTime = completionTimes.getOrDefault(job.getJobId(), "Not calculated");
 
-            scheduleTableModel.addRow(new Object[]{
+            rows.add(new Object[]{
                 job.getJobId(),
                 job.getJobName(),
                 job.getDuration(),
@@ -732,67 +634,77 @@ public class CloudControllerDashboard extends JPanel {
                 completionTime
             });
         }
+        return rows;
     }
 
-    private void updateQueueStatus() {
-        Map<String, Integer> summary = cloudControllerDAO.getJobQueueSummary();
+    private String fetchQueueStatus() {
+        Map<String, Integer> summary = stateStore.getJobQueueSummary();
         
         // Add pending count from our in-memory list
-        int pendingCount;
-        synchronized(pendingRequests) {
-            pendingCount = (int) pendingRequests.stream()
-                .filter(r -> r.getType() == PendingRequest.RequestType.JOB)
-                .count();
-        }
+        int pendingCount = pendingRequests.countByType(PendingRequest.RequestType.JOB);
         
-        queueStatusLabel.setText(String.format(
+        return String.format(
             "Queue Status: %d Pending | %d Queued | %d In Progress | %d Completed",
             pendingCount,
             summary.getOrDefault(CloudControllerDAO.STATE_QUEUED, 0),
             summary.getOrDefault(CloudControllerDAO.STATE_PROGRESS, 0),
             summary.getOrDefault(CloudControllerDAO.STATE_COMPLETED, 0)
-        ));
+        );
     }
 
-    private void loadAllocationDropdowns() {
-        // Your existing code...
-        userDropdown.removeAllItems();
-        jobDropdown.removeAllItems();
+    // Projects the queue from now; the intervals are indexed here, off the EDT
+    private ScheduleTimeline fetchTimeline() {
+        Map<Integer, String> ownerNames = new HashMap<>();
+        for (User user : stateStore.getUsers()) {
+            ownerNames.put(user.getUserId(), user.getFullName());
+        }
+        return ScheduleTimeline.of(stateStore.getJobs(), System.currentTimeMillis(), ownerNames);
+    }
+
+    private void applyTimeline(ScheduleTimeline timeline) {
+        timelinePanel.setTimeline(timeline);
+        timelineSummaryLabel.setText(String.format("%d scheduled jobs for %d clients, %d past deadline",
+                timeline.size(), timeline.getLaneCount(), timeline.getLateCount()));
+    }
 
-        List<User> users = userDAO.getAllUsers();
+    // Dropdown entries for the allocation form: users first, then jobs
+    private List<List<String>> fetchAllocationChoices() {
+        List<String> userChoices = new ArrayList<>();
+        List<User> users = new ArrayList<>(stateStore.getUsers());
         users.sort(Comparator.comparing(User::getFullName));
         for (User user : users) {
-            userDropdown.addItem(user.getUserId() + " - " + user.getFullName());
+            userChoices.add(user.getUserId() + " - " + user.getFullName());
         }
 
-        List<Job> jobs = jobDAO.getAllJobs().stream()
+        List<String> jobChoices = new ArrayList<>();
+        List<Job> jobs = stateStore.getJobs().stream()
                        .filter(j -> !CloudControllerDAO.STATE_PENDING_APPROVAL.equals(j.getStatus()))
                        .sorted(Comparator.comparing(Job::getJobId))
                        .collect(Collectors.toList());
         for (Job job : jobs) {
-            jobDropdown.addItem(job.getJobId() + " - " + job.getJobName());
+            jobChoices.add(job.getJobId() + " - " + job.getJobName());
         }
+        return List.of(userChoices, jobChoices);
+    }
+
+    private void applyAllocationChoices(List<List<String>> choices) {
+        userDropdown.removeAllItems();
+        jobDropdown.removeAllItems();
+        choices.get(0).forEach(userDropdown::addItem);
+        choices.get(1).forEach(jobDropdown::addItem);
     }
 
     // --- Action Methods ---
 
     private void approveSelectedRequest() {
-        int selectedRow = pendingRequestTable.getSelectedRow();
+        int selectedRow = TableSearchField.selectedModelRow(pendingRequestTable);
         if (selectedRow != -1) {
             int requestId = (int) pendingRequestTableModel.getValueAt(selectedRow, 0);
             // Get the type as the actual enum value, not as a String
             PendingRequest.RequestType typeEnum = (PendingRequest.RequestType) pendingRequestTableModel.getValueAt(selectedRow, 1);
             
-            // Find the request in our in-memory list
-            PendingRequest requestToApprove = null;
-            synchronized(pendingRequests) {
-                for (PendingRequest req : pendingRequests) {
-                    if (req.getRequestId() == requestId) {
-                        requestToApprove = req;
-                        break;
-                    }
-                }
-            }
+            // Look up the request in our in-memory store
+            PendingRequest requestToApprove = pendingRequests.get(requestId);
             
             if (requestToApprove != null) {
                 // Process the approval based on type
@@ -804,16 +716,14 @@ public class CloudControllerDashboard extends JPanel {
                     boolean saved = vehicleDAO.addVehicle(vehicle);
                     
                     if (saved) {
-                        // Remove from pending list
-                        synchronized(pendingRequests) {
-                            pendingRequests.remove(requestToApprove);
-                        }
+                        // Remove from pending store
+                        pendingRequests.remove(requestId);
                         
                         // Send approval notification to clients
                         broadcastApprovalStatus(vehicle.getVin(), true);
                         
                         // Update UI
-                        loadPendingRequestData();
+                        refreshCoordinator.refreshNow();
                         JOptionPane.showMessageDialog(this, 
                             "Vehicle approved and saved to database.",
                             "Approval Success",
@@ -835,22 +745,14 @@ public class CloudControllerDashboard extends JPanel {
                     boolean saved = jobDAO.addJob(job);
                     
                     if (saved) {
-                        // Remove from pending list
-                        synchronized(pendingRequests) {
-                            pendingRequests.remove(requestToApprove);
-                        }
+                        // Remove from pending store
+                        pendingRequests.remove(requestId);
                         
                         // Send approval notification to clients
-                        String message = "JOB_APPROVAL_STATUS:" + job.getJobId() + ",approved";
-                        for (ClientHandler handler : clientHandlers) {
-                            handler.sendMessage(message);
-                        }
+                        broadcastEvent("JOB_APPROVAL_STATUS:" + job.getJobId() + ",approved");
                         
                         // Update UI
-                        loadPendingRequestData();
-                        loadJobData();
-                        loadScheduleData();
-                        updateQueueStatus();
+                        refreshCoordinator.refreshNow();
                         
                         JOptionPane.showMessageDialog(this, 
                             "Job approved and saved to database.",
@@ -877,8 +779,47 @@ public class CloudControllerDashboard extends JPanel {
         }
     }
 
+    // Registers every pending vehicle in one batch; vehicles that fail stay pending
+    private void approveAllVehicleRequests() {
+        List<PendingRequest> requests = pendingRequests.getByType(PendingRequest.RequestType.VEHICLE);
+        if (requests.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "There are no pending vehicle registrations.", "Nothing to Approve", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this,
+            "Approve all " + requests.size() + " pending vehicle registrations?",
+            "Confirm Approval",
+            JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (PendingRequest request : requests) {
+            vehicles.add((Vehicle) request.getData());
+        }
+        VehicleDAO.RegistrationReport report = new VehicleDAO().addVehicles(vehicles);
+
+        for (PendingRequest request : requests) {
+            Vehicle vehicle = (Vehicle) request.getData();
+            if (report.getAdded().contains(vehicle)) {
+                pendingRequests.remove(request.getRequestId());
+                broadcastApprovalStatus(vehicle.getVin(), true);
+            }
+        }
+        refreshCoordinator.refreshNow();
+
+        StringBuilder message = new StringBuilder(report.getAdded().size() + " vehicles approved and saved to database.");
+        if (report.hasFailures()) {
+            message.append("\n\nNot approved (still pending):");
+            report.getFailures().forEach((vin, reason) -> message.append("\n").append(vin).append(": ").append(reason));
+        }
+        JOptionPane.showMessageDialog(this, message.toString(), "Bulk Approval",
+            report.hasFailures() ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+    }
+
     private void rejectSelectedRequest() {
-        int selectedRow = pendingRequestTable.getSelectedRow();
+        int selectedRow = TableSearchField.selectedModelRow(pendingRequestTable);
         if (selectedRow != -1) {
             int requestId = (int) pendingRequestTableModel.getValueAt(selectedRow, 0);
             // Get the type as the actual enum value, not as a String
@@ -913,33 +854,18 @@ public class CloudControllerDashboard extends JPanel {
                 
             if (confirm == JOptionPane.YES_OPTION) {
                 // Find and remove the request
-                boolean removed = false;
-                synchronized(pendingRequests) {
-                    Iterator<PendingRequest> iterator = pendingRequests.iterator();
-                    while (iterator.hasNext()) {
-                        PendingRequest req = iterator.next();
-                        if (req.getRequestId() == requestId) {
-                            iterator.remove();
-                            removed = true;
-                            break;
-                        }
-                    }
-                }
+                boolean removed = pendingRequests.remove(requestId) != null;
                 
                 if (removed) {
                     // Notify client based on request type
                     if (vin != null) {
                         broadcastApprovalStatus(vin, false);
                     } else if (jobId != null) {
-                        String message = "JOB_APPROVAL_STATUS:" + jobId + ",rejected";
-                        for (ClientHandler handler : clientHandlers) {
-                            handler.sendMessage(message);
-                        }
+                        broadcastEvent("JOB_APPROVAL_STATUS:" + jobId + ",rejected");
                     }
                     
                     // Update UI
-                    loadPendingRequestData();
-                    updateQueueStatus();
+                    refreshCoordinator.refreshNow();
                     JOptionPane.showMessageDialog(this,
                         "Request rejected and removed.",
                         "Rejection Complete",
@@ -965,9 +891,7 @@ public class CloudControllerDashboard extends JPanel {
         if (completionTimes.isEmpty()) {
             JOptionPane.showMessageDialog(this, "No jobs found to schedule.", "Schedule", JOptionPane.INFORMATION_MESSAGE);
         } else {
-            loadScheduleData();
-            loadJobData();
-            updateQueueStatus();
+            refreshCoordinator.refreshNow();
 
             // Show the calculation results
             String output = cloudControllerDAO.generateSchedulingOutput();
@@ -984,13 +908,34 @@ public class CloudControllerDashboard extends JPanel {
         }
     }
 
+    private void exportData() {
+        JComboBox<ExportDAO.Dataset> datasetBox = new JComboBox<>(ExportDAO.Dataset.values());
+        JComboBox<ExportDAO.Format> formatBox = new JComboBox<>(ExportDAO.Format.values());
+        JPanel optionsPanel = new JPanel(new GridLayout(2, 2, 5, 5));
+        optionsPanel.add(new JLabel("Data:"));
+        optionsPanel.add(datasetBox);
+        optionsPanel.add(new JLabel("Format:"));
+        optionsPanel.add(formatBox);
+        if (JOptionPane.showConfirmDialog(this, optionsPanel, "Export Data",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        ExportDAO.Dataset dataset = (ExportDAO.Dataset) datasetBox.getSelectedItem();
+        ExportDAO.Format format = (ExportDAO.Format) formatBox.getSelectedItem();
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File(dataset.name().toLowerCase() + "." + format.getExtension()));
+        if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            // Runs in the background; the dashboard stays usable while large exports stream out
+            new ExportWorker(this, dataset, format, chooser.getSelectedFile().toPath()).execute();
+        }
+    }
+
     private void assignVehiclesToJobs() {
         // Your existing code...
         int assignmentCount = cloudControllerDAO.assignVehiclesToJobs();
         if (assignmentCount > 0) {
-            loadJobData();
-            loadScheduleData();
-            updateQueueStatus();
+            refreshCoordinator.refreshNow();
             JOptionPane.showMessageDialog(this,
                     "Assigned vehicles to " + assignmentCount + " job(s). Statuses updated to 'In Progress'.",
                     "Vehicle Assignment Success",
@@ -1007,9 +952,7 @@ public class CloudControllerDashboard extends JPanel {
         // Your existing code...
         String nextJobId = cloudControllerDAO.advanceJobQueue();
         if (nextJobId != null) {
-            loadJobData();
-            loadScheduleData();
-            updateQueueStatus();
+            refreshCoordinator.refreshNow();
             JOptionPane.showMessageDialog(this,
                     "Job queue advanced. Job '" + nextJobId + "' is now 'In Progress'.",
                     "Queue Advanced",
@@ -1065,7 +1008,7 @@ public class CloudControllerDashboard extends JPanel {
                 Job job = new Job(jobId, jobName, jobOwner, duration, deadline, CloudControllerDAO.STATE_QUEUED);
                 if (jobDAO.addJob(job)) {
                     JOptionPane.showMessageDialog(this, "Job added directly (bypassing approval).", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    refreshAllData();
+                    refreshCoordinator.refreshNow();
                 } else { 
                     JOptionPane.showMessageDialog(this, "Failed to add job directly.", "Error", JOptionPane.ERROR_MESSAGE); 
                 }
@@ -1079,17 +1022,27 @@ public class CloudControllerDashboard extends JPanel {
 
     private void editSelectedJob() {
         int selectedRow = jobTable.getSelectedRow();
+        if (selectedRow != -1 && !jobTableModel.isRowLoaded(selectedRow)) {
+            return; // Still loading
+        }
         if (selectedRow != -1) {
             String jobId = (String) jobTableModel.getValueAt(selectedRow, 0);
-            Job jobToEdit = jobDAO.getAllJobs().stream().filter(j -> j.getJobId().equals(jobId)).findFirst().orElse(null);
+            Job jobToEdit = jobDAO.getJobById(jobId);
             if (jobToEdit == null) { 
                 JOptionPane.showMessageDialog(this, "Could not find job details.", "Error", JOptionPane.ERROR_MESSAGE); 
                 return; 
             }
 
             JTextField nameField = new JTextField(jobToEdit.getJobName(), 20);
-            String[] statuses = {CloudControllerDAO.STATE_QUEUED, CloudControllerDAO.STATE_PROGRESS, CloudControllerDAO.STATE_COMPLETED};
-            JComboBox<String> statusCombo = new JComboBox<>(statuses);
+            // Offer only the current status and the states it may legally move to
+            JComboBox<String> statusCombo = new JComboBox<>();
+            statusCombo.addItem(jobToEdit.getStatus());
+            JobState currentState = jobToEdit.getState();
+            for (JobState next : currentState != null ? currentState.getNextStates() : EnumSet.of(JobState.QUEUED)) {
+                if (next != JobState.PENDING_APPROVAL) {
+                    statusCombo.addItem(next.getLabel());
+                }
+            }
             statusCombo.setSelectedItem(jobToEdit.getStatus());
             
             JPanel panel = new JPanel(new GridLayout(0,2,5,5));
@@ -1102,10 +1055,15 @@ public class CloudControllerDashboard extends JPanel {
                 String newStatus = (String) statusCombo.getSelectedItem();
                 if (!newName.isEmpty()) {
                     jobToEdit.setJobName(newName); 
-                    jobToEdit.setStatus(newStatus);
+                    JobState newState = JobState.fromLabel(newStatus);
+                    if (!newStatus.equals(jobToEdit.getStatus()) && !jobDAO.transitionJob(jobToEdit, newState)) {
+                        JOptionPane.showMessageDialog(this, "The job's status was changed elsewhere. Please refresh and try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                        refreshCoordinator.forceRefresh();
+                        return;
+                    }
                     if (jobDAO.updateJob(jobToEdit)) { 
                         JOptionPane.showMessageDialog(this, "Job updated.", "Success", JOptionPane.INFORMATION_MESSAGE); 
-                        refreshAllData(); 
+                        refreshCoordinator.refreshNow(); 
                     }
                     else { 
                         JOptionPane.showMessageDialog(this, "Failed to update job.", "Error", JOptionPane.ERROR_MESSAGE); 
@@ -1121,6 +1079,9 @@ public class CloudControllerDashboard extends JPanel {
 
     private void deleteSelectedJob() {
         int selectedRow = jobTable.getSelectedRow();
+        if (selectedRow != -1 && !jobTableModel.isRowLoaded(selectedRow)) {
+            return; // Still loading
+        }
         if (selectedRow != -1) {
             String jobId = (String) jobTableModel.getValueAt(selectedRow, 0);
             String status = (String) jobTableModel.getValueAt(selectedRow, 5);
@@ -1133,7 +1094,7 @@ public class CloudControllerDashboard extends JPanel {
             if (confirm == JOptionPane.YES_OPTION) {
                 if (jobDAO.deleteJob(jobId)) {
                     JOptionPane.showMessageDialog(this, "Job '" + jobId + "' deleted.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    refreshAllData();
+                    refreshCoordinator.refreshNow();
                 } else { 
                     JOptionPane.showMessageDialog(this, "Failed to delete job '" + jobId + "'.", "Error", JOptionPane.ERROR_MESSAGE); 
                 }
@@ -1168,19 +1129,24 @@ public class CloudControllerDashboard extends JPanel {
                 return;
             }
             User user = new User(fullName, email, roles, password);
-            if (userDAO.addUser(user)) { 
-                JOptionPane.showMessageDialog(this, "User added.", "Success", JOptionPane.INFORMATION_MESSAGE); 
-                loadUserData(); 
-                loadAllocationDropdowns(); 
-            }
-            else { 
-                JOptionPane.showMessageDialog(this, "Failed to add user (Email might exist).", "Error", JOptionPane.ERROR_MESSAGE); 
-            }
+            // The password is hashed in the background
+            AuthenticationService.getInstance().addUserAsync(user)
+                .whenCompleteAsync((success, error) -> {
+                    if (error != null) {
+                        JOptionPane.showMessageDialog(this, "Could not add the user now. Please try again in a moment.", "Error", JOptionPane.ERROR_MESSAGE);
+                    } else if (success) { 
+                        JOptionPane.showMessageDialog(this, "User added.", "Success", JOptionPane.INFORMATION_MESSAGE); 
+                        refreshCoordinator.refreshNow();
+                    }
+                    else { 
+                        JOptionPane.showMessageDialog(this, "Failed to add user (Email might exist).", "Error", JOptionPane.ERROR_MESSAGE); 
+                    }
+                }, SwingUtilities::invokeLater);
         }
     }
 
     private void editSelectedUser() {
-        int selectedRow = userTable.getSelectedRow();
+        int selectedRow = TableSearchField.selectedModelRow(userTable);
         if (selectedRow != -1) {
             int userId = (int) userTableModel.getValueAt(selectedRow, 0); 
             User userToEdit = userDAO.getUserById(userId);
@@ -1216,8 +1182,7 @@ public class CloudControllerDashboard extends JPanel {
                 
                 if (userDAO.updateUser(userToEdit)) { 
                     JOptionPane.showMessageDialog(this, "User updated.", "Success", JOptionPane.INFORMATION_MESSAGE); 
-                    loadUserData(); 
-                    loadAllocationDropdowns(); 
+                    refreshCoordinator.refreshNow();
                 }
                 else { 
                     JOptionPane.showMessageDialog(this, "Failed to update user.", "Error", JOptionPane.ERROR_MESSAGE); 
@@ -1229,7 +1194,7 @@ public class CloudControllerDashboard extends JPanel {
     }
 
     private void deleteSelectedUser() {
-        int selectedRow = userTable.getSelectedRow();
+        int selectedRow = TableSearchField.selectedModelRow(userTable);
         if (selectedRow != -1) {
             int userId = (int) userTableModel.getValueAt(selectedRow, 0); 
             String userName = (String) userTableModel.getValueAt(selectedRow, 1);
@@ -1250,7 +1215,7 @@ public class CloudControllerDashboard extends JPanel {
                 
                 if (userDAO.deleteUser(String.valueOf(userId))) { 
                     JOptionPane.showMessageDialog(this, "User '" + userName + "' deleted.", "Success", JOptionPane.INFORMATION_MESSAGE); 
-                    refreshAllData(); 
+                    refreshCoordinator.refreshNow(); 
                 }
                 else { 
                     JOptionPane.showMessageDialog(this, "Failed to delete user '" + userName + "'.", "Error", JOptionPane.ERROR_MESSAGE); 
@@ -1281,7 +1246,7 @@ public class CloudControllerDashboard extends JPanel {
                 Allocation allocation = new Allocation(userId, jobId);
                 if (allocationDAO.addAllocation(allocation)) { 
                     JOptionPane.showMessageDialog(this, "User allocated to job successfully.", "Success", JOptionPane.INFORMATION_MESSAGE); 
-                    loadAllocationData(); 
+                    refreshCoordinator.refreshNow();
                 }
                 else { 
                     JOptionPane.showMessageDialog(this, "Failed to create allocation.", "Error", JOptionPane.ERROR_MESSAGE); 
@@ -1295,7 +1260,7 @@ public class CloudControllerDashboard extends JPanel {
     }
 
     private void removeSelectedAllocation() {
-        int selectedRow = allocationTable.getSelectedRow();
+        int selectedRow = TableSearchField.selectedModelRow(allocationTable);
         if (selectedRow != -1) {
             int allocationId = (int) allocationTableModel.getValueAt(selectedRow, 0);
             String userId = (String) allocationTableModel.getValueAt(selectedRow, 1);
@@ -1308,7 +1273,7 @@ public class CloudControllerDashboard extends JPanel {
             if (confirm == JOptionPane.YES_OPTION) {
                 if (allocationDAO.deleteAllocation(allocationId)) { 
                     JOptionPane.showMessageDialog(this, "Allocation removed successfully.", "Success", JOptionPane.INFORMATION_MESSAGE); 
-                    loadAllocationData(); 
+                    refreshCoordinator.refreshNow();
                 }
                 else { 
                     JOptionPane.showMessageDialog(this, "Failed to remove allocation.", "Error", JOptionPane.ERROR_MESSAGE); 
@@ -0,0 +1,153 @@
+package gui.server;
+
+import db.DatabaseManager;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads dashboard data off the Event Dispatch Thread.
+ * Each section registers a fetch step, which runs on a small worker pool and may block on
+ * JDBC or file I/O, and an apply step, which runs on the EDT and only updates Swing
+ * components. A refresh fetches the requested sections in parallel and applies all their
+ * results in one EDT task once every fetch has finished. Each worker queries the database
+ * on a connection of its own (see DatabaseManager.useDedicatedConnection), so fetches do
+ * not queue behind each other on the shared connection; a worker's connection is closed
+ * when the worker has been idle for a minute.
+ *
+ * Every refresh of a section supersedes the earlier ones: an older fetch that has not started
+ * yet is skipped, and older results that arrive later are dropped instead of overwriting
+ * newer data. The pool size can be tuned with the system property
+ * vcrts.dashboard.loaderThreads (default 4).
+ */
+public class DashboardDataLoader {
+    private static final Logger logger = Logger.getLogger(DashboardDataLoader.class.getName());
+
+    private static final class Section<T> {
+        private final String name;
+        private final Supplier<T> fetch;
+        private final Consumer<T> apply;
+        // Generation of the latest refresh that includes this section; written only on the EDT
+        private volatile long generation;
+
+        private Section(String name, Supplier<T> fetch, Consumer<T> apply) {
+            this.name = name;
+            this.fetch = fetch;
+            this.apply = apply;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void applyResult(Object result) {
+            apply.accept((T) result);
+        }
+    }
+
+    private final Map<String, Section<?>> sections = new LinkedHashMap<>();
+    private final ExecutorService executor;
+    private long nextGeneration = 0;
+
+    public DashboardDataLoader() {
+        this(Integer.getInteger("vcrts.dashboard.loaderThreads", 4));
+    }
+
+    public DashboardDataLoader(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(() -> {
+                        DatabaseManager.useDedicatedConnection();
+                        try {
+                            r.run();
+                        } finally {
+                            DatabaseManager.releaseDedicatedConnection();
+                        }
+                    }, "DashboardLoader-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    /**
+     * Registers a section. Must be called on the EDT before the first refresh.
+     * @param name The section name passed to refresh.
+     * @param fetch Reads the data; runs on a worker thread.
+     * @param apply Shows the data; runs on the EDT.
+     */
+    public <T> void register(String name, Supplier<T> fetch, Consumer<T> apply) {
+        sections.put(name, new Section<>(name, fetch, apply));
+    }
+
+    /**
+     * Reloads every registered section. Must be called on the EDT.
+     */
+    public CompletableFuture<Void> refreshAll() {
+        return refresh(sections.keySet());
+    }
+
+    /**
+     * Reloads the named sections. Must be called on the EDT.
+     * @return A future that completes on the EDT after the results were applied or dropped.
+     */
+    public CompletableFuture<Void> refresh(String... names) {
+        return refresh(List.of(names));
+    }
+
+    private CompletableFuture<Void> refresh(Collection<String> names) {
+        long generation = ++nextGeneration;
+        List<Section<?>> batch = new ArrayList<>();
+        List<CompletableFuture<Object>> fetches = new ArrayList<>();
+        for (String name : names) {
+            Section<?> section = sections.get(name);
+            if (section == null) {
+                throw new IllegalArgumentException("Unknown dashboard section: " + name);
+            }
+            section.generation = generation;
+            batch.add(section);
+            // A fetch still queued when a newer refresh of its section arrives is skipped
+            fetches.add(CompletableFuture.supplyAsync(
+                    () -> section.generation == generation ? section.fetch.get() : null, executor));
+        }
+
+        CompletableFuture<Void> applied = new CompletableFuture<>();
+        CompletableFuture.allOf(fetches.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) ->
+            SwingUtilities.invokeLater(() -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    Section<?> section = batch.get(i);
+                    if (section.generation != generation) {
+                        continue; // A newer refresh of this section is on its way
+                    }
+                    CompletableFuture<Object> fetch = fetches.get(i);
+                    try {
+                        section.applyResult(fetch.join());
+                    } catch (RuntimeException e) {
+                        logger.log(Level.WARNING, "Could not load dashboard section: " + section.name, e);
+                    }
+                }
+                applied.complete(null);
+            }));
+        return applied;
+    }
+
+    /**
+     * Stops the worker threads; loads already running are allowed to finish.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,83 @@
+package gui.server;
+
+import dao.ExportDAO;
+
+import javax.swing.JOptionPane;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingWorker;
+import java.awt.Component;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs an export in the background, showing its progress in a ProgressMonitor whose
+ * Cancel button stops it. The result, or the error, is reported in a dialog.
+ */
+public class ExportWorker extends SwingWorker<Long, Long> {
+    private static final Logger logger = Logger.getLogger(ExportWorker.class.getName());
+
+    private final Component parent;
+    private final ExportDAO.Dataset dataset;
+    private final ExportDAO.Format format;
+    private final Path target;
+    private final ProgressMonitor monitor;
+    private volatile long totalRows = -1;
+
+    public ExportWorker(Component parent, ExportDAO.Dataset dataset, ExportDAO.Format format, Path target) {
+        this.parent = parent;
+        this.dataset = dataset;
+        this.format = format;
+        this.target = target;
+        this.monitor = new ProgressMonitor(parent, "Exporting " + dataset.getTitle() + " to " + target.getFileName(),
+                "Starting...", 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+    }
+
+    @Override
+    protected Long doInBackground() throws Exception {
+        return new ExportDAO().export(dataset, format, target, (rowsWritten, total) -> {
+            totalRows = total;
+            publish(rowsWritten);
+            return !monitor.isCanceled();
+        });
+    }
+
+    @Override
+    protected void process(List<Long> chunks) {
+        long rows = chunks.get(chunks.size() - 1);
+        long total = totalRows;
+        if (total > 0) {
+            monitor.setProgress((int) Math.min(99, rows * 100 / total));
+            monitor.setNote(String.format("%,d of %,d rows", rows, total));
+        } else {
+            monitor.setNote(String.format("%,d rows", rows));
+        }
+    }
+
+    @Override
+    protected void done() {
+        monitor.close();
+        try {
+            long rows = get();
+            JOptionPane.showMessageDialog(parent,
+                    String.format("Exported %,d rows of %s to%n%s", rows, dataset.getTitle(), target.toAbsolutePath()),
+                    "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+        } catch (CancellationException e) {
+            logger.info("Export of " + dataset.getTitle() + " cancelled");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                logger.info("Export of " + dataset.getTitle() + " cancelled");
+                return;
+            }
+            logger.log(Level.SEVERE, "Export of " + dataset.getTitle() + " failed", e.getCause());
+            JOptionPane.showMessageDialog(parent, "Export failed: " + e.getCause().getMessage(),
+                    "Export Error", JOptionPane.ERROR_MESSAGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
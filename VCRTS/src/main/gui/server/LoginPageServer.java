@@ -3,10 +3,16 @@ package gui.server;
 import javax.swing.*;
 
 import java.awt.*;
+import java.net.ConnectException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import gui.server.LoginPageServer;
+import dao.AuthenticationService;
 import dao.UserDAO;
 import models.User;
+import net.ServerConnection;
 
 public class LoginPageServer extends JPanel {
     private static final Logger logger = Logger.getLogger(LoginPageServer.class.getName());
@@ -19,7 +25,8 @@ public class LoginPageServer extends JPanel {
     private JRadioButton jobOwnerRadio;
     private JRadioButton cloudControllerRadio;
     private ButtonGroup roleGroup;
-    private UserDAO userDAO = new UserDAO();
+    private final AuthenticationService authService = AuthenticationService.getInstance();
+    private final UserDAO userDAO = new UserDAO();
 
     public LoginPageServer(ServerFrame parent) {
         this.parent = parent;
@@ -138,35 +145,49 @@ public class LoginPageServer extends JPanel {
                 return;
             }
 
-            User user = userDAO.authenticate(email, password);
-            if (user != null) {
-                logger.info("User authenticated: " + user);
-
-                String selectedRole = getSelectedRole();
-                
-                // Check if user is trying to access cloud controller role
-                if (selectedRole.equals("cloud_controller") && !user.hasRole("cloud_controller")) {
-                    JOptionPane.showMessageDialog(this, 
-                        "You don't have permission to access the Cloud Controller role.", 
-                        "Access Denied", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
+            // Password hashing and the database lookup run off the Swing thread. Owners send
+            // requests to the Cloud Controller, so they log in there; controllers only need the database
+            loginButton.setEnabled(false);
+            CompletableFuture<User> login = getSelectedRole().equals("cloud_controller")
+                    ? authService.authenticateAsync(email, password)
+                    : login(email, password);
+            login
+                .whenCompleteAsync((user, error) -> {
+                    loginButton.setEnabled(true);
+                    if (error != null) {
+                        logger.log(Level.WARNING, "Login failed", error);
+                        JOptionPane.showMessageDialog(this, "Login could not be completed. Please try again in a moment.", "Login Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    if (user != null) {
+                        logger.info("User authenticated: " + user);
+
+                        String selectedRole = getSelectedRole();
                 
-                // Ensure regular users have both regular roles
-                if (!user.hasRole("vehicle_owner")) {
-                    user.addRole("vehicle_owner");
-                }
-                if (!user.hasRole("job_owner")) {
-                    user.addRole("job_owner");
-                }
-
-                // Set the selected role as current
-                user.setCurrentRole(selectedRole);
+                        // Check if user is trying to access cloud controller role
+                        if (selectedRole.equals("cloud_controller") && !user.hasRole("cloud_controller")) {
+                            JOptionPane.showMessageDialog(this, 
+                                "You don't have permission to access the Cloud Controller role.", 
+                                "Access Denied", JOptionPane.ERROR_MESSAGE);
+                            return;
+                        }
                 
-                parent.showDashboard(user);
-            } else {
-                JOptionPane.showMessageDialog(this, "Invalid credentials. Please try again.", "Login Error", JOptionPane.ERROR_MESSAGE);
-            }
+                        // Ensure regular users have both regular roles
+                        if (!user.hasRole("vehicle_owner")) {
+                            user.addRole("vehicle_owner");
+                        }
+                        if (!user.hasRole("job_owner")) {
+                            user.addRole("job_owner");
+                        }
+
+                        // Set the selected role as current
+                        user.setCurrentRole(selectedRole);
+
+                        parent.showDashboard(user);
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Invalid credentials. Please try again.", "Login Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, SwingUtilities::invokeLater);
         });
 
         backButton.addActionListener(e -> parent.showPage("startup"));
@@ -174,6 +195,26 @@ public class LoginPageServer extends JPanel {
         return formPanel;
     }
     
+    /**
+     * Logs in with the Cloud Controller, which checks the password once and issues the
+     * session token that identifies this user's requests. Only if the Cloud Controller
+     * cannot be reached is the password checked here instead; requests then need a new
+     * login once it is back.
+     * @return A future of the user, or null if the email or password is wrong.
+     */
+    private CompletableFuture<User> login(String email, String password) {
+        return ServerConnection.getInstance().login(email, password)
+                .thenApplyAsync(userId -> userId == null ? null : userDAO.getUserById(userId))
+                .exceptionallyCompose(error -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof ConnectException) {
+                        logger.warning("Cloud Controller not reachable, checking the login locally");
+                        return authService.authenticateAsync(email, password);
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
     private String getSelectedRole() {
         if (jobOwnerRadio.isSelected()) {
             return "job_owner";
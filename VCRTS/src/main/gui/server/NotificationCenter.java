@@ -0,0 +1,161 @@
+package gui.server;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-modal feed of dashboard notifications.
+ * Notifications of the same kind that arrive within WINDOW_MS of the first one are merged
+ * into one entry ("37 new vehicle requests in the last 2s"), so a burst of submissions adds
+ * a few lines instead of opening a dialog each. The newest MAX_HISTORY entries are kept.
+ *
+ * post may be called from any thread; all notifications posted before the EDT gets to them
+ * are added in one task. A tab can show the number of notifications not seen yet as a badge.
+ */
+public class NotificationCenter extends JPanel {
+    static final long WINDOW_MS = 2000;
+    static final int MAX_HISTORY = 200;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private static final class Event {
+        private final String singular;
+        private final String plural;
+        private final String detail;
+        private final long millis;
+
+        private Event(String singular, String plural, String detail, long millis) {
+            this.singular = singular;
+            this.plural = plural;
+            this.detail = detail;
+            this.millis = millis;
+        }
+    }
+
+    /**
+     * One line of the feed: a single notification, or several of one kind.
+     */
+    private static final class Entry {
+        private final Event first;
+        private long lastMillis;
+        private int count = 1;
+
+        private Entry(Event first) {
+            this.first = first;
+            this.lastMillis = first.millis;
+        }
+
+        @Override
+        public String toString() {
+            String time = LocalTime.ofInstant(Instant.ofEpochMilli(first.millis), ZoneId.systemDefault()).format(TIME_FORMATTER);
+            if (count == 1) {
+                return time + "  " + first.singular + ": " + first.detail;
+            }
+            long seconds = Math.max(1, (lastMillis - first.millis + 999) / 1000);
+            return time + "  " + count + " " + first.plural + " in the last " + seconds + "s";
+        }
+    }
+
+    private final ConcurrentLinkedQueue<Event> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainPosted = new AtomicBoolean();
+    private final DefaultListModel<Entry> feedModel = new DefaultListModel<>(); // Newest first
+
+    private JTabbedPane badgeTabs;
+    private Component badgeTab;
+    private String badgeTitle;
+    private int unseen = 0;
+
+    public NotificationCenter() {
+        super(new BorderLayout(5, 5));
+        setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        setBackground(Color.WHITE);
+
+        JLabel title = new JLabel("Notifications");
+        title.setFont(new Font("Arial", Font.BOLD, 12));
+        JButton clearButton = new JButton("Clear");
+        clearButton.addActionListener(e -> feedModel.clear());
+        JPanel header = new JPanel(new BorderLayout());
+        header.setBackground(Color.WHITE);
+        header.add(title, BorderLayout.WEST);
+        header.add(clearButton, BorderLayout.EAST);
+        add(header, BorderLayout.NORTH);
+
+        JList<Entry> feed = new JList<>(feedModel);
+        feed.setVisibleRowCount(4);
+        feed.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        add(new JScrollPane(feed), BorderLayout.CENTER);
+    }
+
+    /**
+     * Adds a notification. Safe to call from any thread.
+     * @param singular The kind of notification, e.g. "New vehicle request".
+     * @param plural The kind in the plural, lower case, for merged entries, e.g. "new vehicle requests".
+     * @param detail What this notification is about.
+     */
+    public void post(String singular, String plural, String detail) {
+        incoming.add(new Event(singular, plural, detail, System.currentTimeMillis()));
+        if (drainPosted.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::drain);
+        }
+    }
+
+    /**
+     * Shows the number of unseen notifications in a tab's title until that tab is selected.
+     */
+    public void attachBadge(JTabbedPane tabs, Component tab) {
+        badgeTabs = tabs;
+        badgeTab = tab;
+        badgeTitle = tabs.getTitleAt(tabs.indexOfComponent(tab));
+        tabs.addChangeListener(e -> {
+            if (tabs.getSelectedComponent() == tab) {
+                unseen = 0;
+                updateBadge();
+            }
+        });
+    }
+
+    private void drain() {
+        drainPosted.set(false);
+        int added = 0;
+        Event event;
+        while ((event = incoming.poll()) != null) {
+            merge(event);
+            added++;
+        }
+        if (added > 0 && badgeTabs != null && badgeTabs.getSelectedComponent() != badgeTab) {
+            unseen += added;
+            updateBadge();
+        }
+    }
+
+    private void merge(Event event) {
+        for (int i = 0; i < feedModel.size(); i++) {
+            Entry entry = feedModel.get(i);
+            if (event.millis - entry.first.millis > WINDOW_MS) {
+                break; // Entries further down are older still
+            }
+            if (entry.first.singular.equals(event.singular)) {
+                entry.count++;
+                entry.lastMillis = event.millis;
+                feedModel.set(i, entry);
+                return;
+            }
+        }
+        feedModel.add(0, new Entry(event));
+        if (feedModel.size() > MAX_HISTORY) {
+            feedModel.removeRange(MAX_HISTORY, feedModel.size() - 1);
+        }
+    }
+
+    private void updateBadge() {
+        int index = badgeTabs.indexOfComponent(badgeTab);
+        if (index >= 0) {
+            badgeTabs.setTitleAt(index, unseen > 0 ? badgeTitle + " (" + unseen + ")" : badgeTitle);
+        }
+    }
+}
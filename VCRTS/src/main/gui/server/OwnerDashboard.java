@@ -2,12 +2,14 @@ package gui.server;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import gui.KeyedTableModel;
+import gui.TableSearchField;
 import dao.VehicleDAO;
 import models.Vehicle;
 
@@ -16,13 +18,15 @@ public class OwnerDashboard extends JPanel {
 
     private int ownerId;
     private VehicleDAO vehicleDAO = new VehicleDAO();
+    private long shownCatalogVersion = -1; // Vehicle catalog version the table was last drawn from
 
     private CardLayout cardLayout;
     private JPanel contentPanel;
 
     // Components for the vehicle list view
     private JTable vehicleTable;
-    private DefaultTableModel tableModel;
+    private KeyedTableModel tableModel;
+    private Timer catalogTimer;
 
     public OwnerDashboard(int ownerId) {
         this.ownerId = ownerId;
@@ -76,9 +80,7 @@ public class OwnerDashboard extends JPanel {
         panel.add(listTitle, BorderLayout.NORTH);
 
         String[] columnNames = {"Owner ID", "Model", "Make", "Year", "VIN", "Residency Time", "Registered At"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
-        };
+        tableModel = new KeyedTableModel(columnNames, 4); // Keyed by VIN
         vehicleTable = new JTable(tableModel);
         vehicleTable.setBackground(new Color(230, 230, 230));
         vehicleTable.setForeground(Color.BLACK);
@@ -105,22 +107,43 @@ public class OwnerDashboard extends JPanel {
 
         JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         controlPanel.setBackground(new Color(43, 43, 43));
+        JLabel searchLabel = new JLabel("Search:");
+        searchLabel.setForeground(Color.WHITE);
+        controlPanel.add(searchLabel);
+        // Owner ID, model, make and VIN
+        controlPanel.add(new TableSearchField(vehicleTable, tableModel, 0, 1, 2, 4));
         JButton refreshButton = new JButton("Refresh");
         refreshButton.addActionListener(e -> refreshVehicleTable());
         controlPanel.add(refreshButton);
         panel.add(controlPanel, BorderLayout.SOUTH);
 
-        new Timer(10000, e -> refreshVehicleTable()).start();
-        refreshVehicleTable();
+        catalogTimer = new Timer(10000, e -> {
+            // Only redraw when a vehicle was added, changed or removed since the last draw
+            if (vehicleDAO.getCatalogVersion() != shownCatalogVersion) {
+                refreshVehicleTable();
+            }
+        });
+        catalogTimer.start();
+        // The list is filled when it is first shown, by the View Vehicles button
         return panel;
     }
 
+    /**
+     * Stops the catalog check of a dashboard that is being thrown away.
+     */
+    public void dispose() {
+        if (catalogTimer != null) {
+            catalogTimer.stop();
+        }
+    }
+
     public void refreshVehicleTable() {
         try {
-            tableModel.setRowCount(0);
+            shownCatalogVersion = vehicleDAO.getCatalogVersion();
             List<Vehicle> vehicles = vehicleDAO.getVehiclesByOwner(ownerId);
+            List<Object[]> rows = new ArrayList<>(vehicles.size());
             for (Vehicle v : vehicles) {
-                tableModel.addRow(new Object[]{
+                rows.add(new Object[]{
                         v.getOwnerId(),
                         v.getModel(),
                         v.getMake(),
@@ -130,6 +153,7 @@ public class OwnerDashboard extends JPanel {
                         v.getRegisteredTimestamp()
                 });
             }
+            tableModel.setRows(rows);
         } catch(Exception ex) {
             logger.log(Level.SEVERE, "Error refreshing vehicle table: " + ex.getMessage(), ex);
             JOptionPane.showMessageDialog(this, "Error loading vehicle data: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
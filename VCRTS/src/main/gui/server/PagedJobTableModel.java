@@ -0,0 +1,260 @@
+package gui.server;
+
+import dao.JobDAO;
+import models.Job;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read-only job table model that holds only the pages of rows being looked at.
+ * The row count comes from a COUNT query; a row is read when the table first paints it,
+ * together with a page on either side, and shows as blank until its page arrives. Pages are
+ * read on a background thread with keyset queries continuing from the nearest page start already
+ * known, and the most recently used pages are kept in a small LRU cache. Requests still queued
+ * for pages that have scrolled out of view by the time the loader reaches them are dropped.
+ *
+ * Sorting is done by the database: setSort picks one of JobDAO.SORT_COLUMNS and drops the
+ * cached pages. Must be used on the Event Dispatch Thread, like any Swing model.
+ */
+public class PagedJobTableModel extends AbstractTableModel {
+    private static final Logger logger = Logger.getLogger(PagedJobTableModel.class.getName());
+
+    static final int PAGE_SIZE = 200;
+    private static final int CACHED_PAGES = 8;
+    private static final int PREFETCH_PAGES = 1;
+
+    /**
+     * Turns a page of jobs into table rows; runs on the loader thread.
+     */
+    public interface RowMapper {
+        /**
+         * @param jobs The jobs of one page, in table order; never empty.
+         * @param firstRow The table row of the first job.
+         */
+        List<Object[]> toRows(List<Job> jobs, int firstRow);
+    }
+
+    // Keyset position of the first row of a page: the sort value and job ID of the row before it
+    private static final class Cursor {
+        private final Object sortValue;
+        private final String jobId;
+
+        private Cursor(Object sortValue, String jobId) {
+            this.sortValue = sortValue;
+            this.jobId = jobId;
+        }
+    }
+
+    private final JobDAO jobDAO;
+    private final String[] columnNames;
+    private final String[] sortColumns;
+    private final boolean excludePending;
+    private final RowMapper rowMapper;
+    private final ExecutorService executor;
+
+    private final Map<Integer, List<Object[]>> pages = new LinkedHashMap<Integer, List<Object[]>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Object[]>> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+    private final TreeMap<Integer, Cursor> cursors = new TreeMap<>();
+    private final Set<Integer> requested = new HashSet<>();
+
+    private int rowCount = 0;
+    private String sortColumn;
+    private boolean ascending = true;
+    // Bumped whenever loaded pages stop matching the data; older results are dropped
+    private long generation = 0;
+    // Page of the row painted last; read by the loader thread to drop requests scrolled past
+    private volatile int lastViewedPage = 0;
+
+    /**
+     * @param columnNames The column headers.
+     * @param sortColumns For each column, the JobDAO.SORT_COLUMNS entry it sorts by, or null if it cannot be sorted.
+     * @param defaultSort The sort column used until setSort is called.
+     * @param excludePending Whether jobs still pending approval are left out.
+     * @param rowMapper Builds the rows of a page.
+     */
+    public PagedJobTableModel(JobDAO jobDAO, String[] columnNames, String[] sortColumns, String defaultSort,
+                              boolean excludePending, RowMapper rowMapper) {
+        this.jobDAO = jobDAO;
+        this.columnNames = columnNames.clone();
+        this.sortColumns = sortColumns.clone();
+        this.sortColumn = defaultSort;
+        this.excludePending = excludePending;
+        this.rowMapper = rowMapper;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "JobPageLoader");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Reads the row count; runs on a loader thread, the result is passed to reset.
+     */
+    public int fetchRowCount() {
+        return jobDAO.countJobs(excludePending);
+    }
+
+    /**
+     * Takes a new row count after the data changed. Pages already shown stay on screen until
+     * their reloaded contents arrive, so a refresh does not blank the table.
+     */
+    public void reset(int newRowCount) {
+        generation++;
+        cursors.clear();
+        requested.clear();
+        int oldRowCount = rowCount;
+        rowCount = newRowCount;
+        if (newRowCount != oldRowCount) {
+            fireTableDataChanged();
+        }
+        for (Integer page : pages.keySet().toArray(new Integer[0])) {
+            request(page);
+        }
+    }
+
+    /**
+     * Sorts by a column, or reverses the order if it is already the sort column.
+     * Does nothing for a column that cannot be sorted.
+     */
+    public void setSort(int column) {
+        String newSortColumn = sortColumns[column];
+        if (newSortColumn == null) {
+            return;
+        }
+        ascending = !newSortColumn.equals(sortColumn) || !ascending;
+        sortColumn = newSortColumn;
+        generation++;
+        pages.clear();
+        cursors.clear();
+        requested.clear();
+        fireTableDataChanged();
+    }
+
+    public boolean isSortable(int column) {
+        return sortColumns[column] != null;
+    }
+
+    /**
+     * Whether a row's page is loaded; getValueAt returns null for rows that are not.
+     */
+    public boolean isRowLoaded(int row) {
+        return pages.containsKey(row / PAGE_SIZE);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / PAGE_SIZE;
+        lastViewedPage = page;
+        List<Object[]> rows = pages.get(page);
+        for (int p = page - PREFETCH_PAGES; p <= page + PREFETCH_PAGES; p++) {
+            if (p != page || rows == null) {
+                prefetch(p);
+            }
+        }
+        int index = row - page * PAGE_SIZE;
+        return rows != null && index < rows.size() ? rows.get(index)[column] : null;
+    }
+
+    private void prefetch(int page) {
+        if (page >= 0 && page * PAGE_SIZE < rowCount && !pages.containsKey(page)) {
+            request(page);
+        }
+    }
+
+    private void request(int page) {
+        if (!requested.add(page)) {
+            return;
+        }
+        long requestGeneration = generation;
+        String column = sortColumn;
+        boolean asc = ascending;
+        // The nearest page start known so far; the database skips forward from it
+        Map.Entry<Integer, Cursor> from = cursors.floorEntry(page);
+        executor.execute(() -> load(page, requestGeneration, column, asc, from));
+    }
+
+    // Runs on the loader thread
+    private void load(int page, long requestGeneration, String column, boolean asc, Map.Entry<Integer, Cursor> from) {
+        // A visible page plus its prefetch neighbours; the extra page covers a view spanning two pages
+        if (Math.abs(page - lastViewedPage) > PREFETCH_PAGES + 1) {
+            SwingUtilities.invokeLater(() -> {
+                if (requestGeneration == generation) {
+                    requested.remove(page);
+                    // A dropped reload leaves data that is out of date; it is read again when next shown
+                    pages.remove(page);
+                }
+            });
+            return;
+        }
+        JobDAO.JobPage result;
+        List<Object[]> rows;
+        try {
+            if (from != null) {
+                int skip = (page - from.getKey()) * PAGE_SIZE;
+                result = jobDAO.getJobPageAfter(column, asc, excludePending,
+                        from.getValue().sortValue, from.getValue().jobId, skip, PAGE_SIZE);
+            } else {
+                result = jobDAO.getJobPageAt(column, asc, excludePending, page * PAGE_SIZE, PAGE_SIZE);
+            }
+            rows = result.getJobs().isEmpty() ? List.of() : rowMapper.toRows(result.getJobs(), page * PAGE_SIZE);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Could not load job page " + page, e);
+            SwingUtilities.invokeLater(() -> {
+                if (requestGeneration == generation) {
+                    requested.remove(page);
+                }
+            });
+            return;
+        }
+
+        SwingUtilities.invokeLater(() -> {
+            if (requestGeneration != generation) {
+                return; // Sorted or refreshed since the request
+            }
+            requested.remove(page);
+            pages.put(page, rows);
+            if (result.getLastJobId() != null && rows.size() == PAGE_SIZE) {
+                cursors.put(page + 1, new Cursor(result.getLastSortValue(), result.getLastJobId()));
+            }
+            int first = page * PAGE_SIZE;
+            int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+            if (first <= last) {
+                fireTableRowsUpdated(first, last);
+            }
+        });
+    }
+}
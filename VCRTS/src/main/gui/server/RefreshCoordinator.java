@@ -0,0 +1,219 @@
+package gui.server;
+
+import dao.AppStateStore;
+import dao.ChangeNotifier;
+
+import javax.swing.JTabbedPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.Component;
+import java.awt.event.HierarchyEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Decides when the dashboard tabs reload, replacing a fixed refresh timer.
+ *
+ * Each tab registers a reload action and the ChangeNotifier topics it shows. A tab is stale
+ * when one of its topics has a newer version than when it last loaded. Change notifications
+ * are debounced: a burst of changes is collected until it has been quiet for DEBOUNCE_MS
+ * (or MAX_DELAY_MS has passed) and then only the visible tab is reloaded, once. Hidden
+ * tabs reload when they are selected, and only if they are stale.
+ *
+ * Client processes may write to the database directly, which the notifier cannot see, so
+ * the visible tab is also reloaded by a slow poll when it shows shared data. The poll starts
+ * at MIN_POLL_MS and doubles up to MAX_POLL_MS while nothing happens in this process.
+ * Data is read through the shared AppStateStore; a forced refresh drops the store's copy
+ * of the tab's topics first. All methods except the change listener must be called on
+ * the Event Dispatch Thread.
+ */
+public class RefreshCoordinator {
+    static final int DEBOUNCE_MS = 250;
+    static final int MAX_DELAY_MS = 1000;
+    static final int MIN_POLL_MS = 5000;
+    static final int MAX_POLL_MS = 60000;
+
+    // Topics stored in the database or data files, which other processes can also change
+    private static final Set<ChangeNotifier.Topic> SHARED_TOPICS = EnumSet.of(
+            ChangeNotifier.Topic.JOBS, ChangeNotifier.Topic.USERS,
+            ChangeNotifier.Topic.VEHICLES, ChangeNotifier.Topic.ALLOCATIONS);
+
+    private static final class View {
+        private final Component tab;
+        private final Runnable reload;
+        private final ChangeNotifier.Topic[] topics;
+        private final long[] loadedVersions;
+        private final boolean polled;
+
+        private View(Component tab, Runnable reload, ChangeNotifier.Topic[] topics) {
+            this.tab = tab;
+            this.reload = reload;
+            this.topics = topics.clone();
+            this.loadedVersions = new long[topics.length];
+            Arrays.fill(loadedVersions, -1); // Never loaded
+            boolean shared = false;
+            for (ChangeNotifier.Topic topic : topics) {
+                shared |= SHARED_TOPICS.contains(topic);
+            }
+            this.polled = shared;
+        }
+    }
+
+    private final JTabbedPane tabs;
+    private final AppStateStore store;
+    private final List<View> views = new ArrayList<>();
+    private final Consumer<ChangeNotifier.Topic> changeListener = topic -> signal();
+    private final AtomicBoolean signalPosted = new AtomicBoolean();
+    private final Timer debounceTimer;
+    private final Timer pollTimer;
+    private long burstStart = -1;
+    private int pollInterval = MIN_POLL_MS;
+
+    public RefreshCoordinator(JTabbedPane tabs) {
+        this.tabs = tabs;
+        this.store = AppStateStore.getInstance();
+        debounceTimer = new Timer(DEBOUNCE_MS, e -> flush());
+        debounceTimer.setRepeats(false);
+        pollTimer = new Timer(MIN_POLL_MS, e -> poll());
+        pollTimer.setRepeats(false);
+        tabs.addChangeListener(e -> {
+            resetPoll();
+            flush();
+        });
+        // The dashboard is usually built before its window is shown
+        tabs.addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && tabs.isShowing()) {
+                flush();
+            }
+        });
+    }
+
+    /**
+     * Registers the reload action of a tab.
+     * @param tab The tab's component in the tabbed pane.
+     * @param reload Starts reloading the tab; runs on the EDT and should hand slow work to a loader.
+     * @param topics The data the tab shows.
+     */
+    public void register(Component tab, Runnable reload, ChangeNotifier.Topic... topics) {
+        views.add(new View(tab, reload, topics));
+    }
+
+    /**
+     * Starts listening for changes and loads the visible tab.
+     */
+    public void start() {
+        store.subscribe(changeListener);
+        flush();
+        pollTimer.start();
+    }
+
+    public void stop() {
+        store.unsubscribe(changeListener);
+        debounceTimer.stop();
+        pollTimer.stop();
+    }
+
+    /**
+     * Reloads the visible tab now if it is stale, without waiting for the debounce delay.
+     * Used right after an action in this dashboard changed data.
+     */
+    public void refreshNow() {
+        debounceTimer.stop();
+        flush();
+    }
+
+    /**
+     * Reloads the visible tab even if nothing is known to have changed.
+     */
+    public void forceRefresh() {
+        View view = visibleView();
+        if (view != null) {
+            store.invalidate(view.topics);
+            load(view);
+        }
+    }
+
+    // Called on any thread for every change; at most one EDT task is queued at a time
+    private void signal() {
+        if (signalPosted.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::onChange);
+        }
+    }
+
+    private void onChange() {
+        signalPosted.set(false);
+        resetPoll();
+        long now = System.currentTimeMillis();
+        if (burstStart < 0) {
+            burstStart = now;
+        }
+        if (now - burstStart >= MAX_DELAY_MS) {
+            flush(); // A continuous stream of changes still repaints regularly
+        } else {
+            debounceTimer.restart();
+        }
+    }
+
+    private void flush() {
+        burstStart = -1;
+        View view = visibleView();
+        if (view != null && isStale(view)) {
+            load(view);
+        }
+    }
+
+    private void poll() {
+        View view = visibleView();
+        if (view != null && view.polled) {
+            load(view);
+        }
+        pollInterval = Math.min(pollInterval * 2, MAX_POLL_MS);
+        pollTimer.setInitialDelay(pollInterval);
+        pollTimer.restart();
+    }
+
+    private void resetPoll() {
+        if (pollInterval != MIN_POLL_MS) {
+            pollInterval = MIN_POLL_MS;
+            pollTimer.setInitialDelay(pollInterval);
+            if (pollTimer.isRunning()) {
+                pollTimer.restart();
+            }
+        }
+    }
+
+    private boolean isStale(View view) {
+        for (int i = 0; i < view.topics.length; i++) {
+            if (store.getVersion(view.topics[i]) != view.loadedVersions[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void load(View view) {
+        // Versions are read before the reload starts, so a change made during the load marks it stale again
+        for (int i = 0; i < view.topics.length; i++) {
+            view.loadedVersions[i] = store.getVersion(view.topics[i]);
+        }
+        view.reload.run();
+    }
+
+    private View visibleView() {
+        if (!tabs.isShowing()) {
+            return null;
+        }
+        Component selected = tabs.getSelectedComponent();
+        for (View view : views) {
+            if (view.tab == selected) {
+                return view;
+            }
+        }
+        return null;
+    }
+}
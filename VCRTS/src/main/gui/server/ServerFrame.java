@@ -3,14 +3,21 @@ package gui.server;
 import javax.swing.*;
 
 import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
+import gui.StartupTimer;
 import models.User;
+import net.ServerConnection;
 
 public class ServerFrame extends JFrame {
     private static final Logger logger = Logger.getLogger(ServerFrame.class.getName());
     private CardLayout cardLayout;
     private JPanel mainPanel;
     private User currentUser;
+    // Pages not built yet, by name; each is built the first time it is shown
+    private final Map<String, Supplier<? extends Component>> pageFactories = new HashMap<>();
 
     public ServerFrame() {
         setTitle("Server VCRTS Application");
@@ -21,10 +28,10 @@ public class ServerFrame extends JFrame {
         cardLayout = new CardLayout();
         mainPanel = new JPanel(cardLayout);
 
-        // Add static pages
+        // Add static pages; only the startup page is needed to open the window
         mainPanel.add(new StartupPageServer(this, "Welcome to the VCRTS Server Interface"), "startup");
-        mainPanel.add(new LoginPageServer(this), "login");
-        mainPanel.add(new CreateAccountPageServer(this), "createAccount");
+        pageFactories.put("login", () -> new LoginPageServer(this));
+        pageFactories.put("createAccount", () -> new CreateAccountPageServer(this));
 
         // Initially show the startup page.
         add(mainPanel);
@@ -32,9 +39,13 @@ public class ServerFrame extends JFrame {
     }
 
     /**
-     * Switches to the specified page.
+     * Switches to the specified page, building it first if it has not been shown before.
      */
     public void showPage(String pageName) {
+        Supplier<? extends Component> factory = pageFactories.remove(pageName);
+        if (factory != null) {
+            mainPanel.add(factory.get(), pageName);
+        }
         cardLayout.show(mainPanel, pageName);
     }
 
@@ -47,18 +58,17 @@ public class ServerFrame extends JFrame {
         this.currentUser = user;
 
         // Remove any previously added dashboard
-        Component[] components = mainPanel.getComponents();
-        for (Component comp : components) {
-            if (comp.getName() != null && comp.getName().equals("dashboard")) {
-                mainPanel.remove(comp);
-            }
-        }
+        removeDashboard();
 
         // Create a universal dashboard that can handle multiple roles
+        StartupTimer timer = new StartupTimer("Dashboard");
         UniversalDashboard dashboard = new UniversalDashboard(this, user);
         dashboard.setName("dashboard");
         mainPanel.add(dashboard, "dashboard");
+        timer.mark("build");
         showPage("dashboard");
+        // Runs after the layout and first paint queued by showing the dashboard
+        SwingUtilities.invokeLater(() -> timer.finish("shown"));
     }
 
     /**
@@ -72,11 +82,30 @@ public class ServerFrame extends JFrame {
      * Log out the current user and return to the startup page
      */
     public void logout() {
+        ServerConnection.endSession();
         this.currentUser = null;
         showPage("startup");
+        removeDashboard();
+    }
+
+    // Removes the dashboard and stops its timers, loader threads and socket server
+    private void removeDashboard() {
+        for (Component comp : mainPanel.getComponents()) {
+            if (comp.getName() != null && comp.getName().equals("dashboard")) {
+                mainPanel.remove(comp);
+                ((UniversalDashboard) comp).dispose();
+            }
+        }
     }
 
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new ServerFrame().setVisible(true));
+        StartupTimer timer = StartupTimer.sinceJvmStart("Server application");
+        SwingUtilities.invokeLater(() -> {
+            timer.mark("launch");
+            ServerFrame frame = new ServerFrame();
+            timer.mark("frame");
+            frame.setVisible(true);
+            SwingUtilities.invokeLater(() -> timer.finish("shown"));
+        });
     }
 }
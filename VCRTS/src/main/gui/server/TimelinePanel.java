@@ -0,0 +1,350 @@
+package gui.server;
+
+import dao.ScheduleTimeline;
+
+import javax.swing.JComponent;
+import javax.swing.JScrollPane;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gantt-style view of a ScheduleTimeline: one row per lane, one bar per scheduled job.
+ * Running jobs are green, jobs estimated to miss their deadline red, the rest blue, so
+ * gaps and late work stand out at a glance.
+ *
+ * The view is painted from square tiles of TILE_SIZE pixels. A tile is drawn once, from
+ * only the bars its lanes and time span overlap, and kept in a cache of the MAX_TILES most
+ * recently painted; scrolling over tiles already drawn only copies images. Tiles are
+ * dropped when the timeline or the zoom changes. Put the panel in a JScrollPane with
+ * install, which adds a time axis and lane labels that scroll with it.
+ */
+public class TimelinePanel extends JComponent implements Scrollable {
+    static final int TILE_SIZE = 256;
+    static final int MAX_TILES = 96;
+    static final int LANE_HEIGHT = 24;
+    private static final int BAR_INSET = 4;
+    private static final int LABEL_WIDTH = 160;
+    private static final int AXIS_HEIGHT = 22;
+    // Tick spacings the axis chooses from, in minutes
+    private static final long[] TICK_MINUTES = {5, 15, 30, 60, 120, 360, 720, 1440, 10080};
+    private static final DateTimeFormatter TICK_FORMATTER = DateTimeFormatter.ofPattern("MM-dd HH:mm");
+    private static final DateTimeFormatter TIP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final Color LANE_STRIPE = new Color(245, 247, 250);
+    private static final Color QUEUED_COLOR = new Color(0, 102, 204);
+    private static final Color RUNNING_COLOR = new Color(40, 160, 70);
+    private static final Color LATE_COLOR = new Color(210, 50, 50);
+    private static final Font BAR_FONT = new Font("Arial", Font.PLAIN, 11);
+
+    private ScheduleTimeline timeline;
+    private long millisPerPixel = 60_000;
+    private final Map<Long, BufferedImage> tiles = new LinkedHashMap<Long, BufferedImage>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+            return size() > MAX_TILES;
+        }
+    };
+
+    private final JComponent axis = new JComponent() {
+        @Override
+        protected void paintComponent(Graphics g) {
+            paintAxis(g);
+        }
+    };
+    private final JComponent laneLabels = new JComponent() {
+        @Override
+        protected void paintComponent(Graphics g) {
+            paintLaneLabels(g);
+        }
+    };
+
+    public TimelinePanel() {
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setToolTipText(""); // Tool tips come from getToolTipText(MouseEvent)
+        axis.setOpaque(true);
+        axis.setBackground(Color.WHITE);
+        laneLabels.setOpaque(true);
+        laneLabels.setBackground(Color.WHITE);
+        contentChanged();
+    }
+
+    /**
+     * Shows the panel in a scroll pane, with the time axis and lane labels as its headers.
+     */
+    public void install(JScrollPane scrollPane) {
+        scrollPane.setViewportView(this);
+        scrollPane.setColumnHeaderView(axis);
+        scrollPane.setRowHeaderView(laneLabels);
+    }
+
+    /**
+     * Replaces the timeline shown. Must be called on the Event Dispatch Thread.
+     */
+    public void setTimeline(ScheduleTimeline timeline) {
+        this.timeline = timeline;
+        contentChanged();
+    }
+
+    public ScheduleTimeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Sets the zoom level as the time one pixel stands for.
+     */
+    public void setMillisPerPixel(long millisPerPixel) {
+        this.millisPerPixel = Math.max(1, millisPerPixel);
+        contentChanged();
+    }
+
+    public long getMillisPerPixel() {
+        return millisPerPixel;
+    }
+
+    private void contentChanged() {
+        tiles.clear();
+        // The headers follow the panel's size
+        Dimension size = getPreferredSize();
+        axis.setPreferredSize(new Dimension(size.width, AXIS_HEIGHT));
+        laneLabels.setPreferredSize(new Dimension(LABEL_WIDTH, size.height));
+        revalidate();
+        repaint();
+        axis.revalidate();
+        axis.repaint();
+        laneLabels.revalidate();
+        laneLabels.repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (timeline == null) {
+            return new Dimension(0, 0);
+        }
+        long span = timeline.getRangeEnd() - timeline.getRangeStart();
+        long width = span / millisPerPixel + TILE_SIZE; // Room to show the last bar's end
+        return new Dimension((int) Math.min(width, Integer.MAX_VALUE / 2), timeline.getLaneCount() * LANE_HEIGHT);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (timeline == null) {
+            return;
+        }
+        int firstColumn = Math.max(0, clip.x / TILE_SIZE);
+        int lastColumn = (clip.x + clip.width - 1) / TILE_SIZE;
+        int firstRow = Math.max(0, clip.y / TILE_SIZE);
+        int lastRow = Math.min((clip.y + clip.height - 1) / TILE_SIZE, (getHeight() - 1) / TILE_SIZE);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                g.drawImage(tile(column, row), column * TILE_SIZE, row * TILE_SIZE, null);
+            }
+        }
+    }
+
+    private BufferedImage tile(int column, int row) {
+        long key = ((long) column << 32) | row;
+        BufferedImage image = tiles.get(key);
+        if (image == null) {
+            image = renderTile(column, row);
+            tiles.put(key, image);
+        }
+        return image;
+    }
+
+    private BufferedImage renderTile(int column, int row) {
+        BufferedImage image = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+            g.setFont(BAR_FONT);
+            FontMetrics metrics = g.getFontMetrics();
+
+            int x0 = column * TILE_SIZE;
+            int y0 = row * TILE_SIZE;
+            long from = timeline.getRangeStart() + x0 * millisPerPixel;
+            long to = from + TILE_SIZE * millisPerPixel;
+            int firstLane = y0 / LANE_HEIGHT;
+            int lastLane = Math.min((y0 + TILE_SIZE - 1) / LANE_HEIGHT, timeline.getLaneCount() - 1);
+
+            for (int lane = firstLane; lane <= lastLane; lane++) {
+                int laneY = lane * LANE_HEIGHT - y0;
+                if (lane % 2 == 1) {
+                    g.setColor(LANE_STRIPE);
+                    g.fillRect(0, laneY, TILE_SIZE, LANE_HEIGHT);
+                }
+                timeline.query(lane, from, to, bar -> {
+                    // Bars are positioned in whole-panel coordinates so they line up across tiles
+                    long startX = (timeline.getStart(bar) - timeline.getRangeStart()) / millisPerPixel - x0;
+                    long endX = Math.max(startX + 1, (timeline.getEnd(bar) - timeline.getRangeStart()) / millisPerPixel - x0);
+                    // Clamped to the tile, since long bars can be far wider than an int at fine zoom
+                    int left = (int) Math.max(startX, -1);
+                    int right = (int) Math.min(endX, TILE_SIZE + 1);
+                    g.setColor(timeline.isLate(bar) ? LATE_COLOR
+                            : timeline.isRunning(bar) ? RUNNING_COLOR : QUEUED_COLOR);
+                    g.fillRect(left, laneY + BAR_INSET, right - left, LANE_HEIGHT - 2 * BAR_INSET);
+                    if (endX - startX > 3 && endX <= TILE_SIZE) {
+                        g.setColor(Color.WHITE);
+                        g.drawLine(right - 1, laneY + BAR_INSET, right - 1, laneY + LANE_HEIGHT - BAR_INSET - 1);
+                    }
+                    // A label crossing a tile edge is drawn in both tiles, each showing its part
+                    String label = timeline.getJobId(bar);
+                    int labelWidth = metrics.stringWidth(label);
+                    if (labelWidth + 6 < endX - startX && startX + 3 + labelWidth > 0 && startX < TILE_SIZE) {
+                        g.setColor(Color.WHITE);
+                        g.drawString(label, (int) startX + 3, laneY + (LANE_HEIGHT + metrics.getAscent()) / 2 - 2);
+                    }
+                });
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        if (timeline == null) {
+            return null;
+        }
+        int lane = event.getY() / LANE_HEIGHT;
+        if (lane < 0 || lane >= timeline.getLaneCount()) {
+            return null;
+        }
+        long time = timeline.getRangeStart() + event.getX() * millisPerPixel;
+        int[] found = {-1};
+        timeline.query(lane, time, time + millisPerPixel, bar -> {
+            if (found[0] < 0) {
+                found[0] = bar;
+            }
+        });
+        int bar = found[0];
+        if (bar < 0) {
+            return timeline.getLaneLabel(lane) + ": idle";
+        }
+        // Job IDs and names are typed by users, so they are escaped before going into the HTML
+        StringBuilder tip = new StringBuilder("<html><b>").append(escapeHtml(timeline.getJobId(bar))).append("</b> ")
+                .append(escapeHtml(timeline.getJobName(bar)))
+                .append("<br>").append(format(timeline.getStart(bar), TIP_FORMATTER))
+                .append(" to ").append(format(timeline.getEnd(bar), TIP_FORMATTER));
+        if (timeline.getDeadline(bar) >= 0) {
+            tip.append("<br>Deadline: ").append(format(timeline.getDeadline(bar), TIP_FORMATTER).substring(0, 10));
+            if (timeline.isLate(bar)) {
+                tip.append(" <font color='red'>(late)</font>");
+            }
+        }
+        if (timeline.isRunning(bar)) {
+            tip.append("<br>In progress");
+        }
+        return tip.append("</html>").toString();
+    }
+
+    private static String escapeHtml(String text) {
+        return text == null ? "" : text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private void paintAxis(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        g.setColor(axis.getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        g.setColor(Color.GRAY);
+        g.drawLine(clip.x, AXIS_HEIGHT - 1, clip.x + clip.width, AXIS_HEIGHT - 1);
+        if (timeline == null) {
+            return;
+        }
+        g.setFont(BAR_FONT);
+        FontMetrics metrics = g.getFontMetrics();
+        // The smallest spacing that leaves room for a label between ticks
+        long tickMillis = TICK_MINUTES[TICK_MINUTES.length - 1] * 60_000;
+        for (long minutes : TICK_MINUTES) {
+            if (minutes * 60_000 / millisPerPixel >= metrics.stringWidth("00-00 00:00") + 12) {
+                tickMillis = minutes * 60_000;
+                break;
+            }
+        }
+        long start = timeline.getRangeStart();
+        long first = start + clip.x * millisPerPixel;
+        long offset = ZoneId.systemDefault().getRules().getOffset(Instant.ofEpochMilli(first)).getTotalSeconds() * 1000L;
+        // Ticks fall on whole local hours and days
+        long tick = Math.floorDiv(first + offset, tickMillis) * tickMillis - offset;
+        long last = start + (clip.x + clip.width) * millisPerPixel;
+        for (; tick <= last; tick += tickMillis) {
+            int x = (int) ((tick - start) / millisPerPixel);
+            g.drawLine(x, AXIS_HEIGHT - 6, x, AXIS_HEIGHT - 1);
+            g.drawString(format(tick, TICK_FORMATTER), x + 2, AXIS_HEIGHT - 8);
+        }
+    }
+
+    private void paintLaneLabels(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        g.setColor(laneLabels.getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (timeline == null) {
+            return;
+        }
+        g.setFont(BAR_FONT);
+        FontMetrics metrics = g.getFontMetrics();
+        int firstLane = clip.y / LANE_HEIGHT;
+        int lastLane = Math.min((clip.y + clip.height) / LANE_HEIGHT, timeline.getLaneCount() - 1);
+        for (int lane = firstLane; lane <= lastLane; lane++) {
+            int y = lane * LANE_HEIGHT;
+            if (lane % 2 == 1) {
+                g.setColor(LANE_STRIPE);
+                g.fillRect(0, y, LABEL_WIDTH, LANE_HEIGHT);
+            }
+            g.setColor(Color.DARK_GRAY);
+            g.drawString(timeline.getLaneLabel(lane), 6, y + (LANE_HEIGHT + metrics.getAscent()) / 2 - 2);
+        }
+    }
+
+    private static String format(long millis, DateTimeFormatter formatter) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).format(formatter);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(800, 10 * LANE_HEIGHT);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? LANE_HEIGHT : TILE_SIZE / 4;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -35,16 +35,13 @@ public class UniversalDashboard extends JPanel {
         contentPanel = new JPanel(contentLayout);
         add(contentPanel, BorderLayout.CENTER);
 
-        // Initialize dashboard for the user's current role
-        initializeRoleDashboards();
-
-        // Show the appropriate dashboard
+        // Show the appropriate dashboard; each role's dashboard is built the first time it is shown
         if (user.hasRole("cloud_controller")) {
             // Cloud controllers get the cloud controller dashboard
             showCloudControllerDashboard();
         } else {
             // Regular users get either vehicle owner or job owner dashboard
-            if (user.getRole().equals("vehicle_owner")) {
+            if ("vehicle_owner".equals(user.getRole())) {
                 switchToVehicleOwner();
             } else {
                 switchToJobOwner();
@@ -101,26 +98,24 @@ public class UniversalDashboard extends JPanel {
         return panel;
     }
 
-    private void initializeRoleDashboards() {
-        if (user.hasRole("cloud_controller")) {
-            // Cloud controllers only get the cloud controller dashboard
-            cloudDashboard = new CloudControllerDashboard();
-            contentPanel.add(cloudDashboard, "cloud_controller");
-        } else {
-            // Regular users get both vehicle owner and job owner dashboards
-            if (user.hasRole("job_owner")) {
-                clientDashboard = new ClientDashboard(user);
-                contentPanel.add(clientDashboard, "job_owner");
-            }
-
-            if (user.hasRole("vehicle_owner")) {
-                ownerDashboard = new OwnerDashboard(user.getUserId());
-                contentPanel.add(ownerDashboard, "vehicle_owner");
-            }
+    /**
+     * Stops the background work of the role dashboards built so far; called when this
+     * dashboard is removed.
+     */
+    public void dispose() {
+        if (cloudDashboard != null) {
+            cloudDashboard.dispose();
+        }
+        if (ownerDashboard != null) {
+            ownerDashboard.dispose();
         }
     }
 
     private void showCloudControllerDashboard() {
+        if (cloudDashboard == null) {
+            cloudDashboard = new CloudControllerDashboard();
+            contentPanel.add(cloudDashboard, "cloud_controller");
+        }
         contentLayout.show(contentPanel, "cloud_controller");
     }
 
@@ -129,12 +124,15 @@ public class UniversalDashboard extends JPanel {
         if (vehicleOwnerButton != null) {
             vehicleOwnerButton.setSelected(true);
         }
-        contentLayout.show(contentPanel, "vehicle_owner");
 
-        // Refresh vehicle data
+        // Refresh vehicle data; a dashboard built now loads its own
         if (ownerDashboard != null) {
             ownerDashboard.refreshVehicleTable();
+        } else if (user.hasRole("vehicle_owner")) {
+            ownerDashboard = new OwnerDashboard(user.getUserId());
+            contentPanel.add(ownerDashboard, "vehicle_owner");
         }
+        contentLayout.show(contentPanel, "vehicle_owner");
     }
 
     private void switchToJobOwner() {
@@ -142,11 +140,14 @@ public class UniversalDashboard extends JPanel {
         if (jobOwnerButton != null) {
             jobOwnerButton.setSelected(true);
         }
-        contentLayout.show(contentPanel, "job_owner");
 
-        // Refresh job data
+        // Refresh job data; a dashboard built now loads its own
         if (clientDashboard != null) {
             clientDashboard.updateTable();
+        } else if (user.hasRole("job_owner")) {
+            clientDashboard = new ClientDashboard(user);
+            contentPanel.add(clientDashboard, "job_owner");
         }
+        contentLayout.show(contentPanel, "job_owner");
     }
 }
@@ -12,16 +12,24 @@ public class Job {
     private String status;
     private String createdTimestamp;
 
+    // Parsed once from the strings above; -1 when a value is missing or malformed
+    private long durationSeconds;
+    private long deadlineMillis;
+    private long createdMillis;
+
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     public Job(String jobId, String jobName, int jobOwnerId, String duration, String deadline, String status) {
         this.jobId = jobId;
         this.jobName = jobName;
         this.jobOwnerId = jobOwnerId;
-        this.duration = duration;
-        this.deadline = deadline;
+        setDuration(duration);
+        setDeadline(deadline);
         this.status = status;
-        this.createdTimestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+        // One clock reading for both, so the string and the millis name the same second
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        this.createdTimestamp = now.format(TIMESTAMP_FORMATTER);
+        this.createdMillis = TimeFields.toMillis(now);
     }
 
     // Constructor with timestamp parameter for loading from file
@@ -29,10 +37,10 @@ public class Job {
         this.jobId = jobId;
         this.jobName = jobName;
         this.jobOwnerId = jobOwnerId;
-        this.duration = duration;
-        this.deadline = deadline;
+        setDuration(duration);
+        setDeadline(deadline);
         this.status = status;
-        this.createdTimestamp = createdTimestamp;
+        setCreatedTimestamp(createdTimestamp);
     }
 
     // Getters and setters
@@ -43,13 +51,32 @@ public class Job {
     public int getJobOwnerId() { return jobOwnerId; }
     public void setJobOwnerId(int jobOwnerId) { this.jobOwnerId = jobOwnerId; }
     public String getDuration() { return duration; }
-    public void setDuration(String duration) { this.duration = duration; }
+    public void setDuration(String duration) {
+        this.duration = duration;
+        this.durationSeconds = TimeFields.parseDurationSeconds(duration);
+    }
     public String getDeadline() { return deadline; }
-    public void setDeadline(String deadline) { this.deadline = deadline; }
+    public void setDeadline(String deadline) {
+        this.deadline = deadline;
+        this.deadlineMillis = TimeFields.parseDateMillis(deadline);
+    }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+    /** The status as a JobState, or null if the stored status is not a known state. */
+    public JobState getState() { return JobState.fromLabel(status); }
+    public void setState(JobState state) { this.status = state.getLabel(); }
     public String getCreatedTimestamp() { return createdTimestamp; }
-    public void setCreatedTimestamp(String createdTimestamp) { this.createdTimestamp = createdTimestamp; }
+    public void setCreatedTimestamp(String createdTimestamp) {
+        this.createdTimestamp = createdTimestamp;
+        this.createdMillis = TimeFields.parseTimestampMillis(createdTimestamp);
+    }
+
+    /** Duration in seconds, or -1 if the duration is not a valid HH:mm:ss value. */
+    public long getDurationSeconds() { return durationSeconds; }
+    /** Start of the deadline day in epoch milliseconds, or -1 if unknown. */
+    public long getDeadlineMillis() { return deadlineMillis; }
+    /** Creation time in epoch milliseconds, or -1 if unknown. */
+    public long getCreatedMillis() { return createdMillis; }
 
     public static String getCurrentTimestamp() {
         return LocalDateTime.now().format(TIMESTAMP_FORMATTER);
@@ -0,0 +1,70 @@
+package models;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The lifecycle of a job. The label is the value stored in jobs.status.
+ *
+ * Pending Approval -> Queued -> In Progress -> Completed. The scheduler may also put an
+ * In Progress job back in the queue when another job already holds the single running slot.
+ * Completed is final.
+ */
+public enum JobState {
+    PENDING_APPROVAL("Pending Approval"),
+    QUEUED("Queued"),
+    IN_PROGRESS("In Progress"),
+    COMPLETED("Completed");
+
+    private final String label;
+    private Set<JobState> next;
+
+    static {
+        PENDING_APPROVAL.next = EnumSet.of(QUEUED);
+        QUEUED.next = EnumSet.of(IN_PROGRESS);
+        IN_PROGRESS.next = EnumSet.of(COMPLETED, QUEUED);
+        COMPLETED.next = EnumSet.noneOf(JobState.class);
+        for (JobState state : values()) {
+            state.next = Collections.unmodifiableSet(state.next);
+        }
+    }
+
+    JobState(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns the states this state may move to.
+     */
+    public Set<JobState> getNextStates() {
+        return next;
+    }
+
+    public boolean canTransitionTo(JobState target) {
+        return target != null && next.contains(target);
+    }
+
+    /**
+     * Returns the state with this label, or null if the label is not a known state.
+     */
+    public static JobState fromLabel(String label) {
+        if (label != null) {
+            for (JobState state : values()) {
+                if (state.label.equals(label)) {
+                    return state;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -3,34 +3,26 @@ package models;
 public class PendingRequest {
     public enum RequestType { JOB, VEHICLE }
 
-    private static int nextId = 1; // Simple ID generation for the simulation
-
     private int requestId;
     private RequestType type;
     private Object data; // Will hold either a Job or Vehicle object
+    private int submitterId; // User ID of the submitter, -1 if unknown
     private String submittedByInfo; // e.g., "User ID: 1 (Job Owner)"
 
-    public PendingRequest(RequestType type, Object data, User submittedBy) {
-        this.requestId = nextId++;
+    // Request IDs are assigned by PendingRequestQueue, which keeps the sequence in its journal
+    public PendingRequest(int requestId, RequestType type, Object data, int submitterId, String submittedByInfo) {
+        this.requestId = requestId;
         this.type = type;
         this.data = data;
-        if (submittedBy != null) {
-            this.submittedByInfo = String.format("User ID: %d (%s)", submittedBy.getUserId(), submittedBy.getFullName());
-        } else {
-            this.submittedByInfo = "Unknown";
-        }
+        this.submitterId = submitterId;
+        this.submittedByInfo = submittedByInfo != null ? submittedByInfo : "Unknown";
     }
-public static int getNextId() {
-    return nextId;
-}
 
-public static void setNextId(int id) {
-    nextId = id;
-}
     // Getters
     public int getRequestId() { return requestId; }
     public RequestType getType() { return type; }
     public Object getData() { return data; }
+    public int getSubmitterId() { return submitterId; }
     public String getSubmittedByInfo() { return submittedByInfo; }
 
     @Override
@@ -0,0 +1,127 @@
+package models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Parses the duration, date and timestamp strings stored with jobs and vehicles.
+ * Job and Vehicle call these once when a value is set and keep the result as a long, so
+ * scheduling and sorting never parse strings or go through a DateTimeFormatter.
+ */
+final class TimeFields {
+    /** Returned for a value that is missing or cannot be parsed. */
+    static final long UNKNOWN = -1;
+
+    private TimeFields() {
+    }
+
+    /**
+     * Parses "HH:mm:ss" (hours may have more than two digits) into seconds.
+     */
+    static long parseDurationSeconds(String value) {
+        if (value == null) {
+            return UNKNOWN;
+        }
+        String[] parts = value.trim().split(":");
+        if (parts.length != 3) {
+            return UNKNOWN;
+        }
+        long hours = parseDigits(parts[0]);
+        long minutes = parseDigits(parts[1]);
+        long seconds = parseDigits(parts[2]);
+        if (hours < 0 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59) {
+            return UNKNOWN;
+        }
+        return hours * 3600 + minutes * 60 + seconds;
+    }
+
+    /**
+     * Parses "yyyy-MM-dd HH:mm:ss" in the local time zone into epoch milliseconds.
+     * A 'T' separator and the fractional seconds JDBC appends (".0") are accepted.
+     */
+    static long parseTimestampMillis(String value) {
+        if (value == null) {
+            return UNKNOWN;
+        }
+        String s = value.trim();
+        if (s.length() < 19 || s.charAt(4) != '-' || s.charAt(7) != '-'
+                || (s.charAt(10) != ' ' && s.charAt(10) != 'T') || s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return UNKNOWN;
+        }
+        int year = parseYear(s);
+        int month = parseMonth(s);
+        int day = parseDay(s);
+        long hour = parseDigits(s.substring(11, 13));
+        long minute = parseDigits(s.substring(14, 16));
+        long second = parseDigits(s.substring(17, 19));
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return UNKNOWN;
+        }
+        try {
+            return toMillis(LocalDateTime.of(year, month, day, (int) hour, (int) minute, (int) second));
+        } catch (RuntimeException e) {
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * Converts a local date and time to epoch milliseconds in the local time zone.
+     */
+    static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Parses "yyyy-MM-dd" into epoch milliseconds at the start of that day in the local time zone.
+     */
+    static long parseDateMillis(String value) {
+        if (value == null) {
+            return UNKNOWN;
+        }
+        String s = value.trim();
+        if (s.length() < 10 || s.charAt(4) != '-' || s.charAt(7) != '-') {
+            return UNKNOWN;
+        }
+        int year = parseYear(s);
+        int month = parseMonth(s);
+        int day = parseDay(s);
+        if (year < 0 || month < 0 || day < 0) {
+            return UNKNOWN;
+        }
+        try {
+            return LocalDate.of(year, month, day).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (RuntimeException e) {
+            return UNKNOWN;
+        }
+    }
+
+    private static int parseYear(String s) {
+        return (int) parseDigits(s.substring(0, 4));
+    }
+
+    private static int parseMonth(String s) {
+        return (int) parseDigits(s.substring(5, 7));
+    }
+
+    private static int parseDay(String s) {
+        return (int) parseDigits(s.substring(8, 10));
+    }
+
+    // Returns -1 unless the string is a non-empty run of ASCII digits
+    private static long parseDigits(String s) {
+        if (s.isEmpty() || s.length() > 9) {
+            return -1;
+        }
+        long result = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+}
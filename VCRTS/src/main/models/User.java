@@ -1,14 +1,19 @@
 package models;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 public class User {
+    // Bits for the roles the application checks, so hasRole does not scan the role list
+    public static final int ROLE_JOB_OWNER = 1;
+    public static final int ROLE_VEHICLE_OWNER = 1 << 1;
+    public static final int ROLE_CLOUD_CONTROLLER = 1 << 2;
+
     private int userId;
     private String fullName;
     private String email;
     private List<String> roles;
+    private int roleMask; // ROLE_* bits for the known roles in the list
     private String password; // Hashed password only
     private String currentRole; // Track the currently active role
 
@@ -17,11 +22,17 @@ public class User {
         this.email = email;
         setRoles(roles);
         this.password = password;
+    }
 
-        // Default to first role
-        if (this.roles != null && !this.roles.isEmpty()) {
-            this.currentRole = this.roles.get(0);
-        }
+    // Copy constructor (used by UserCache so callers never share an instance)
+    public User(User other) {
+        this.userId = other.userId;
+        this.fullName = other.fullName;
+        this.email = other.email;
+        this.roles = other.roles != null ? new ArrayList<>(other.roles) : new ArrayList<>();
+        this.roleMask = other.roleMask;
+        this.password = other.password;
+        this.currentRole = other.currentRole;
     }
 
     // Getters and setters
@@ -53,15 +64,40 @@ public class User {
         return roles;
     }
 
+    /**
+     * Sets the roles from a comma-separated list, as typed for a new account. Users read
+     * from the database get theirs through addRole, one user_roles row at a time.
+     */
     public void setRoles(String rolesStr) {
         // Parse comma-separated roles
+        this.roles = new ArrayList<>();
+        this.roleMask = 0;
         if (rolesStr != null && !rolesStr.isEmpty()) {
-            this.roles = new ArrayList<>(Arrays.asList(rolesStr.split(",")));
-        } else {
-            this.roles = new ArrayList<>();
+            for (String role : rolesStr.split(",")) {
+                addRole(role.trim());
+            }
         }
     }
 
+    /**
+     * Returns the ROLE_* bit for a role name, or 0 if the role is not one the application knows.
+     */
+    public static int roleBit(String role) {
+        if (role == null) {
+            return 0;
+        }
+        switch (role) {
+            case "job_owner": return ROLE_JOB_OWNER;
+            case "vehicle_owner": return ROLE_VEHICLE_OWNER;
+            case "cloud_controller": return ROLE_CLOUD_CONTROLLER;
+            default: return 0;
+        }
+    }
+
+    public int getRoleMask() {
+        return roleMask;
+    }
+
     public String getRolesAsString() {
         if (roles == null || roles.isEmpty()) {
             return "";
@@ -73,12 +109,22 @@ public class User {
         if (this.roles == null) {
             this.roles = new ArrayList<>();
         }
-        if (!this.roles.contains(role)) {
-            this.roles.add(role);
+        if (role == null || role.isEmpty() || this.roles.contains(role)) {
+            return;
+        }
+        this.roles.add(role);
+        this.roleMask |= roleBit(role);
+        // Default to first role
+        if (this.currentRole == null) {
+            this.currentRole = role;
         }
     }
 
     public boolean hasRole(String role) {
+        int bit = roleBit(role);
+        if (bit != 0) {
+            return (roleMask & bit) != 0;
+        }
         return roles != null && roles.contains(role);
     }
 
@@ -13,6 +13,10 @@ public class Vehicle {
     private String residencyTime;
     private String registeredTimestamp;
 
+    // Parsed once from the strings above; -1 when a value is missing or malformed
+    private long residencySeconds;
+    private long registeredMillis;
+
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     // Constructor with the free-form ownerId and vehicleOwnerId
@@ -23,8 +27,8 @@ public class Vehicle {
         this.make = make;
         this.year = year;
         this.vin = vin;
-        this.residencyTime = residencyTime;
-        this.registeredTimestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+        setResidencyTime(residencyTime);
+        setRegisteredNow();
     }
 
     // Constructor with timestamp parameter
@@ -35,8 +39,8 @@ public class Vehicle {
         this.make = make;
         this.year = year;
         this.vin = vin;
-        this.residencyTime = residencyTime;
-        this.registeredTimestamp = registeredTimestamp;
+        setResidencyTime(residencyTime);
+        setRegisteredTimestamp(registeredTimestamp);
     }
 
     // Backward compatibility constructor (converts int to String for ownerId)
@@ -47,8 +51,15 @@ public class Vehicle {
         this.make = make;
         this.year = year;
         this.vin = vin;
-        this.residencyTime = residencyTime;
-        this.registeredTimestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+        setResidencyTime(residencyTime);
+        setRegisteredNow();
+    }
+
+    // One clock reading for both, so the string and the millis name the same second
+    private void setRegisteredNow() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        this.registeredTimestamp = now.format(TIMESTAMP_FORMATTER);
+        this.registeredMillis = TimeFields.toMillis(now);
     }
 
     // Backward compatibility constructor with timestamp
@@ -59,8 +70,22 @@ public class Vehicle {
         this.make = make;
         this.year = year;
         this.vin = vin;
-        this.residencyTime = residencyTime;
-        this.registeredTimestamp = registeredTimestamp;
+        setResidencyTime(residencyTime);
+        setRegisteredTimestamp(registeredTimestamp);
+    }
+
+    // Copy constructor; keeps the parsed fields instead of parsing the strings again
+    public Vehicle(Vehicle other) {
+        this.ownerId = other.ownerId;
+        this.vehicleOwnerId = other.vehicleOwnerId;
+        this.model = other.model;
+        this.make = other.make;
+        this.year = other.year;
+        this.vin = other.vin;
+        this.residencyTime = other.residencyTime;
+        this.registeredTimestamp = other.registeredTimestamp;
+        this.residencySeconds = other.residencySeconds;
+        this.registeredMillis = other.registeredMillis;
     }
 
     // Getters and setters
@@ -118,6 +143,7 @@ public class Vehicle {
     
     public void setResidencyTime(String residencyTime) { 
         this.residencyTime = residencyTime; 
+        this.residencySeconds = TimeFields.parseDurationSeconds(residencyTime);
     }
     
     public String getRegisteredTimestamp() { 
@@ -126,6 +152,21 @@ public class Vehicle {
     
     public void setRegisteredTimestamp(String registeredTimestamp) { 
         this.registeredTimestamp = registeredTimestamp; 
+        this.registeredMillis = TimeFields.parseTimestampMillis(registeredTimestamp);
+    }
+
+    /**
+     * Residency time in seconds, or -1 if it is not a valid HH:mm:ss value.
+     */
+    public long getResidencySeconds() {
+        return residencySeconds;
+    }
+
+    /**
+     * Registration time in epoch milliseconds, or -1 if unknown.
+     */
+    public long getRegisteredMillis() {
+        return registeredMillis;
     }
 
     public static String getCurrentTimestamp() {
@@ -0,0 +1,223 @@
+package net;
+
+import models.Job;
+import models.PendingRequest;
+import models.Vehicle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves a single client connection of the ControllerServer.
+ */
+class ClientHandler implements Runnable {
+    private static final Logger logger = Logger.getLogger(ClientHandler.class.getName());
+    // Accept requests without a session token, identified only by the user ID they claim.
+    // Only for clients that predate login sessions; off unless vcrts.server.allowTokenlessRequests is set
+    private static final boolean ALLOW_TOKENLESS_REQUESTS = Boolean.getBoolean("vcrts.server.allowTokenlessRequests");
+
+    private final ControllerServer server;
+    private final Socket clientSocket;
+    private PrintWriter out;
+    private BufferedReader in;
+    private CountingInputStream countingIn;
+    private CountingOutputStream countingOut;
+    private volatile boolean running = true;
+    private volatile long lastReceivedAt = System.currentTimeMillis();
+    private volatile String resumeToken;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    ClientHandler(ControllerServer server, Socket socket) {
+        this.server = server;
+        this.clientSocket = socket;
+        try {
+            countingOut = new CountingOutputStream(clientSocket.getOutputStream());
+            countingIn = new CountingInputStream(clientSocket.getInputStream());
+            out = new PrintWriter(countingOut, true);
+            in = new BufferedReader(new InputStreamReader(countingIn));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not open client streams", e);
+            running = false;
+        }
+    }
+
+    @Override
+    public void run() {
+        boolean timedOut = false;
+        try {
+            String inputLine;
+            while (running && (inputLine = in.readLine()) != null) {
+                lastReceivedAt = System.currentTimeMillis();
+                processMessage(inputLine);
+            }
+        } catch (SocketTimeoutException e) {
+            timedOut = true;
+        } catch (IOException e) {
+            if (running) {
+                logger.log(Level.FINE, "Client connection error", e);
+            }
+        } finally {
+            if (timedOut) {
+                reap("no data for " + ControllerServer.IDLE_TIMEOUT_MS + " ms");
+            } else {
+                close();
+            }
+        }
+    }
+
+    private void processMessage(String message) {
+        if (Protocol.PING.equals(message)) {
+            sendMessage(Protocol.PONG);
+            return;
+        }
+        // Handled before logging so passwords never reach the log
+        if (message.startsWith(Protocol.AUTH)) {
+            server.authenticate(this, message.substring(Protocol.AUTH.length()));
+            return;
+        }
+        logger.fine("Received message: " + message);
+
+        // Session handshake: replay the events this client missed while disconnected
+        if (message.startsWith(Protocol.HELLO)) {
+            server.resumeSession(this, message.substring(Protocol.HELLO.length()));
+            return;
+        }
+
+        if (message.startsWith(Protocol.LOGOUT)) {
+            server.getSessionService().revoke(message.substring(Protocol.LOGOUT.length()));
+            return;
+        }
+
+        // SESSION:<token>|<request>; the token identifies the user without a database lookup
+        if (message.startsWith(Protocol.SESSION)) {
+            int separator = message.indexOf('|');
+            if (separator < 0) {
+                logger.warning("Malformed session request: " + message);
+                return;
+            }
+            String token = message.substring(Protocol.SESSION.length(), separator);
+            processRequest(message.substring(separator + 1), true, server.getSessionService().lookup(token));
+            return;
+        }
+        processRequest(message, false, null);
+    }
+
+    /**
+     * @param hasToken Whether the request was sent with a session token.
+     * @param session The session for that token, or null if the token was not accepted.
+     */
+    private void processRequest(String message, boolean hasToken, SessionService.Session session) {
+        if (message.startsWith("NEW_VEHICLE:")) {
+            // Format: NEW_VEHICLE:ownerId,vehicleOwnerId,make,model,year,vin,residencyTime
+            String[] parts = message.substring("NEW_VEHICLE:".length()).split(",");
+            if (parts.length >= 7) {
+                try {
+                    int vehicleOwnerId = Integer.parseInt(parts[1]); // Actual user ID
+                    if (checkSession(PendingRequest.RequestType.VEHICLE, parts[5], vehicleOwnerId, hasToken, session)) {
+                        Vehicle vehicle = new Vehicle(parts[0], vehicleOwnerId, parts[3], parts[2], parts[4], parts[5], parts[6]);
+                        server.queueRequest(this, PendingRequest.RequestType.VEHICLE, vehicle, vehicleOwnerId, parts[5],
+                                session != null ? session.getDescription() : null);
+                    }
+                } catch (NumberFormatException e) {
+                    logger.warning("Invalid vehicle request: " + message);
+                }
+            }
+        } else if (message.startsWith("NEW_JOB:")) {
+            // Format: NEW_JOB:userId,jobId,jobName,duration,deadline
+            String[] parts = message.substring("NEW_JOB:".length()).split(",");
+            if (parts.length >= 5) {
+                try {
+                    int userId = Integer.parseInt(parts[0]);
+                    if (checkSession(PendingRequest.RequestType.JOB, parts[1], userId, hasToken, session)) {
+                        Job job = new Job(parts[1], parts[2], userId, parts[3], parts[4], "");
+                        server.queueRequest(this, PendingRequest.RequestType.JOB, job, userId, parts[1],
+                                session != null ? session.getDescription() : null);
+                    }
+                } catch (NumberFormatException e) {
+                    logger.warning("Invalid job request: " + message);
+                }
+            }
+        }
+    }
+
+    // Rejects a request whose token was not accepted or belongs to a different user
+    private boolean checkSession(PendingRequest.RequestType type, String key, int userId, boolean hasToken,
+                                 SessionService.Session session) {
+        if (!hasToken) {
+            if (ALLOW_TOKENLESS_REQUESTS) {
+                return true;
+            }
+            logger.warning("Rejected " + type + " request " + key + " without a session token");
+            sendMessage("REQUEST_NACK:" + type + "," + key + ",You are not logged in to the Cloud Controller. Please log in again.");
+            return false;
+        }
+        if (session == null) {
+            sendMessage("REQUEST_NACK:" + type + "," + key + ",Your session has expired. Please log in again.");
+            return false;
+        }
+        if (session.getUserId() != userId) {
+            logger.warning("Session of user " + session.getUserId() + " submitted a request for user " + userId);
+            sendMessage("REQUEST_NACK:" + type + "," + key + ",Request does not match the logged-in user");
+            return false;
+        }
+        return true;
+    }
+
+    public void sendMessage(String message) {
+        boolean failed;
+        synchronized (this) {
+            if (out == null || closed.get()) {
+                return;
+            }
+            out.println(message);
+            failed = out.checkError();
+        }
+        if (failed) {
+            reap("write failed");
+        }
+    }
+
+    long getLastReceivedAt() {
+        return lastReceivedAt;
+    }
+
+    String getResumeToken() {
+        return resumeToken;
+    }
+
+    void setResumeToken(String resumeToken) {
+        this.resumeToken = resumeToken;
+    }
+
+    // Drops a connection the server considers dead
+    void reap(String reason) {
+        logger.info("Reaping client " + clientSocket.getInetAddress() + ":" + clientSocket.getPort() + ": " + reason);
+        shutdown(true);
+    }
+
+    void close() {
+        shutdown(false);
+    }
+
+    private void shutdown(boolean reaped) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        running = false;
+        try {
+            clientSocket.close();
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Error closing client socket", e);
+        }
+        long bytesIn = countingIn != null ? countingIn.getCount() : 0;
+        long bytesOut = countingOut != null ? countingOut.getCount() : 0;
+        server.handlerClosed(this, reaped, bytesIn, bytesOut);
+    }
+}
@@ -0,0 +1,48 @@
+package net;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lifecycle and traffic counters for the Cloud Controller socket server.
+ * Active connections = opened - closed; reaped connections are also counted as closed.
+ */
+public class ConnectionMetrics {
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    private final AtomicLong reaped = new AtomicLong();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+
+    public void connectionOpened() {
+        opened.incrementAndGet();
+    }
+
+    /**
+     * Records a closed connection and the traffic it carried.
+     * @param wasReaped true if the server dropped the connection as dead or idle.
+     * @param connectionBytesIn Bytes read from the client.
+     * @param connectionBytesOut Bytes written to the client.
+     */
+    public void connectionClosed(boolean wasReaped, long connectionBytesIn, long connectionBytesOut) {
+        closed.incrementAndGet();
+        if (wasReaped) {
+            reaped.incrementAndGet();
+        }
+        bytesIn.addAndGet(connectionBytesIn);
+        bytesOut.addAndGet(connectionBytesOut);
+    }
+
+    public long getOpened() { return opened.get(); }
+    public long getClosed() { return closed.get(); }
+    public long getReaped() { return reaped.get(); }
+    public long getActive() { return opened.get() - closed.get(); }
+    // Totals for connections that have closed; live connections report their own counts
+    public long getBytesIn() { return bytesIn.get(); }
+    public long getBytesOut() { return bytesOut.get(); }
+
+    @Override
+    public String toString() {
+        return String.format("connections active=%d opened=%d closed=%d reaped=%d, closed-connection bytes in=%d out=%d",
+                getActive(), getOpened(), getClosed(), getReaped(), getBytesIn(), getBytesOut());
+    }
+}
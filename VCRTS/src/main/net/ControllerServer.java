@@ -0,0 +1,369 @@
+package net;
+
+import dao.AuthenticationService;
+import dao.PendingRequestQueue;
+import dao.UserDAO;
+import models.PendingRequest;
+import models.User;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cloud Controller socket server. Accepts client connections, journals submitted
+ * requests to the pending queue, and broadcasts sequenced approval events.
+ * The server has no UI; the dashboard (or a test harness) registers a Listener to
+ * react to newly queued requests.
+ */
+public class ControllerServer {
+    private static final Logger logger = Logger.getLogger(ControllerServer.class.getName());
+    private static final UserDAO userDAO = new UserDAO();
+
+    private static final int EVENT_BUFFER_SIZE = 512;
+    // Clients ping every 10 s; the server pings every HEARTBEAT_INTERVAL_MS and drops
+    // a connection that has been silent for IDLE_TIMEOUT_MS
+    static final int HEARTBEAT_INTERVAL_MS = 15000;
+    static final int IDLE_TIMEOUT_MS = 45000;
+    // Resume tokens are forgotten this long after their client was last connected, and the
+    // least recently used ones are dropped beyond MAX_SESSION_TOKENS
+    static final long SESSION_TOKEN_TTL_MS = 30 * 60 * 1000L;
+    static final int MAX_SESSION_TOKENS = 4096;
+
+    /**
+     * Notified (on a client handler thread) after a request has been durably queued.
+     */
+    public interface Listener {
+        void requestQueued(PendingRequest request);
+    }
+
+    private final int port;
+    private final PendingRequestQueue pendingRequests;
+    private final IntFunction<String> submitterDescriber;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private ServerSocket serverSocket;
+    private volatile boolean running = false;
+    private final List<ClientHandler> clientHandlers = new CopyOnWriteArrayList<>();
+    // Recent broadcast events, replayed to clients that reconnect with a resume token
+    private final EventReplayBuffer eventBuffer = new EventReplayBuffer(EVENT_BUFFER_SIZE);
+    // Resume token -> when its client was last seen; guarded by itself
+    private final Map<String, Long> sessionTokens = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_SESSION_TOKENS;
+        }
+    };
+    // Sends broadcast events in sequence order, so a slow client never holds up the caller
+    // or a reconnecting client's replay
+    private final ExecutorService broadcastExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ControllerServer-broadcast");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ConnectionMetrics connectionMetrics = new ConnectionMetrics();
+    private final SessionService sessionService = new SessionService();
+    private ScheduledExecutorService heartbeatExecutor;
+
+    /**
+     * @param port The port to listen on (0 picks a free port).
+     * @param pendingRequests The queue submitted requests are journaled to.
+     * @param submitterDescriber Builds the "submitted by" text for a user ID.
+     */
+    public ControllerServer(int port, PendingRequestQueue pendingRequests, IntFunction<String> submitterDescriber) {
+        this.port = port;
+        this.pendingRequests = pendingRequests;
+        this.submitterDescriber = submitterDescriber;
+    }
+
+    /**
+     * Describes a submitter using their name from the users table (served from the user cache).
+     */
+    public static String describeSubmitter(int userId) {
+        User submitter = userDAO.getUserById(userId);
+        String submitterInfo = "User ID: " + userId;
+        if (submitter != null) {
+            submitterInfo += " (" + submitter.getFullName() + ")";
+        }
+        return submitterInfo;
+    }
+
+    /**
+     * Binds the server socket and starts accepting clients in the background.
+     * @throws IOException if the port cannot be bound.
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        serverSocket = new ServerSocket(port);
+        running = true;
+        logger.info("Cloud Controller socket server started on port " + serverSocket.getLocalPort());
+
+        Thread acceptThread = new Thread(this::acceptLoop, "ControllerServer-accept");
+        acceptThread.start();
+
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ClientHeartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeatExecutor.scheduleAtFixedRate(this::heartbeatClients, HEARTBEAT_INTERVAL_MS, HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops accepting clients and closes every connection.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (heartbeatExecutor != null) {
+            heartbeatExecutor.shutdownNow();
+        }
+        for (ClientHandler handler : clientHandlers) {
+            handler.close();
+        }
+        if (serverSocket != null && !serverSocket.isClosed()) {
+            try {
+                serverSocket.close();
+                logger.info("Socket server stopped");
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Error closing server socket", e);
+            }
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket clientSocket = serverSocket.accept();
+                clientSocket.setSoTimeout(IDLE_TIMEOUT_MS);
+                ClientHandler handler = new ClientHandler(this, clientSocket);
+                clientHandlers.add(handler);
+                connectionMetrics.connectionOpened();
+                new Thread(handler, "ClientHandler-" + clientSocket.getPort()).start();
+                logger.fine("New client connected: " + clientSocket.getInetAddress());
+            } catch (IOException e) {
+                if (running) {
+                    logger.log(Level.WARNING, "Error accepting client connection", e);
+                }
+            }
+        }
+    }
+
+    // Pings every client and reaps the ones that are idle or can no longer be written to
+    private void heartbeatClients() {
+        long now = System.currentTimeMillis();
+        long reapedBefore = connectionMetrics.getReaped();
+        if (sessionService.purgeExpired() > 0) {
+            logger.fine("Login sessions: " + sessionService);
+        }
+        expireSessionTokens(now);
+        for (ClientHandler handler : clientHandlers) {
+            if (now - handler.getLastReceivedAt() > IDLE_TIMEOUT_MS) {
+                handler.reap("idle for " + (now - handler.getLastReceivedAt()) + " ms");
+            } else {
+                handler.sendMessage(Protocol.PING);
+            }
+        }
+        if (connectionMetrics.getReaped() != reapedBefore) {
+            logger.info("Socket server: " + connectionMetrics);
+        }
+    }
+
+    // Forgets the resume tokens of clients that have been gone longer than SESSION_TOKEN_TTL_MS
+    private void expireSessionTokens(long now) {
+        synchronized (sessionTokens) {
+            for (ClientHandler handler : clientHandlers) {
+                String token = handler.getResumeToken();
+                if (token != null && sessionTokens.containsKey(token)) {
+                    sessionTokens.put(token, now);
+                }
+            }
+            Iterator<Long> lastSeen = sessionTokens.values().iterator();
+            while (lastSeen.hasNext()) {
+                if (now - lastSeen.next() > SESSION_TOKEN_TTL_MS) {
+                    lastSeen.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a sequenced event for replay and sends it to every connected client.
+     * The event is numbered under the buffer lock and sent from the broadcast thread.
+     */
+    public void broadcast(String message) {
+        logger.fine("Broadcasting: " + message);
+        synchronized (eventBuffer) {
+            String framed = Protocol.frameEvent(eventBuffer.append(message), message);
+            // Queued under the lock, so events are sent in sequence order
+            broadcastExecutor.execute(() -> {
+                for (ClientHandler handler : clientHandlers) {
+                    handler.sendMessage(framed);
+                }
+            });
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public int getLocalPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : port;
+    }
+
+    public int getClientCount() {
+        return clientHandlers.size();
+    }
+
+    public int getSessionCount() {
+        synchronized (sessionTokens) {
+            return sessionTokens.size();
+        }
+    }
+
+    public ConnectionMetrics getConnectionMetrics() {
+        return connectionMetrics;
+    }
+
+    public PendingRequestQueue getPendingRequests() {
+        return pendingRequests;
+    }
+
+    public SessionService getSessionService() {
+        return sessionService;
+    }
+
+    // --- Callbacks from ClientHandler ---
+
+    /**
+     * Journals a request, acknowledges it to the submitting client and notifies listeners.
+     * @param handler The submitting client.
+     * @param type The request type.
+     * @param data The Job or Vehicle submitted.
+     * @param submitterId The submitting user's ID.
+     * @param key The job ID or VIN echoed back in the acknowledgement.
+     * @param submitterInfo The submitter description from the login session, or null to look it up.
+     */
+    void queueRequest(ClientHandler handler, PendingRequest.RequestType type, Object data, int submitterId, String key,
+                      String submitterInfo) {
+        if (submitterInfo == null) {
+            submitterInfo = submitterDescriber.apply(submitterId);
+        }
+        PendingRequest request;
+        try {
+            request = pendingRequests.submit(type, data, submitterId, submitterInfo);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not queue " + type + " request " + key, e);
+            handler.sendMessage("REQUEST_NACK:" + type + "," + key + ",Server could not store the request");
+            return;
+        }
+        handler.sendMessage("REQUEST_ACK:" + type + "," + key + "," + request.getRequestId());
+        for (Listener listener : listeners) {
+            try {
+                listener.requestQueued(request);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Request listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Handles HELLO:<resumeToken>,<lastSeq>. An empty or unknown token starts a new session;
+     * a known token gets the events it missed (or RESYNC if they are no longer buffered).
+     */
+    void resumeSession(ClientHandler handler, String args) {
+        String[] parts = args.split(",", -1);
+        String token = parts[0];
+        long lastSeq = 0;
+        try {
+            lastSeq = parts.length > 1 ? Long.parseLong(parts[1]) : 0;
+        } catch (NumberFormatException e) {
+            logger.warning("Invalid sequence number in HELLO: " + args);
+        }
+        boolean known;
+        synchronized (sessionTokens) {
+            known = sessionTokens.containsKey(token);
+            if (!known) {
+                token = UUID.randomUUID().toString();
+            }
+            sessionTokens.put(token, System.currentTimeMillis());
+        }
+        handler.setResumeToken(token);
+        String welcome = token;
+        synchronized (eventBuffer) {
+            long latestSeq = eventBuffer.getLatestSequence();
+            List<String> missed = known ? eventBuffer.since(lastSeq) : null;
+            // Sent by the broadcast thread, so no later event can overtake the replay
+            broadcastExecutor.execute(() -> {
+                handler.sendMessage(Protocol.WELCOME + welcome + "," + latestSeq);
+                if (!known) {
+                    return;
+                }
+                if (missed == null) {
+                    handler.sendMessage(Protocol.RESYNC);
+                } else {
+                    missed.forEach(handler::sendMessage);
+                }
+            });
+        }
+    }
+
+    /**
+     * Handles AUTH:<email>,<password>. The password is verified on the authentication pool;
+     * on success the client gets a session token to attach to its requests.
+     */
+    void authenticate(ClientHandler handler, String args) {
+        int separator = args.indexOf(',');
+        if (separator <= 0) {
+            handler.sendMessage(Protocol.AUTH_FAIL + "Malformed login");
+            return;
+        }
+        String email = args.substring(0, separator);
+        AuthenticationService.getInstance().authenticateAsync(email, args.substring(separator + 1))
+                .whenComplete((user, error) -> {
+                    if (error != null) {
+                        logger.log(Level.WARNING, "Login for " + email + " could not be verified", error);
+                        handler.sendMessage(Protocol.AUTH_FAIL + "Server busy, try again");
+                    } else if (user == null) {
+                        handler.sendMessage(Protocol.AUTH_FAIL + Protocol.INVALID_CREDENTIALS);
+                    } else {
+                        SessionService.Session session = sessionService.issue(user);
+                        handler.sendMessage(Protocol.AUTH_OK + session.getToken() + "," + user.getUserId());
+                    }
+                });
+    }
+
+    void handlerClosed(ClientHandler handler, boolean reaped, long bytesIn, long bytesOut) {
+        clientHandlers.remove(handler);
+        String token = handler.getResumeToken();
+        if (token != null) {
+            // The token's time to live counts from when its client disconnected
+            synchronized (sessionTokens) {
+                if (sessionTokens.containsKey(token)) {
+                    sessionTokens.put(token, System.currentTimeMillis());
+                }
+            }
+        }
+        connectionMetrics.connectionClosed(reaped, bytesIn, bytesOut);
+        logger.fine("Client handler closed (bytes in=" + bytesIn + ", out=" + bytesOut + "); " + connectionMetrics);
+    }
+}
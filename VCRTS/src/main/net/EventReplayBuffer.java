@@ -0,0 +1,60 @@
+package net;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded ring buffer of recent broadcast events, used to replay notifications
+ * a client missed while it was disconnected.
+ * Events are numbered from 1; once the buffer is full the oldest event is overwritten.
+ */
+public class EventReplayBuffer {
+    private final String[] messages;
+    private long latestSeq = 0;
+
+    /**
+     * @param capacity The number of recent events to keep.
+     */
+    public EventReplayBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.messages = new String[capacity];
+    }
+
+    /**
+     * Records a new event.
+     * @param message The broadcast message.
+     * @return The sequence number assigned to the event.
+     */
+    public synchronized long append(String message) {
+        latestSeq++;
+        messages[(int) ((latestSeq - 1) % messages.length)] = message;
+        return latestSeq;
+    }
+
+    /**
+     * Returns the events after the given sequence number, already framed for sending.
+     * @param lastSeq The last sequence number the client received.
+     * @return The framed events in order (empty if the client is up to date), or null if
+     *         some of the missed events have already been overwritten.
+     */
+    public synchronized List<String> since(long lastSeq) {
+        List<String> framed = new ArrayList<>();
+        if (lastSeq >= latestSeq) {
+            return framed;
+        }
+        long oldestSeq = Math.max(1, latestSeq - messages.length + 1);
+        if (lastSeq + 1 < oldestSeq) {
+            return null;
+        }
+        for (long seq = lastSeq + 1; seq <= latestSeq; seq++) {
+            framed.add(Protocol.frameEvent(seq, messages[(int) ((seq - 1) % messages.length)]));
+        }
+        return framed;
+    }
+
+    public synchronized long getLatestSequence() {
+        return latestSeq;
+    }
+}
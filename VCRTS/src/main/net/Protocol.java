@@ -0,0 +1,51 @@
+package net;
+
+/**
+ * Message prefixes shared by the Cloud Controller socket server and its clients.
+ * Every message is a single text line.
+ */
+public final class Protocol {
+    public static final String DEFAULT_HOST = "localhost";
+    public static final int DEFAULT_PORT = 9876;
+
+    // Session handshake: HELLO:<resumeToken>,<lastSeq> -> WELCOME:<resumeToken>,<latestSeq>
+    public static final String HELLO = "HELLO:";
+    public static final String WELCOME = "WELCOME:";
+    // Sent instead of a replay when the client missed more events than the server kept
+    public static final String RESYNC = "RESYNC";
+
+    // Heartbeats
+    public static final String PING = "PING";
+    public static final String PONG = "PONG";
+
+    // Sequenced broadcast event: EVT:<seq>|<message>
+    public static final String EVENT = "EVT:";
+
+    // Login: AUTH:<email>,<password> -> AUTH_OK:<sessionToken>,<userId> or AUTH_FAIL:<reason>
+    public static final String AUTH = "AUTH:";
+    public static final String AUTH_OK = "AUTH_OK:";
+    public static final String AUTH_FAIL = "AUTH_FAIL:";
+    // The AUTH_FAIL reason for a wrong email or password
+    public static final String INVALID_CREDENTIALS = "Invalid credentials";
+    // Ends a login session: LOGOUT:<sessionToken>
+    public static final String LOGOUT = "LOGOUT:";
+    // A request sent on behalf of a login session: SESSION:<sessionToken>|<message>
+    public static final String SESSION = "SESSION:";
+
+    private Protocol() {
+    }
+
+    /**
+     * Wraps a broadcast message with its sequence number.
+     */
+    public static String frameEvent(long seq, String message) {
+        return EVENT + seq + "|" + message;
+    }
+
+    /**
+     * Attaches a login session token to a request.
+     */
+    public static String withSession(String sessionToken, String message) {
+        return SESSION + sessionToken + "|" + message;
+    }
+}
@@ -0,0 +1,444 @@
+package net;
+
+import javax.swing.SwingUtilities;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shared client connection to the Cloud Controller socket server.
+ * Reconnects with jittered exponential backoff, sends heartbeats to detect a dead
+ * server, and resumes its session on reconnect so missed broadcast events are replayed.
+ * Logins are checked by the server, which issues a session token that is then attached
+ * to requests. The password is written to the socket once and not kept.
+ * Messages are delivered to registered listeners on the Event Dispatch Thread.
+ */
+public class ServerConnection {
+    private static final Logger logger = Logger.getLogger(ServerConnection.class.getName());
+
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+    private static final long BASE_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30000;
+    private static final long HEARTBEAT_INTERVAL_MS = 10000;
+    private static final long HEARTBEAT_TIMEOUT_MS = 30000;
+    // How long a login waits for the connection before giving up, and for the server's answer
+    private static final long LOGIN_CONNECT_WAIT_MS = 5000;
+    private static final long LOGIN_TIMEOUT_MS = 20000;
+
+    private static ServerConnection instance;
+
+    private final String host;
+    private final int port;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private final Object connectionLock = new Object();
+
+    private volatile Socket socket;
+    private volatile PrintWriter out;
+    private volatile boolean connected = false;
+    private volatile boolean running = false;
+    private volatile long lastReceivedAt;
+
+    // Session state, kept across reconnects
+    private volatile String resumeToken = "";
+    private volatile long lastSeq = 0;
+    private int failedAttempts = 0;
+
+    // Login session token from AUTH_OK
+    private volatile String sessionToken;
+    // The login waiting for AUTH_OK or AUTH_FAIL, and its AUTH message if the connection
+    // was not up yet; the message is dropped as soon as it is written. Guarded by loginLock
+    private final Object loginLock = new Object();
+    private CompletableFuture<Integer> pendingLogin;
+    private String unsentAuth;
+
+    /**
+     * Returns the connection shared by all client dashboards, starting it on first use.
+     */
+    public static synchronized ServerConnection getInstance() {
+        if (instance == null) {
+            instance = new ServerConnection(Protocol.DEFAULT_HOST, Protocol.DEFAULT_PORT);
+            instance.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::shutdown));
+        }
+        return instance;
+    }
+
+    /**
+     * Ends the login session of the shared connection, if it was ever started.
+     */
+    public static synchronized void endSession() {
+        if (instance != null) {
+            instance.logout();
+        }
+    }
+
+    public ServerConnection(String host, int port) {
+        this.host = host;
+        this.port = port;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ServerConnection-" + port);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Starts connecting in the background and begins sending heartbeats.
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        scheduler.execute(this::connect);
+        scheduler.scheduleAtFixedRate(this::heartbeat, HEARTBEAT_INTERVAL_MS, HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Closes the connection and stops reconnecting.
+     */
+    public void shutdown() {
+        running = false;
+        scheduler.shutdownNow();
+        closeSocket(socket);
+        logger.info("Disconnected from server");
+    }
+
+    public void addMessageListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeMessageListener(Consumer<String> listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Sends a message to the server.
+     * @param message The message line.
+     * @return true if the message was written, false if not connected or the write failed.
+     */
+    public boolean send(String message) {
+        PrintWriter writer = out;
+        if (!connected || writer == null) {
+            return false;
+        }
+        synchronized (writer) {
+            writer.println(message);
+            return !writer.checkError();
+        }
+    }
+
+    /**
+     * Sends a request on behalf of the logged-in user, with the session token attached
+     * once the server has issued one.
+     * @return true if the message was written, false if not connected or the write failed.
+     */
+    public boolean sendRequest(String message) {
+        String token = sessionToken;
+        return send(token != null ? Protocol.withSession(token, message) : message);
+    }
+
+    /**
+     * Logs in with the server, which checks the password and starts a login session.
+     * The AUTH message is sent now, or once the connection is up, and never resent.
+     * The future completes with the user's ID, or null if the email or password is wrong.
+     * It completes exceptionally with a ConnectException if the server could not be reached
+     * within LOGIN_CONNECT_WAIT_MS (the password was not sent), and with another exception
+     * if the server failed to answer or could not check the login.
+     */
+    public CompletableFuture<Integer> login(String email, String password) {
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        String auth = Protocol.AUTH + email + "," + password;
+        synchronized (loginLock) {
+            if (pendingLogin != null) {
+                pendingLogin.cancel(false);
+            }
+            sessionToken = null;
+            pendingLogin = result;
+            unsentAuth = send(auth) ? null : auth;
+        }
+        if (unsentAuth(result)) {
+            scheduler.schedule(() -> abandonUnsentLogin(result), LOGIN_CONNECT_WAIT_MS, TimeUnit.MILLISECONDS);
+        }
+        result.orTimeout(LOGIN_TIMEOUT_MS, TimeUnit.MILLISECONDS).whenComplete((userId, error) -> {
+            synchronized (loginLock) {
+                if (pendingLogin == result) {
+                    pendingLogin = null;
+                    unsentAuth = null;
+                }
+            }
+        });
+        return result;
+    }
+
+    private boolean unsentAuth(CompletableFuture<Integer> login) {
+        synchronized (loginLock) {
+            return pendingLogin == login && unsentAuth != null;
+        }
+    }
+
+    private void abandonUnsentLogin(CompletableFuture<Integer> login) {
+        synchronized (loginLock) {
+            if (pendingLogin != login || unsentAuth == null) {
+                return;
+            }
+            pendingLogin = null;
+            unsentAuth = null;
+        }
+        login.completeExceptionally(new ConnectException("Cloud Controller is not reachable"));
+    }
+
+    // Hands the login waiting for an answer to the caller and forgets it
+    private CompletableFuture<Integer> takePendingLogin() {
+        synchronized (loginLock) {
+            CompletableFuture<Integer> login = pendingLogin;
+            pendingLogin = null;
+            unsentAuth = null;
+            return login;
+        }
+    }
+
+    /**
+     * Ends the login session on the server.
+     */
+    public void logout() {
+        String token = sessionToken;
+        sessionToken = null;
+        CompletableFuture<Integer> login = takePendingLogin();
+        if (login != null) {
+            login.cancel(false);
+        }
+        if (token != null) {
+            send(Protocol.LOGOUT + token);
+        }
+    }
+
+    public String getSessionToken() {
+        return sessionToken;
+    }
+
+    /**
+     * Triggers an immediate reconnect attempt if currently disconnected.
+     */
+    public void reconnectNow() {
+        if (running && !connected) {
+            scheduler.execute(this::connect);
+        }
+    }
+
+    // --- Connection handling ---
+
+    private void connect() {
+        synchronized (connectionLock) {
+            if (!running || connected) {
+                return;
+            }
+            Socket newSocket = new Socket();
+            try {
+                newSocket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+                newSocket.setTcpNoDelay(true);
+                PrintWriter writer = new PrintWriter(newSocket.getOutputStream(), true);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(newSocket.getInputStream()));
+
+                socket = newSocket;
+                out = writer;
+                lastReceivedAt = System.currentTimeMillis();
+                connected = true;
+                failedAttempts = 0;
+                writer.println(Protocol.HELLO + resumeToken + "," + lastSeq);
+                synchronized (loginLock) {
+                    if (unsentAuth != null) {
+                        writer.println(unsentAuth);
+                        unsentAuth = null;
+                    }
+                }
+                logger.info("Connected to Cloud Controller server at " + host + ":" + port);
+
+                Thread readerThread = new Thread(() -> readLoop(newSocket, reader), "ServerConnection-reader");
+                readerThread.setDaemon(true);
+                readerThread.start();
+            } catch (IOException e) {
+                closeSocket(newSocket);
+                logger.info("Could not connect to Cloud Controller: " + e.getMessage());
+                scheduleReconnect();
+            }
+        }
+    }
+
+    private void readLoop(Socket readerSocket, BufferedReader reader) {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lastReceivedAt = System.currentTimeMillis();
+                handleLine(line);
+            }
+        } catch (IOException e) {
+            if (running) {
+                logger.log(Level.INFO, "Error reading from server: " + e.getMessage());
+            }
+        } finally {
+            connectionLost(readerSocket);
+        }
+    }
+
+    private void handleLine(String line) {
+        if (Protocol.PONG.equals(line)) {
+            return;
+        }
+        if (Protocol.PING.equals(line)) {
+            send(Protocol.PONG);
+            return;
+        }
+        if (line.startsWith(Protocol.WELCOME)) {
+            // WELCOME:<token>,<latestSeq>; a new token means the server did not know our session
+            String[] parts = line.substring(Protocol.WELCOME.length()).split(",");
+            if (parts.length >= 2 && !parts[0].equals(resumeToken)) {
+                boolean hadSession = !resumeToken.isEmpty();
+                resumeToken = parts[0];
+                lastSeq = Long.parseLong(parts[1]);
+                if (hadSession) {
+                    deliver(Protocol.RESYNC);
+                }
+            }
+            return;
+        }
+        if (line.startsWith(Protocol.AUTH_OK)) {
+            // AUTH_OK:<sessionToken>,<userId>
+            String[] parts = line.substring(Protocol.AUTH_OK.length()).split(",");
+            CompletableFuture<Integer> login = takePendingLogin();
+            if (login == null || parts.length < 2) {
+                return; // Answer to a login that was cancelled or timed out
+            }
+            sessionToken = parts[0];
+            logger.info("Login session established with the Cloud Controller");
+            try {
+                login.complete(Integer.parseInt(parts[1]));
+            } catch (NumberFormatException e) {
+                login.completeExceptionally(e);
+            }
+            return;
+        }
+        if (line.startsWith(Protocol.AUTH_FAIL)) {
+            String reason = line.substring(Protocol.AUTH_FAIL.length());
+            sessionToken = null;
+            logger.warning("Cloud Controller refused login: " + reason);
+            CompletableFuture<Integer> login = takePendingLogin();
+            if (login != null) {
+                if (Protocol.INVALID_CREDENTIALS.equals(reason)) {
+                    login.complete(null);
+                } else {
+                    login.completeExceptionally(new IllegalStateException(reason));
+                }
+            }
+            return;
+        }
+        if (line.startsWith(Protocol.EVENT)) {
+            int separator = line.indexOf('|');
+            if (separator > 0) {
+                long seq = Long.parseLong(line.substring(Protocol.EVENT.length(), separator));
+                if (seq <= lastSeq) {
+                    return; // Already delivered
+                }
+                lastSeq = seq;
+                deliver(line.substring(separator + 1));
+            }
+            return;
+        }
+        deliver(line);
+    }
+
+    private void deliver(String message) {
+        SwingUtilities.invokeLater(() -> {
+            for (Consumer<String> listener : listeners) {
+                try {
+                    listener.accept(message);
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Message listener failed for: " + message, e);
+                }
+            }
+        });
+    }
+
+    private void heartbeat() {
+        if (!connected) {
+            return;
+        }
+        if (System.currentTimeMillis() - lastReceivedAt > HEARTBEAT_TIMEOUT_MS) {
+            logger.warning("No response from server in " + HEARTBEAT_TIMEOUT_MS + " ms, reconnecting");
+            closeSocket(socket); // The reader thread notices and reconnects
+            return;
+        }
+        send(Protocol.PING);
+    }
+
+    private void connectionLost(Socket lostSocket) {
+        synchronized (connectionLock) {
+            if (lostSocket != socket) {
+                return; // A stale reader from an earlier connection
+            }
+            connected = false;
+            out = null;
+            closeSocket(lostSocket);
+            // A login already sent will not be answered on a new connection; one not yet sent still waits
+            CompletableFuture<Integer> login = null;
+            synchronized (loginLock) {
+                if (pendingLogin != null && unsentAuth == null) {
+                    login = pendingLogin;
+                    pendingLogin = null;
+                }
+            }
+            if (login != null) {
+                login.completeExceptionally(new IOException("Connection to the Cloud Controller was lost"));
+            }
+            if (running) {
+                logger.info("Connection to Cloud Controller lost");
+                scheduleReconnect();
+            }
+        }
+    }
+
+    // Jittered exponential backoff: wait between half and all of the current cap so clients spread out
+    private void scheduleReconnect() {
+        if (!running) {
+            return;
+        }
+        long cap = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(failedAttempts, 16));
+        long delay = ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+        failedAttempts++;
+        try {
+            scheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            logger.log(Level.FINE, "Reconnect not scheduled, connection is shutting down", e);
+        }
+    }
+
+    private static void closeSocket(Socket s) {
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Error closing socket", e);
+            }
+        }
+    }
+}
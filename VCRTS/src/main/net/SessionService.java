@@ -0,0 +1,222 @@
+package net;
+
+import models.User;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Login sessions issued by the Cloud Controller server.
+ * A token is userId.expiresAt.nonce.signature, where the signature is an HMAC-SHA256 over
+ * the rest with a key generated when the server starts. Forged or altered tokens are
+ * rejected before the session table is consulted, and every token stops working when the
+ * server restarts. Sessions live in memory with an expiry and can be revoked, so checking
+ * who sent a message is a hash lookup rather than a database query.
+ *
+ * The lifetime can be tuned with the system property vcrts.session.ttlMinutes (default 480).
+ */
+public class SessionService {
+    private static final Logger logger = Logger.getLogger(SessionService.class.getName());
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final long DEFAULT_TTL_MINUTES = 480;
+
+    /**
+     * An issued session.
+     */
+    public static final class Session {
+        private final String token;
+        private final int userId;
+        private final String description;
+        private final long expiresAt;
+
+        private Session(String token, int userId, String description, long expiresAt) {
+            this.token = token;
+            this.userId = userId;
+            this.description = description;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getToken() { return token; }
+        public int getUserId() { return userId; }
+        // "User ID: <id> (<name>)", as shown with pending requests
+        public String getDescription() { return description; }
+        public long getExpiresAt() { return expiresAt; }
+    }
+
+    private final SecureRandom random = new SecureRandom();
+    private final byte[] key = new byte[32];
+    private final long ttlMillis;
+    // Mac instances are not thread-safe and costly to create, so each thread keeps one
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong revoked = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong lookupNanos = new AtomicLong();
+    private final AtomicLong maxLookupNanos = new AtomicLong();
+
+    public SessionService() {
+        this(Long.getLong("vcrts.session.ttlMinutes", DEFAULT_TTL_MINUTES) * 60_000);
+    }
+
+    /**
+     * @param ttlMillis How long a session stays valid after it is issued.
+     */
+    public SessionService(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        random.nextBytes(key);
+    }
+
+    /**
+     * Starts a session for an authenticated user.
+     */
+    public Session issue(User user) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        byte[] nonce = new byte[16];
+        random.nextBytes(nonce);
+        String payload = user.getUserId() + "." + expiresAt + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(nonce);
+        String token = payload + "." + sign(payload);
+        Session session = new Session(token, user.getUserId(),
+                "User ID: " + user.getUserId() + " (" + user.getFullName() + ")", expiresAt);
+        sessions.put(token, session);
+        issued.incrementAndGet();
+        logger.fine("Session issued for user " + user.getUserId());
+        return session;
+    }
+
+    /**
+     * Looks up a session by token.
+     * @return The session, or null if the token is forged, unknown, revoked or expired.
+     */
+    public Session lookup(String token) {
+        long start = System.nanoTime();
+        Session session = null;
+        if (token != null && hasValidSignature(token)) {
+            session = sessions.get(token);
+            if (session != null && session.expiresAt <= System.currentTimeMillis()) {
+                if (sessions.remove(token) != null) {
+                    expired.incrementAndGet();
+                }
+                session = null;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        lookups.incrementAndGet();
+        lookupNanos.addAndGet(elapsed);
+        maxLookupNanos.accumulateAndGet(elapsed, Math::max);
+        if (session == null) {
+            rejected.incrementAndGet();
+        }
+        return session;
+    }
+
+    /**
+     * Ends a session (on logout).
+     * @return true if the session existed.
+     */
+    public boolean revoke(String token) {
+        if (token != null && sessions.remove(token) != null) {
+            revoked.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ends every session of a user, for example after the account is deleted.
+     * @return The number of sessions ended.
+     */
+    public int revokeUser(int userId) {
+        int count = 0;
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ) {
+            if (it.next().userId == userId) {
+                it.remove();
+                count++;
+            }
+        }
+        revoked.addAndGet(count);
+        return count;
+    }
+
+    /**
+     * Drops expired sessions that were never looked up again.
+     * @return The number of sessions dropped.
+     */
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int count = 0;
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ) {
+            if (it.next().expiresAt <= now) {
+                it.remove();
+                count++;
+            }
+        }
+        expired.addAndGet(count);
+        return count;
+    }
+
+    public int getSessionCount() { return sessions.size(); }
+    public long getIssued() { return issued.get(); }
+    public long getLookups() { return lookups.get(); }
+    public long getRejected() { return rejected.get(); }
+    public long getRevoked() { return revoked.get(); }
+    public long getExpired() { return expired.get(); }
+
+    /**
+     * Returns the mean time spent in lookup, in microseconds.
+     */
+    public double getMeanLookupMicros() {
+        long count = lookups.get();
+        return count == 0 ? 0 : lookupNanos.get() / 1000.0 / count;
+    }
+
+    public double getMaxLookupMicros() {
+        return maxLookupNanos.get() / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sessions=%d issued=%d lookups=%d rejected=%d revoked=%d expired=%d meanLookupMicros=%.2f maxLookupMicros=%.2f",
+                getSessionCount(), getIssued(), getLookups(), getRejected(), getRevoked(), getExpired(),
+                getMeanLookupMicros(), getMaxLookupMicros());
+    }
+
+    private boolean hasValidSignature(String token) {
+        int separator = token.lastIndexOf('.');
+        if (separator <= 0) {
+            return false;
+        }
+        byte[] expected = sign(token.substring(0, separator)).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, token.substring(separator + 1).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String sign(String payload) {
+        byte[] signature = macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            // Every Java runtime provides HmacSHA256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package tools;
+
+import dao.CloudControllerDAO;
+import dao.JobTable;
+import models.Job;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares the scheduler's JobTable with the collections it replaced: a List of Job
+ * objects plus job ID maps for states and completion times.
+ * Reports retained heap per million jobs for each layout and the latency of a full
+ * FIFO reschedule of the backlog. No database is used; jobs are generated in memory.
+ *
+ * Usage: java tools.JobTableBenchmark [--jobs=1000000] [--rounds=20] [--report=file.json]
+ * Run with a heap large enough for both layouts, e.g. -Xmx2g.
+ */
+public class JobTableBenchmark {
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] STATES = {
+            CloudControllerDAO.STATE_QUEUED, CloudControllerDAO.STATE_QUEUED,
+            CloudControllerDAO.STATE_QUEUED, CloudControllerDAO.STATE_COMPLETED};
+
+    public static void main(String[] args) throws Exception {
+        int jobCount = 1_000_000;
+        int rounds = 20;
+        String reportPath = null;
+        for (String arg : args) {
+            if (arg.startsWith("--jobs=")) {
+                jobCount = Integer.parseInt(arg.substring("--jobs=".length()));
+            } else if (arg.startsWith("--rounds=")) {
+                rounds = Integer.parseInt(arg.substring("--rounds=".length()));
+            } else if (arg.startsWith("--report=")) {
+                reportPath = arg.substring("--report=".length());
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        // Measured separately so each layout is the only large structure on the heap
+        long baseline = usedHeap();
+        List<Job> jobs = generateJobs(jobCount);
+        Map<String, String> states = new HashMap<>();
+        for (Job job : jobs) {
+            states.put(job.getJobId(), job.getStatus());
+        }
+        Map<String, String> completionTimes = scheduleCollections(jobs, states);
+        long collectionsBytes = usedHeap() - baseline;
+        double collectionsPerMillion = collectionsBytes * 1_000_000.0 / jobCount;
+        System.out.printf(Locale.ROOT, "collections: %.1f MB per million jobs (%d completion times)%n",
+                collectionsPerMillion / (1024 * 1024), completionTimes.size());
+        completionTimes = null;
+
+        LatencyHistogram collectionsLatency = new LatencyHistogram();
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            scheduleCollections(jobs, states);
+            collectionsLatency.record((System.nanoTime() - start) / 1000);
+        }
+
+        jobs = null;
+        states = null;
+        baseline = usedHeap();
+        // The generated Job list is garbage once the table is built, so only the table is retained
+        JobTable table = JobTable.of(generateJobs(jobCount), jobCount);
+        JobTable.Schedule schedule = table.schedule(System.currentTimeMillis());
+        long tableBytes = usedHeap() - baseline;
+        double tablePerMillion = tableBytes * 1_000_000.0 / jobCount;
+        System.out.printf(Locale.ROOT, "job table:   %.1f MB per million jobs (%d state changes)%n",
+                tablePerMillion / (1024 * 1024), schedule.getChangedRows().length);
+
+        LatencyHistogram tableLatency = new LatencyHistogram();
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            table.schedule(System.currentTimeMillis());
+            tableLatency.record((System.nanoTime() - start) / 1000);
+        }
+
+        print("collections", collectionsLatency);
+        print("job table", tableLatency);
+        Json.write(String.format(Locale.ROOT,
+                "{\"jobs\":%d,\"rounds\":%d,"
+                        + "\"collections\":{\"bytesPerMillionJobs\":%.0f,\"rescheduleMicros\":%s},"
+                        + "\"jobTable\":{\"bytesPerMillionJobs\":%.0f,\"rescheduleMicros\":%s}}",
+                jobCount, rounds, collectionsPerMillion, collectionsLatency.toJson(),
+                tablePerMillion, tableLatency.toJson()), reportPath);
+    }
+
+    /**
+     * The scheduling work CloudControllerDAO.calculateCompletionTimes did before JobTable:
+     * sort the Job list, look up states by ID and build a map of formatted completion times.
+     */
+    private static Map<String, String> scheduleCollections(List<Job> jobs, Map<String, String> states) {
+        List<Job> sorted = new ArrayList<>(jobs);
+        sorted.sort(Comparator.comparing(Job::getCreatedTimestamp));
+        Map<String, String> completionTimes = new LinkedHashMap<>();
+        Map<String, String> newStates = new HashMap<>(states);
+        Job running = null;
+        for (Job job : sorted) {
+            if (CloudControllerDAO.STATE_PROGRESS.equals(newStates.get(job.getJobId()))) {
+                running = job;
+                break;
+            }
+        }
+        LocalDateTime current = LocalDateTime.now();
+        for (Job job : sorted) {
+            String state = newStates.get(job.getJobId());
+            if (CloudControllerDAO.STATE_COMPLETED.equals(state)) {
+                completionTimes.put(job.getJobId(), "Completed");
+                continue;
+            }
+            if (running == null) {
+                running = job;
+            }
+            newStates.put(job.getJobId(), job == running ? CloudControllerDAO.STATE_PROGRESS : CloudControllerDAO.STATE_QUEUED);
+            current = current.plusSeconds(Math.max(job.getDurationSeconds(), 0));
+            completionTimes.put(job.getJobId(), current.format(TIMESTAMP_FORMATTER));
+        }
+        return completionTimes;
+    }
+
+    private static List<Job> generateJobs(int count) {
+        Random random = new Random(42);
+        List<Job> jobs = new ArrayList<>(count);
+        long created = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+        ZoneId zone = ZoneId.systemDefault();
+        for (int i = 0; i < count; i++) {
+            created += random.nextInt(60_000);
+            String duration = String.format("%02d:%02d:%02d", random.nextInt(24), random.nextInt(60), random.nextInt(60));
+            LocalDateTime createdAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(created), zone);
+            jobs.add(new Job("J" + i, "Job " + i, 1 + random.nextInt(1000), duration,
+                    createdAt.toLocalDate().plusDays(1 + random.nextInt(30)).toString(),
+                    STATES[random.nextInt(STATES.length)], createdAt.format(TIMESTAMP_FORMATTER)));
+        }
+        return jobs;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void print(String name, LatencyHistogram latency) {
+        System.out.printf(Locale.ROOT, "%s reschedule: p50=%.1f ms, p99=%.1f ms, max=%.1f ms%n", name,
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                latency.getMax() / 1000.0);
+    }
+}
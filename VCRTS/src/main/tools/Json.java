@@ -0,0 +1,49 @@
+package tools;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Minimal helpers for the JSON reports written by the load and soak tools.
+ */
+final class Json {
+    private Json() {
+    }
+
+    static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Writes a report to the given file, or to standard output if path is null.
+     */
+    static void write(String json, String path) throws IOException {
+        if (path == null) {
+            System.out.println(json);
+        } else {
+            Files.write(Paths.get(path), (json + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            System.out.println("Report written to " + path);
+        }
+    }
+}
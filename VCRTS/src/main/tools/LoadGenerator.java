@@ -0,0 +1,425 @@
+package tools;
+
+import net.Protocol;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless load generator for the Cloud Controller socket server.
+ * Simulates many client dashboards, each on its own connection, submitting NEW_JOB and
+ * NEW_VEHICLE messages at configurable aggregate rates. Records latency from submit to
+ * REQUEST_ACK and from submit to the approval broadcast for that job or vehicle.
+ *
+ * Usage: java tools.LoadGenerator [--host=localhost] [--port=9876] [--clients=100]
+ *        [--jobRate=20] [--vehicleRate=20] [--duration=60] [--timeout=300]
+ *        [--login=email,password] [--report=file.json]
+ * Rates are messages per second across all clients; duration and timeout are in seconds.
+ *
+ * The server only accepts requests sent with a login session token. With --login, the
+ * account is logged in once and every client submits as that user with its token. Without
+ * it, requests carry no token and are all refused unless the server runs with
+ * -Dvcrts.server.allowTokenlessRequests=true. SoakHarness issues a token per simulated user
+ * instead, through setSessionIssuer.
+ */
+public class LoadGenerator {
+    private static final Logger logger = Logger.getLogger(LoadGenerator.class.getName());
+    // First simulated user ID, chosen to stay clear of real users
+    private static final int FIRST_USER_ID = 900000;
+
+    /**
+     * Load generator settings.
+     */
+    public static class Config {
+        public String host = Protocol.DEFAULT_HOST;
+        public int port = Protocol.DEFAULT_PORT;
+        public int clients = 100;
+        public double jobRate = 20;
+        public double vehicleRate = 20;
+        public long durationSeconds = 60;
+        public long approvalTimeoutSeconds = 300;
+        public String reportPath = null;
+        // Account to log in with, or null to send requests without a session token
+        public String loginEmail = null;
+        public String loginPassword = null;
+
+        /**
+         * Reads --key=value arguments; unknown keys are rejected.
+         */
+        public static Config fromArgs(String[] args) {
+            Config config = new Config();
+            for (String arg : args) {
+                if (!config.apply(arg)) {
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            return config;
+        }
+
+        /**
+         * Applies a single --key=value argument.
+         * @return true if the key was recognised.
+         */
+        public boolean apply(String arg) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            String key = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "host": host = value; return true;
+                case "port": port = Integer.parseInt(value); return true;
+                case "clients": clients = Integer.parseInt(value); return true;
+                case "jobRate": jobRate = Double.parseDouble(value); return true;
+                case "vehicleRate": vehicleRate = Double.parseDouble(value); return true;
+                case "duration": durationSeconds = Long.parseLong(value); return true;
+                case "timeout": approvalTimeoutSeconds = Long.parseLong(value); return true;
+                case "report": reportPath = value; return true;
+                case "login": {
+                    int comma = value.indexOf(',');
+                    if (comma < 0) {
+                        throw new IllegalArgumentException("Expected --login=email,password but got: " + arg);
+                    }
+                    loginEmail = value.substring(0, comma);
+                    loginPassword = value.substring(comma + 1);
+                    return true;
+                }
+                default: return false;
+            }
+        }
+
+        String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"host\":%s,\"port\":%d,\"clients\":%d,\"jobRate\":%.2f,\"vehicleRate\":%.2f,\"durationSeconds\":%d,\"approvalTimeoutSeconds\":%d}",
+                    Json.quote(host), port, clients, jobRate, vehicleRate, durationSeconds, approvalTimeoutSeconds);
+        }
+    }
+
+    private final Config config;
+    private final List<Peer> peers = new ArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, r -> {
+        Thread t = new Thread(r, "LoadGenerator-sender");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Counters
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+    private final AtomicLong acked = new AtomicLong();
+    private final AtomicLong nacked = new AtomicLong();
+    private final AtomicLong approved = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong connectFailures = new AtomicLong();
+    private final AtomicLong disconnects = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LatencyHistogram ackLatency = new LatencyHistogram();
+    private final LatencyHistogram approvalLatency = new LatencyHistogram();
+    private volatile long startedAt;
+    // Returns a session token for a simulated user ID; set by harnesses that own the server
+    private IntFunction<String> sessionIssuer;
+
+    public LoadGenerator(Config config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.fromArgs(args);
+        LoadGenerator generator = new LoadGenerator(config);
+        generator.start();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.durationSeconds));
+        generator.stop();
+        String report = "{\"config\":" + config.toJson() + ",\"results\":" + generator.resultsJson() + "}";
+        Json.write(report, config.reportPath);
+    }
+
+    /**
+     * Makes each simulated user submit with a session token from the issuer, which takes
+     * the user ID. Must be called before start; takes the place of --login.
+     */
+    public void setSessionIssuer(IntFunction<String> sessionIssuer) {
+        this.sessionIssuer = sessionIssuer;
+    }
+
+    /**
+     * Connects every simulated client and starts sending at the configured rates.
+     */
+    public void start() {
+        startedAt = System.nanoTime();
+        String[] login = null;
+        if (sessionIssuer == null && config.loginEmail != null) {
+            login = login();
+            if (login == null) {
+                return;
+            }
+        }
+        for (int i = 0; i < config.clients; i++) {
+            Peer peer;
+            if (login != null) {
+                peer = new Peer(Integer.parseInt(login[1]), login[0]);
+            } else {
+                int userId = FIRST_USER_ID + i;
+                peer = new Peer(userId, sessionIssuer != null ? sessionIssuer.apply(userId) : null);
+            }
+            if (peer.connect()) {
+                peers.add(peer);
+            }
+        }
+        logger.info("Load generator connected " + peers.size() + "/" + config.clients + " clients");
+        if (peers.isEmpty()) {
+            return;
+        }
+        schedule(config.jobRate, this::sendJob);
+        schedule(config.vehicleRate, this::sendVehicle);
+        scheduler.scheduleAtFixedRate(this::expireOutstanding, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops sending and closes every simulated client.
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+        for (Peer peer : peers) {
+            peer.close();
+        }
+    }
+
+    /**
+     * Logs in the --login account once on a connection of its own; every client then uses
+     * its session, so the server hashes the password only once.
+     * @return The session token and user ID, or null if the login failed.
+     */
+    private String[] login() {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(config.host, config.port), 5000);
+            socket.setSoTimeout(30000);
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out.println(Protocol.HELLO + ",0");
+            out.println(Protocol.AUTH + config.loginEmail + "," + config.loginPassword);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith(Protocol.AUTH_OK)) {
+                    // AUTH_OK:<sessionToken>,<userId>
+                    String[] parts = line.substring(Protocol.AUTH_OK.length()).split(",");
+                    if (parts.length >= 2) {
+                        logger.info("Load generator logged in as user " + parts[1]);
+                        return parts;
+                    }
+                } else if (line.startsWith(Protocol.AUTH_FAIL)) {
+                    logger.severe("Load generator login failed: " + line.substring(Protocol.AUTH_FAIL.length()));
+                    return null;
+                }
+            }
+            logger.severe("Load generator login failed: connection closed");
+        } catch (IOException e) {
+            connectFailures.incrementAndGet();
+            logger.log(Level.SEVERE, "Load generator login failed", e);
+        }
+        return null;
+    }
+
+    private void schedule(double ratePerSecond, Runnable task) {
+        if (ratePerSecond <= 0) {
+            return;
+        }
+        long periodMicros = Math.max(1, (long) (1_000_000 / ratePerSecond));
+        scheduler.scheduleAtFixedRate(task, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    private Peer randomPeer() {
+        return peers.get(ThreadLocalRandom.current().nextInt(peers.size()));
+    }
+
+    private void sendJob() {
+        Peer peer = randomPeer();
+        String jobId = "LG" + sequence.incrementAndGet();
+        // Format: NEW_JOB:userId,jobId,jobName,duration,deadline
+        peer.submit(jobId, String.format("NEW_JOB:%d,%s,Load test job,00:30:00,2030-01-01 00:00:00", peer.userId, jobId));
+    }
+
+    private void sendVehicle() {
+        Peer peer = randomPeer();
+        String vin = String.format("LGV%014d", sequence.incrementAndGet());
+        // Format: NEW_VEHICLE:ownerId,vehicleOwnerId,make,model,year,vin,residencyTime
+        peer.submit(vin, String.format("NEW_VEHICLE:%d,%d,Loadgen,Sim,2024,%s,02:00:00", peer.userId, peer.userId, vin));
+    }
+
+    private void expireOutstanding() {
+        long cutoff = System.nanoTime() - TimeUnit.SECONDS.toNanos(config.approvalTimeoutSeconds);
+        for (Peer peer : peers) {
+            peer.outstanding.values().removeIf(submittedAt -> {
+                if (submittedAt < cutoff) {
+                    timedOut.incrementAndGet();
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    // --- Results ---
+
+    public long getSent() { return sent.get(); }
+    public long getApproved() { return approved.get(); }
+    public long getAcked() { return acked.get(); }
+
+    public int getOutstanding() {
+        int total = 0;
+        for (Peer peer : peers) {
+            total += peer.outstanding.size();
+        }
+        return total;
+    }
+
+    /**
+     * Formats counters and latency histograms as a JSON object.
+     */
+    public String resultsJson() {
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        return String.format(Locale.ROOT,
+                "{\"elapsedSeconds\":%.1f,\"connectedClients\":%d,\"connectFailures\":%d,\"disconnects\":%d,"
+                + "\"sent\":%d,\"sendFailures\":%d,\"acked\":%d,\"nacked\":%d,\"approved\":%d,\"rejected\":%d,"
+                + "\"timedOut\":%d,\"outstanding\":%d,\"ackLatencyMicros\":%s,\"approvalLatencyMicros\":%s}",
+                elapsedSeconds, peers.size(), connectFailures.get(), disconnects.get(),
+                sent.get(), sendFailures.get(), acked.get(), nacked.get(), approved.get(), rejected.get(),
+                timedOut.get(), getOutstanding(), ackLatency.toJson(), approvalLatency.toJson());
+    }
+
+    /**
+     * One simulated client dashboard with its own connection and reader thread.
+     */
+    private class Peer {
+        private final int userId;
+        // Sent with every request, or null to send requests without one
+        private final String sessionToken;
+        // Key (job ID or VIN) -> submit time in nanoseconds, until the approval arrives
+        private final Map<String, Long> outstanding = new ConcurrentHashMap<>();
+        private Socket socket;
+        private PrintWriter out;
+        private volatile boolean open = false;
+
+        Peer(int userId, String sessionToken) {
+            this.userId = userId;
+            this.sessionToken = sessionToken;
+        }
+
+        boolean connect() {
+            try {
+                socket = new Socket();
+                socket.connect(new InetSocketAddress(config.host, config.port), 5000);
+                socket.setTcpNoDelay(true);
+                out = new PrintWriter(socket.getOutputStream(), true);
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                open = true;
+                send(Protocol.HELLO + ",0");
+                Thread reader = new Thread(() -> readLoop(in), "LoadGenerator-peer-" + userId);
+                reader.setDaemon(true);
+                reader.start();
+                return true;
+            } catch (IOException e) {
+                connectFailures.incrementAndGet();
+                logger.log(Level.FINE, "Peer " + userId + " could not connect", e);
+                return false;
+            }
+        }
+
+        void submit(String key, String message) {
+            outstanding.put(key, System.nanoTime());
+            if (send(sessionToken != null ? Protocol.withSession(sessionToken, message) : message)) {
+                sent.incrementAndGet();
+            } else {
+                outstanding.remove(key);
+                sendFailures.incrementAndGet();
+            }
+        }
+
+        private synchronized boolean send(String message) {
+            if (!open) {
+                return false;
+            }
+            out.println(message);
+            return !out.checkError();
+        }
+
+        private void readLoop(BufferedReader in) {
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    handle(line);
+                }
+            } catch (IOException e) {
+                // Closed by stop() or by the server
+            }
+            if (open) {
+                disconnects.incrementAndGet();
+                open = false;
+            }
+        }
+
+        private void handle(String line) {
+            long now = System.nanoTime();
+            if (Protocol.PING.equals(line)) {
+                send(Protocol.PONG);
+            } else if (line.startsWith("REQUEST_ACK:")) {
+                // REQUEST_ACK:<type>,<key>,<requestId>
+                String[] parts = line.substring("REQUEST_ACK:".length()).split(",");
+                Long submittedAt = parts.length >= 2 ? outstanding.get(parts[1]) : null;
+                if (submittedAt != null) {
+                    acked.incrementAndGet();
+                    ackLatency.record((now - submittedAt) / 1000);
+                }
+            } else if (line.startsWith("REQUEST_NACK:")) {
+                String[] parts = line.substring("REQUEST_NACK:".length()).split(",");
+                if (parts.length >= 2 && outstanding.remove(parts[1]) != null) {
+                    nacked.incrementAndGet();
+                }
+            } else if (line.startsWith(Protocol.EVENT)) {
+                // EVT:<seq>|APPROVAL_STATUS:<vin>,<status> or EVT:<seq>|JOB_APPROVAL_STATUS:<jobId>,<status>
+                String event = line.substring(line.indexOf('|') + 1);
+                String[] parts = event.substring(event.indexOf(':') + 1).split(",");
+                if (parts.length < 2) {
+                    return;
+                }
+                Long submittedAt = outstanding.remove(parts[0]);
+                if (submittedAt != null) {
+                    if ("approved".equals(parts[1])) {
+                        approved.incrementAndGet();
+                        approvalLatency.record((now - submittedAt) / 1000);
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }
+        }
+
+        void close() {
+            open = false;
+            try {
+                if (socket != null) socket.close();
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Error closing peer socket", e);
+            }
+        }
+    }
+}
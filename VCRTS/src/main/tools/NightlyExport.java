@@ -0,0 +1,83 @@
+package tools;
+
+import dao.ExportDAO;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Unattended export of jobs, vehicle history, the saved schedule and allocations, for
+ * running from cron or a scheduled task. Each dataset is streamed to
+ * <dir>/<dataset>-<yyyy-MM-dd>.<format>, replacing the file only once it is complete, so
+ * memory use stays flat however large the tables are.
+ *
+ * Usage: java tools.NightlyExport [--dir=exports] [--format=csv|json|both]
+ *        [--datasets=jobs,vehicles,schedule,allocations]
+ * Exits with status 1 if any dataset failed; the others are still exported.
+ */
+public class NightlyExport {
+    private static final Logger logger = Logger.getLogger(NightlyExport.class.getName());
+    // Log progress every this many rows
+    private static final long LOG_INTERVAL = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Paths.get("exports");
+        Set<ExportDAO.Format> formats = EnumSet.of(ExportDAO.Format.CSV);
+        Set<ExportDAO.Dataset> datasets = EnumSet.allOf(ExportDAO.Dataset.class);
+        for (String arg : args) {
+            if (arg.startsWith("--dir=")) {
+                dir = Paths.get(arg.substring("--dir=".length()));
+            } else if (arg.startsWith("--format=")) {
+                String format = arg.substring("--format=".length()).toUpperCase(Locale.ROOT);
+                formats = format.equals("BOTH") ? EnumSet.allOf(ExportDAO.Format.class)
+                        : EnumSet.of(ExportDAO.Format.valueOf(format));
+            } else if (arg.startsWith("--datasets=")) {
+                datasets = EnumSet.noneOf(ExportDAO.Dataset.class);
+                for (String name : arg.substring("--datasets=".length()).split(",")) {
+                    datasets.add(ExportDAO.Dataset.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        Files.createDirectories(dir);
+        String date = LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        ExportDAO exporter = new ExportDAO();
+        List<String> failed = new ArrayList<>();
+        for (ExportDAO.Dataset dataset : datasets) {
+            for (ExportDAO.Format format : formats) {
+                Path target = dir.resolve(dataset.name().toLowerCase(Locale.ROOT) + "-" + date + "." + format.getExtension());
+                long start = System.currentTimeMillis();
+                try {
+                    long rows = exporter.export(dataset, format, target, (written, total) -> {
+                        if (written % LOG_INTERVAL == 0) {
+                            System.out.println("  " + dataset.getTitle() + ": " + written
+                                    + (total >= 0 ? " of " + total : "") + " rows");
+                        }
+                        return true;
+                    });
+                    System.out.println("Exported " + rows + " rows of " + dataset.getTitle() + " to " + target
+                            + " in " + (System.currentTimeMillis() - start) + " ms");
+                } catch (Exception e) {
+                    logger.log(Level.SEVERE, "Export of " + dataset.getTitle() + " to " + target + " failed", e);
+                    failed.add(target.getFileName().toString());
+                }
+            }
+        }
+        if (!failed.isEmpty()) {
+            System.out.println("Failed: " + String.join(", ", failed));
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package tools;
+
+import dao.AuthenticationService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how many logins per second the server can verify at different PBKDF2 costs.
+ * Each run hashes a password at the given iteration count and then verifies it from
+ * several threads for a fixed time, the way AuthenticationService does on login.
+ * No database is used, so the figures are the hashing cost alone.
+ *
+ * Usage: java tools.PasswordHashBenchmark [--iterations=100000,210000,310000,600000]
+ *        [--threads=2] [--duration=10] [--report=file.json]
+ * Use --threads to match vcrts.auth.threads; duration is in seconds per cost setting.
+ */
+public class PasswordHashBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    public static void main(String[] args) throws Exception {
+        int[] iterationCounts = {100000, 210000, 310000, 600000};
+        int threads = 2;
+        long durationSeconds = 10;
+        String reportPath = null;
+        for (String arg : args) {
+            if (arg.startsWith("--iterations=")) {
+                String[] values = arg.substring("--iterations=".length()).split(",");
+                iterationCounts = new int[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    iterationCounts[i] = Integer.parseInt(values[i].trim());
+                }
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--duration=")) {
+                durationSeconds = Long.parseLong(arg.substring("--duration=".length()));
+            } else if (arg.startsWith("--report=")) {
+                reportPath = arg.substring("--report=".length());
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        List<String> results = new ArrayList<>();
+        for (int iterations : iterationCounts) {
+            results.add(run(iterations, threads, durationSeconds));
+        }
+        Json.write(String.format(Locale.ROOT, "{\"threads\":%d,\"durationSeconds\":%d,\"availableProcessors\":%d,\"results\":[%s]}",
+                threads, durationSeconds, Runtime.getRuntime().availableProcessors(), String.join(",", results)), reportPath);
+    }
+
+    private static String run(int iterations, int threads, long durationSeconds) throws InterruptedException {
+        String stored = new AuthenticationService(null, iterations, 1, 1).hashPassword(PASSWORD);
+        // One untimed verification so class loading and JIT warm-up are not counted
+        AuthenticationService.verifyPassword(PASSWORD, stored);
+
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong failures = new AtomicLong();
+        long deadline = System.nanoTime() + durationSeconds * 1_000_000_000L;
+        List<Thread> workers = new ArrayList<>();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    if (!AuthenticationService.verifyPassword(PASSWORD, stored)) {
+                        failures.incrementAndGet();
+                    }
+                    latency.record((System.nanoTime() - start) / 1000);
+                }
+            }, "PasswordHashBenchmark-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        // Progress goes to stderr so the JSON report on stdout stays parseable
+        System.err.printf(Locale.ROOT, "iterations=%d: %.1f logins/s, p50=%.1f ms, p99=%.1f ms%n",
+                iterations, latency.getCount() / elapsedSeconds,
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0);
+        return String.format(Locale.ROOT, "{\"iterations\":%d,\"verifications\":%d,\"failures\":%d,\"loginsPerSecond\":%.2f,\"latencyMicros\":%s}",
+                iterations, latency.getCount(), failures.get(), latency.getCount() / elapsedSeconds, latency.toJson());
+    }
+}
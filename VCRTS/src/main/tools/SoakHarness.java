@@ -0,0 +1,154 @@
+package tools;
+
+import dao.PendingRequestQueue;
+import models.Job;
+import models.PendingRequest;
+import models.User;
+import models.Vehicle;
+import net.ConnectionMetrics;
+import net.ControllerServer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Long-running soak test for the Cloud Controller socket server.
+ * Starts an in-process ControllerServer on a free port with a temporary pending-request
+ * journal and an auto-approver (no database writes), drives it with the LoadGenerator,
+ * whose simulated users get login sessions from the server's session service, and
+ * samples client handler count, queue size, heap and thread usage at a fixed interval
+ * so leaks show up as steady growth across samples.
+ *
+ * Usage: java tools.SoakHarness [--sampleInterval=60] [--approvalDelayMs=0] [LoadGenerator options]
+ * --duration defaults to 3600 seconds here; the report is JSON (stdout or --report=file).
+ */
+public class SoakHarness {
+    private static final Logger logger = Logger.getLogger(SoakHarness.class.getName());
+
+    private final LoadGenerator.Config loadConfig;
+    private final long sampleIntervalSeconds;
+    private final long approvalDelayMs;
+    private final List<String> samples = new ArrayList<>();
+    private final Runtime runtime = Runtime.getRuntime();
+    private long startedAt;
+
+    private ControllerServer server;
+    private PendingRequestQueue queue;
+    private LoadGenerator generator;
+    private ScheduledExecutorService approver;
+
+    public SoakHarness(LoadGenerator.Config loadConfig, long sampleIntervalSeconds, long approvalDelayMs) {
+        this.loadConfig = loadConfig;
+        this.sampleIntervalSeconds = sampleIntervalSeconds;
+        this.approvalDelayMs = approvalDelayMs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadGenerator.Config config = new LoadGenerator.Config();
+        config.durationSeconds = 3600;
+        long sampleInterval = 60;
+        long approvalDelayMs = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--sampleInterval=")) {
+                sampleInterval = Long.parseLong(arg.substring("--sampleInterval=".length()));
+            } else if (arg.startsWith("--approvalDelayMs=")) {
+                approvalDelayMs = Long.parseLong(arg.substring("--approvalDelayMs=".length()));
+            } else if (!config.apply(arg)) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        new SoakHarness(config, sampleInterval, approvalDelayMs).run();
+    }
+
+    /**
+     * Runs the soak for the configured duration and writes the report.
+     */
+    public void run() throws IOException, InterruptedException {
+        Path workDir = Files.createTempDirectory("vcrts-soak");
+        queue = new PendingRequestQueue(workDir.resolve("pending_requests.journal"));
+        server = new ControllerServer(0, queue, userId -> "User ID: " + userId + " (load test)");
+        approver = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SoakHarness-approver");
+            t.setDaemon(true);
+            return t;
+        });
+        server.addListener(request -> approver.schedule(() -> approve(request), approvalDelayMs, TimeUnit.MILLISECONDS));
+        server.start();
+
+        loadConfig.host = "localhost";
+        loadConfig.port = server.getLocalPort();
+        generator = new LoadGenerator(loadConfig);
+        // Requests without a session token are refused, so each simulated user is given one
+        generator.setSessionIssuer(userId -> {
+            User user = new User("Load test user " + userId, null, "vehicle_owner,job_owner", null);
+            user.setUserId(userId);
+            return server.getSessionService().issue(user).getToken();
+        });
+
+        startedAt = System.nanoTime();
+        generator.start();
+        sample();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(this::sample, sampleIntervalSeconds, sampleIntervalSeconds, TimeUnit.SECONDS);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(loadConfig.durationSeconds));
+
+        sampler.shutdownNow();
+        generator.stop();
+        // Give the server a moment to notice the closed connections and drain approvals
+        Thread.sleep(2000);
+        sample();
+        approver.shutdownNow();
+        server.stop();
+        queue.close();
+
+        Json.write(report(), loadConfig.reportPath);
+        logger.info("Soak finished; temporary journal left in " + workDir);
+    }
+
+    // Approves a request the way the dashboard does, minus the database write
+    private void approve(PendingRequest request) {
+        if (queue.remove(request.getRequestId()) == null) {
+            return;
+        }
+        if (request.getType() == PendingRequest.RequestType.JOB) {
+            server.broadcast("JOB_APPROVAL_STATUS:" + ((Job) request.getData()).getJobId() + ",approved");
+        } else {
+            server.broadcast("APPROVAL_STATUS:" + ((Vehicle) request.getData()).getVin() + ",approved");
+        }
+    }
+
+    private synchronized void sample() {
+        ConnectionMetrics metrics = server.getConnectionMetrics();
+        samples.add(String.format(Locale.ROOT,
+                "{\"elapsedSeconds\":%.1f,\"clientHandlers\":%d,\"sessions\":%d,\"loginSessions\":%d,\"pendingRequests\":%d,"
+                + "\"connectionsOpened\":%d,\"connectionsClosed\":%d,\"connectionsReaped\":%d,"
+                + "\"heapUsedBytes\":%d,\"threads\":%d,\"sent\":%d,\"approved\":%d,\"outstanding\":%d}",
+                (System.nanoTime() - startedAt) / 1e9, server.getClientCount(), server.getSessionCount(),
+                server.getSessionService().getSessionCount(), queue.size(),
+                metrics.getOpened(), metrics.getClosed(), metrics.getReaped(),
+                runtime.totalMemory() - runtime.freeMemory(), Thread.activeCount(),
+                generator.getSent(), generator.getApproved(), generator.getOutstanding()));
+    }
+
+    private synchronized String report() {
+        ConnectionMetrics metrics = server.getConnectionMetrics();
+        return String.format(Locale.ROOT,
+                "{\"config\":%s,\"sampleIntervalSeconds\":%d,\"approvalDelayMs\":%d,\"results\":%s,"
+                + "\"server\":{\"connectionsOpened\":%d,\"connectionsClosed\":%d,\"connectionsReaped\":%d,"
+                + "\"bytesIn\":%d,\"bytesOut\":%d,\"finalClientHandlers\":%d,\"finalPendingRequests\":%d},"
+                + "\"samples\":[%s]}",
+                loadConfig.toJson(), sampleIntervalSeconds, approvalDelayMs, generator.resultsJson(),
+                metrics.getOpened(), metrics.getClosed(), metrics.getReaped(),
+                metrics.getBytesIn(), metrics.getBytesOut(), server.getClientCount(), queue.size(),
+                String.join(",", samples));
+    }
+}